@@ -0,0 +1,103 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+import tm.ugur.ugur_v3.application.shared.executor.AsyncUseCaseExecutor.ExecutionPriority;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ugur.async-executor")
+public class AsyncExecutorConfig {
+
+    @Valid
+    private Map<ExecutionPriority, LaneConfig> lanes = defaultLanes();
+
+    @Min(1) @Max(100000)
+    private int queryCacheMaxEntries = 5000;
+
+    @NotNull
+    private Duration batchDeadline = Duration.ofMinutes(2);
+
+    @Valid
+    private RetryConfig retry = new RetryConfig();
+
+    public LaneConfig lane(ExecutionPriority priority) {
+        return lanes.getOrDefault(priority, defaultLanes().get(priority));
+    }
+
+    @Data
+    public static class LaneConfig {
+
+        @Min(1) @Max(100000)
+        private int maxConcurrent;
+
+        @Min(1) @Max(1000000)
+        private int maxQueued;
+
+        @NotNull
+        private Duration deadline;
+
+        public LaneConfig() {
+        }
+
+        public LaneConfig(int maxConcurrent, int maxQueued, Duration deadline) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+            this.deadline = deadline;
+        }
+    }
+
+    @Data
+    public static class RetryConfig {
+
+        @NotNull
+        private Duration maxDelay = Duration.ofSeconds(30);
+
+        @DecimalMin("0.0") @DecimalMax("1.0")
+        private double budgetRatio = 0.1;
+
+        @Min(0) @Max(10000)
+        private int minRetriesPerSecond = 5;
+
+        @Min(1) @Max(300)
+        private int budgetWindowSeconds = 10;
+
+        private boolean hedgingEnabled = true;
+
+        @DecimalMin("0.5") @DecimalMax("0.999")
+        private double hedgePercentile = 0.95;
+
+        @NotNull
+        private Duration minHedgeDelay = Duration.ofMillis(20);
+
+        @NotNull
+        private Duration initialHedgeDelay = Duration.ofMillis(200);
+
+        @Min(16) @Max(10000)
+        private int latencySampleSize = 512;
+
+        @NotNull
+        private Duration timerTick = Duration.ofMillis(10);
+
+        @Min(16) @Max(65536)
+        private int timerWheelSize = 512;
+    }
+
+    private static Map<ExecutionPriority, LaneConfig> defaultLanes() {
+        Map<ExecutionPriority, LaneConfig> lanes = new EnumMap<>(ExecutionPriority.class);
+        lanes.put(ExecutionPriority.CRITICAL, new LaneConfig(200, 2000, Duration.ofSeconds(5)));
+        lanes.put(ExecutionPriority.HIGH, new LaneConfig(200, 5000, Duration.ofSeconds(10)));
+        lanes.put(ExecutionPriority.NORMAL, new LaneConfig(100, 10000, Duration.ofSeconds(30)));
+        lanes.put(ExecutionPriority.LOW, new LaneConfig(20, 10000, Duration.ofMinutes(5)));
+        return lanes;
+    }
+}
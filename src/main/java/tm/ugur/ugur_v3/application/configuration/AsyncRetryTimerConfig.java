@@ -0,0 +1,24 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import io.netty.util.HashedWheelTimer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AsyncRetryTimerConfig {
+
+    // The wheel only schedules: retry and hedge tasks hand their work to the retry wrapper's executor
+    @Bean(destroyMethod = "stop")
+    public HashedWheelTimer retryTimer(AsyncExecutorConfig executorConfig) {
+        AsyncExecutorConfig.RetryConfig retry = executorConfig.getRetry();
+
+        return new HashedWheelTimer(
+                Thread.ofPlatform().name("usecase-retry-timer").daemon(true).factory(),
+                retry.getTimerTick().toMillis(),
+                TimeUnit.MILLISECONDS,
+                retry.getTimerWheelSize()
+        );
+    }
+}
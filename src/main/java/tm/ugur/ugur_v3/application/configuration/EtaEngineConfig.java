@@ -0,0 +1,46 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ugur.eta-engine")
+public class EtaEngineConfig {
+
+    // Observations after which an older traversal counts half as much as the newest one
+    @Min(1) @Max(100000)
+    private int decayHalfLife = 200;
+
+    // Weight of the RouteSegment timetable prior, in observations, when blending it with learned quantiles
+    @DecimalMin("0.0") @DecimalMax("1000.0")
+    private double priorWeight = 5.0;
+
+    @NotNull
+    private Duration dwellTime = Duration.ofSeconds(20);
+
+    @DecimalMin("1.0") @DecimalMax("120.0")
+    private double defaultSpeedKmh = 20.0;
+
+    // Below this the reported speed is treated as standing in traffic and the default speed is used
+    @DecimalMin("0.0") @DecimalMax("50.0")
+    private double minUsableSpeedKmh = 5.0;
+
+    @DecimalMin("5.0") @DecimalMax("1000.0")
+    private double stopMatchRadiusMeters = 75.0;
+
+    @NotNull
+    private Duration minTraversal = Duration.ofSeconds(5);
+
+    @NotNull
+    private Duration maxTraversal = Duration.ofHours(3);
+
+    @NotNull
+    private Duration timelineRefreshInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,33 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ugur.fleet-snapshot")
+public class FleetSnapshotConfig {
+
+    // About 5.5 km of latitude; only tiles touched since the last build are re-encoded
+    @DecimalMin("0.001") @DecimalMax("1.0")
+    private double tileSizeDegrees = 0.05;
+
+    // Fallback when no ingest cycle reports completion; a clean snapshot is never rebuilt
+    @NotNull
+    private Duration rebuildInterval = Duration.ofSeconds(1);
+
+    @NotNull
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    private boolean binaryEnabled = true;
+
+    // Bodies smaller than this are served uncompressed
+    @Min(0) @Max(65536)
+    private int gzipMinBytes = 512;
+}
@@ -0,0 +1,30 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ugur.gtfs-realtime")
+public class GtfsRealtimeConfig {
+
+    // Fallback when no ingest cycle reports completion; nothing is re-encoded while the fleet is unchanged
+    @NotNull
+    private Duration buildInterval = Duration.ofSeconds(1);
+
+    @NotNull
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    // Builds a differential request may reach back over; older clients get the full dataset
+    @Min(1) @Max(10000)
+    private int differentialRetention = 120;
+
+    @Min(1) @Max(200)
+    private int maxStopTimeUpdates = 30;
+}
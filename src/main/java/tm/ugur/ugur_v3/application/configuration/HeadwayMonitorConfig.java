@@ -0,0 +1,48 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ugur.headway-monitor")
+public class HeadwayMonitorConfig {
+
+    private boolean enabled = true;
+
+    // Actual over planned headway below which a vehicle counts as bunched behind its leader
+    @DecimalMin("0.05") @DecimalMax("1.0")
+    private double bunchingRatio = 0.5;
+
+    // Actual over planned headway above which the gap in front of a vehicle is reported
+    @DecimalMin("1.0") @DecimalMax("10.0")
+    private double gapRatio = 1.5;
+
+    // Ratio has to come back this far inside the thresholds before the vehicle is reported restored
+    @DecimalMin("0.0") @DecimalMax("0.5")
+    private double recoveryMargin = 0.1;
+
+    // Recent (measure, time) samples kept per vehicle to time when the leader passed the follower's position
+    @Min(4) @Max(1024)
+    private int trailSize = 64;
+
+    // Used when the follower is standing still and the leader's trail does not reach back far enough
+    @DecimalMin("1.0") @DecimalMax("120.0")
+    private double defaultSpeedKmh = 20.0;
+
+    // A measure this far behind the previous one is a new trip, not GPS noise
+    @DecimalMin("10.0") @DecimalMax("100000.0")
+    private double tripRestartMeters = 500.0;
+
+    @NotNull
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    @NotNull
+    private Duration publishInterval = Duration.ofSeconds(2);
+}
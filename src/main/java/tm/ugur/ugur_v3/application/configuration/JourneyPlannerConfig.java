@@ -0,0 +1,49 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ugur.journey-planner")
+public class JourneyPlannerConfig {
+
+    // Rounds of the search; a journey with n transfers needs n + 1 rounds
+    @Min(0) @Max(8)
+    private int maxTransfers = 4;
+
+    @DecimalMin("1.0") @DecimalMax("10.0")
+    private double walkSpeedKmh = 4.8;
+
+    // Straight-line distance is multiplied by this to approximate the walk along streets
+    @DecimalMin("1.0") @DecimalMax("3.0")
+    private double walkDetourFactor = 1.3;
+
+    @DecimalMin("50.0") @DecimalMax("5000.0")
+    private double maxAccessWalkMeters = 800.0;
+
+    @DecimalMin("0.0") @DecimalMax("2000.0")
+    private double maxTransferWalkMeters = 300.0;
+
+    @NotNull
+    private Duration minTransferTime = Duration.ofMinutes(1);
+
+    @NotNull
+    private Duration dwellTime = Duration.ofSeconds(20);
+
+    // Segments without timetable durations are timed at this speed
+    @DecimalMin("1.0") @DecimalMax("120.0")
+    private double defaultSpeedKmh = 20.0;
+
+    @NotNull
+    private Duration timetableRefreshInterval = Duration.ofMinutes(15);
+
+    @Min(1) @Max(20)
+    private int maxResults = 5;
+}
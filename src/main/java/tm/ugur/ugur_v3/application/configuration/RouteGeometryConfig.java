@@ -0,0 +1,31 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ugur.route-geometry")
+public class RouteGeometryConfig {
+
+    // Stretch of route around the vehicle's previous measure searched before the whole route is
+    @DecimalMin("50.0") @DecimalMax("10000.0")
+    private double searchWindowMeters = 500.0;
+
+    // Farther than this from the polyline the vehicle is reported off route
+    @DecimalMin("5.0") @DecimalMax("1000.0")
+    private double offRouteMeters = 60.0;
+
+    // Measure hints of vehicles that stopped reporting are dropped after this
+    @NotNull
+    private Duration hintTtl = Duration.ofMinutes(10);
+
+    @NotNull
+    private Duration maintenanceInterval = Duration.ofMinutes(1);
+}
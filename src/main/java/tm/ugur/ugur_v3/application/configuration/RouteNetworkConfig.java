@@ -0,0 +1,25 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ugur.route-network")
+public class RouteNetworkConfig {
+
+    @NotNull
+    private Duration refreshInterval = Duration.ofMinutes(15);
+
+    @NotNull
+    private Duration loadTimeout = Duration.ofSeconds(30);
+
+    @NotNull
+    private Duration scheduleRefreshInterval = Duration.ofMinutes(15);
+}
@@ -0,0 +1,48 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ugur.schedule-adherence")
+public class ScheduleAdherenceConfig {
+
+    private boolean enabled = true;
+
+    // Used when the route's schedule sets no maxEarlyDepartureMinutes / maxDelayMinutes of its own
+    @NotNull
+    private Duration earlyTolerance = Duration.ofMinutes(1);
+
+    @NotNull
+    private Duration lateTolerance = Duration.ofMinutes(5);
+
+    // A vehicle is only matched to a trip planned within this much of its first observed departure
+    @NotNull
+    private Duration maxMatchOffset = Duration.ofMinutes(20);
+
+    // Departures further apart than this are not the same trip, and the vehicle is matched afresh
+    @NotNull
+    private Duration tripTimeout = Duration.ofMinutes(30);
+
+    // Most recent departures per route that the adherence percentage is computed over
+    @Min(10) @Max(100000)
+    private int windowSize = 200;
+
+    // A trip whose first departure was planned this long ago and that no vehicle was matched to is missed
+    @NotNull
+    private Duration missedAfter = Duration.ofMinutes(15);
+
+    // How often the windows are pushed into RouteSchedule.updatePerformanceMetrics
+    @NotNull
+    private Duration flushInterval = Duration.ofMinutes(1);
+
+    @NotNull
+    private Duration staleAfter = Duration.ofHours(1);
+}
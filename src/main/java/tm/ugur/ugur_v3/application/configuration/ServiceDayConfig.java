@@ -0,0 +1,20 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.*;
+import java.time.ZoneId;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ugur.service-day")
+public class ServiceDayConfig {
+
+    // Zone the timetables are written in; every service day, hour-of-week and start date is taken in it
+    @NotNull
+    private ZoneId timeZone = ZoneId.of("Asia/Ashgabat");
+}
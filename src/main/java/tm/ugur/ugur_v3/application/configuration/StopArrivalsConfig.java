@@ -0,0 +1,42 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ugur.stop-arrivals")
+public class StopArrivalsConfig {
+
+    // Arrivals kept per stop; anything further out is dropped from the board
+    @Min(1) @Max(500)
+    private int maxArrivalsPerBoard = 30;
+
+    @Min(1) @Max(500)
+    private int defaultLimit = 10;
+
+    // ETA moves smaller than this do not touch the board
+    @NotNull
+    private Duration minEtaChange = Duration.ofSeconds(5);
+
+    // How long an arrival stays listed past its predicted time when the vehicle stops reporting
+    @NotNull
+    private Duration overdueGrace = Duration.ofMinutes(2);
+
+    @NotNull
+    private Duration maintenanceInterval = Duration.ofSeconds(10);
+
+    private boolean redisEnabled = true;
+
+    @NotNull
+    private Duration redisPublishInterval = Duration.ofSeconds(2);
+
+    @NotNull
+    private Duration redisTtl = Duration.ofMinutes(2);
+}
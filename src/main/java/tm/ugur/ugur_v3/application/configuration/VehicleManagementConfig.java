@@ -165,6 +165,11 @@ public class VehicleManagementConfig {
             private Duration locationUpdateCooldown = Duration.ofSeconds(5);
 
             private boolean enableLocationHistoryTracking = true;
+
+            // A vehicle silent for longer starts a new tracking session; keep it at or below the history
+            // archive's session-idle-threshold so an archived session never receives more points
+            @NotNull
+            private Duration trackingSessionGap = Duration.ofMinutes(30);
             private boolean enableMovementAnalysis = true;
         }
 
@@ -0,0 +1,32 @@
+package tm.ugur.ugur_v3.application.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "ugur.vehicle-stream")
+public class VehicleStreamConfig {
+
+    // About 1.1 km of latitude; every subscriber of a tile shares the same encoded frames
+    @DecimalMin("0.001") @DecimalMax("1.0")
+    private double tileSizeDegrees = 0.01;
+
+    @NotNull
+    private Duration frameInterval = Duration.ofMillis(500);
+
+    @Min(1) @Max(10000)
+    private int maxTilesPerViewport = 400;
+
+    @NotNull
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    @NotNull
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
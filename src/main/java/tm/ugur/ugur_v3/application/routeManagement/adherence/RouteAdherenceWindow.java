@@ -0,0 +1,86 @@
+package tm.ugur.ugur_v3.application.routeManagement.adherence;
+
+import tm.ugur.ugur_v3.application.routeManagement.adherence.ScheduleAdherenceEngine.Outcome;
+import tm.ugur.ugur_v3.application.routeManagement.journey.JourneyPlanner.PlannedTrips;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+
+// The last windowSize departures of one route in a ring, with running counts per outcome and a running
+// deviation sum, so recording and reading are O(1) whatever the window size. Also remembers which trips
+// of the current service day a vehicle was matched to, for missed-trip counting.
+final class RouteAdherenceWindow {
+
+    private final byte[] outcomes;
+    private final int[] deviations;
+    private final int[] counts = new int[Outcome.values().length];
+    private int head;
+    private int size;
+    private long deviationSum;
+    private long lastDepartureMillis;
+
+    private LocalDate serviceDay;
+    private final BitSet servedTrips = new BitSet();
+    private int reportedMissed = -1;
+
+    RouteAdherenceWindow(int windowSize) {
+        this.outcomes = new byte[windowSize];
+        this.deviations = new int[windowSize];
+    }
+
+    synchronized void record(LocalDate day, int trip, Outcome outcome, int deviationSeconds, long departedAtMillis) {
+        if (!day.equals(serviceDay)) {
+            serviceDay = day;
+            servedTrips.clear();
+        }
+        servedTrips.set(trip);
+
+        if (size == outcomes.length) {
+            counts[outcomes[head]]--;
+            deviationSum -= deviations[head];
+        } else {
+            size++;
+        }
+        outcomes[head] = (byte) outcome.ordinal();
+        deviations[head] = deviationSeconds;
+        head = head + 1 == outcomes.length ? 0 : head + 1;
+        counts[outcome.ordinal()]++;
+        deviationSum += deviationSeconds;
+        lastDepartureMillis = Math.max(lastDepartureMillis, departedAtMillis);
+    }
+
+    // Trips of the day planned to leave their first stop no later than cutoffSecond with no vehicle matched
+    synchronized int missedTrips(PlannedTrips plan, LocalDate day, int cutoffSecond) {
+        boolean today = day.equals(serviceDay);
+        int missed = 0;
+        for (int trip = 0; trip < plan.tripCount() && plan.time(trip, 0) <= cutoffSecond; trip++) {
+            if (!today || !servedTrips.get(trip)) {
+                missed++;
+            }
+        }
+        return missed;
+    }
+
+    // True when the count differs from the one last pushed to the schedule
+    synchronized boolean reportMissed(int missed) {
+        boolean changed = missed != reportedMissed;
+        reportedMissed = missed;
+        return changed;
+    }
+
+    synchronized Snapshot snapshot() {
+        return new Snapshot(counts[Outcome.EARLY.ordinal()], counts[Outcome.ON_TIME.ordinal()],
+                counts[Outcome.LATE.ordinal()], size > 0 ? (double) deviationSum / size : 0.0, lastDepartureMillis);
+    }
+
+    record Snapshot(int early, int onTime, int late, double averageDeviationSeconds, long lastDepartureMillis) {
+
+        int total() {
+            return early + onTime + late;
+        }
+
+        double onTimePercentage() {
+            return total() > 0 ? 100.0 * onTime / total() : 0.0;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package tm.ugur.ugur_v3.application.routeManagement.adherence;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tm.ugur.ugur_v3.application.configuration.ScheduleAdherenceConfig;
+import tm.ugur.ugur_v3.application.configuration.ServiceDayConfig;
+import tm.ugur.ugur_v3.application.routeManagement.adherence.RouteAdherenceWindow.Snapshot;
+import tm.ugur.ugur_v3.application.routeManagement.journey.JourneyPlanner;
+import tm.ugur.ugur_v3.application.routeManagement.journey.JourneyPlanner.PlannedTrips;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteScheduleCatalog;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.vehicleManagement.eta.SegmentSpeedProfileEtaService;
+import tm.ugur.ugur_v3.application.vehicleManagement.eta.SegmentSpeedProfileEtaService.StopDepartureListener;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.RouteSchedule;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventPublisher;
+import tm.ugur.ugur_v3.domain.shared.exceptions.BusinessRuleViolationException;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Schedule adherence as departures stream in. Each observed stop departure is matched to a planned trip
+// of the route's compiled timetable: the nearest one at the vehicle's first stop, then the same trip for
+// as long as the vehicle keeps moving down the route. Early / on-time / late outcomes go into a fixed-size
+// window per route, and the windows are pushed into RouteSchedule.updatePerformanceMetrics in one batch
+// per flush interval rather than per departure.
+@Slf4j
+@Component
+public class ScheduleAdherenceEngine {
+
+    private final SegmentSpeedProfileEtaService etaService;
+    private final JourneyPlanner journeyPlanner;
+    private final RouteScheduleCatalog scheduleCatalog;
+    private final ScheduleAdherenceConfig config;
+    private final ZoneId timeZone;
+    private final PerformanceMonitor performanceMonitor;
+
+    private final StopDepartureListener listener = this::departed;
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+    private final Session live = new Session();
+
+    public ScheduleAdherenceEngine(SegmentSpeedProfileEtaService etaService,
+                                   JourneyPlanner journeyPlanner,
+                                   RouteScheduleCatalog scheduleCatalog,
+                                   ScheduleAdherenceConfig config,
+                                   ServiceDayConfig serviceDay,
+                                   PerformanceMonitor performanceMonitor) {
+        this.etaService = etaService;
+        this.journeyPlanner = journeyPlanner;
+        this.scheduleCatalog = scheduleCatalog;
+        this.config = config;
+        this.timeZone = serviceDay.getTimeZone();
+        this.performanceMonitor = performanceMonitor;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (config.isEnabled()) {
+            etaService.addStopDepartureListener(listener);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        etaService.removeStopDepartureListener(listener);
+    }
+
+    // ============= DEPARTURES =============
+
+    // Entry point for departures detected elsewhere; returns null when the departure matched no planned trip
+    public Outcome departed(String vehicleId, String routeId, StopId stopId, long departedAtMillis) {
+        Outcome outcome = live.record(vehicleId, routeId, stopId, departedAtMillis);
+        performanceMonitor.incrementCounter(outcome != null
+                ? "schedule.adherence.departures." + outcome.name().toLowerCase()
+                : "schedule.adherence.unmatched");
+        return outcome;
+    }
+
+    // ============= READS =============
+
+    public Optional<AdherenceSummary> adherence(String routeId) {
+        RouteAdherenceWindow window = live.windows.get(routeId);
+        if (window == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        return Optional.of(summary(routeId, window, ServiceDay.of(now, timeZone), now));
+    }
+
+    // ============= FLUSH =============
+
+    // Every scheduled route whose window took departures, or whose missed-trip count moved, gets one
+    // updatePerformanceMetrics call; the passenger load factor is not measured here and is passed through
+    @Scheduled(fixedDelayString = "${ugur.schedule-adherence.flush-interval:1m}")
+    public void flush() {
+        if (!config.isEnabled() || !flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long startTime = System.nanoTime();
+            long now = System.currentTimeMillis();
+            ServiceDay today = ServiceDay.of(now, timeZone);
+            int cutoff = missedCutoff(today, now);
+            Set<String> changed = live.drainChanged();
+
+            List<RouteSchedule> updated = new ArrayList<>();
+            for (RouteSchedule schedule : scheduleCatalog.schedules()) {
+                String routeId = schedule.getRouteId().getValue();
+                RouteAdherenceWindow window = live.window(routeId);
+                int missed = journeyPlanner.plannedTrips(routeId, today.dayOfWeek())
+                        .map(plan -> window.missedTrips(plan, today.date(), cutoff))
+                        .orElse(0);
+                if (!window.reportMissed(missed) && !changed.contains(routeId)) {
+                    continue;
+                }
+
+                Snapshot snapshot = window.snapshot();
+                double adherence = snapshot.total() > 0 ? snapshot.onTimePercentage() : schedule.getScheduleAdherence();
+                try {
+                    schedule.updatePerformanceMetrics(adherence, missed, schedule.getPassengerLoadFactor());
+                    updated.add(schedule);
+                } catch (BusinessRuleViolationException e) {
+                    log.warn("Rejected adherence update for route {}: {}", routeId, e.getMessage());
+                }
+            }
+
+            publish(updated);
+            performanceMonitor.incrementCounter("schedule.adherence.flushed_routes", updated.size());
+            performanceMonitor.recordTime("schedule.adherence.flush", Duration.ofNanos(System.nanoTime() - startTime));
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    // The schedules are updated in place; their events are published here, off the location event thread
+    private void publish(List<RouteSchedule> updated) {
+        if (updated.isEmpty()) {
+            return;
+        }
+        DomainEventPublisher publisher = DomainEventPublisher.instance();
+        for (RouteSchedule schedule : updated) {
+            schedule.getDomainEvents().forEach(publisher::raise);
+            schedule.clearDomainEvents();
+        }
+        publisher.publishAll();
+    }
+
+    @Scheduled(fixedDelayString = "${ugur.schedule-adherence.stale-after:1h}")
+    public void evictStale() {
+        long cutoff = System.currentTimeMillis() - config.getStaleAfter().toMillis();
+        int before = live.vehicles.size();
+        live.vehicles.values().removeIf(trip -> trip.departedAtMillis() < cutoff);
+
+        performanceMonitor.incrementCounter("schedule.adherence.evicted", before - live.vehicles.size());
+        performanceMonitor.recordGauge("schedule.adherence.vehicles", live.vehicles.size());
+        performanceMonitor.recordGauge("schedule.adherence.routes", live.windows.size());
+    }
+
+    // ============= MATCHING =============
+
+    // Trip assignments and windows of the live stream of departures
+    private final class Session {
+
+        private final Map<String, VehicleTrip> vehicles = new ConcurrentHashMap<>();
+        private final Map<String, RouteAdherenceWindow> windows = new ConcurrentHashMap<>();
+        private final Set<String> changed = ConcurrentHashMap.newKeySet();
+        // Departures arrive in time order, so the service day is almost always the previous one's
+        private volatile ServiceDay serviceDay;
+
+        Outcome record(String vehicleId, String routeId, StopId stopId, long departedAtMillis) {
+            ServiceDay day = serviceDay(departedAtMillis);
+            PlannedTrips plan = journeyPlanner.plannedTrips(routeId, day.dayOfWeek()).orElse(null);
+            if (plan == null || plan.tripCount() == 0) {
+                return null;
+            }
+            int second = day.secondOf(departedAtMillis);
+
+            VehicleTrip current = vehicles.get(vehicleId);
+            int position = -1;
+            int trip = -1;
+            if (current != null && current.routeId().equals(routeId) && current.date().equals(day.date())
+                    && current.trip() < plan.tripCount()
+                    && departedAtMillis - current.departedAtMillis() <= config.getTripTimeout().toMillis()) {
+                position = plan.positionOf(stopId, current.position() + 1);
+                trip = current.trip();
+            }
+            if (position < 0) {
+                // First departure of a trip, or the vehicle went back to the start: take the nearest planned trip
+                position = plan.positionOf(stopId, 0);
+                trip = position >= 0 ? plan.nearestTrip(position, second) : -1;
+                if (trip < 0 || Math.abs(second - plan.time(trip, position)) > config.getMaxMatchOffset().toSeconds()) {
+                    vehicles.remove(vehicleId);
+                    return null;
+                }
+            }
+
+            int deviation = second - plan.time(trip, position);
+            Outcome outcome = classify(routeId, deviation);
+            vehicles.put(vehicleId, new VehicleTrip(routeId, day.date(), trip, position, departedAtMillis));
+            window(routeId).record(day.date(), trip, outcome, deviation, departedAtMillis);
+            changed.add(routeId);
+            return outcome;
+        }
+
+        RouteAdherenceWindow window(String routeId) {
+            return windows.computeIfAbsent(routeId, id -> new RouteAdherenceWindow(config.getWindowSize()));
+        }
+
+        Set<String> drainChanged() {
+            Set<String> drained = new HashSet<>();
+            for (String routeId : changed) {
+                if (changed.remove(routeId)) {
+                    drained.add(routeId);
+                }
+            }
+            return drained;
+        }
+
+        private ServiceDay serviceDay(long epochMillis) {
+            ServiceDay day = serviceDay;
+            if (day == null || !day.contains(epochMillis)) {
+                day = ServiceDay.of(epochMillis, timeZone);
+                serviceDay = day;
+            }
+            return day;
+        }
+    }
+
+    // The schedule's own tolerances win over the configured defaults
+    private Outcome classify(String routeId, int deviationSeconds) {
+        RouteSchedule schedule = scheduleCatalog.scheduleFor(routeId).orElse(null);
+        long earlySeconds = schedule != null && schedule.getMaxEarlyDepartureMinutes() > 0
+                ? schedule.getMaxEarlyDepartureMinutes() * 60L
+                : config.getEarlyTolerance().toSeconds();
+        long lateSeconds = schedule != null && schedule.getMaxDelayMinutes() > 0
+                ? schedule.getMaxDelayMinutes() * 60L
+                : config.getLateTolerance().toSeconds();
+
+        if (deviationSeconds < -earlySeconds) {
+            return Outcome.EARLY;
+        }
+        return deviationSeconds > lateSeconds ? Outcome.LATE : Outcome.ON_TIME;
+    }
+
+    private int missedCutoff(ServiceDay day, long epochMillis) {
+        return day.secondOf(epochMillis) - (int) config.getMissedAfter().toSeconds();
+    }
+
+    private AdherenceSummary summary(String routeId, RouteAdherenceWindow window, ServiceDay day, long asOfMillis) {
+        int cutoff = missedCutoff(day, asOfMillis);
+        int missed = journeyPlanner.plannedTrips(routeId, day.dayOfWeek())
+                .map(plan -> window.missedTrips(plan, day.date(), cutoff))
+                .orElse(0);
+        Snapshot snapshot = window.snapshot();
+        return new AdherenceSummary(routeId, snapshot.early(), snapshot.onTime(), snapshot.late(),
+                snapshot.onTimePercentage(), snapshot.averageDeviationSeconds(), missed,
+                snapshot.lastDepartureMillis() > 0 ? Instant.ofEpochMilli(snapshot.lastDepartureMillis()) : null);
+    }
+
+    // Stop times count seconds from the start of the service day, as the compiled timetable does
+    private record ServiceDay(LocalDate date, DayOfWeek dayOfWeek, long startMillis, long endMillis) {
+
+        static ServiceDay of(long epochMillis, ZoneId zone) {
+            LocalDate date = Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+            return new ServiceDay(date, date.getDayOfWeek(), date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                    date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+        }
+
+        boolean contains(long epochMillis) {
+            return epochMillis >= startMillis && epochMillis < endMillis;
+        }
+
+        int secondOf(long epochMillis) {
+            return (int) ((epochMillis - startMillis) / 1000);
+        }
+    }
+
+    private record VehicleTrip(String routeId, LocalDate date, int trip, int position, long departedAtMillis) {}
+
+    public enum Outcome {
+        EARLY, ON_TIME, LATE
+    }
+
+    // averageDeviationSeconds is positive when the route runs behind schedule
+    public record AdherenceSummary(
+            String routeId,
+            int early,
+            int onTime,
+            int late,
+            double onTimePercentage,
+            double averageDeviationSeconds,
+            int missedTrips,
+            Instant lastDeparture
+    ) {}
+}
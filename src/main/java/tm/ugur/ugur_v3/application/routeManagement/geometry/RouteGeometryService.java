@@ -0,0 +1,190 @@
+package tm.ugur.ugur_v3.application.routeManagement.geometry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tm.ugur.ugur_v3.application.configuration.RouteGeometryConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteGeometry;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteGeometry.Projection;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.vehicleManagement.services.RouteProgressService.RouteStop;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Linear referencing for the progress and remaining-route calculations. Geometry is packed once per
+// route polyline and stop measures once per stop list; every fix is then a projection that starts from
+// the vehicle's previous measure, so loops and overlapping legs resolve to the branch it is on.
+@Slf4j
+@Component
+public class RouteGeometryService {
+
+    private final RouteGeometryConfig config;
+    private final PerformanceMonitor performanceMonitor;
+
+    private final Map<String, PackedRoute> routes = new ConcurrentHashMap<>();
+    private final Map<String, MeasureHint> hints = new ConcurrentHashMap<>();
+
+    public RouteGeometryService(RouteGeometryConfig config, PerformanceMonitor performanceMonitor) {
+        this.config = config;
+        this.performanceMonitor = performanceMonitor;
+    }
+
+    // ============= GEOMETRY =============
+
+    // Rebuilt only when the caller passes a different polyline instance than the cached one
+    public RouteGeometry geometry(String routeId, List<GeoCoordinate> polyline) {
+        PackedRoute packed = routes.get(routeId);
+        if (packed != null && packed.source() == polyline) {
+            return packed.geometry();
+        }
+
+        RouteGeometry geometry = performanceMonitor.time("route.geometry.build", () -> RouteGeometry.of(polyline));
+        routes.put(routeId, new PackedRoute(polyline, geometry, null, null, Map.of()));
+        log.debug("Packed geometry for route {}: {} vertices, {} m", routeId, geometry.vertexCount(),
+                Math.round(geometry.length()));
+        return geometry;
+    }
+
+    public Optional<RouteGeometry> geometry(String routeId) {
+        return Optional.ofNullable(routes.get(routeId)).map(PackedRoute::geometry);
+    }
+
+    public void evictRoute(String routeId) {
+        routes.remove(routeId);
+    }
+
+    // Stops projected in sequence order, each starting from the previous one's measure
+    public double[] stopMeasures(String routeId, List<RouteStop> stops) {
+        return withStops(routeId, stops).stopMeasures();
+    }
+
+    private PackedRoute withStops(String routeId, List<RouteStop> stops) {
+        PackedRoute packed = routes.get(routeId);
+        if (packed == null) {
+            throw new IllegalStateException("No geometry registered for route " + routeId);
+        }
+        if (packed.stops() == stops) {
+            return packed;
+        }
+
+        List<RouteStop> ordered = stops.stream().sorted(Comparator.comparingInt(RouteStop::sequenceNumber)).toList();
+        double[] measures = new double[ordered.size()];
+        Map<String, Integer> stopIndex = new HashMap<>();
+        double hint = 0.0;
+        for (int i = 0; i < ordered.size(); i++) {
+            hint = packed.geometry().project(ordered.get(i).location(), hint, config.getSearchWindowMeters()).measure();
+            measures[i] = hint;
+            stopIndex.putIfAbsent(ordered.get(i).stopId(), i);
+        }
+
+        PackedRoute withStops = new PackedRoute(packed.source(), packed.geometry(), stops, measures, stopIndex);
+        routes.put(routeId, withStops);
+        return withStops;
+    }
+
+    // ============= PROGRESS =============
+
+    public Position locate(String vehicleId, String routeId, List<GeoCoordinate> polyline, GeoCoordinate location) {
+        return locate(vehicleId, routeId, geometry(routeId, polyline), location);
+    }
+
+    public Position locate(String vehicleId, String routeId, RouteGeometry geometry, GeoCoordinate location) {
+        MeasureHint hint = hints.get(vehicleId);
+        Projection projection = hint != null && hint.routeId().equals(routeId)
+                ? geometry.project(location, hint.measure(), config.getSearchWindowMeters())
+                : geometry.project(location);
+
+        boolean onRoute = projection.offsetMeters() <= config.getOffRouteMeters();
+        // Off-route fixes keep the last good hint so the vehicle is picked up where it left the route
+        if (onRoute || hint == null || !hint.routeId().equals(routeId)) {
+            hints.put(vehicleId, new MeasureHint(routeId, projection.measure(), System.currentTimeMillis()));
+        }
+        performanceMonitor.incrementCounter("route.geometry.projections");
+
+        return new Position(routeId, projection.measure(), projection.offsetMeters(), onRoute,
+                geometry.completionPercentage(projection.measure()), geometry.remaining(projection.measure()),
+                geometry.length());
+    }
+
+    public double completionPercentage(String vehicleId, String routeId, List<GeoCoordinate> polyline,
+                                       GeoCoordinate location) {
+        return locate(vehicleId, routeId, polyline, location).completionPercentage();
+    }
+
+    public double remainingMeters(String vehicleId, String routeId, List<GeoCoordinate> polyline,
+                                  GeoCoordinate location) {
+        return locate(vehicleId, routeId, polyline, location).remainingMeters();
+    }
+
+    // Progress between two stops of the route, both measured along the polyline rather than straight-line
+    public LegProgress legProgress(String vehicleId, String routeId, List<RouteStop> stops,
+                                   RouteStop fromStop, RouteStop toStop, GeoCoordinate location) {
+        PackedRoute packed = withStops(routeId, stops);
+        double fromMeasure = packed.stopMeasures()[indexOf(packed, fromStop)];
+        double toMeasure = packed.stopMeasures()[indexOf(packed, toStop)];
+
+        Position position = locate(vehicleId, routeId, packed.geometry(), location);
+        double legLength = Math.max(0.0, toMeasure - fromMeasure);
+        double traveled = Math.max(0.0, Math.min(legLength, position.measure() - fromMeasure));
+        double percentage = legLength > 0.0 ? traveled / legLength * 100.0 : 100.0;
+
+        return new LegProgress(fromStop.stopId(), toStop.stopId(), percentage, traveled, legLength - traveled,
+                position.onRoute());
+    }
+
+    private static int indexOf(PackedRoute packed, RouteStop stop) {
+        Integer index = packed.stopIndex().get(stop.stopId());
+        if (index == null) {
+            throw new IllegalArgumentException("Stop " + stop.stopId() + " is not on the route");
+        }
+        return index;
+    }
+
+    public void forgetVehicle(String vehicleId) {
+        hints.remove(vehicleId);
+    }
+
+    @Scheduled(fixedDelayString = "${ugur.route-geometry.maintenance-interval:1m}")
+    public void evictStaleHints() {
+        long cutoff = System.currentTimeMillis() - config.getHintTtl().toMillis();
+        hints.values().removeIf(hint -> hint.updatedAtMillis() < cutoff);
+
+        performanceMonitor.recordGauge("route.geometry.routes", routes.size());
+        performanceMonitor.recordGauge("route.geometry.hints", hints.size());
+    }
+
+    private record PackedRoute(
+            List<GeoCoordinate> source,
+            RouteGeometry geometry,
+            List<RouteStop> stops,
+            double[] stopMeasures,
+            Map<String, Integer> stopIndex
+    ) {}
+
+    private record MeasureHint(String routeId, double measure, long updatedAtMillis) {}
+
+    public record Position(
+            String routeId,
+            double measure,
+            double offsetMeters,
+            boolean onRoute,
+            double completionPercentage,
+            double remainingMeters,
+            double routeLengthMeters
+    ) {}
+
+    public record LegProgress(
+            String fromStopId,
+            String toStopId,
+            double progressPercentage,
+            double traveledMeters,
+            double remainingMeters,
+            boolean onRoute
+    ) {}
+}
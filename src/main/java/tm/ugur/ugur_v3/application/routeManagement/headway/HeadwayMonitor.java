@@ -0,0 +1,288 @@
+package tm.ugur.ugur_v3.application.routeManagement.headway;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tm.ugur.ugur_v3.application.configuration.HeadwayMonitorConfig;
+import tm.ugur.ugur_v3.application.configuration.ServiceDayConfig;
+import tm.ugur.ugur_v3.application.routeManagement.geometry.RouteGeometryService;
+import tm.ugur.ugur_v3.application.routeManagement.geometry.RouteGeometryService.Position;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteScheduleCatalog;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.RouteSchedule;
+import tm.ugur.ugur_v3.domain.routeManagement.events.RouteHeadwayDeviationEvent;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteGeometry;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteId;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventListener;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventPublisher;
+import tm.ugur.ugur_v3.domain.vehicleManagement.events.VehicleLocationUpdatedEvent;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+// Compares actual headways with RouteSchedule.getHeadwayAt as positions stream in. Each route keeps its
+// vehicles ordered by route measure, so a fix only touches its neighbours on that route. Bunching and
+// gap alerts are raised on state changes, with hysteresis, and published off the location event thread.
+@Slf4j
+@Component
+public class HeadwayMonitor implements DomainEventListener {
+
+    private final RouteGeometryService geometryService;
+    private final RouteScheduleCatalog scheduleCatalog;
+    private final HeadwayMonitorConfig config;
+    private final ZoneId timeZone;
+    private final PerformanceMonitor performanceMonitor;
+
+    private final Queue<RouteHeadwayDeviationEvent> pendingAlerts = new ConcurrentLinkedQueue<>();
+    private final Session live;
+
+    public HeadwayMonitor(RouteGeometryService geometryService,
+                          RouteScheduleCatalog scheduleCatalog,
+                          HeadwayMonitorConfig config,
+                          ServiceDayConfig serviceDay,
+                          PerformanceMonitor performanceMonitor) {
+        this.geometryService = geometryService;
+        this.scheduleCatalog = scheduleCatalog;
+        this.config = config;
+        this.timeZone = serviceDay.getTimeZone();
+        this.performanceMonitor = performanceMonitor;
+        this.live = new Session(this::alert);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (config.isEnabled()) {
+            DomainEventPublisher.instance().subscribe(this);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        DomainEventPublisher.instance().unsubscribe(this);
+    }
+
+    // ============= UPDATES =============
+
+    @Override
+    public boolean canHandle(DomainEvent event) {
+        return event instanceof VehicleLocationUpdatedEvent;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        VehicleLocationUpdatedEvent update = (VehicleLocationUpdatedEvent) event;
+        String vehicleId = update.getVehicleId().getValue();
+        String routeId = update.getAssignedRouteId();
+
+        if (update.getLocation() == null || routeId == null || !update.getVehicleStatus().isTrackable()) {
+            live.remove(vehicleId);
+            return;
+        }
+
+        Optional<RouteGeometry> geometry = geometryService.geometry(routeId);
+        if (geometry.isEmpty()) {
+            performanceMonitor.incrementCounter("headway.unmeasured");
+            return;
+        }
+
+        Position position = geometryService.locate(vehicleId, routeId, geometry.get(), update.getLocation());
+        if (!position.onRoute()) {
+            // Keeps its last on-route slot; a detour does not reorder the route
+            performanceMonitor.incrementCounter("headway.off_route");
+            return;
+        }
+
+        double speedMps = update.getSpeed() != null ? update.getSpeed() : 0.0;
+        update(vehicleId, routeId, position.measure(), update.getOccurredAt().getEpochMillis(), speedMps);
+    }
+
+    // Entry point for callers that already hold the vehicle's route measure
+    public void update(String vehicleId, String routeId, double measureMeters, long epochMillis, double speedMps) {
+        live.update(vehicleId, routeId, measureMeters, epochMillis, speedMps);
+        performanceMonitor.incrementCounter("headway.updates");
+    }
+
+    public void removeVehicle(String vehicleId) {
+        live.remove(vehicleId);
+    }
+
+    // ============= READS =============
+
+    public List<VehicleHeadway> routeHeadways(String routeId) {
+        RouteHeadwayTracker tracker = live.trackers.get(routeId);
+        return tracker != null ? tracker.headways() : List.of();
+    }
+
+    public Optional<DeviationState> deviationState(String vehicleId) {
+        return Optional.ofNullable(live.states.get(vehicleId));
+    }
+
+    public int plannedHeadwayMinutes(String routeId, long epochMillis) {
+        RouteSchedule schedule = scheduleCatalog.scheduleFor(routeId).orElse(null);
+        if (schedule == null) {
+            return 0;
+        }
+        ZonedDateTime at = Instant.ofEpochMilli(epochMillis).atZone(timeZone);
+        return schedule.getHeadwayAt(at.getDayOfWeek(), at.toLocalTime());
+    }
+
+    // ============= MAINTENANCE =============
+
+    private void alert(RouteHeadwayDeviationEvent event) {
+        pendingAlerts.add(event);
+        performanceMonitor.incrementCounter("headway.alerts." + event.getDeviationType().name().toLowerCase());
+    }
+
+    // Raised here rather than inside handle(): events raised while the publisher is dispatching are cleared
+    // with the batch being dispatched
+    @Scheduled(fixedDelayString = "${ugur.headway-monitor.publish-interval:2s}")
+    public void publishAlerts() {
+        if (pendingAlerts.isEmpty()) {
+            return;
+        }
+        DomainEventPublisher publisher = DomainEventPublisher.instance();
+        RouteHeadwayDeviationEvent event;
+        while ((event = pendingAlerts.poll()) != null) {
+            publisher.raise(event);
+        }
+        publisher.publishAll();
+    }
+
+    @Scheduled(fixedDelayString = "${ugur.headway-monitor.stale-after:5m}")
+    public void evictStale() {
+        long cutoff = System.currentTimeMillis() - config.getStaleAfter().toMillis();
+        int evicted = 0;
+        for (RouteHeadwayTracker tracker : live.trackers.values()) {
+            for (String vehicleId : tracker.staleVehicles(cutoff)) {
+                live.remove(vehicleId);
+                evicted++;
+            }
+        }
+
+        performanceMonitor.incrementCounter("headway.evicted", evicted);
+        performanceMonitor.recordGauge("headway.routes", live.trackers.size());
+        performanceMonitor.recordGauge("headway.vehicles", live.vehicleRoutes.size());
+    }
+
+    // ============= DETECTION =============
+
+    // Trackers, route assignments and alert states of the live stream of fixes
+    private final class Session {
+
+        private final Map<String, RouteHeadwayTracker> trackers = new ConcurrentHashMap<>();
+        private final Map<String, String> vehicleRoutes = new ConcurrentHashMap<>();
+        private final Map<String, DeviationState> states = new ConcurrentHashMap<>();
+        private final Consumer<RouteHeadwayDeviationEvent> alerts;
+
+        Session(Consumer<RouteHeadwayDeviationEvent> alerts) {
+            this.alerts = alerts;
+        }
+
+        void update(String vehicleId, String routeId, double measure, long epochMillis, double speedMps) {
+            String previousRoute = vehicleRoutes.put(vehicleId, routeId);
+            if (previousRoute != null && !previousRoute.equals(routeId)) {
+                leave(vehicleId, previousRoute);
+            }
+
+            RouteHeadwayTracker tracker = trackers.computeIfAbsent(routeId, id -> new RouteHeadwayTracker(
+                    config.getTrailSize(), config.getTripRestartMeters(), config.getDefaultSpeedKmh() / 3.6));
+            evaluate(routeId, tracker.update(vehicleId, measure, epochMillis, speedMps));
+        }
+
+        void remove(String vehicleId) {
+            String routeId = vehicleRoutes.remove(vehicleId);
+            if (routeId != null) {
+                leave(vehicleId, routeId);
+            }
+        }
+
+        private void leave(String vehicleId, String routeId) {
+            RouteHeadwayTracker tracker = trackers.get(routeId);
+            if (tracker != null) {
+                evaluate(routeId, tracker.remove(vehicleId));
+            }
+            DeviationState state = states.remove(vehicleId);
+            if (state != null && state != DeviationState.NORMAL) {
+                alerts.accept(RouteHeadwayDeviationEvent.restored(RouteId.of(routeId), vehicleId, null,
+                        Double.NaN, 0, Double.NaN));
+            }
+        }
+
+        private void evaluate(String routeId, List<VehicleHeadway> headways) {
+            for (VehicleHeadway headway : headways) {
+                int planned = plannedHeadwayMinutes(routeId, headway.observedAtEpochMillis());
+                // The first vehicle on the route, or no plan: nothing to compare against
+                double ratio = headway.leadingVehicleId() != null && planned > 0
+                        ? headway.headwaySeconds() / (planned * 60.0)
+                        : 1.0;
+
+                List<DeviationState> transition = new ArrayList<>(1);
+                states.compute(headway.vehicleId(), (id, current) -> {
+                    DeviationState from = current != null ? current : DeviationState.NORMAL;
+                    DeviationState to = classify(from, ratio);
+                    if (to != from) {
+                        transition.add(to);
+                    }
+                    return to;
+                });
+
+                if (!transition.isEmpty()) {
+                    alerts.accept(deviationEvent(routeId, headway, planned, transition.getFirst()));
+                }
+            }
+        }
+    }
+
+    // Entering a state uses the configured ratios, leaving it needs the ratio back inside by the recovery margin
+    private DeviationState classify(DeviationState current, double ratio) {
+        double margin = config.getRecoveryMargin();
+        if (current == DeviationState.BUNCHED && ratio < config.getBunchingRatio() + margin) {
+            return DeviationState.BUNCHED;
+        }
+        if (current == DeviationState.GAPPED && ratio > config.getGapRatio() - margin) {
+            return DeviationState.GAPPED;
+        }
+        if (ratio < config.getBunchingRatio()) {
+            return DeviationState.BUNCHED;
+        }
+        return ratio > config.getGapRatio() ? DeviationState.GAPPED : DeviationState.NORMAL;
+    }
+
+    private static RouteHeadwayDeviationEvent deviationEvent(String routeId, VehicleHeadway headway, int planned,
+                                                             DeviationState state) {
+        RouteId id = RouteId.of(routeId);
+        return switch (state) {
+            case BUNCHED -> RouteHeadwayDeviationEvent.bunched(id, headway.vehicleId(), headway.leadingVehicleId(),
+                    headway.headwaySeconds(), planned, headway.measureMeters());
+            case GAPPED -> RouteHeadwayDeviationEvent.gapped(id, headway.vehicleId(), headway.leadingVehicleId(),
+                    headway.headwaySeconds(), planned, headway.measureMeters());
+            case NORMAL -> RouteHeadwayDeviationEvent.restored(id, headway.vehicleId(), headway.leadingVehicleId(),
+                    headway.headwaySeconds(), planned, headway.measureMeters());
+        };
+    }
+
+    public enum DeviationState {
+        NORMAL, BUNCHED, GAPPED
+    }
+
+    // headwaySeconds is NaN for the vehicle at the front of the route
+    public record VehicleHeadway(
+            String vehicleId,
+            String leadingVehicleId,
+            double headwaySeconds,
+            double measureMeters,
+            long observedAtEpochMillis
+    ) {}
+}
@@ -0,0 +1,206 @@
+package tm.ugur.ugur_v3.application.routeManagement.headway;
+
+import tm.ugur.ugur_v3.application.routeManagement.headway.HeadwayMonitor.VehicleHeadway;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Vehicles of one route ordered by route measure. A position update moves one vehicle in the order and
+// recomputes only the headways it can have changed: its own, its new follower's and, after an
+// overtake, its old follower's. Cost is O(log n) in the vehicles on the route.
+final class RouteHeadwayTracker {
+
+    private static final Comparator<Slot> BY_MEASURE = Comparator
+            .comparingDouble(Slot::measure)
+            .thenComparing(Slot::vehicleId);
+
+    private final int trailSize;
+    private final double tripRestartMeters;
+    private final double defaultSpeedMps;
+
+    private final TreeSet<Slot> order = new TreeSet<>(BY_MEASURE);
+    private final Map<String, Track> tracks = new HashMap<>();
+
+    RouteHeadwayTracker(int trailSize, double tripRestartMeters, double defaultSpeedMps) {
+        this.trailSize = trailSize;
+        this.tripRestartMeters = tripRestartMeters;
+        this.defaultSpeedMps = defaultSpeedMps;
+    }
+
+    // Headways changed by this fix; empty when the fix is older than the vehicle's last one
+    synchronized List<VehicleHeadway> update(String vehicleId, double measure, long epochMillis, double speedMps) {
+        Track track = tracks.get(vehicleId);
+        String oldFollower = null;
+
+        if (track != null) {
+            if (epochMillis <= track.lastMillis) {
+                return List.of();
+            }
+            Slot below = order.lower(track.slot);
+            oldFollower = below != null ? below.vehicleId() : null;
+            order.remove(track.slot);
+            if (measure < track.slot.measure() - tripRestartMeters) {
+                track.restart();
+            }
+        } else {
+            track = new Track(trailSize);
+            tracks.put(vehicleId, track);
+        }
+
+        track.record(measure, epochMillis, speedMps);
+        track.slot = new Slot(measure, vehicleId);
+        order.add(track.slot);
+
+        List<VehicleHeadway> changed = new ArrayList<>(3);
+        changed.add(headwayOf(track.slot));
+        Slot follower = order.lower(track.slot);
+        if (follower != null) {
+            changed.add(headwayOf(follower));
+        }
+        if (oldFollower != null && (follower == null || !oldFollower.equals(follower.vehicleId()))) {
+            changed.add(headwayOf(tracks.get(oldFollower).slot));
+        }
+        return changed;
+    }
+
+    // Headway of the removed vehicle's follower, which now trails the vehicle ahead of it
+    synchronized List<VehicleHeadway> remove(String vehicleId) {
+        Track track = tracks.remove(vehicleId);
+        if (track == null) {
+            return List.of();
+        }
+        Slot follower = order.lower(track.slot);
+        order.remove(track.slot);
+        return follower != null ? List.of(headwayOf(follower)) : List.of();
+    }
+
+    synchronized List<String> staleVehicles(long cutoffEpochMillis) {
+        List<String> stale = new ArrayList<>();
+        tracks.forEach((vehicleId, track) -> {
+            if (track.lastMillis < cutoffEpochMillis) {
+                stale.add(vehicleId);
+            }
+        });
+        return stale;
+    }
+
+    // Front of the route first
+    synchronized List<VehicleHeadway> headways() {
+        List<VehicleHeadway> headways = new ArrayList<>(order.size());
+        for (Slot slot : order.descendingSet()) {
+            headways.add(headwayOf(slot));
+        }
+        return headways;
+    }
+
+    // Time since the leader was where the follower is now; the leader's trail is interpolated and, if it does
+    // not reach back that far, extended backwards at the follower's speed
+    private VehicleHeadway headwayOf(Slot slot) {
+        Track follower = tracks.get(slot.vehicleId());
+        Slot ahead = order.higher(slot);
+        if (ahead == null) {
+            return new VehicleHeadway(slot.vehicleId(), null, Double.NaN, slot.measure(), follower.lastMillis);
+        }
+
+        Track leader = tracks.get(ahead.vehicleId());
+        long passedAt = leader.timeAt(slot.measure());
+        double seconds;
+        if (passedAt >= 0) {
+            seconds = (follower.lastMillis - passedAt) / 1000.0;
+        } else {
+            double speed = follower.speedMps >= 1.0 ? follower.speedMps : defaultSpeedMps;
+            seconds = (follower.lastMillis - leader.firstMillis()) / 1000.0
+                    + (leader.firstMeasure() - slot.measure()) / speed;
+        }
+
+        return new VehicleHeadway(slot.vehicleId(), ahead.vehicleId(), Math.max(0.0, seconds), slot.measure(),
+                follower.lastMillis);
+    }
+
+    private record Slot(double measure, String vehicleId) {}
+
+    // Ring buffer of forward progress samples; measures are non-decreasing within a trip
+    private static final class Track {
+
+        private final double[] measures;
+        private final long[] times;
+        private int start;
+        private int size;
+
+        private Slot slot;
+        private long lastMillis;
+        private double speedMps;
+
+        Track(int capacity) {
+            this.measures = new double[capacity];
+            this.times = new long[capacity];
+        }
+
+        void record(double measure, long epochMillis, double speed) {
+            lastMillis = epochMillis;
+            speedMps = speed;
+            // Small backward jitter moves the slot but never the trail, which must stay sorted
+            if (size > 0 && measure < measureAt(size - 1)) {
+                return;
+            }
+            if (size == measures.length) {
+                start = (start + 1) % measures.length;
+                size--;
+            }
+            int index = (start + size) % measures.length;
+            measures[index] = measure;
+            times[index] = epochMillis;
+            size++;
+        }
+
+        void restart() {
+            start = 0;
+            size = 0;
+        }
+
+        // When the vehicle passed the measure, or -1 if that is before the oldest sample
+        long timeAt(double measure) {
+            if (size == 0 || measure < measureAt(0)) {
+                return -1;
+            }
+            if (measure >= measureAt(size - 1)) {
+                return timeOf(size - 1);
+            }
+
+            int low = 0;
+            int high = size - 1;
+            while (high - low > 1) {
+                int mid = (low + high) >>> 1;
+                if (measureAt(mid) <= measure) {
+                    low = mid;
+                } else {
+                    high = mid;
+                }
+            }
+
+            double span = measureAt(high) - measureAt(low);
+            double fraction = span > 0.0 ? (measure - measureAt(low)) / span : 0.0;
+            return timeOf(low) + Math.round(fraction * (timeOf(high) - timeOf(low)));
+        }
+
+        double firstMeasure() {
+            return size > 0 ? measureAt(0) : slot.measure();
+        }
+
+        long firstMillis() {
+            return size > 0 ? timeOf(0) : lastMillis;
+        }
+
+        private double measureAt(int offset) {
+            return measures[(start + offset) % measures.length];
+        }
+
+        private long timeOf(int offset) {
+            return times[(start + offset) % times.length];
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package tm.ugur.ugur_v3.application.routeManagement.journey;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import tm.ugur.ugur_v3.application.configuration.JourneyPlannerConfig;
+import tm.ugur.ugur_v3.application.configuration.ServiceDayConfig;
+import tm.ugur.ugur_v3.application.routeManagement.journey.RaptorSearch.Leg;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteNetworkService;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteNetworkSnapshot;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteScheduleCatalog;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.vehicleManagement.eta.SegmentSpeedProfileEtaService;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.Route;
+import tm.ugur.ugur_v3.domain.routeManagement.repository.RouteRepository.RouteOptimizationCriteria;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteId;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// "How do I get from A to B": round-based search over the route network and the compiled timetables,
+// with walking access, egress and transfers between nearby stops. Returns the Pareto set of journeys on
+// arrival time and number of transfers. The flat timetable is built per service day and reused until the
+// network or schedules change.
+@Slf4j
+@Component
+public class JourneyPlanner {
+
+    private final RouteNetworkService routeNetworkService;
+    private final RouteScheduleCatalog scheduleCatalog;
+    private final SegmentSpeedProfileEtaService etaService;
+    private final JourneyPlannerConfig config;
+    private final ZoneId timeZone;
+    private final PerformanceMonitor performanceMonitor;
+
+    private final AtomicReferenceArray<TransitTimetable> timetables =
+            new AtomicReferenceArray<>(DayOfWeek.values().length);
+
+    public JourneyPlanner(RouteNetworkService routeNetworkService,
+                          RouteScheduleCatalog scheduleCatalog,
+                          SegmentSpeedProfileEtaService etaService,
+                          JourneyPlannerConfig config,
+                          ServiceDayConfig serviceDay,
+                          PerformanceMonitor performanceMonitor) {
+        this.routeNetworkService = routeNetworkService;
+        this.scheduleCatalog = scheduleCatalog;
+        this.etaService = etaService;
+        this.config = config;
+        this.timeZone = serviceDay.getTimeZone();
+        this.performanceMonitor = performanceMonitor;
+    }
+
+    // ============= QUERIES =============
+
+    public List<Journey> plan(GeoCoordinate origin, GeoCoordinate destination, Instant departAt) {
+        ZonedDateTime at = departAt.atZone(timeZone);
+        TransitTimetable timetable = timetable(at.getDayOfWeek());
+
+        Endpoints access = endpoints(timetable, origin);
+        Endpoints egress = endpoints(timetable, destination);
+        List<Journey> journeys = new ArrayList<>();
+
+        double directMeters = origin.distanceTo(destination);
+        if (directMeters <= config.getMaxAccessWalkMeters()) {
+            Duration walk = walkDuration(directMeters * config.getWalkDetourFactor());
+            journeys.add(new Journey(departAt, departAt.plus(walk), 0, walk,
+                    List.of(new JourneyLeg(LegType.WALK, null, null, null, departAt, departAt.plus(walk)))));
+        }
+
+        journeys.addAll(search(timetable, at, access, egress, null));
+        return paretoFront(journeys);
+    }
+
+    public List<Journey> plan(StopId fromStop, StopId toStop, Instant departAt) {
+        return plan(fromStop, toStop, departAt, null);
+    }
+
+    // Routes serving the best journey for the criteria, in riding order
+    public Flux<Route> findOptimalRoutes(GeoCoordinate origin, GeoCoordinate destination,
+                                         RouteOptimizationCriteria criteria) {
+        return Flux.defer(() -> {
+            List<Journey> journeys = plan(origin, destination, Instant.now());
+            Comparator<Journey> order = criteria == RouteOptimizationCriteria.LEAST_TRANSFERS
+                    ? Comparator.comparingInt(Journey::transfers).thenComparing(Journey::arrival)
+                    : Comparator.comparing(Journey::arrival).thenComparingInt(Journey::transfers);
+
+            return Flux.fromIterable(journeys.stream()
+                    .filter(journey -> journey.legs().stream().anyMatch(leg -> leg.type() == LegType.RIDE))
+                    .min(order)
+                    .map(this::routesOf)
+                    .orElse(List.of()));
+        });
+    }
+
+    // Routes used by any Pareto-optimal journey between the stops once the excluded route is removed
+    public Flux<Route> findAlternativeRoutes(StopId fromStop, StopId toStop, RouteId excludedRoute) {
+        return Flux.defer(() -> {
+            Set<Route> routes = new LinkedHashSet<>();
+            plan(fromStop, toStop, Instant.now(), excludedRoute).forEach(journey -> routes.addAll(routesOf(journey)));
+            return Flux.fromIterable(routes);
+        });
+    }
+
+    private List<Journey> plan(StopId fromStop, StopId toStop, Instant departAt, RouteId excludedRoute) {
+        ZonedDateTime at = departAt.atZone(timeZone);
+        TransitTimetable timetable = timetable(at.getDayOfWeek());
+        Integer from = timetable.stopIndex.get(fromStop);
+        Integer to = timetable.stopIndex.get(toStop);
+        if (from == null || to == null) {
+            return List.of();
+        }
+
+        boolean[] excluded = null;
+        if (excludedRoute != null) {
+            excluded = new boolean[timetable.routeCount()];
+            for (int route = 0; route < timetable.routeCount(); route++) {
+                excluded[route] = timetable.routeIds[route].equals(excludedRoute);
+            }
+        }
+
+        Endpoints origin = new Endpoints(new int[]{from}, new int[]{0});
+        Endpoints destination = new Endpoints(new int[]{to}, new int[]{0});
+        return paretoFront(search(timetable, at, origin, destination, excluded));
+    }
+
+    private List<Journey> search(TransitTimetable timetable, ZonedDateTime at, Endpoints access, Endpoints egress,
+                                 boolean[] excludedRoutes) {
+        if (access.stops().length == 0 || egress.stops().length == 0) {
+            performanceMonitor.incrementCounter("journey.plan.unreachable");
+            return List.of();
+        }
+
+        long startTime = System.nanoTime();
+        RaptorSearch search = new RaptorSearch(timetable, config.getMaxTransfers() + 1,
+                (int) config.getMinTransferTime().toSeconds(), excludedRoutes);
+        List<RaptorSearch.Journey> found = search.run(at.toLocalTime().toSecondOfDay(),
+                access.stops(), access.seconds(), egress.stops(), egress.seconds());
+        performanceMonitor.recordTime("journey.plan", Duration.ofNanos(System.nanoTime() - startTime));
+
+        LocalDate serviceDay = at.toLocalDate();
+        List<Journey> journeys = new ArrayList<>(found.size());
+        for (RaptorSearch.Journey journey : found) {
+            // Walking to a stop and on to the destination is covered by the direct walk
+            if (journey.legs().stream().noneMatch(Leg::isRide)) {
+                continue;
+            }
+            journeys.add(toJourney(timetable, serviceDay, journey, egress));
+        }
+        return journeys;
+    }
+
+    // Only journeys that no other arrives earlier with at most as many transfers, fastest first
+    private List<Journey> paretoFront(List<Journey> journeys) {
+        List<Journey> sorted = new ArrayList<>(journeys);
+        sorted.sort(Comparator.comparing(Journey::arrival).thenComparingInt(Journey::transfers));
+
+        List<Journey> front = new ArrayList<>();
+        int fewestTransfers = Integer.MAX_VALUE;
+        for (Journey journey : sorted) {
+            if (journey.transfers() < fewestTransfers && front.size() < config.getMaxResults()) {
+                front.add(journey);
+                fewestTransfers = journey.transfers();
+            }
+        }
+        return front;
+    }
+
+    private List<Route> routesOf(Journey journey) {
+        RouteNetworkSnapshot network = routeNetworkService.current();
+        List<Route> routes = new ArrayList<>();
+        for (JourneyLeg leg : journey.legs()) {
+            if (leg.type() == LegType.RIDE) {
+                network.route(RouteId.of(leg.routeId())).ifPresent(routes::add);
+            }
+        }
+        return routes;
+    }
+
+    // Planned stop times of one route on a service day, from the same timetable the search runs on
+    public Optional<PlannedTrips> plannedTrips(String routeId, DayOfWeek day) {
+        return Optional.ofNullable(timetable(day).plannedTrips(RouteId.of(routeId)));
+    }
+
+    // ============= TIMETABLE =============
+
+    private TransitTimetable timetable(DayOfWeek day) {
+        RouteNetworkSnapshot network = routeNetworkService.current();
+        TransitTimetable cached = timetables.get(day.ordinal());
+        if (cached != null && cached.networkVersion == network.getVersion()
+                && cached.scheduleVersion == scheduleCatalog.version()
+                && System.nanoTime() - cached.builtAtNanos < config.getTimetableRefreshInterval().toNanos()) {
+            return cached;
+        }
+
+        // Concurrent rebuilds produce equal timetables; the last one written wins
+        TransitTimetable built = performanceMonitor.time("journey.timetable.build", () ->
+                TransitTimetable.build(network, scheduleCatalog, etaService.stopLocations(), day, config));
+        timetables.set(day.ordinal(), built);
+        log.debug("Built {} journey timetable: {} stops, {} routes, {} trips", day, built.stopCount(),
+                built.routeCount(), built.tripCount());
+        return built;
+    }
+
+    private Endpoints endpoints(TransitTimetable timetable, GeoCoordinate location) {
+        List<double[]> nearby = timetable.stopsNear(location.getLatitude(), location.getLongitude(),
+                config.getMaxAccessWalkMeters());
+        int[] stops = new int[nearby.size()];
+        int[] seconds = new int[nearby.size()];
+        for (int i = 0; i < stops.length; i++) {
+            stops[i] = (int) nearby.get(i)[0];
+            seconds[i] = (int) walkDuration(nearby.get(i)[1] * config.getWalkDetourFactor()).toSeconds();
+        }
+        return new Endpoints(stops, seconds);
+    }
+
+    private Duration walkDuration(double meters) {
+        return Duration.ofSeconds((long) Math.ceil(meters / (config.getWalkSpeedKmh() / 3.6)));
+    }
+
+    private Journey toJourney(TransitTimetable timetable, LocalDate serviceDay, RaptorSearch.Journey found,
+                              Endpoints egress) {
+        List<JourneyLeg> legs = new ArrayList<>(found.legs().size() + 1);
+        for (Leg leg : found.legs()) {
+            if (leg.isAccess() && leg.arrival() == leg.departure()) {
+                continue;
+            }
+            legs.add(new JourneyLeg(
+                    leg.isRide() ? LegType.RIDE : LegType.WALK,
+                    leg.isRide() ? timetable.routeIds[leg.route()].getValue() : null,
+                    leg.fromStop() >= 0 ? timetable.stopIds[leg.fromStop()].getValue() : null,
+                    timetable.stopIds[leg.toStop()].getValue(),
+                    instant(serviceDay, leg.departure()),
+                    instant(serviceDay, leg.arrival())));
+        }
+
+        int egressSeconds = found.arrivalAtEgress() - found.legs().getLast().arrival();
+        if (egressSeconds > 0) {
+            legs.add(new JourneyLeg(LegType.WALK, null, timetable.stopIds[found.egressStop()].getValue(), null,
+                    instant(serviceDay, found.legs().getLast().arrival()),
+                    instant(serviceDay, found.arrivalAtEgress())));
+        }
+
+        Instant departure = instant(serviceDay, found.departure());
+        Instant arrival = instant(serviceDay, found.arrivalAtEgress());
+        return new Journey(departure, arrival, found.transfers(), Duration.between(departure, arrival),
+                List.copyOf(legs));
+    }
+
+    private Instant instant(LocalDate serviceDay, int secondOfServiceDay) {
+        return serviceDay.atStartOfDay(timeZone).plusSeconds(secondOfServiceDay).toInstant();
+    }
+
+    private record Endpoints(int[] stops, int[] seconds) {}
+
+    public enum LegType {
+        WALK, RIDE
+    }
+
+    // Stop ids are null where the leg starts or ends at the query location rather than a stop
+    public record JourneyLeg(
+            LegType type,
+            String routeId,
+            String fromStopId,
+            String toStopId,
+            Instant departure,
+            Instant arrival
+    ) {}
+
+    public record Journey(
+            Instant departure,
+            Instant arrival,
+            int transfers,
+            Duration duration,
+            List<JourneyLeg> legs
+    ) {}
+
+    // Seconds from the start of the service day, trip-major. Trips never overtake each other, so the times
+    // at any one position are sorted.
+    public record PlannedTrips(
+            String routeId,
+            DayOfWeek day,
+            List<StopId> stops,
+            int tripCount,
+            int[] stopTimes
+    ) {
+        public int stopCount() {
+            return stops.size();
+        }
+
+        public int time(int trip, int position) {
+            return stopTimes[trip * stops.size() + position];
+        }
+
+        // First position at or after fromPosition that serves the stop, or -1
+        public int positionOf(StopId stopId, int fromPosition) {
+            for (int position = Math.max(0, fromPosition); position < stops.size(); position++) {
+                if (stops.get(position).equals(stopId)) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+
+        // Trip planned at the position closest to secondOfDay, or -1 when the route has no trips
+        public int nearestTrip(int position, int secondOfDay) {
+            if (tripCount == 0) {
+                return -1;
+            }
+            int low = 0;
+            int high = tripCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (time(mid, position) < secondOfDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low == tripCount) {
+                return tripCount - 1;
+            }
+            if (low > 0 && secondOfDay - time(low - 1, position) <= time(low, position) - secondOfDay) {
+                return low - 1;
+            }
+            return low;
+        }
+    }
+}
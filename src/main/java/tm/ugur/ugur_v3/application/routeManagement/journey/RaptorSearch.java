@@ -0,0 +1,272 @@
+package tm.ugur.ugur_v3.application.routeManagement.journey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static tm.ugur.ugur_v3.application.routeManagement.journey.TransitTimetable.UNREACHED;
+
+// Round-based earliest-arrival search (RAPTOR). Round k settles every stop reachable with k rides: routes
+// touched by stops improved in round k - 1 are scanned once from their earliest touched position, then
+// footpaths are relaxed from stops improved by a ride. The best destination arrival of each round that
+// beats all rounds before it is one Pareto-optimal journey on (arrival time, transfers).
+// One instance per query; not thread-safe.
+final class RaptorSearch {
+
+    private static final byte COPIED = 0;
+    private static final byte ACCESS = 1;
+    private static final byte RIDE = 2;
+    private static final byte WALK = 3;
+
+    private final TransitTimetable timetable;
+    private final int maxRounds;
+    private final int transferSlack;
+    private final boolean[] excludedRoutes;
+    private final int stops;
+
+    // Per round and stop, row-major (maxRounds + 1) x stops
+    private final int[] arrival;
+    private final byte[] kind;
+    private final int[] labelRoute;
+    private final int[] labelTrip;
+    private final int[] labelBoardPosition;
+    private final int[] labelAlightPosition;
+    private final int[] labelFrom;
+
+    private final int[] best;
+    private final boolean[] marked;
+    private final int[] routeQueue;
+
+    RaptorSearch(TransitTimetable timetable, int maxRounds, int transferSlackSeconds, boolean[] excludedRoutes) {
+        this.timetable = timetable;
+        this.maxRounds = maxRounds;
+        this.transferSlack = transferSlackSeconds;
+        this.excludedRoutes = excludedRoutes;
+        this.stops = timetable.stopCount();
+
+        int cells = (maxRounds + 1) * stops;
+        this.arrival = new int[cells];
+        this.kind = new byte[cells];
+        this.labelRoute = new int[cells];
+        this.labelTrip = new int[cells];
+        this.labelBoardPosition = new int[cells];
+        this.labelAlightPosition = new int[cells];
+        this.labelFrom = new int[cells];
+        this.best = new int[stops];
+        this.marked = new boolean[stops];
+        this.routeQueue = new int[timetable.routeCount()];
+
+        Arrays.fill(arrival, UNREACHED);
+        Arrays.fill(best, UNREACHED);
+        Arrays.fill(routeQueue, Integer.MAX_VALUE);
+    }
+
+    // Access and egress are (stop, walking seconds) pairs; journeys are returned fewest rides first
+    List<Journey> run(int departure, int[] accessStops, int[] accessSeconds, int[] egressStops, int[] egressSeconds) {
+        List<Integer> markedStops = new ArrayList<>();
+        for (int i = 0; i < accessStops.length; i++) {
+            int stop = accessStops[i];
+            int at = departure + accessSeconds[i];
+            if (at < arrival[stop]) {
+                if (arrival[stop] == UNREACHED) {
+                    markedStops.add(stop);
+                }
+                arrival[stop] = at;
+                best[stop] = at;
+                kind[stop] = ACCESS;
+            }
+        }
+
+        List<Journey> journeys = new ArrayList<>();
+        int bestTarget = UNREACHED;
+
+        for (int round = 1; round <= maxRounds && !markedStops.isEmpty(); round++) {
+            System.arraycopy(arrival, (round - 1) * stops, arrival, round * stops, stops);
+
+            List<Integer> queuedRoutes = queueRoutes(markedStops);
+            markedStops.clear();
+            for (int route : queuedRoutes) {
+                int from = routeQueue[route];
+                routeQueue[route] = Integer.MAX_VALUE;
+                scanRoute(route, from, round, bestTarget, markedStops);
+            }
+            relaxFootpaths(round, List.copyOf(markedStops), bestTarget, markedStops);
+            for (int stop : markedStops) {
+                marked[stop] = false;
+            }
+
+            int egress = -1;
+            int roundBest = UNREACHED;
+            for (int i = 0; i < egressStops.length; i++) {
+                int at = arrival[round * stops + egressStops[i]];
+                if (at != UNREACHED && at + egressSeconds[i] < roundBest) {
+                    roundBest = at + egressSeconds[i];
+                    egress = i;
+                }
+            }
+            if (roundBest < bestTarget) {
+                bestTarget = roundBest;
+                journeys.add(reconstruct(round, egressStops[egress], departure, roundBest));
+            }
+        }
+        return journeys;
+    }
+
+    // Each route touched by a marked stop, from the earliest of its touched positions
+    private List<Integer> queueRoutes(List<Integer> markedStops) {
+        List<Integer> queued = new ArrayList<>();
+        for (int stop : markedStops) {
+            for (int i = timetable.stopRouteOffset[stop]; i < timetable.stopRouteOffset[stop + 1]; i++) {
+                int route = timetable.stopRouteRoute[i];
+                if (excludedRoutes != null && excludedRoutes[route]) {
+                    continue;
+                }
+                int position = timetable.stopRoutePosition[i];
+                if (routeQueue[route] == Integer.MAX_VALUE) {
+                    queued.add(route);
+                }
+                routeQueue[route] = Math.min(routeQueue[route], position);
+            }
+        }
+        return queued;
+    }
+
+    private void scanRoute(int route, int from, int round, int bestTarget, List<Integer> improved) {
+        int trips = timetable.routeTripCount[route];
+        if (trips == 0) {
+            return;
+        }
+
+        int trip = -1;
+        int boardPosition = -1;
+        int boardStop = -1;
+        int current = round * stops;
+        int previous = (round - 1) * stops;
+
+        for (int position = from; position < timetable.stopCount(route); position++) {
+            int stop = timetable.stopAt(route, position);
+
+            if (trip >= 0) {
+                int at = timetable.time(route, trip, position);
+                // Target pruning: nothing arriving after the best journey found so far can improve on it
+                if (at < best[stop] && at < bestTarget) {
+                    arrival[current + stop] = at;
+                    best[stop] = at;
+                    kind[current + stop] = RIDE;
+                    labelRoute[current + stop] = route;
+                    labelTrip[current + stop] = trip;
+                    labelBoardPosition[current + stop] = boardPosition;
+                    labelAlightPosition[current + stop] = position;
+                    labelFrom[current + stop] = boardStop;
+                    mark(stop, improved);
+                }
+            }
+
+            int reachedAt = arrival[previous + stop];
+            if (reachedAt == UNREACHED) {
+                continue;
+            }
+            int readyAt = reachedAt + (round > 1 ? transferSlack : 0);
+            if (trip < 0 || readyAt <= timetable.time(route, trip, position)) {
+                int earlier = timetable.earliestTrip(route, position, readyAt, trip >= 0 ? trip + 1 : trips);
+                if (earlier >= 0 && (trip < 0 || earlier < trip)) {
+                    trip = earlier;
+                    boardPosition = position;
+                    boardStop = stop;
+                }
+            }
+        }
+    }
+
+    private void mark(int stop, List<Integer> improved) {
+        if (!marked[stop]) {
+            marked[stop] = true;
+            improved.add(stop);
+        }
+    }
+
+    // Only from stops reached by a ride this round, so a journey never chains two walks
+    private void relaxFootpaths(int round, List<Integer> ridden, int bestTarget, List<Integer> improved) {
+        int current = round * stops;
+        for (int stop : ridden) {
+            int at = arrival[current + stop];
+            for (int i = timetable.transferOffset[stop]; i < timetable.transferOffset[stop + 1]; i++) {
+                int target = timetable.transferTarget[i];
+                int walked = at + timetable.transferSeconds[i];
+                if (walked < best[target] && walked < bestTarget) {
+                    arrival[current + target] = walked;
+                    best[target] = walked;
+                    kind[current + target] = WALK;
+                    labelFrom[current + target] = stop;
+                    mark(target, improved);
+                }
+            }
+        }
+    }
+
+    // Walks the labels back from the egress stop; a stop not improved in a round carries its label from an
+    // earlier round
+    private Journey reconstruct(int round, int egressStop, int departure, int destinationArrival) {
+        List<Leg> legs = new ArrayList<>();
+        int stop = egressStop;
+        int r = round;
+
+        while (true) {
+            while (r > 0 && kind[r * stops + stop] == COPIED) {
+                r--;
+            }
+            int cell = r * stops + stop;
+            switch (kind[cell]) {
+                case RIDE -> {
+                    int route = labelRoute[cell];
+                    int trip = labelTrip[cell];
+                    legs.add(Leg.ride(route, trip, labelFrom[cell], stop, labelBoardPosition[cell],
+                            labelAlightPosition[cell],
+                            timetable.time(route, trip, labelBoardPosition[cell]), arrival[cell]));
+                    stop = labelFrom[cell];
+                    r--;
+                }
+                case WALK -> {
+                    int from = labelFrom[cell];
+                    legs.add(Leg.walk(from, stop, arrival[r * stops + from], arrival[cell]));
+                    stop = from;
+                }
+                default -> {
+                    legs.add(Leg.access(stop, departure, arrival[cell]));
+                    Collections.reverse(legs);
+                    int rides = (int) legs.stream().filter(Leg::isRide).count();
+                    return new Journey(rides - 1, egressStop, departure, destinationArrival, List.copyOf(legs));
+                }
+            }
+        }
+    }
+
+    // Times are seconds from the start of the service day
+    record Leg(byte kind, int route, int trip, int fromStop, int toStop, int fromPosition, int toPosition,
+               int departure, int arrival) {
+
+        static Leg ride(int route, int trip, int fromStop, int toStop, int fromPosition, int toPosition,
+                        int departure, int arrival) {
+            return new Leg(RIDE, route, trip, fromStop, toStop, fromPosition, toPosition, departure, arrival);
+        }
+
+        static Leg walk(int fromStop, int toStop, int departure, int arrival) {
+            return new Leg(WALK, -1, -1, fromStop, toStop, -1, -1, departure, arrival);
+        }
+
+        static Leg access(int toStop, int departure, int arrival) {
+            return new Leg(ACCESS, -1, -1, -1, toStop, -1, -1, departure, arrival);
+        }
+
+        boolean isRide() {
+            return kind == RIDE;
+        }
+
+        boolean isAccess() {
+            return kind == ACCESS;
+        }
+    }
+
+    record Journey(int transfers, int egressStop, int departure, int arrivalAtEgress, List<Leg> legs) {}
+}
@@ -0,0 +1,475 @@
+package tm.ugur.ugur_v3.application.routeManagement.journey;
+
+import tm.ugur.ugur_v3.application.configuration.JourneyPlannerConfig;
+import tm.ugur.ugur_v3.application.routeManagement.journey.JourneyPlanner.PlannedTrips;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteNetworkSnapshot;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteScheduleCatalog;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.Route;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.RouteSchedule;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.RouteSegment;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.RouteSegment.TimePeriod;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteId;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One service day of the network in the flat layout the round-based search scans: stops and routes are
+// dense indices, each route's trips are a trip-major block of stop times, and routes-per-stop and
+// footpaths are offset-indexed arrays. Immutable; rebuilt when the network, schedules or day change.
+final class TransitTimetable {
+
+    static final int UNREACHED = Integer.MAX_VALUE;
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+    private static final int[] NONE = new int[0];
+    private static final TimePeriod[] PERIODS = TimePeriod.values();
+
+    final long networkVersion;
+    final long scheduleVersion;
+    final DayOfWeek day;
+    final long builtAtNanos;
+
+    // Stops; coordinates are NaN for stops whose location is not known
+    final StopId[] stopIds;
+    final Map<StopId, Integer> stopIndex;
+    final double[] stopLat;
+    final double[] stopLng;
+
+    // Routes: stops of route r are routeStops[routeStopOffset[r] .. routeStopOffset[r + 1])
+    final RouteId[] routeIds;
+    final int[] routeStopOffset;
+    final int[] routeStops;
+
+    // Time of trip i of route r at position p: stopTimes[routeTimeOffset[r] + i * stopCount(r) + p],
+    // seconds from the start of the service day; trips are sorted and never overtake each other
+    final int[] routeTripCount;
+    final int[] routeTimeOffset;
+    final int[] stopTimes;
+
+    // Routes visiting stop s with the position of each visit
+    final int[] stopRouteOffset;
+    final int[] stopRouteRoute;
+    final int[] stopRoutePosition;
+
+    // Walking transfers from stop s
+    final int[] transferOffset;
+    final int[] transferTarget;
+    final int[] transferSeconds;
+
+    // Uniform grid over located stops for access and egress lookups
+    private final double cellMeters;
+    private final double referenceLat;
+    private final Map<Long, int[]> grid;
+
+    // Per-route copies handed out by plannedTrips, made on first request
+    private final Map<RouteId, PlannedTrips> plannedTrips = new ConcurrentHashMap<>();
+
+    private TransitTimetable(Builder builder) {
+        this.networkVersion = builder.networkVersion;
+        this.scheduleVersion = builder.scheduleVersion;
+        this.day = builder.day;
+        this.builtAtNanos = System.nanoTime();
+        this.stopIds = builder.stopIds;
+        this.stopIndex = builder.stopIndex;
+        this.stopLat = builder.stopLat;
+        this.stopLng = builder.stopLng;
+        this.routeIds = builder.routeIds;
+        this.routeStopOffset = builder.routeStopOffset;
+        this.routeStops = builder.routeStops;
+        this.routeTripCount = builder.routeTripCount;
+        this.routeTimeOffset = builder.routeTimeOffset;
+        this.stopTimes = builder.stopTimes;
+        this.stopRouteOffset = builder.stopRouteOffset;
+        this.stopRouteRoute = builder.stopRouteRoute;
+        this.stopRoutePosition = builder.stopRoutePosition;
+        this.transferOffset = builder.transferOffset;
+        this.transferTarget = builder.transferTarget;
+        this.transferSeconds = builder.transferSeconds;
+        this.cellMeters = builder.cellMeters;
+        this.referenceLat = builder.referenceLat;
+        this.grid = builder.grid;
+    }
+
+    static TransitTimetable build(RouteNetworkSnapshot network, RouteScheduleCatalog schedules,
+                                  Map<StopId, GeoCoordinate> stopLocations, DayOfWeek day,
+                                  JourneyPlannerConfig config) {
+        Builder builder = new Builder(network.getVersion(), schedules.version(), day);
+        builder.indexRoutes(network.getRoutes(), stopLocations);
+        builder.buildTrips(network.getRoutes(), schedules, config);
+        builder.indexStopRoutes();
+        builder.buildGrid(Math.max(100.0, config.getMaxTransferWalkMeters()));
+        builder.buildTransfers(config);
+        return new TransitTimetable(builder);
+    }
+
+    // ============= QUERIES =============
+
+    int stopCount() {
+        return stopIds.length;
+    }
+
+    int routeCount() {
+        return routeIds.length;
+    }
+
+    int stopCount(int route) {
+        return routeStopOffset[route + 1] - routeStopOffset[route];
+    }
+
+    int stopAt(int route, int position) {
+        return routeStops[routeStopOffset[route] + position];
+    }
+
+    int time(int route, int trip, int position) {
+        return stopTimes[routeTimeOffset[route] + trip * stopCount(route) + position];
+    }
+
+    int tripCount() {
+        return Arrays.stream(routeTripCount).sum();
+    }
+
+    // Earliest trip among the first 'limit' trips of the route that is at the position no earlier than
+    // readyAt, or -1
+    int earliestTrip(int route, int position, int readyAt, int limit) {
+        int stride = stopCount(route);
+        int base = routeTimeOffset[route] + position;
+        int low = 0;
+        int high = limit;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (stopTimes[base + mid * stride] < readyAt) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < limit ? low : -1;
+    }
+
+    // Stop times of one route for components outside the search, or null when the route is not in this timetable
+    PlannedTrips plannedTrips(RouteId routeId) {
+        PlannedTrips cached = plannedTrips.get(routeId);
+        if (cached != null) {
+            return cached;
+        }
+
+        for (int route = 0; route < routeIds.length; route++) {
+            if (!routeIds[route].equals(routeId)) {
+                continue;
+            }
+            int stride = stopCount(route);
+            List<StopId> stops = new ArrayList<>(stride);
+            for (int position = 0; position < stride; position++) {
+                stops.add(stopIds[stopAt(route, position)]);
+            }
+            int start = routeTimeOffset[route];
+            int[] times = Arrays.copyOfRange(stopTimes, start, start + routeTripCount[route] * stride);
+            PlannedTrips built = new PlannedTrips(routeId.getValue(), day, List.copyOf(stops), routeTripCount[route],
+                    times);
+            PlannedTrips raced = plannedTrips.putIfAbsent(routeId, built);
+            return raced != null ? raced : built;
+        }
+        return null;
+    }
+
+    // Located stops within radiusMeters of the point and their straight-line distance, nearest first
+    List<double[]> stopsNear(double lat, double lng, double radiusMeters) {
+        List<double[]> found = new ArrayList<>();
+        int rings = (int) Math.ceil(radiusMeters / cellMeters);
+        long column = column(lng);
+        long row = row(lat);
+
+        for (long r = row - rings; r <= row + rings; r++) {
+            for (long c = column - rings; c <= column + rings; c++) {
+                for (int stop : grid.getOrDefault(cell(r, c), NONE)) {
+                    double meters = distance(lat, lng, stopLat[stop], stopLng[stop]);
+                    if (meters <= radiusMeters) {
+                        found.add(new double[]{stop, meters});
+                    }
+                }
+            }
+        }
+        found.sort((a, b) -> Double.compare(a[1], b[1]));
+        return found;
+    }
+
+    private long column(double lng) {
+        return (long) Math.floor(lng * METERS_PER_DEGREE * Math.cos(Math.toRadians(referenceLat)) / cellMeters);
+    }
+
+    private long row(double lat) {
+        return (long) Math.floor(lat * METERS_PER_DEGREE / cellMeters);
+    }
+
+    private static long cell(long row, long column) {
+        return (row << 32) ^ (column & 0xffffffffL);
+    }
+
+    static double distance(double lat1, double lng1, double lat2, double lng2) {
+        double deltaLat = Math.toRadians(lat2 - lat1);
+        double deltaLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(deltaLng / 2) * Math.sin(deltaLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    static TimePeriod periodOf(DayOfWeek day, int minuteOfDay) {
+        int hour = (minuteOfDay / 60) % 24;
+        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+            return TimePeriod.WEEKEND;
+        }
+        if ((hour >= 7 && hour < 9) || (hour >= 17 && hour < 19)) {
+            return TimePeriod.RUSH_HOUR;
+        }
+        if (hour >= 22 || hour < 6) {
+            return TimePeriod.NIGHT;
+        }
+        return TimePeriod.OFF_PEAK;
+    }
+
+    // ============= BUILD =============
+
+    private static final class Builder {
+
+        private final long networkVersion;
+        private final long scheduleVersion;
+        private final DayOfWeek day;
+
+        private StopId[] stopIds;
+        private Map<StopId, Integer> stopIndex;
+        private double[] stopLat;
+        private double[] stopLng;
+        private RouteId[] routeIds;
+        private int[] routeStopOffset;
+        private int[] routeStops;
+        private int[] routeTripCount;
+        private int[] routeTimeOffset;
+        private int[] stopTimes;
+        private int[] stopRouteOffset;
+        private int[] stopRouteRoute;
+        private int[] stopRoutePosition;
+        private int[] transferOffset;
+        private int[] transferTarget;
+        private int[] transferSeconds;
+        private double cellMeters;
+        private double referenceLat;
+        private Map<Long, int[]> grid;
+
+        Builder(long networkVersion, long scheduleVersion, DayOfWeek day) {
+            this.networkVersion = networkVersion;
+            this.scheduleVersion = scheduleVersion;
+            this.day = day;
+        }
+
+        void indexRoutes(List<Route> routes, Map<StopId, GeoCoordinate> stopLocations) {
+            Map<StopId, Integer> index = new HashMap<>();
+            List<StopId> stops = new ArrayList<>();
+            routeIds = new RouteId[routes.size()];
+            routeStopOffset = new int[routes.size() + 1];
+
+            int total = 0;
+            for (Route route : routes) {
+                total += route.getStopSequence().size();
+            }
+            routeStops = new int[total];
+
+            int next = 0;
+            for (int r = 0; r < routes.size(); r++) {
+                routeIds[r] = routes.get(r).getId();
+                routeStopOffset[r] = next;
+                for (StopId stopId : routes.get(r).getStopSequence()) {
+                    Integer stop = index.get(stopId);
+                    if (stop == null) {
+                        stop = stops.size();
+                        index.put(stopId, stop);
+                        stops.add(stopId);
+                    }
+                    routeStops[next++] = stop;
+                }
+            }
+            routeStopOffset[routes.size()] = next;
+
+            stopIds = stops.toArray(new StopId[0]);
+            stopIndex = Map.copyOf(index);
+            stopLat = new double[stopIds.length];
+            stopLng = new double[stopIds.length];
+            for (int s = 0; s < stopIds.length; s++) {
+                GeoCoordinate location = stopLocations.get(stopIds[s]);
+                stopLat[s] = location != null ? location.getLatitude() : Double.NaN;
+                stopLng[s] = location != null ? location.getLongitude() : Double.NaN;
+            }
+        }
+
+        void buildTrips(List<Route> routes, RouteScheduleCatalog schedules, JourneyPlannerConfig config) {
+            routeTripCount = new int[routes.size()];
+            routeTimeOffset = new int[routes.size()];
+            List<int[]> blocks = new ArrayList<>(routes.size());
+            int total = 0;
+
+            for (int r = 0; r < routes.size(); r++) {
+                Route route = routes.get(r);
+                RouteSchedule schedule = schedules.scheduleFor(route.getId().getValue()).orElse(null);
+                int[] departures = schedule != null ? schedule.getCompiledTimetable().departureMinutes(day) : NONE;
+                int n = routeStopOffset[r + 1] - routeStopOffset[r];
+
+                int[] block = n > 0 ? tripTimes(r, route, departures, config) : NONE;
+                routeTripCount[r] = n > 0 ? departures.length : 0;
+                routeTimeOffset[r] = total;
+                total += block.length;
+                blocks.add(block);
+            }
+
+            stopTimes = new int[total];
+            for (int r = 0; r < blocks.size(); r++) {
+                System.arraycopy(blocks.get(r), 0, stopTimes, routeTimeOffset[r], blocks.get(r).length);
+            }
+        }
+
+        // Travel times per segment come from the timetable durations for each trip's time period, with the
+        // dwell added at every intermediate stop. A slower trip is held back so trips never overtake.
+        private int[] tripTimes(int r, Route route, int[] departures, JourneyPlannerConfig config) {
+            int n = routeStopOffset[r + 1] - routeStopOffset[r];
+            int dwell = (int) config.getDwellTime().toSeconds();
+            double defaultSpeedMps = config.getDefaultSpeedKmh() / 3.6;
+
+            Map<StopId, RouteSegment> segmentsByStart = new HashMap<>();
+            for (RouteSegment segment : route.getSegments()) {
+                segmentsByStart.putIfAbsent(segment.getFromStopId(), segment);
+            }
+
+            int[][] segmentSeconds = new int[PERIODS.length][n];
+            for (int p = 1; p < n; p++) {
+                int from = routeStops[routeStopOffset[r] + p - 1];
+                int to = routeStops[routeStopOffset[r] + p];
+                RouteSegment segment = segmentsByStart.get(stopIds[from]);
+                boolean matches = segment != null && segment.getToStopId().equals(stopIds[to]);
+
+                for (TimePeriod period : PERIODS) {
+                    int seconds = matches ? segment.getTimeForPeriod(period).getSeconds() : 0;
+                    if (seconds <= 0) {
+                        double meters = Double.isNaN(stopLat[from]) || Double.isNaN(stopLat[to])
+                                ? 0.0
+                                : distance(stopLat[from], stopLng[from], stopLat[to], stopLng[to]);
+                        // Two minutes when neither a duration nor both locations are known
+                        seconds = meters > 0.0 ? (int) Math.ceil(meters / defaultSpeedMps) : 120;
+                    }
+                    segmentSeconds[period.ordinal()][p] = seconds;
+                }
+            }
+
+            int[] block = new int[departures.length * n];
+            for (int trip = 0; trip < departures.length; trip++) {
+                int[] seconds = segmentSeconds[periodOf(day, departures[trip]).ordinal()];
+                int base = trip * n;
+                block[base] = departures[trip] * 60;
+                for (int p = 1; p < n; p++) {
+                    block[base + p] = block[base + p - 1] + (p > 1 ? dwell : 0) + seconds[p];
+                }
+                if (trip > 0) {
+                    for (int p = 0; p < n; p++) {
+                        block[base + p] = Math.max(block[base + p], block[base - n + p]);
+                    }
+                }
+            }
+            return block;
+        }
+
+        void indexStopRoutes() {
+            int[] counts = new int[stopIds.length + 1];
+            for (int stop : routeStops) {
+                counts[stop + 1]++;
+            }
+            stopRouteOffset = new int[stopIds.length + 1];
+            for (int s = 0; s < stopIds.length; s++) {
+                stopRouteOffset[s + 1] = stopRouteOffset[s] + counts[s + 1];
+            }
+
+            stopRouteRoute = new int[routeStops.length];
+            stopRoutePosition = new int[routeStops.length];
+            int[] fill = Arrays.copyOf(stopRouteOffset, stopIds.length);
+            for (int r = 0; r < routeIds.length; r++) {
+                for (int p = 0; p < routeStopOffset[r + 1] - routeStopOffset[r]; p++) {
+                    int stop = routeStops[routeStopOffset[r] + p];
+                    stopRouteRoute[fill[stop]] = r;
+                    stopRoutePosition[fill[stop]] = p;
+                    fill[stop]++;
+                }
+            }
+        }
+
+        void buildGrid(double cellMeters) {
+            this.cellMeters = cellMeters;
+            double latSum = 0.0;
+            int located = 0;
+            for (int s = 0; s < stopIds.length; s++) {
+                if (!Double.isNaN(stopLat[s])) {
+                    latSum += stopLat[s];
+                    located++;
+                }
+            }
+            referenceLat = located > 0 ? latSum / located : 0.0;
+
+            Map<Long, List<Integer>> cells = new HashMap<>();
+            for (int s = 0; s < stopIds.length; s++) {
+                if (!Double.isNaN(stopLat[s])) {
+                    long row = (long) Math.floor(stopLat[s] * METERS_PER_DEGREE / cellMeters);
+                    long column = (long) Math.floor(
+                            stopLng[s] * METERS_PER_DEGREE * Math.cos(Math.toRadians(referenceLat)) / cellMeters);
+                    cells.computeIfAbsent(cell(row, column), key -> new ArrayList<>()).add(s);
+                }
+            }
+
+            grid = new HashMap<>(cells.size() * 2);
+            cells.forEach((key, stops) -> grid.put(key, stops.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        void buildTransfers(JourneyPlannerConfig config) {
+            double walkSpeedMps = config.getWalkSpeedKmh() / 3.6;
+            double radius = config.getMaxTransferWalkMeters();
+            int rings = (int) Math.ceil(radius / cellMeters);
+            double lngScale = METERS_PER_DEGREE * Math.cos(Math.toRadians(referenceLat));
+
+            transferOffset = new int[stopIds.length + 1];
+            List<int[]> transfers = new ArrayList<>();
+            for (int s = 0; s < stopIds.length; s++) {
+                transferOffset[s] = transfers.size();
+                if (Double.isNaN(stopLat[s]) || radius <= 0.0) {
+                    continue;
+                }
+
+                long row = (long) Math.floor(stopLat[s] * METERS_PER_DEGREE / cellMeters);
+                long column = (long) Math.floor(stopLng[s] * lngScale / cellMeters);
+                for (long r = row - rings; r <= row + rings; r++) {
+                    for (long c = column - rings; c <= column + rings; c++) {
+                        for (int target : grid.getOrDefault(cell(r, c), NONE)) {
+                            double meters = target != s
+                                    ? distance(stopLat[s], stopLng[s], stopLat[target], stopLng[target])
+                                    : Double.MAX_VALUE;
+                            if (meters <= radius) {
+                                transfers.add(new int[]{target,
+                                        (int) Math.ceil(meters * config.getWalkDetourFactor() / walkSpeedMps)});
+                            }
+                        }
+                    }
+                }
+            }
+            transferOffset[stopIds.length] = transfers.size();
+
+            transferTarget = new int[transfers.size()];
+            transferSeconds = new int[transfers.size()];
+            for (int i = 0; i < transfers.size(); i++) {
+                transferTarget[i] = transfers.get(i)[0];
+                transferSeconds[i] = transfers.get(i)[1];
+            }
+        }
+    }
+}
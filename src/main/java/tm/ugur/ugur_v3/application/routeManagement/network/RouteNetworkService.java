@@ -0,0 +1,158 @@
+package tm.ugur.ugur_v3.application.routeManagement.network;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.RouteNetworkConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.Route;
+import tm.ugur.ugur_v3.domain.routeManagement.events.RouteActivatedEvent;
+import tm.ugur.ugur_v3.domain.routeManagement.events.RouteCreatedEvent;
+import tm.ugur.ugur_v3.domain.routeManagement.events.RouteDeactivatedEvent;
+import tm.ugur.ugur_v3.domain.routeManagement.events.RouteStopAddedEvent;
+import tm.ugur.ugur_v3.domain.routeManagement.events.RouteStopRemovedEvent;
+import tm.ugur.ugur_v3.domain.routeManagement.repository.RouteRepository;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteId;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventListener;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventPublisher;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Component
+public class RouteNetworkService implements DomainEventListener {
+
+    private final ObjectProvider<RouteRepository> routeRepository;
+    private final RouteNetworkConfig config;
+    private final PerformanceMonitor performanceMonitor;
+
+    private final AtomicReference<RouteNetworkSnapshot> snapshot =
+            new AtomicReference<>(RouteNetworkSnapshot.empty());
+    private final AtomicLong nextVersion = new AtomicLong(1);
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    public RouteNetworkService(ObjectProvider<RouteRepository> routeRepository,
+                               RouteNetworkConfig config,
+                               PerformanceMonitor performanceMonitor) {
+        this.routeRepository = routeRepository;
+        this.config = config;
+        this.performanceMonitor = performanceMonitor;
+    }
+
+    @PostConstruct
+    public void start() {
+        DomainEventPublisher.instance().subscribe(this);
+        requestRebuild("startup");
+    }
+
+    @PreDestroy
+    public void stop() {
+        DomainEventPublisher.instance().unsubscribe(this);
+    }
+
+    // ============= QUERIES =============
+
+    public RouteNetworkSnapshot current() {
+        return snapshot.get();
+    }
+
+    public Flux<Route> findByStopId(StopId stopId) {
+        return Flux.defer(() -> Flux.fromIterable(snapshot.get().routesServing(stopId)));
+    }
+
+    public Flux<Route> findRoutesBetweenStops(StopId fromStopId, StopId toStopId) {
+        return Flux.defer(() -> Flux.fromIterable(snapshot.get().routesBetween(fromStopId, toStopId)));
+    }
+
+    public Flux<Route> findAlternativeRoutes(StopId fromStopId, StopId toStopId, RouteId excludedRouteId) {
+        return Flux.defer(() -> Flux.fromIterable(
+                snapshot.get().alternativeRoutes(fromStopId, toStopId, excludedRouteId)));
+    }
+
+    public Flux<Route> findCompetingRoutes(RouteId routeId, double overlapThreshold) {
+        return Flux.defer(() -> Flux.fromIterable(snapshot.get().competingRoutes(routeId, overlapThreshold)));
+    }
+
+    // ============= REBUILD =============
+
+    @Override
+    public boolean canHandle(DomainEvent event) {
+        return event instanceof RouteCreatedEvent
+                || event instanceof RouteStopAddedEvent
+                || event instanceof RouteStopRemovedEvent
+                || event instanceof RouteActivatedEvent
+                || event instanceof RouteDeactivatedEvent;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        requestRebuild(event.getClass().getSimpleName());
+    }
+
+    @Scheduled(fixedDelayString = "${ugur.route-network.refresh-interval:15m}",
+            initialDelayString = "${ugur.route-network.refresh-interval:15m}")
+    public void scheduledRefresh() {
+        requestRebuild("scheduled");
+    }
+
+    public Mono<RouteNetworkSnapshot> refresh() {
+        RouteRepository repository = routeRepository.getIfAvailable();
+        if (repository == null) {
+            return Mono.just(snapshot.get());
+        }
+
+        long version = nextVersion.getAndIncrement();
+        long startTime = System.nanoTime();
+
+        return repository.findActiveRoutes()
+                .collectList()
+                .timeout(config.getLoadTimeout())
+                .map(routes -> RouteNetworkSnapshot.build(version, routes))
+                .map(built -> {
+                    // A slower, older build must never replace a newer snapshot.
+                    RouteNetworkSnapshot installed = snapshot.accumulateAndGet(built,
+                            (existing, candidate) -> candidate.getVersion() > existing.getVersion() ? candidate : existing);
+
+                    performanceMonitor.recordTime("route.network.rebuild", Duration.ofNanos(System.nanoTime() - startTime));
+                    performanceMonitor.recordGauge("route.network.routes", installed.getRouteCount());
+                    performanceMonitor.recordGauge("route.network.stops", installed.getStopCount());
+                    performanceMonitor.recordGauge("route.network.version", installed.getVersion());
+                    return installed;
+                });
+    }
+
+    private void requestRebuild(String reason) {
+        rebuildRequested.set(true);
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+
+        // Events arriving during a rebuild collapse into a single follow-up rebuild.
+        rebuildRequested.set(false);
+        refresh()
+                .doFinally(signal -> {
+                    rebuilding.set(false);
+                    if (rebuildRequested.get()) {
+                        requestRebuild("coalesced");
+                    }
+                })
+                .subscribe(
+                        installed -> log.debug("Route network snapshot {} installed ({})", installed, reason),
+                        error -> {
+                            performanceMonitor.incrementCounter("route.network.rebuild.failed");
+                            log.warn("Route network rebuild failed ({}), keeping version {}: {}",
+                                    reason, snapshot.get().getVersion(), error.getMessage());
+                        });
+    }
+}
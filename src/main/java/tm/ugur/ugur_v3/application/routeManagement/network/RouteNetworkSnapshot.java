@@ -0,0 +1,281 @@
+package tm.ugur.ugur_v3.application.routeManagement.network;
+
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.Route;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.RouteSegment;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteId;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+public final class RouteNetworkSnapshot {
+
+    private static final int[] NO_ROUTES = new int[0];
+
+    private final long version;
+    private final Instant builtAt;
+
+    private final Route[] routes;
+    private final Map<RouteId, Integer> routeIndex;
+    private final int[][] routeStops;
+    private final double[][] cumulativeMeters;
+
+    private final Map<StopId, Integer> stopIndex;
+    private final int[][] stopRoutes;
+    private final int[][] stopRoutePositions;
+
+    // Shared-stop counts for every route pair, row-major routes.length x routes.length
+    private final int[] sharedStops;
+
+    private RouteNetworkSnapshot(long version, Instant builtAt, Route[] routes, Map<RouteId, Integer> routeIndex,
+                                 int[][] routeStops, double[][] cumulativeMeters, Map<StopId, Integer> stopIndex,
+                                 int[][] stopRoutes, int[][] stopRoutePositions, int[] sharedStops) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.routes = routes;
+        this.routeIndex = routeIndex;
+        this.routeStops = routeStops;
+        this.cumulativeMeters = cumulativeMeters;
+        this.stopIndex = stopIndex;
+        this.stopRoutes = stopRoutes;
+        this.stopRoutePositions = stopRoutePositions;
+        this.sharedStops = sharedStops;
+    }
+
+    public static RouteNetworkSnapshot empty() {
+        return build(0, List.of());
+    }
+
+    public static RouteNetworkSnapshot build(long version, List<Route> activeRoutes) {
+        int routeCount = activeRoutes.size();
+        Route[] routes = activeRoutes.toArray(new Route[0]);
+        Map<RouteId, Integer> routeIndex = new HashMap<>(routeCount * 2);
+        Map<StopId, Integer> stopIndex = new HashMap<>();
+        int[][] routeStops = new int[routeCount][];
+        double[][] cumulativeMeters = new double[routeCount][];
+
+        for (int r = 0; r < routeCount; r++) {
+            Route route = routes[r];
+            routeIndex.put(route.getId(), r);
+
+            List<StopId> sequence = route.getStopSequence();
+            int[] stops = new int[sequence.size()];
+            for (int i = 0; i < stops.length; i++) {
+                stops[i] = stopIndex.computeIfAbsent(sequence.get(i), stop -> stopIndex.size());
+            }
+            routeStops[r] = stops;
+            cumulativeMeters[r] = cumulativeDistances(route, sequence);
+        }
+
+        int stopCount = stopIndex.size();
+        List<List<int[]>> postings = new ArrayList<>(stopCount);
+        for (int s = 0; s < stopCount; s++) {
+            postings.add(new ArrayList<>(2));
+        }
+        for (int r = 0; r < routeCount; r++) {
+            int[] stops = routeStops[r];
+            for (int position = 0; position < stops.length; position++) {
+                List<int[]> posting = postings.get(stops[position]);
+                // Loop routes visit a stop twice; the first visit is the boarding position.
+                if (posting.isEmpty() || posting.getLast()[0] != r) {
+                    posting.add(new int[]{r, position});
+                }
+            }
+        }
+
+        int[][] stopRoutes = new int[stopCount][];
+        int[][] stopRoutePositions = new int[stopCount][];
+        int[] sharedStops = new int[routeCount * routeCount];
+
+        for (int s = 0; s < stopCount; s++) {
+            List<int[]> posting = postings.get(s);
+            int[] routesAtStop = new int[posting.size()];
+            int[] positions = new int[posting.size()];
+            for (int i = 0; i < routesAtStop.length; i++) {
+                routesAtStop[i] = posting.get(i)[0];
+                positions[i] = posting.get(i)[1];
+            }
+            stopRoutes[s] = routesAtStop;
+            stopRoutePositions[s] = positions;
+
+            for (int i = 0; i < routesAtStop.length; i++) {
+                for (int j = i + 1; j < routesAtStop.length; j++) {
+                    sharedStops[routesAtStop[i] * routeCount + routesAtStop[j]]++;
+                    sharedStops[routesAtStop[j] * routeCount + routesAtStop[i]]++;
+                }
+            }
+        }
+
+        return new RouteNetworkSnapshot(version, Instant.now(), routes, Map.copyOf(routeIndex), routeStops,
+                cumulativeMeters, Map.copyOf(stopIndex), stopRoutes, stopRoutePositions, sharedStops);
+    }
+
+    private static double[] cumulativeDistances(Route route, List<StopId> sequence) {
+        Map<StopId, RouteSegment> segmentsByStart = new HashMap<>();
+        for (RouteSegment segment : route.getSegments()) {
+            segmentsByStart.putIfAbsent(segment.getFromStopId(), segment);
+        }
+
+        double[] cumulative = new double[sequence.size()];
+        for (int i = 1; i < cumulative.length; i++) {
+            RouteSegment segment = segmentsByStart.get(sequence.get(i - 1));
+            double meters = segment != null && segment.getToStopId().equals(sequence.get(i))
+                    ? segment.getDistance().toMeters()
+                    : Double.NaN;
+            cumulative[i] = cumulative[i - 1] + meters;
+        }
+        return cumulative;
+    }
+
+    // ============= QUERIES =============
+
+    public List<Route> routesServing(StopId stopId) {
+        int[] routesAtStop = routesAt(stopId);
+        List<Route> result = new ArrayList<>(routesAtStop.length);
+        for (int route : routesAtStop) {
+            result.add(routes[route]);
+        }
+        return result;
+    }
+
+    public List<Route> routesBetween(StopId fromStopId, StopId toStopId) {
+        Integer from = stopIndex.get(fromStopId);
+        Integer to = stopIndex.get(toStopId);
+        if (from == null || to == null) {
+            return List.of();
+        }
+
+        int[] fromRoutes = stopRoutes[from];
+        int[] fromPositions = stopRoutePositions[from];
+        int[] toRoutes = stopRoutes[to];
+        int[] toPositions = stopRoutePositions[to];
+
+        // Both posting lists are sorted by route index, so a merge walk finds the shared routes.
+        List<Route> result = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < fromRoutes.length && j < toRoutes.length) {
+            if (fromRoutes[i] < toRoutes[j]) {
+                i++;
+            } else if (fromRoutes[i] > toRoutes[j]) {
+                j++;
+            } else {
+                Route route = routes[fromRoutes[i]];
+                if (fromPositions[i] < toPositions[j] || route.isCircular()) {
+                    result.add(route);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public List<Route> alternativeRoutes(StopId fromStopId, StopId toStopId, RouteId excludedRouteId) {
+        List<Route> result = new ArrayList<>(routesBetween(fromStopId, toStopId));
+        result.removeIf(route -> route.getId().equals(excludedRouteId));
+        return result;
+    }
+
+    public List<Route> competingRoutes(RouteId routeId, double overlapThreshold) {
+        Integer route = routeIndex.get(routeId);
+        if (route == null) {
+            return List.of();
+        }
+
+        List<Route> result = new ArrayList<>();
+        for (int other = 0; other < routes.length; other++) {
+            if (other != route && overlapRatio(route, other) >= overlapThreshold) {
+                result.add(routes[other]);
+            }
+        }
+        return result;
+    }
+
+    public double overlap(RouteId first, RouteId second) {
+        Integer a = routeIndex.get(first);
+        Integer b = routeIndex.get(second);
+        return a == null || b == null ? 0.0 : overlapRatio(a, b);
+    }
+
+    public OptionalDouble distanceAlongRoute(RouteId routeId, StopId fromStopId, StopId toStopId) {
+        Integer route = routeIndex.get(routeId);
+        Integer from = stopIndex.get(fromStopId);
+        Integer to = stopIndex.get(toStopId);
+        if (route == null || from == null || to == null) {
+            return OptionalDouble.empty();
+        }
+
+        int fromPosition = positionOf(route, from);
+        int toPosition = positionOf(route, to);
+        if (fromPosition < 0 || toPosition < fromPosition) {
+            return OptionalDouble.empty();
+        }
+
+        double meters = cumulativeMeters[route][toPosition] - cumulativeMeters[route][fromPosition];
+        return Double.isNaN(meters) ? OptionalDouble.empty() : OptionalDouble.of(meters);
+    }
+
+    public Optional<Route> route(RouteId routeId) {
+        Integer route = routeIndex.get(routeId);
+        return route != null ? Optional.of(routes[route]) : Optional.empty();
+    }
+
+    public boolean containsRoute(RouteId routeId) {
+        return routeIndex.containsKey(routeId);
+    }
+
+    public List<Route> getRoutes() {
+        return List.of(routes);
+    }
+
+    public List<StopId> getStops() {
+        StopId[] stops = new StopId[stopIndex.size()];
+        stopIndex.forEach((stop, index) -> stops[index] = stop);
+        return Arrays.asList(stops);
+    }
+
+    public int getRouteCount() {
+        return routes.length;
+    }
+
+    public int getStopCount() {
+        return stopIndex.size();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    private int[] routesAt(StopId stopId) {
+        Integer stop = stopIndex.get(stopId);
+        return stop != null ? stopRoutes[stop] : NO_ROUTES;
+    }
+
+    private int positionOf(int route, int stop) {
+        int[] routesAtStop = stopRoutes[stop];
+        int i = Arrays.binarySearch(routesAtStop, route);
+        return i >= 0 ? stopRoutePositions[stop][i] : -1;
+    }
+
+    private double overlapRatio(int first, int second) {
+        int smaller = Math.min(routeStops[first].length, routeStops[second].length);
+        return smaller == 0 ? 0.0 : (double) sharedStops[first * routes.length + second] / smaller;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RouteNetworkSnapshot{version=%d, routes=%d, stops=%d, builtAt=%s}",
+                version, routes.length, stopIndex.size(), builtAt);
+    }
+}
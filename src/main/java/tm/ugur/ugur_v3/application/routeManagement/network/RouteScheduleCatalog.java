@@ -0,0 +1,87 @@
+package tm.ugur.ugur_v3.application.routeManagement.network;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tm.ugur.ugur_v3.application.configuration.RouteNetworkConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.RouteSchedule;
+import tm.ugur.ugur_v3.domain.routeManagement.repository.RouteRepository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Active schedule of every route, loaded from the repository and refreshed periodically, for the
+// components that compare against or plan with the timetable
+@Slf4j
+@Component
+public class RouteScheduleCatalog {
+
+    private final ObjectProvider<RouteRepository> routeRepository;
+    private final RouteNetworkConfig config;
+    private final PerformanceMonitor performanceMonitor;
+
+    private final Map<String, RouteSchedule> schedules = new ConcurrentHashMap<>();
+    private final AtomicBoolean loading = new AtomicBoolean(false);
+    private final AtomicLong version = new AtomicLong();
+
+    public RouteScheduleCatalog(ObjectProvider<RouteRepository> routeRepository,
+                                RouteNetworkConfig config,
+                                PerformanceMonitor performanceMonitor) {
+        this.routeRepository = routeRepository;
+        this.config = config;
+        this.performanceMonitor = performanceMonitor;
+    }
+
+    @PostConstruct
+    public void start() {
+        refresh();
+    }
+
+    public Optional<RouteSchedule> scheduleFor(String routeId) {
+        return Optional.ofNullable(schedules.get(routeId));
+    }
+
+    public Collection<RouteSchedule> schedules() {
+        return schedules.values();
+    }
+
+    public void register(RouteSchedule schedule) {
+        schedules.put(schedule.getRouteId().getValue(), schedule);
+        version.incrementAndGet();
+    }
+
+    // Changes whenever a schedule is registered or reloaded, so derived timetables know to rebuild
+    public long version() {
+        return version.get();
+    }
+
+    public int size() {
+        return schedules.size();
+    }
+
+    @Scheduled(fixedDelayString = "${ugur.route-network.schedule-refresh-interval:15m}",
+            initialDelayString = "${ugur.route-network.schedule-refresh-interval:15m}")
+    public void refresh() {
+        RouteRepository repository = routeRepository.getIfAvailable();
+        if (repository == null || !loading.compareAndSet(false, true)) {
+            return;
+        }
+
+        repository.findActiveSchedules()
+                .doOnNext(this::register)
+                .count()
+                .timeout(config.getLoadTimeout())
+                .doOnNext(loaded -> performanceMonitor.recordGauge("route.schedules", loaded))
+                .doOnError(error -> log.warn("Failed to load active route schedules: {}", error.getMessage()))
+                .onErrorComplete()
+                .doFinally(signal -> loading.set(false))
+                .subscribe();
+    }
+}
@@ -1,24 +1,50 @@
 package tm.ugur.ugur_v3.application.shared.executor;
 
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import tm.ugur.ugur_v3.application.configuration.AsyncExecutorConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
+@Slf4j
+@Component
 public class AsyncRetryWrapper {
 
-    private final UseCaseExecutor syncExecutor;
     private final AsyncUseCaseExecutor asyncExecutor;
-    private final ScheduledExecutorService scheduler;
-
-    public AsyncRetryWrapper(UseCaseExecutor syncExecutor,
-                             AsyncUseCaseExecutor asyncExecutor,
-                             ScheduledExecutorService scheduler) {
-        this.syncExecutor = syncExecutor;
+    private final Timer timer;
+    private final PerformanceMonitor performanceMonitor;
+    private final AsyncExecutorConfig.RetryConfig config;
+    private final RetryBudget retryBudget;
+    private final Map<String, LatencyTracker> latencyTrackers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("usecase-retry-", 0).factory());
+
+    public AsyncRetryWrapper(AsyncUseCaseExecutor asyncExecutor,
+                             Timer retryTimer,
+                             PerformanceMonitor performanceMonitor,
+                             AsyncExecutorConfig executorConfig) {
         this.asyncExecutor = asyncExecutor;
-        this.scheduler = scheduler;
+        this.timer = retryTimer;
+        this.performanceMonitor = performanceMonitor;
+        this.config = executorConfig.getRetry();
+        this.retryBudget = new RetryBudget(
+                config.getBudgetRatio(), config.getMinRetriesPerSecond(), config.getBudgetWindowSeconds());
     }
 
 
@@ -30,8 +56,7 @@ public class AsyncRetryWrapper {
 
         return executeWithRetryInternal(
                 () -> asyncExecutor.executeAsync(command, handler, priority),
-                retryPolicy,
-                1
+                retryPolicy
         );
     }
 
@@ -43,8 +68,23 @@ public class AsyncRetryWrapper {
 
         return executeWithRetryInternal(
                 () -> asyncExecutor.executeQueryAsync(query, handler, cacheStrategy),
-                retryPolicy,
-                1
+                retryPolicy
+        );
+    }
+
+    // Only for idempotent queries: a second copy is sent when the first is slower than the observed percentile
+    public <Q, R> CompletableFuture<R> executeHedgedQuery(
+            Q query,
+            UseCaseExecutor.QueryHandler<Q, R> handler,
+            AsyncUseCaseExecutor.CacheStrategy cacheStrategy,
+            UseCaseExecutor.RetryPolicy retryPolicy) {
+
+        LatencyTracker tracker = latencyTrackers.computeIfAbsent(
+                handler.getClass().getName(), key -> new LatencyTracker(config.getLatencySampleSize()));
+
+        return executeWithRetryInternal(
+                () -> hedge(() -> asyncExecutor.executeQueryAsync(query, handler, cacheStrategy), tracker),
+                retryPolicy
         );
     }
 
@@ -57,59 +97,176 @@ public class AsyncRetryWrapper {
 
         return executeWithRetryInternal(
                 () -> asyncExecutor.executeWithTimeout(operation, timeout, fallback),
-                retryPolicy,
-                1
+                retryPolicy
         );
     }
 
+    // ============= RETRY ENGINE =============
+
     private <R> CompletableFuture<R> executeWithRetryInternal(
             Supplier<CompletableFuture<R>> operation,
-            UseCaseExecutor.RetryPolicy retryPolicy,
-            int currentAttempt) {
+            UseCaseExecutor.RetryPolicy retryPolicy) {
+
+        CompletableFuture<R> result = new CompletableFuture<>();
+        attempt(operation, retryPolicy, 1, retryPolicy.getDelayMillis(), result);
+        return result;
+    }
+
+    private <R> void attempt(Supplier<CompletableFuture<R>> operation,
+                             UseCaseExecutor.RetryPolicy retryPolicy,
+                             int currentAttempt,
+                             long previousDelayMillis,
+                             CompletableFuture<R> result) {
+        if (result.isDone()) {
+            return;
+        }
+
+        CompletableFuture<R> execution;
+        try {
+            execution = operation.get();
+        } catch (RuntimeException e) {
+            execution = CompletableFuture.failedFuture(e);
+        }
+
+        execution.whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                retryBudget.recordSuccess();
+                if (currentAttempt > 1) {
+                    performanceMonitor.incrementCounter("retry.recovered");
+                }
+                result.complete(value);
+                return;
+            }
 
-        return operation.get()
-                .handle((result, throwable) -> {
-                    if (throwable == null) {
-                        return CompletableFuture.completedFuture(result);
-                    }
+            Throwable actualException = throwable instanceof CompletionException ?
+                    throwable.getCause() : throwable;
 
-                    Throwable actualException = throwable instanceof CompletionException ?
-                            throwable.getCause() : throwable;
+            if (!(actualException instanceof Exception exception) || !retryPolicy.shouldRetry(exception)) {
+                result.completeExceptionally(actualException);
+                return;
+            }
 
-                    if (currentAttempt >= retryPolicy.getMaxAttempts() ||
-                            !retryPolicy.shouldRetry((Exception) actualException)) {
+            if (currentAttempt >= retryPolicy.getMaxAttempts()) {
+                performanceMonitor.incrementCounter("retry.exhausted");
+                result.completeExceptionally(actualException);
+                return;
+            }
 
-                        CompletableFuture<R> failedFuture = new CompletableFuture<>();
-                        failedFuture.completeExceptionally(actualException);
-                        return failedFuture;
-                    }
+            if (!retryBudget.tryAcquire()) {
+                performanceMonitor.incrementCounter("retry.budget.exhausted");
+                log.debug("Retry budget exhausted, failing after attempt {}: {}",
+                        currentAttempt, actualException.getMessage());
+                result.completeExceptionally(actualException);
+                return;
+            }
 
-                    long delayMillis = calculateDelay(retryPolicy, currentAttempt);
+            long delayMillis = calculateDelay(retryPolicy, previousDelayMillis);
+            performanceMonitor.incrementCounter("retry.attempts");
+            performanceMonitor.recordTime("retry.delay", Duration.ofMillis(delayMillis));
+
+            timer.newTimeout(
+                    timeout -> dispatch(() -> attempt(operation, retryPolicy, currentAttempt + 1, delayMillis, result),
+                            result),
+                    delayMillis,
+                    TimeUnit.MILLISECONDS
+            );
+        });
+    }
 
-                    CompletableFuture<R> retryFuture = new CompletableFuture<>();
-                    scheduler.schedule(
-                            () -> {
-                                executeWithRetryInternal(operation, retryPolicy, currentAttempt + 1)
-                                        .whenComplete((retryResult, retryThrowable) -> {
-                                            if (retryThrowable != null) {
-                                                retryFuture.completeExceptionally(retryThrowable);
-                                            } else {
-                                                retryFuture.complete(retryResult);
-                                            }
-                                        });
-                            },
-                            delayMillis,
-                            TimeUnit.MILLISECONDS
-                    );
+    private long calculateDelay(UseCaseExecutor.RetryPolicy retryPolicy, long previousDelayMillis) {
+        // Decorrelated jitter: random between base and 3x the previous delay, capped
+        long base = Math.max(1, retryPolicy.getDelayMillis());
+        long upper = Math.max(base, previousDelayMillis * 3);
+        long delay = ThreadLocalRandom.current().nextLong(base, upper + 1);
+        return Math.min(config.getMaxDelay().toMillis(), delay);
+    }
 
-                    return retryFuture;
-                })
-                .thenCompose(future -> future);
+    // Timer tasks run on the wheel's single thread, so the attempt itself is started on a virtual thread
+    private void dispatch(Runnable task, CompletableFuture<?> result) {
+        try {
+            dispatcher.execute(task);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
     }
 
-    private long calculateDelay(UseCaseExecutor.RetryPolicy retryPolicy, int attempt) {
-        // Exponential backoff: baseDelay * 2^(attempt-1)
-        return retryPolicy.getDelayMillis() * (long) Math.pow(2, attempt - 1);
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    // ============= HEDGING =============
+
+    private <R> CompletableFuture<R> hedge(Supplier<CompletableFuture<R>> operation, LatencyTracker tracker) {
+        if (!config.isHedgingEnabled()) {
+            return operation.get();
+        }
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<R> result = new CompletableFuture<>();
+        HedgeState<R> state = new HedgeState<>();
+
+        CompletableFuture<R> primary = operation.get();
+        state.primary = primary;
+
+        long hedgeDelayNanos = tracker.percentileNanos(config.getHedgePercentile())
+                .orElse(config.getInitialHedgeDelay().toNanos());
+        hedgeDelayNanos = Math.max(hedgeDelayNanos, config.getMinHedgeDelay().toNanos());
+
+        Timeout hedgeTimer = timer.newTimeout(timeout -> dispatch(() -> {
+            synchronized (state) {
+                if (result.isDone() || !retryBudget.tryAcquire()) {
+                    return;
+                }
+                state.outstanding++;
+            }
+            performanceMonitor.incrementCounter("hedge.sent");
+            CompletableFuture<R> secondary;
+            try {
+                secondary = operation.get();
+            } catch (RuntimeException e) {
+                secondary = CompletableFuture.failedFuture(e);
+            }
+            state.secondary = secondary;
+            if (result.isDone()) {
+                secondary.cancel(true);
+            }
+            secondary.whenComplete((value, error) -> onHedgeOutcome(result, state, tracker, startedAt, value, error, true));
+        }, result), hedgeDelayNanos, TimeUnit.NANOSECONDS);
+
+        primary.whenComplete((value, error) -> onHedgeOutcome(result, state, tracker, startedAt, value, error, false));
+        result.whenComplete((value, error) -> hedgeTimer.cancel());
+
+        return result;
+    }
+
+    private <R> void onHedgeOutcome(CompletableFuture<R> result,
+                                    HedgeState<R> state,
+                                    LatencyTracker tracker,
+                                    long startedAt,
+                                    R value,
+                                    Throwable error,
+                                    boolean fromHedge) {
+        if (error == null) {
+            if (result.complete(value)) {
+                tracker.record(System.nanoTime() - startedAt);
+                if (fromHedge) {
+                    performanceMonitor.incrementCounter("hedge.won");
+                }
+                CompletableFuture<R> loser = fromHedge ? state.primary : state.secondary;
+                if (loser != null) {
+                    loser.cancel(true);
+                }
+            }
+            return;
+        }
+
+        synchronized (state) {
+            state.outstanding--;
+            if (state.outstanding == 0) {
+                result.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            }
+        }
     }
 
 
@@ -215,4 +372,46 @@ public class AsyncRetryWrapper {
                         message.contains("Circuit breaker")
         );
     }
+
+    private static final class HedgeState<R> {
+
+        private volatile CompletableFuture<R> primary;
+        private volatile CompletableFuture<R> secondary;
+        private int outstanding = 1;
+    }
+
+    private static final class LatencyTracker {
+
+        private final long[] samples;
+        private int next;
+        private int size;
+        private long cachedPercentileNanos = -1;
+        private double cachedPercentile;
+        private int recordsSinceCompute;
+
+        private LatencyTracker(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        private synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+            recordsSinceCompute++;
+        }
+
+        private synchronized OptionalLong percentileNanos(double percentile) {
+            if (size < 16) {
+                return OptionalLong.empty();
+            }
+            if (cachedPercentileNanos < 0 || cachedPercentile != percentile || recordsSinceCompute >= samples.length / 8) {
+                long[] sorted = Arrays.copyOf(samples, size);
+                Arrays.sort(sorted);
+                cachedPercentileNanos = sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+                cachedPercentile = percentile;
+                recordsSinceCompute = 0;
+            }
+            return OptionalLong.of(cachedPercentileNanos);
+        }
+    }
 }
@@ -13,6 +13,13 @@ public interface AsyncUseCaseExecutor {
             ExecutionPriority priority
     );
 
+    <C, R> CompletableFuture<R> executeAsync(
+            C command,
+            UseCaseExecutor.CommandHandler<C, R> handler,
+            ExecutionPriority priority,
+            Duration deadline
+    );
+
     <Q, R> CompletableFuture<R> executeQueryAsync(
             Q query,
             UseCaseExecutor.QueryHandler<Q, R> handler,
@@ -82,13 +89,26 @@ public interface AsyncUseCaseExecutor {
 
         double getThroughput();
 
-        CircuitBreakerStatus getCircuitBreakerStatus();
+        LaneMetrics getLaneMetrics(ExecutionPriority priority);
     }
 
-
-    enum CircuitBreakerStatus {
-        CLOSED,    // Нормальная работа
-        OPEN,      // Блокировка операций из-за ошибок
-        HALF_OPEN  // Тестирование восстановления
+    record LaneMetrics(
+            ExecutionPriority priority,
+            int activeOperations,
+            int queuedOperations,
+            int availablePermits,
+            long completed,
+            long failed,
+            long rejected,
+            long deadlineExceeded,
+            Duration averageQueueTime,
+            Duration maxQueueTime,
+            Duration averageRunTime,
+            Duration maxRunTime
+    ) {
+        public double getQueueShare() {
+            long total = averageQueueTime.toNanos() + averageRunTime.toNanos();
+            return total > 0 ? (double) averageQueueTime.toNanos() / total * 100.0 : 0.0;
+        }
     }
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package tm.ugur.ugur_v3.application.shared.executor;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public interface BatchUseCaseExecutor {
 
@@ -13,10 +19,20 @@ public interface BatchUseCaseExecutor {
             BatchConfig config
     );
 
-    <C, R> Flow.Publisher<BatchResult<R>> executeStreamingBatch(
+    // Results come back in command order; use the overload taking an ExecutionMode to let them complete out of order
+    default <C, R> Flow.Publisher<BatchResult<R>> executeStreamingBatch(
             java.util.concurrent.Flow.Publisher<C> commandStream,
             UseCaseExecutor.CommandHandler<C, R> handler,
             StreamingBatchConfig config
+    ) {
+        return executeStreamingBatch(commandStream, handler, config, ExecutionMode.ORDERED);
+    }
+
+    <C, R> Flow.Publisher<BatchResult<R>> executeStreamingBatch(
+            Flow.Publisher<C> commandStream,
+            UseCaseExecutor.CommandHandler<C, R> handler,
+            StreamingBatchConfig config,
+            ExecutionMode mode
     );
 
     <C, R> CompletableFuture<List<BatchResult<R>>> executeParallelBatch(
@@ -31,11 +47,42 @@ public interface BatchUseCaseExecutor {
             OrderedBatchConfig config
     );
 
+    // Runs the commands one after another in a single transaction: the first failure rolls back the work of every
+    // command before it and the rest are not run. The handler is reactive so its repository calls join the transaction.
     <C, R> CompletableFuture<TransactionalBatchResult<R>> executeTransactionalBatch(
             List<C> commands,
-            UseCaseExecutor.CommandHandler<C, R> handler
+            UseCaseExecutor.CommandHandler<C, Mono<R>> handler
     );
 
+    <C, R> Flux<BatchResult<R>> executeReactiveBatch(
+            Flux<C> commandStream,
+            UseCaseExecutor.CommandHandler<C, Mono<R>> handler,
+            StreamingBatchConfig config,
+            ExecutionMode mode
+    );
+
+    // For handlers that report failure in their result instead of signalling an error: results failing
+    // 'successful' come back with isSuccess() false and no error, and count as failed in the batch metrics
+    <C, R> Flux<BatchResult<R>> executeReactiveBatch(
+            Flux<C> commandStream,
+            UseCaseExecutor.CommandHandler<C, Mono<R>> handler,
+            StreamingBatchConfig config,
+            ExecutionMode mode,
+            Predicate<? super R> successful
+    );
+
+    // For handlers that take a whole batch at once, e.g. one versioned save per batch: the handler emits one
+    // result per command in command order; commands left without a result are reported as failed
+    <C, R> Flux<BatchResult<R>> executeReactiveBatches(
+            Flux<C> commandStream,
+            Function<List<C>, Flux<R>> batchHandler,
+            StreamingBatchConfig config,
+            ExecutionMode mode,
+            Predicate<? super R> successful
+    );
+
+    BatchMetrics getLastBatchMetrics();
+
     interface BatchConfig {
 
         int getPreferredBatchSize();
@@ -57,6 +104,14 @@ public interface BatchUseCaseExecutor {
         BatchTrigger getBatchTrigger();
 
         BackpressureStrategy getBackpressureStrategy();
+
+        default int getParallelism() {
+            return 1;
+        }
+
+        default int getBufferCapacity() {
+            return getMaxBatchSize() * 4;
+        }
     }
     interface OrderedBatchConfig extends BatchConfig {
 
@@ -89,6 +144,32 @@ public interface BatchUseCaseExecutor {
         String getTransactionId();
     }
 
+    record BatchMetrics(
+            long batchNumber,
+            int batchSize,
+            int succeeded,
+            int failed,
+            Duration batchDuration,
+            Duration slowestItem,
+            Instant completedAt
+    ) {
+        public double getItemsPerSecond() {
+            long millis = Math.max(1, batchDuration.toMillis());
+            return batchSize * 1000.0 / millis;
+        }
+
+        public double getFailureRate() {
+            return batchSize > 0 ? (double) failed / batchSize * 100.0 : 0.0;
+        }
+    }
+
+    enum ExecutionMode {
+
+        ORDERED,
+
+        PARALLEL
+    }
+
     enum ErrorHandlingStrategy {
 
         CONTINUE_ON_ERROR,
@@ -0,0 +1,461 @@
+package tm.ugur.ugur_v3.application.shared.executor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.retry.Retry;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+@Slf4j
+@Component
+public class ReactiveBatchUseCaseExecutor implements BatchUseCaseExecutor {
+
+    private final PerformanceMonitor performanceMonitor;
+    private final TransactionalOperator transactionalOperator;
+
+    private final AtomicLong batchSequence = new AtomicLong(0);
+    private final AtomicReference<BatchMetrics> lastBatchMetrics = new AtomicReference<>();
+
+    public ReactiveBatchUseCaseExecutor(PerformanceMonitor performanceMonitor,
+                                        ReactiveTransactionManager transactionManager) {
+        this.performanceMonitor = performanceMonitor;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    // ============= REACTIVE API =============
+
+    @Override
+    public <C, R> Flux<BatchResult<R>> executeReactiveBatch(Flux<C> commandStream,
+                                                            UseCaseExecutor.CommandHandler<C, Mono<R>> handler,
+                                                            StreamingBatchConfig config,
+                                                            ExecutionMode mode) {
+        return runPipeline(commandStream, handler::handle, config, mode, value -> true);
+    }
+
+    @Override
+    public <C, R> Flux<BatchResult<R>> executeReactiveBatch(Flux<C> commandStream,
+                                                            UseCaseExecutor.CommandHandler<C, Mono<R>> handler,
+                                                            StreamingBatchConfig config,
+                                                            ExecutionMode mode,
+                                                            Predicate<? super R> successful) {
+        return runPipeline(commandStream, handler::handle, config, mode, successful);
+    }
+
+    @Override
+    public <C, R> Flux<BatchResult<R>> executeReactiveBatches(Flux<C> commandStream,
+                                                              Function<List<C>, Flux<R>> batchHandler,
+                                                              StreamingBatchConfig config,
+                                                              ExecutionMode mode,
+                                                              Predicate<? super R> successful) {
+        Flux<List<Tuple2<Long, C>>> batches = applyTrigger(applyBackpressure(commandStream.index(), config), config);
+
+        return mode == ExecutionMode.ORDERED
+                ? batches.concatMap(batch -> processWholeBatch(batch, batchHandler, config, successful))
+                : batches.flatMap(batch -> processWholeBatch(batch, batchHandler, config, successful),
+                        config.getParallelism());
+    }
+
+    @Override
+    public BatchMetrics getLastBatchMetrics() {
+        return lastBatchMetrics.get();
+    }
+
+    // ============= BLOCKING HANDLER API =============
+
+    @Override
+    public <C, R> CompletableFuture<List<BatchResult<R>>> executeBatch(List<C> commands,
+                                                                       UseCaseExecutor.CommandHandler<C, R> handler,
+                                                                       BatchConfig config) {
+        StreamingBatchConfig streamingConfig = StreamingBatchSettings.builder()
+                .preferredBatchSize(config.getPreferredBatchSize())
+                .maxBatchSize(config.getPreferredBatchSize())
+                .maxWaitTime(config.getMaxWaitTime())
+                .errorHandlingStrategy(config.getErrorHandlingStrategy())
+                .maxRetryAttempts(config.getMaxRetryAttempts())
+                .retryDelay(config.getRetryDelay())
+                .batchTrigger(BatchTrigger.SIZE_BASED)
+                .build();
+
+        return runPipeline(Flux.fromIterable(commands), blocking(handler), streamingConfig, ExecutionMode.ORDERED,
+                value -> true)
+                .collectList()
+                .toFuture();
+    }
+
+    @Override
+    public <C, R> Flow.Publisher<BatchResult<R>> executeStreamingBatch(Flow.Publisher<C> commandStream,
+                                                                       UseCaseExecutor.CommandHandler<C, R> handler,
+                                                                       StreamingBatchConfig config,
+                                                                       ExecutionMode mode) {
+        Flux<BatchResult<R>> results = runPipeline(
+                JdkFlowAdapter.flowPublisherToFlux(commandStream), blocking(handler), config, mode, value -> true);
+
+        return JdkFlowAdapter.publisherToFlowPublisher(results);
+    }
+
+    @Override
+    public <C, R> CompletableFuture<List<BatchResult<R>>> executeParallelBatch(List<C> commands,
+                                                                               UseCaseExecutor.CommandHandler<C, R> handler,
+                                                                               int parallelism) {
+        StreamingBatchConfig config = StreamingBatchSettings.builder()
+                .maxBatchSize(Math.max(1, commands.size()))
+                .batchTrigger(BatchTrigger.SIZE_BASED)
+                .parallelism(parallelism)
+                .build();
+
+        return runPipeline(Flux.fromIterable(commands), blocking(handler), config, ExecutionMode.PARALLEL, value -> true)
+                .collectList()
+                .toFuture();
+    }
+
+    @Override
+    public <C, R> CompletableFuture<List<BatchResult<R>>> executeOrderedBatch(List<C> commands,
+                                                                              UseCaseExecutor.CommandHandler<C, R> handler,
+                                                                              OrderedBatchConfig config) {
+        StreamingBatchConfig streamingConfig = StreamingBatchSettings.builder()
+                .preferredBatchSize(config.getPreferredBatchSize())
+                .maxBatchSize(config.getMaxBatchSize())
+                .maxWaitTime(config.getMaxWaitTime())
+                .errorHandlingStrategy(config.getErrorHandlingStrategy())
+                .maxRetryAttempts(config.getMaxRetryAttempts())
+                .retryDelay(config.getRetryDelay())
+                .batchTrigger(BatchTrigger.SIZE_BASED)
+                .parallelism(config.getMaxOutOfOrder())
+                .build();
+
+        return runPipeline(Flux.fromIterable(commands), blocking(handler), streamingConfig, ExecutionMode.ORDERED,
+                value -> true)
+                .collectList()
+                .timeout(config.getOrderingTimeout().multipliedBy(Math.max(1, commands.size())))
+                .toFuture();
+    }
+
+    @Override
+    public <C, R> CompletableFuture<TransactionalBatchResult<R>> executeTransactionalBatch(
+            List<C> commands,
+            UseCaseExecutor.CommandHandler<C, Mono<R>> handler) {
+        String transactionId = UUID.randomUUID().toString();
+        long batchNumber = batchSequence.incrementAndGet();
+        Instant batchStart = Instant.now();
+        List<BatchResult<R>> results = new ArrayList<>(commands.size());
+
+        // Sequential on purpose: the commands share one connection, and a failure has to stop the ones after it
+        Mono<Void> work = Flux.fromIterable(commands)
+                .index()
+                .concatMap(item -> {
+                    int index = item.getT1().intValue();
+                    long startNanos = System.nanoTime();
+                    return Mono.defer(() -> handler.handle(item.getT2()))
+                            .map(value -> CommandBatchResult.success(value, elapsedSince(startNanos), index))
+                            .switchIfEmpty(Mono.fromSupplier(() ->
+                                    CommandBatchResult.success(null, elapsedSince(startNanos), index)))
+                            .doOnNext(results::add)
+                            .doOnError(error -> results.add(
+                                    CommandBatchResult.failure(toException(error), elapsedSince(startNanos), index)));
+                })
+                .then();
+
+        return transactionalOperator.transactional(work)
+                .then(Mono.fromSupplier(() -> (TransactionalBatchResult<R>) new CommandTransactionalBatchResult<>(
+                        true, List.copyOf(results), null, transactionId)))
+                .onErrorResume(error -> {
+                    log.debug("Transactional batch {} rolled back: {}", transactionId, error.getMessage());
+                    performanceMonitor.incrementCounter("batch.executor.transactions.rolled.back");
+                    return Mono.just(new CommandTransactionalBatchResult<>(
+                            false, List.copyOf(results), toException(error), transactionId));
+                })
+                .doOnNext(result -> recordBatchMetrics(batchNumber, batchStart, result.getResults()))
+                .toFuture();
+    }
+
+    // ============= PIPELINE =============
+
+    private <C, R> Flux<BatchResult<R>> runPipeline(Flux<C> commands,
+                                                    Function<C, Mono<R>> operation,
+                                                    StreamingBatchConfig config,
+                                                    ExecutionMode mode,
+                                                    Predicate<? super R> successful) {
+        Flux<List<Tuple2<Long, C>>> batches = applyTrigger(applyBackpressure(commands.index(), config), config);
+
+        return mode == ExecutionMode.ORDERED
+                ? batches.concatMap(batch -> processBatch(batch, operation, config, mode, successful))
+                : batches.flatMap(batch -> processBatch(batch, operation, config, mode, successful),
+                        config.getParallelism());
+    }
+
+    private <T> Flux<T> applyBackpressure(Flux<T> source, StreamingBatchConfig config) {
+        int capacity = config.getBufferCapacity();
+
+        return switch (config.getBackpressureStrategy()) {
+            case BLOCK -> source.limitRate(capacity);
+            case DROP_OLDEST -> source.onBackpressureBuffer(capacity, this::recordDropped,
+                    BufferOverflowStrategy.DROP_OLDEST);
+            case DROP_NEWEST -> source.onBackpressureBuffer(capacity, this::recordDropped,
+                    BufferOverflowStrategy.DROP_LATEST);
+            case BUFFER_OVERFLOW -> source.onBackpressureBuffer(capacity, this::recordDropped);
+        };
+    }
+
+    private <T> Flux<List<T>> applyTrigger(Flux<T> source, StreamingBatchConfig config) {
+        Flux<List<T>> batches = switch (config.getBatchTrigger()) {
+            case SIZE_BASED -> source.buffer(config.getMaxBatchSize());
+            case TIME_BASED -> source.bufferTimeout(config.getBufferCapacity(), config.getWindowSize(), true);
+            case SIZE_OR_TIME, CUSTOM_CONDITION ->
+                    source.bufferTimeout(config.getMaxBatchSize(), config.getMaxWaitTime(), true);
+        };
+
+        return batches.filter(batch -> !batch.isEmpty());
+    }
+
+    private <C, R> Flux<BatchResult<R>> processBatch(List<Tuple2<Long, C>> batch,
+                                                     Function<C, Mono<R>> operation,
+                                                     StreamingBatchConfig config,
+                                                     ExecutionMode mode,
+                                                     Predicate<? super R> successful) {
+        long batchNumber = batchSequence.incrementAndGet();
+        Instant batchStart = Instant.now();
+        int concurrency = Math.max(1, config.getParallelism());
+
+        Flux<BatchResult<R>> execution = mode == ExecutionMode.ORDERED
+                ? Flux.fromIterable(batch).flatMapSequential(item -> executeOne(item, operation, config, successful),
+                        concurrency)
+                : Flux.fromIterable(batch).flatMap(item -> executeOne(item, operation, config, successful), concurrency);
+
+        return execution.collectList()
+                .flatMap(results -> config.getErrorHandlingStrategy() == ErrorHandlingStrategy.DEFER_FAILED
+                        ? retryDeferred(batch, results, operation, config, successful)
+                        : Mono.just(results))
+                .doOnNext(results -> recordBatchMetrics(batchNumber, batchStart, results))
+                .flatMapIterable(Function.identity());
+    }
+
+    private <C, R> Flux<BatchResult<R>> processWholeBatch(List<Tuple2<Long, C>> batch,
+                                                          Function<List<C>, Flux<R>> batchHandler,
+                                                          BatchConfig config,
+                                                          Predicate<? super R> successful) {
+        long batchNumber = batchSequence.incrementAndGet();
+        Instant batchStart = Instant.now();
+        long startNanos = System.nanoTime();
+        List<C> commands = batch.stream().map(Tuple2::getT2).toList();
+
+        Mono<List<R>> execution = Flux.defer(() -> batchHandler.apply(commands)).collectList();
+        if (config.getErrorHandlingStrategy() == ErrorHandlingStrategy.RETRY_FAILED && config.getMaxRetryAttempts() > 0) {
+            execution = execution.retryWhen(Retry.fixedDelay(config.getMaxRetryAttempts(), config.getRetryDelay())
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        }
+
+        Mono<List<BatchResult<R>>> results = execution.map(values -> {
+            Duration elapsed = elapsedSince(startNanos);
+            List<BatchResult<R>> mapped = new ArrayList<>(batch.size());
+            for (int position = 0; position < batch.size(); position++) {
+                int index = batch.get(position).getT1().intValue();
+                if (position >= values.size()) {
+                    mapped.add(CommandBatchResult.failure(
+                            new IllegalStateException("Batch handler returned no result for command " + index),
+                            elapsed, index));
+                    continue;
+                }
+                R value = values.get(position);
+                mapped.add(successful.test(value)
+                        ? CommandBatchResult.success(value, elapsed, index)
+                        : CommandBatchResult.rejected(value, elapsed, index));
+            }
+            return mapped;
+        });
+
+        if (config.getErrorHandlingStrategy() != ErrorHandlingStrategy.FAIL_FAST) {
+            results = results.onErrorResume(error -> {
+                Exception failure = toException(error);
+                Duration elapsed = elapsedSince(startNanos);
+                return Mono.just(batch.stream()
+                        .map(item -> CommandBatchResult.<R>failure(failure, elapsed, item.getT1().intValue()))
+                        .toList());
+            });
+        }
+
+        return results
+                .doOnNext(mapped -> recordBatchMetrics(batchNumber, batchStart, mapped))
+                .flatMapIterable(Function.identity());
+    }
+
+    private <C, R> Mono<BatchResult<R>> executeOne(Tuple2<Long, C> item,
+                                                   Function<C, Mono<R>> operation,
+                                                   BatchConfig config,
+                                                   Predicate<? super R> successful) {
+        int index = item.getT1().intValue();
+        long startNanos = System.nanoTime();
+
+        Mono<R> execution = Mono.defer(() -> operation.apply(item.getT2()));
+        if (config.getErrorHandlingStrategy() == ErrorHandlingStrategy.RETRY_FAILED && config.getMaxRetryAttempts() > 0) {
+            execution = execution.retryWhen(Retry.fixedDelay(config.getMaxRetryAttempts(), config.getRetryDelay())
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        }
+
+        Mono<BatchResult<R>> result = execution
+                .map(value -> successful.test(value)
+                        ? CommandBatchResult.success(value, elapsedSince(startNanos), index)
+                        : CommandBatchResult.rejected(value, elapsedSince(startNanos), index))
+                .switchIfEmpty(Mono.fromSupplier(() -> CommandBatchResult.success(null, elapsedSince(startNanos), index)));
+
+        if (config.getErrorHandlingStrategy() == ErrorHandlingStrategy.FAIL_FAST) {
+            return result;
+        }
+
+        return result.onErrorResume(error -> Mono.just(
+                CommandBatchResult.failure(toException(error), elapsedSince(startNanos), index)));
+    }
+
+    private <C, R> Mono<List<BatchResult<R>>> retryDeferred(List<Tuple2<Long, C>> batch,
+                                                            List<BatchResult<R>> results,
+                                                            Function<C, Mono<R>> operation,
+                                                            BatchConfig config,
+                                                            Predicate<? super R> successful) {
+        List<BatchResult<R>> merged = new ArrayList<>(results);
+
+        return Flux.range(0, merged.size())
+                .filter(position -> !merged.get(position).isSuccess())
+                .concatMap(position -> executeOne(findByIndex(batch, merged.get(position).getIndex()),
+                                operation, config, successful)
+                        .doOnNext(retried -> merged.set(position, retried)))
+                .then(Mono.fromSupplier(() -> merged));
+    }
+
+    private static <C> Tuple2<Long, C> findByIndex(List<Tuple2<Long, C>> batch, int index) {
+        for (Tuple2<Long, C> item : batch) {
+            if (item.getT1() == index) {
+                return item;
+            }
+        }
+        throw new IllegalStateException("Deferred command not found in batch: " + index);
+    }
+
+    private static <C, R> Function<C, Mono<R>> blocking(UseCaseExecutor.CommandHandler<C, R> handler) {
+        return command -> Mono.fromCallable(() -> handler.handle(command))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // ============= METRICS =============
+
+    private <R> void recordBatchMetrics(long batchNumber, Instant batchStart, List<BatchResult<R>> results) {
+        int failed = (int) results.stream().filter(result -> !result.isSuccess()).count();
+        Duration slowest = results.stream()
+                .map(BatchResult::getExecutionTime)
+                .max(Duration::compareTo)
+                .orElse(Duration.ZERO);
+
+        BatchMetrics metrics = new BatchMetrics(
+                batchNumber,
+                results.size(),
+                results.size() - failed,
+                failed,
+                Duration.between(batchStart, Instant.now()),
+                slowest,
+                Instant.now()
+        );
+        lastBatchMetrics.set(metrics);
+
+        performanceMonitor.recordTime("batch.executor.batch", metrics.batchDuration());
+        performanceMonitor.recordGauge("batch.executor.batch.size", metrics.batchSize());
+        performanceMonitor.recordGauge("batch.executor.items.per.second", metrics.getItemsPerSecond());
+        performanceMonitor.incrementCounter("batch.executor.items.succeeded", metrics.succeeded());
+        if (failed > 0) {
+            performanceMonitor.incrementCounter("batch.executor.items.failed", failed);
+        }
+
+        log.debug("Batch #{} processed {} items ({} failed) in {}ms, slowest item {}ms",
+                batchNumber, metrics.batchSize(), failed,
+                metrics.batchDuration().toMillis(), slowest.toMillis());
+    }
+
+    private void recordDropped(Object dropped) {
+        performanceMonitor.incrementCounter("batch.executor.items.dropped");
+        log.debug("Batch executor dropped command due to backpressure: {}", dropped);
+    }
+
+    private static Duration elapsedSince(long startNanos) {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
+    private static Exception toException(Throwable error) {
+        return error instanceof Exception exception
+                ? exception
+                : new UseCaseExecutor.UseCaseExecutionException("Batch command failed", error);
+    }
+
+    // ============= RESULT TYPES =============
+
+    private record CommandBatchResult<T>(
+            boolean success,
+            T result,
+            Exception error,
+            Duration executionTime,
+            int index
+    ) implements BatchResult<T> {
+
+        static <T> BatchResult<T> success(T result, Duration executionTime, int index) {
+            return new CommandBatchResult<>(true, result, null, executionTime, index);
+        }
+
+        static <T> BatchResult<T> rejected(T result, Duration executionTime, int index) {
+            return new CommandBatchResult<>(false, result, null, executionTime, index);
+        }
+
+        static <T> BatchResult<T> failure(Exception error, Duration executionTime, int index) {
+            return new CommandBatchResult<>(false, null, error, executionTime, index);
+        }
+
+        @Override
+        public boolean isSuccess() { return success; }
+
+        @Override
+        public T getResult() { return result; }
+
+        @Override
+        public Exception getError() { return error; }
+
+        @Override
+        public Duration getExecutionTime() { return executionTime; }
+
+        @Override
+        public int getIndex() { return index; }
+    }
+
+    private record CommandTransactionalBatchResult<T>(
+            boolean transactionSuccessful,
+            List<BatchResult<T>> results,
+            Exception rollbackCause,
+            String transactionId
+    ) implements TransactionalBatchResult<T> {
+
+        @Override
+        public boolean isTransactionSuccessful() { return transactionSuccessful; }
+
+        @Override
+        public List<BatchResult<T>> getResults() { return results; }
+
+        @Override
+        public Exception getRollbackCause() { return rollbackCause; }
+
+        @Override
+        public String getTransactionId() { return transactionId; }
+    }
+}
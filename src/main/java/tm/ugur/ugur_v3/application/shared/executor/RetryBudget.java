@@ -0,0 +1,57 @@
+package tm.ugur.ugur_v3.application.shared.executor;
+
+public final class RetryBudget {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double ratio;
+    private final int minRetriesPerSecond;
+    private final long[] bucketSeconds;
+    private final long[] successes;
+    private final long[] retries;
+
+    public RetryBudget(double ratio, int minRetriesPerSecond, int windowSeconds) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.bucketSeconds = new long[windowSeconds];
+        this.successes = new long[windowSeconds];
+        this.retries = new long[windowSeconds];
+    }
+
+    public synchronized void recordSuccess() {
+        successes[currentBucket()]++;
+    }
+
+    public synchronized boolean tryAcquire() {
+        int bucket = currentBucket();
+        long windowStart = bucketSeconds[bucket] - bucketSeconds.length;
+
+        long recentSuccesses = 0;
+        long recentRetries = 0;
+        for (int i = 0; i < bucketSeconds.length; i++) {
+            if (bucketSeconds[i] > windowStart) {
+                recentSuccesses += successes[i];
+                recentRetries += retries[i];
+            }
+        }
+
+        double allowed = (double) minRetriesPerSecond * bucketSeconds.length + ratio * recentSuccesses;
+        if (recentRetries >= allowed) {
+            return false;
+        }
+
+        retries[bucket]++;
+        return true;
+    }
+
+    private int currentBucket() {
+        long second = System.nanoTime() / NANOS_PER_SECOND;
+        int bucket = (int) Math.floorMod(second, (long) bucketSeconds.length);
+        if (bucketSeconds[bucket] != second) {
+            bucketSeconds[bucket] = second;
+            successes[bucket] = 0;
+            retries[bucket] = 0;
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,87 @@
+package tm.ugur.ugur_v3.application.shared.executor;
+
+import lombok.Builder;
+
+import java.time.Duration;
+
+@Builder
+public record StreamingBatchSettings(
+        int preferredBatchSize,
+        int maxBatchSize,
+        Duration maxWaitTime,
+        BatchUseCaseExecutor.ErrorHandlingStrategy errorHandlingStrategy,
+        int maxRetryAttempts,
+        Duration retryDelay,
+        Duration windowSize,
+        BatchUseCaseExecutor.BatchTrigger batchTrigger,
+        BatchUseCaseExecutor.BackpressureStrategy backpressureStrategy,
+        int parallelism,
+        int bufferCapacity
+) implements BatchUseCaseExecutor.StreamingBatchConfig, BatchUseCaseExecutor.OrderedBatchConfig {
+
+    public StreamingBatchSettings {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Max batch size must be positive");
+        }
+        if (preferredBatchSize <= 0 || preferredBatchSize > maxBatchSize) {
+            preferredBatchSize = maxBatchSize;
+        }
+        maxWaitTime = maxWaitTime != null ? maxWaitTime : Duration.ofMillis(200);
+        windowSize = windowSize != null ? windowSize : maxWaitTime;
+        retryDelay = retryDelay != null ? retryDelay : Duration.ofMillis(100);
+        errorHandlingStrategy = errorHandlingStrategy != null ?
+                errorHandlingStrategy : BatchUseCaseExecutor.ErrorHandlingStrategy.CONTINUE_ON_ERROR;
+        batchTrigger = batchTrigger != null ? batchTrigger : BatchUseCaseExecutor.BatchTrigger.SIZE_OR_TIME;
+        backpressureStrategy = backpressureStrategy != null ?
+                backpressureStrategy : BatchUseCaseExecutor.BackpressureStrategy.BLOCK;
+        parallelism = Math.max(1, parallelism);
+        bufferCapacity = bufferCapacity > 0 ? bufferCapacity : maxBatchSize * 4;
+    }
+
+    public static StreamingBatchSettings sizeOrTime(int maxBatchSize, Duration maxWaitTime, int parallelism) {
+        return StreamingBatchSettings.builder()
+                .maxBatchSize(maxBatchSize)
+                .maxWaitTime(maxWaitTime)
+                .parallelism(parallelism)
+                .build();
+    }
+
+    @Override
+    public int getPreferredBatchSize() { return preferredBatchSize; }
+
+    @Override
+    public int getMaxBatchSize() { return maxBatchSize; }
+
+    @Override
+    public Duration getMaxWaitTime() { return maxWaitTime; }
+
+    @Override
+    public BatchUseCaseExecutor.ErrorHandlingStrategy getErrorHandlingStrategy() { return errorHandlingStrategy; }
+
+    @Override
+    public int getMaxRetryAttempts() { return maxRetryAttempts; }
+
+    @Override
+    public Duration getRetryDelay() { return retryDelay; }
+
+    @Override
+    public Duration getWindowSize() { return windowSize; }
+
+    @Override
+    public BatchUseCaseExecutor.BatchTrigger getBatchTrigger() { return batchTrigger; }
+
+    @Override
+    public BatchUseCaseExecutor.BackpressureStrategy getBackpressureStrategy() { return backpressureStrategy; }
+
+    @Override
+    public int getParallelism() { return parallelism; }
+
+    @Override
+    public int getBufferCapacity() { return bufferCapacity; }
+
+    @Override
+    public int getMaxOutOfOrder() { return parallelism; }
+
+    @Override
+    public Duration getOrderingTimeout() { return maxWaitTime.multipliedBy(10); }
+}
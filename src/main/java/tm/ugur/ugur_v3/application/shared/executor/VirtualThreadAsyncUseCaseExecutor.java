@@ -0,0 +1,456 @@
+package tm.ugur.ugur_v3.application.shared.executor;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.AsyncExecutorConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class VirtualThreadAsyncUseCaseExecutor implements AsyncUseCaseExecutor {
+
+    private final AsyncExecutorConfig config;
+    private final PerformanceMonitor performanceMonitor;
+
+    private final ExecutorService virtualThreads;
+    private final ScheduledExecutorService deadlineScheduler;
+    private final Map<ExecutionPriority, Lane> lanes = new EnumMap<>(ExecutionPriority.class);
+    private final Map<QueryCacheKey<?>, CachedQueryResult<?>> queryCache = new ConcurrentHashMap<>();
+
+    private final long startedAtNanos = System.nanoTime();
+
+    public VirtualThreadAsyncUseCaseExecutor(AsyncExecutorConfig config, PerformanceMonitor performanceMonitor) {
+        this.config = config;
+        this.performanceMonitor = performanceMonitor;
+        this.virtualThreads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("usecase-", 0).factory());
+        this.deadlineScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("usecase-deadline").daemon(true).factory());
+
+        for (ExecutionPriority priority : ExecutionPriority.values()) {
+            lanes.put(priority, new Lane(priority, config.lane(priority)));
+        }
+
+        log.info("Virtual thread use case executor started with lanes: {}", config.getLanes());
+    }
+
+    // ============= COMMANDS =============
+
+    @Override
+    public <C, R> CompletableFuture<R> executeAsync(C command,
+                                                    UseCaseExecutor.CommandHandler<C, R> handler,
+                                                    ExecutionPriority priority) {
+        return executeAsync(command, handler, priority, config.lane(priority).getDeadline());
+    }
+
+    @Override
+    public <C, R> CompletableFuture<R> executeAsync(C command,
+                                                    UseCaseExecutor.CommandHandler<C, R> handler,
+                                                    ExecutionPriority priority,
+                                                    Duration deadline) {
+        return submit(lanes.get(priority), deadline, () -> handler.handle(command));
+    }
+
+    // ============= QUERIES =============
+
+    @Override
+    public <Q, R> CompletableFuture<R> executeQueryAsync(Q query,
+                                                         UseCaseExecutor.QueryHandler<Q, R> handler,
+                                                         CacheStrategy cacheStrategy) {
+        Lane lane = lanes.get(ExecutionPriority.NORMAL);
+        Duration deadline = lane.config.getDeadline();
+
+        if (cacheStrategy == null) {
+            return submit(lane, deadline, () -> handler.handle(query));
+        }
+
+        QueryCacheKey<R> cacheKey = new QueryCacheKey<>(
+                query.getClass(), handler.getClass(), cacheStrategy.getCacheKey(query));
+        CachedQueryResult<R> cached = cachedResult(cacheKey);
+        long now = System.nanoTime();
+
+        if (cached != null && !cached.isExpired(now)) {
+            performanceMonitor.incrementCounter("async.executor.query.cache.hit");
+            if (cacheStrategy.isRefreshAhead() && cached.isRefreshDue(now) && cached.startRefresh()) {
+                loadAndCache(query, handler, cacheStrategy, cacheKey, lanes.get(ExecutionPriority.LOW));
+            }
+            return CompletableFuture.completedFuture(cached.value());
+        }
+
+        performanceMonitor.incrementCounter("async.executor.query.cache.miss");
+        return loadAndCache(query, handler, cacheStrategy, cacheKey, lane);
+    }
+
+    private <Q, R> CompletableFuture<R> loadAndCache(Q query,
+                                                     UseCaseExecutor.QueryHandler<Q, R> handler,
+                                                     CacheStrategy cacheStrategy,
+                                                     QueryCacheKey<R> cacheKey,
+                                                     Lane lane) {
+        return submit(lane, lane.config.getDeadline(), () -> handler.handle(query))
+                .whenComplete((result, error) -> {
+                    if (error == null && cacheStrategy.shouldCache(result)) {
+                        cacheQueryResult(cacheKey, result, cacheStrategy.getTtl());
+                    } else {
+                        CachedQueryResult<?> stale = queryCache.get(cacheKey);
+                        if (stale != null) {
+                            stale.refreshFinished();
+                        }
+                    }
+                });
+    }
+
+    // Entries are only written under a key naming the handler that produced them, so the value type matches R
+    @SuppressWarnings("unchecked")
+    private <R> CachedQueryResult<R> cachedResult(QueryCacheKey<R> cacheKey) {
+        return (CachedQueryResult<R>) queryCache.get(cacheKey);
+    }
+
+    private <R> void cacheQueryResult(QueryCacheKey<R> cacheKey, R value, Duration ttl) {
+        if (queryCache.size() >= config.getQueryCacheMaxEntries()) {
+            long now = System.nanoTime();
+            queryCache.values().removeIf(entry -> entry.isExpired(now));
+            if (queryCache.size() >= config.getQueryCacheMaxEntries()) {
+                performanceMonitor.incrementCounter("async.executor.query.cache.full");
+                return;
+            }
+        }
+        queryCache.put(cacheKey, new CachedQueryResult<>(value, System.nanoTime(), ttl.toNanos()));
+    }
+
+    // ============= BATCH AND STREAM =============
+
+    @Override
+    public <T, R> CompletableFuture<List<R>> executeBatch(List<T> operations,
+                                                          Function<T, R> processor,
+                                                          int batchSize) {
+        Lane lane = lanes.get(ExecutionPriority.NORMAL);
+        int chunkSize = Math.max(1, batchSize);
+        List<CompletableFuture<List<R>>> chunks = new ArrayList<>();
+
+        for (int from = 0; from < operations.size(); from += chunkSize) {
+            List<T> chunk = operations.subList(from, Math.min(from + chunkSize, operations.size()));
+            chunks.add(submit(lane, config.getBatchDeadline(), () -> {
+                List<R> results = new ArrayList<>(chunk.size());
+                for (T operation : chunk) {
+                    results.add(processor.apply(operation));
+                }
+                return results;
+            }));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    List<R> results = new ArrayList<>(operations.size());
+                    chunks.forEach(chunk -> results.addAll(chunk.join()));
+                    return results;
+                });
+    }
+
+    @Override
+    public <T, R> Flow.Publisher<R> executeStream(Flow.Publisher<T> dataStream,
+                                                  Function<T, CompletionStage<R>> processor) {
+        int concurrency = lanes.get(ExecutionPriority.NORMAL).config.getMaxConcurrent();
+
+        Flux<R> results = JdkFlowAdapter.flowPublisherToFlux(dataStream)
+                .flatMapSequential(item -> Mono.fromCompletionStage(() -> processor.apply(item)), concurrency);
+
+        return JdkFlowAdapter.publisherToFlowPublisher(results);
+    }
+
+    // ============= TIMEOUTS =============
+
+    @Override
+    public <R> CompletableFuture<R> executeWithTimeout(Supplier<CompletableFuture<R>> operation,
+                                                       Duration timeout,
+                                                       Supplier<R> fallback) {
+        CompletableFuture<R> source = operation.get();
+        ScheduledFuture<?> timer = deadlineScheduler.schedule(
+                () -> source.completeExceptionally(new TimeoutException("Operation exceeded " + timeout)),
+                timeout.toNanos(), TimeUnit.NANOSECONDS);
+
+        return source.handle((result, error) -> {
+            timer.cancel(false);
+            if (error == null) {
+                return result;
+            }
+
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (fallback != null && cause instanceof TimeoutException) {
+                performanceMonitor.incrementCounter("async.executor.timeout.fallback");
+                return fallback.get();
+            }
+            throw error instanceof CompletionException completionException
+                    ? completionException
+                    : new CompletionException(cause);
+        });
+    }
+
+    // ============= LANE ADMISSION =============
+
+    private <R> CompletableFuture<R> submit(Lane lane, Duration deadline, Callable<R> task) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+
+        if (lane.queued.incrementAndGet() > lane.config.getMaxQueued()) {
+            lane.queued.decrementAndGet();
+            lane.rejected.increment();
+            performanceMonitor.incrementCounter("async.executor." + lane.metricName + ".rejected");
+            result.completeExceptionally(new RejectedExecutionException(
+                    "Lane " + lane.priority + " queue is full (" + lane.config.getMaxQueued() + ")"));
+            return result;
+        }
+
+        long submittedAt = System.nanoTime();
+        long deadlineAt = submittedAt + deadline.toNanos();
+        AtomicReference<Thread> runner = new AtomicReference<>();
+
+        ScheduledFuture<?> deadlineTimer = deadlineScheduler.schedule(() -> {
+            if (result.completeExceptionally(new TimeoutException(
+                    "Lane " + lane.priority + " deadline of " + deadline + " exceeded"))) {
+                lane.deadlineExceeded.increment();
+                performanceMonitor.incrementCounter("async.executor." + lane.metricName + ".deadline.exceeded");
+            }
+        }, deadline.toNanos(), TimeUnit.NANOSECONDS);
+
+        result.whenComplete((value, error) -> {
+            deadlineTimer.cancel(false);
+            Thread thread = runner.get();
+            if (error != null && thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        });
+
+        try {
+            virtualThreads.execute(() -> run(lane, task, result, runner, submittedAt, deadlineAt));
+        } catch (RejectedExecutionException e) {
+            lane.queued.decrementAndGet();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private <R> void run(Lane lane,
+                         Callable<R> task,
+                         CompletableFuture<R> result,
+                         AtomicReference<Thread> runner,
+                         long submittedAt,
+                         long deadlineAt) {
+        runner.set(Thread.currentThread());
+        boolean acquired;
+        try {
+            acquired = !result.isDone()
+                    && lane.permits.tryAcquire(Math.max(0, deadlineAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            acquired = false;
+        } finally {
+            lane.queued.decrementAndGet();
+        }
+
+        long startedAt = System.nanoTime();
+        lane.queueTime.record(startedAt - submittedAt);
+
+        if (!acquired) {
+            if (result.completeExceptionally(new TimeoutException(
+                    "Lane " + lane.priority + " deadline exceeded while waiting for admission"))) {
+                lane.deadlineExceeded.increment();
+            }
+            runner.set(null);
+            return;
+        }
+
+        lane.active.incrementAndGet();
+        try {
+            if (!result.isDone()) {
+                R value = task.call();
+                if (result.complete(value)) {
+                    lane.completed.increment();
+                }
+            }
+        } catch (Exception e) {
+            if (result.completeExceptionally(e)) {
+                lane.failed.increment();
+            }
+        } finally {
+            runner.set(null);
+            lane.active.decrementAndGet();
+            lane.permits.release();
+            long runNanos = System.nanoTime() - startedAt;
+            lane.runTime.record(runNanos);
+
+            performanceMonitor.recordTime("async.executor." + lane.metricName + ".queue",
+                    Duration.ofNanos(startedAt - submittedAt));
+            performanceMonitor.recordTime("async.executor." + lane.metricName + ".run", Duration.ofNanos(runNanos));
+        }
+    }
+
+    // ============= METRICS =============
+
+    @Override
+    public ExecutorMetrics getMetrics() {
+        return new ExecutorMetrics() {
+            @Override
+            public long getActiveOperations() {
+                return lanes.values().stream().mapToLong(lane -> lane.active.get()).sum();
+            }
+
+            @Override
+            public long getQueuedOperations() {
+                return lanes.values().stream().mapToLong(lane -> lane.queued.get()).sum();
+            }
+
+            @Override
+            public Duration getAverageExecutionTime() {
+                long count = lanes.values().stream().mapToLong(lane -> lane.runTime.count.sum()).sum();
+                long total = lanes.values().stream().mapToLong(lane -> lane.runTime.totalNanos.sum()).sum();
+                return count > 0 ? Duration.ofNanos(total / count) : Duration.ZERO;
+            }
+
+            @Override
+            public double getSuccessRate() {
+                long completed = lanes.values().stream().mapToLong(lane -> lane.completed.sum()).sum();
+                long unsuccessful = lanes.values().stream()
+                        .mapToLong(lane -> lane.failed.sum() + lane.rejected.sum() + lane.deadlineExceeded.sum())
+                        .sum();
+                long total = completed + unsuccessful;
+                return total > 0 ? (double) completed / total * 100.0 : 100.0;
+            }
+
+            @Override
+            public double getThroughput() {
+                long completed = lanes.values().stream().mapToLong(lane -> lane.completed.sum()).sum();
+                double seconds = Math.max(1e-3, (System.nanoTime() - startedAtNanos) / 1_000_000_000.0);
+                return completed / seconds;
+            }
+
+            @Override
+            public LaneMetrics getLaneMetrics(ExecutionPriority priority) {
+                return lanes.get(priority).snapshot();
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Shutting down virtual thread use case executor");
+        deadlineScheduler.shutdownNow();
+        virtualThreads.shutdownNow();
+    }
+
+    // ============= SUPPORTING TYPES =============
+
+    private static final class Lane {
+
+        private final ExecutionPriority priority;
+        private final AsyncExecutorConfig.LaneConfig config;
+        private final String metricName;
+        private final Semaphore permits;
+
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder deadlineExceeded = new LongAdder();
+        private final LatencyStats queueTime = new LatencyStats();
+        private final LatencyStats runTime = new LatencyStats();
+
+        private Lane(ExecutionPriority priority, AsyncExecutorConfig.LaneConfig config) {
+            this.priority = priority;
+            this.config = config;
+            this.metricName = priority.name().toLowerCase();
+            this.permits = new Semaphore(config.getMaxConcurrent(), true);
+        }
+
+        private LaneMetrics snapshot() {
+            return new LaneMetrics(
+                    priority,
+                    active.get(),
+                    queued.get(),
+                    permits.availablePermits(),
+                    completed.sum(),
+                    failed.sum(),
+                    rejected.sum(),
+                    deadlineExceeded.sum(),
+                    queueTime.average(),
+                    queueTime.max(),
+                    runTime.average(),
+                    runTime.max()
+            );
+        }
+    }
+
+    private static final class LatencyStats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private Duration average() {
+            long samples = count.sum();
+            return samples > 0 ? Duration.ofNanos(totalNanos.sum() / samples) : Duration.ZERO;
+        }
+
+        private Duration max() {
+            return Duration.ofNanos(maxNanos.get());
+        }
+    }
+
+    // The result type is fixed by the handler class, which is part of the key
+    private record QueryCacheKey<R>(Class<?> queryType, Class<?> handlerType, String key) {
+    }
+
+    private static final class CachedQueryResult<R> {
+
+        private final R value;
+        private final long cachedAtNanos;
+        private final long ttlNanos;
+        private final AtomicInteger refreshing = new AtomicInteger();
+
+        private CachedQueryResult(R value, long cachedAtNanos, long ttlNanos) {
+            this.value = value;
+            this.cachedAtNanos = cachedAtNanos;
+            this.ttlNanos = ttlNanos;
+        }
+
+        private R value() {
+            return value;
+        }
+
+        private boolean isExpired(long now) {
+            return now - cachedAtNanos >= ttlNanos;
+        }
+
+        private boolean isRefreshDue(long now) {
+            return now - cachedAtNanos >= ttlNanos * 4 / 5;
+        }
+
+        private boolean startRefresh() {
+            return refreshing.compareAndSet(0, 1);
+        }
+
+        private void refreshFinished() {
+            refreshing.set(0);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package tm.ugur.ugur_v3.application.shared.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+
+public final class KeysetCursor {
+
+    private static final String VERSION = "k1";
+    private static final String SEPARATOR = ";";
+
+    private final String sortSignature;
+    private final List<Object> values;
+
+    private KeysetCursor(String sortSignature, List<Object> values) {
+        this.sortSignature = sortSignature;
+        this.values = List.copyOf(values);
+    }
+
+    public static KeysetCursor of(String sortSignature, List<Object> values) {
+        Objects.requireNonNull(sortSignature, "Sort signature cannot be null");
+        if (values == null || values.isEmpty()) {
+            throw new IllegalArgumentException("Cursor requires at least one key value");
+        }
+        return new KeysetCursor(sortSignature, values);
+    }
+
+    public static KeysetCursor decode(String cursor, String expectedSortSignature) {
+        String payload;
+        try {
+            payload = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed pagination cursor", e);
+        }
+
+        String[] parts = payload.split(SEPARATOR, -1);
+        if (parts.length < 3 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Unsupported pagination cursor");
+        }
+
+        String signature = decodeText(parts[1]);
+        if (!signature.equals(expectedSortSignature)) {
+            throw new IllegalArgumentException("Pagination cursor does not match requested sort order");
+        }
+
+        List<Object> values = new ArrayList<>(parts.length - 2);
+        for (int i = 2; i < parts.length; i++) {
+            values.add(decodeValue(parts[i]));
+        }
+        return new KeysetCursor(signature, values);
+    }
+
+    public String encode() {
+        StringBuilder payload = new StringBuilder(VERSION)
+                .append(SEPARATOR)
+                .append(encodeText(sortSignature));
+
+        for (Object value : values) {
+            payload.append(SEPARATOR).append(encodeValue(value));
+        }
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public List<Object> getValues() {
+        return values;
+    }
+
+    public String getSortSignature() {
+        return sortSignature;
+    }
+
+    private static String encodeValue(Object value) {
+        return switch (value) {
+            case String text -> "s:" + encodeText(text);
+            case Integer number -> "i:" + number;
+            case Long number -> "l:" + number;
+            case Double number -> "d:" + number;
+            case LocalDateTime dateTime -> "t:" + dateTime;
+            case Instant instant -> "n:" + instant;
+            case null -> throw new IllegalArgumentException("Cursor key values cannot be null");
+            default -> throw new IllegalArgumentException(
+                    "Unsupported cursor key type: " + value.getClass().getSimpleName());
+        };
+    }
+
+    private static Object decodeValue(String token) {
+        if (token.length() < 2 || token.charAt(1) != ':') {
+            throw new IllegalArgumentException("Malformed pagination cursor value");
+        }
+
+        String raw = token.substring(2);
+        try {
+            return switch (token.charAt(0)) {
+                case 's' -> decodeText(raw);
+                case 'i' -> Integer.valueOf(raw);
+                case 'l' -> Long.valueOf(raw);
+                case 'd' -> Double.valueOf(raw);
+                case 't' -> LocalDateTime.parse(raw);
+                case 'n' -> Instant.parse(raw);
+                default -> throw new IllegalArgumentException("Unknown cursor value type: " + token.charAt(0));
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed pagination cursor value", e);
+        }
+    }
+
+    private static String encodeText(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeText(String encoded) {
+        return new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+    }
+}
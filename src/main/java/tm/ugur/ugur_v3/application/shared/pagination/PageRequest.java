@@ -97,6 +97,19 @@ public final class PageRequest {
         );
     }
 
+    public static PageRequest firstCursor(int pageSize, List<SortOrder> sortOrders) {
+        validatePageSize(pageSize);
+
+        return new PageRequest(
+                0,
+                pageSize,
+                0,
+                sortOrders,
+                Optional.empty(),
+                PaginationType.CURSOR_BASED
+        );
+    }
+
     public static PageRequest first() {
         return ofPage(0, DEFAULT_PAGE_SIZE);
     }
@@ -148,8 +148,7 @@ public final class PageResult<T> {
 
     public PageRequest getFirstPageRequest() {
         if (originalRequest.isCursorBased()) {
-
-            return PageRequest.first(originalRequest.getPageSize());
+            return PageRequest.firstCursor(originalRequest.getPageSize(), originalRequest.getSortOrders());
         } else {
             return PageRequest.ofPage(0, originalRequest.getPageSize(),
                     originalRequest.getSortOrders());
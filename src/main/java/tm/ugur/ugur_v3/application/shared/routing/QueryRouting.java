@@ -0,0 +1,35 @@
+package tm.ugur.ugur_v3.application.shared.routing;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+import tm.ugur.ugur_v3.application.shared.pagination.PageRequest;
+
+public final class QueryRouting {
+
+    public static final String CONTEXT_KEY = QueryRouting.class.getName() + ".target";
+
+    private QueryRouting() {
+    }
+
+    public static <T> Mono<T> onReplica(Mono<T> query) {
+        return query.contextWrite(context -> context.put(CONTEXT_KEY, Target.REPLICA));
+    }
+
+    public static <T> Flux<T> onReplica(Flux<T> query) {
+        return query.contextWrite(context -> context.put(CONTEXT_KEY, Target.REPLICA));
+    }
+
+    public static <T> Mono<T> forHints(Mono<T> query, PageRequest.QueryOptimizationHints hints) {
+        return hints.canUseReadReplica() ? onReplica(query) : query;
+    }
+
+    public static Target currentTarget(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, Target.PRIMARY);
+    }
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+}
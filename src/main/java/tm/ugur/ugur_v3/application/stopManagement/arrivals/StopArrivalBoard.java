@@ -0,0 +1,112 @@
+package tm.ugur.ugur_v3.application.stopManagement.arrivals;
+
+import tm.ugur.ugur_v3.application.stopManagement.arrivals.StopArrivalBoards.Arrival;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Upcoming arrivals at one stop ordered by predicted time. Writers pay O(log n) per change; readers get
+// an immutable sorted view that is rebuilt at most once per change, so a top-k read is O(k).
+final class StopArrivalBoard {
+
+    private static final Comparator<Arrival> BY_ARRIVAL = Comparator
+            .comparingLong(Arrival::arrivalEpochMillis)
+            .thenComparing(Arrival::vehicleId);
+
+    private final String stopId;
+    private final int capacity;
+    private final TreeSet<Arrival> ordered = new TreeSet<>(BY_ARRIVAL);
+    private final Map<String, Arrival> byVehicle = new HashMap<>();
+
+    private long version;
+    // Cleared by every change and rebuilt by the next reader
+    private volatile List<Arrival> view = List.of();
+
+    StopArrivalBoard(String stopId, int capacity) {
+        this.stopId = stopId;
+        this.capacity = capacity;
+    }
+
+    // Returns false when the change was below minChangeMillis and the board was left as is
+    synchronized boolean upsert(Arrival arrival, long minChangeMillis) {
+        Arrival previous = byVehicle.get(arrival.vehicleId());
+        if (previous != null) {
+            if (Math.abs(previous.arrivalEpochMillis() - arrival.arrivalEpochMillis()) < minChangeMillis
+                    && previous.routeId().equals(arrival.routeId())) {
+                return false;
+            }
+            ordered.remove(previous);
+        } else if (ordered.size() >= capacity && BY_ARRIVAL.compare(arrival, ordered.last()) > 0) {
+            return false;
+        }
+
+        ordered.add(arrival);
+        byVehicle.put(arrival.vehicleId(), arrival);
+        if (ordered.size() > capacity) {
+            byVehicle.remove(ordered.pollLast().vehicleId());
+        }
+        changed();
+        return true;
+    }
+
+    synchronized boolean remove(String vehicleId) {
+        Arrival previous = byVehicle.remove(vehicleId);
+        if (previous == null) {
+            return false;
+        }
+        ordered.remove(previous);
+        changed();
+        return true;
+    }
+
+    private void changed() {
+        version++;
+        view = null;
+    }
+
+    // Arrivals predicted before the cutoff whose vehicle never reported passing the stop
+    synchronized List<String> overdue(long cutoffEpochMillis) {
+        List<String> overdue = new ArrayList<>();
+        for (Arrival arrival : ordered) {
+            if (arrival.arrivalEpochMillis() >= cutoffEpochMillis) {
+                break;
+            }
+            overdue.add(arrival.vehicleId());
+        }
+        return overdue;
+    }
+
+    List<Arrival> top(int limit) {
+        List<Arrival> current = view();
+        return current.size() <= limit ? current : current.subList(0, limit);
+    }
+
+    List<Arrival> view() {
+        List<Arrival> current = view;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (view == null) {
+                view = List.copyOf(ordered);
+            }
+            return view;
+        }
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    synchronized boolean isEmpty() {
+        return ordered.isEmpty();
+    }
+
+    String stopId() {
+        return stopId;
+    }
+}
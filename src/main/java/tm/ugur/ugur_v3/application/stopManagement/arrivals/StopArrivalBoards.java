@@ -0,0 +1,267 @@
+package tm.ugur.ugur_v3.application.stopManagement.arrivals;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.StopArrivalsConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.vehicleManagement.eta.SegmentSpeedProfileEtaService;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventListener;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventPublisher;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+import tm.ugur.ugur_v3.domain.vehicleManagement.events.VehicleLocationUpdatedEvent;
+import tm.ugur.ugur_v3.domain.vehicleManagement.services.ETACalculationService.ETAResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Materialised "next buses at this stop" boards. Each location update recomputes that one vehicle's
+// downstream ETAs and patches only the boards they touch; stops the vehicle has passed drop it.
+// The request path only reads boards, locally or from the Redis snapshot another node published.
+@Slf4j
+@Component
+public class StopArrivalBoards implements DomainEventListener {
+
+    private static final String REDIS_KEY_PREFIX = "ugur:stop:arrivals:";
+
+    private final SegmentSpeedProfileEtaService etaService;
+    private final StopArrivalsConfig config;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ReactiveRedisTemplate<String, String>> redisTemplate;
+    private final PerformanceMonitor performanceMonitor;
+
+    private final Map<StopId, StopArrivalBoard> boards = new ConcurrentHashMap<>();
+    private final Map<String, Set<StopId>> vehicleStops = new ConcurrentHashMap<>();
+    private final Set<StopId> unpublished = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean publishing = new AtomicBoolean(false);
+
+    public StopArrivalBoards(SegmentSpeedProfileEtaService etaService,
+                             StopArrivalsConfig config,
+                             ObjectMapper objectMapper,
+                             ObjectProvider<ReactiveRedisTemplate<String, String>> redisTemplate,
+                             PerformanceMonitor performanceMonitor) {
+        this.etaService = etaService;
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        this.performanceMonitor = performanceMonitor;
+    }
+
+    // Subscribes after the ETA service (a constructor dependency), so it sees a vehicle's stop progress
+    // for the same location update before the boards are patched
+    @PostConstruct
+    public void start() {
+        DomainEventPublisher.instance().subscribe(this);
+    }
+
+    @PreDestroy
+    public void stop() {
+        DomainEventPublisher.instance().unsubscribe(this);
+    }
+
+    // ============= UPDATES =============
+
+    @Override
+    public boolean canHandle(DomainEvent event) {
+        return event instanceof VehicleLocationUpdatedEvent;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        VehicleLocationUpdatedEvent update = (VehicleLocationUpdatedEvent) event;
+        String vehicleId = update.getVehicleId().getValue();
+
+        if (update.getLocation() == null || update.getAssignedRouteId() == null
+                || !update.getVehicleStatus().isTrackable()) {
+            removeVehicle(vehicleId);
+            return;
+        }
+
+        double speedKmh = update.getSpeed() != null ? update.getSpeed() * 3.6 : 0.0;
+        apply(vehicleId, update.getAssignedRouteId(),
+                etaService.downstreamEtas(vehicleId, update.getAssignedRouteId(), update.getLocation(), speedKmh));
+    }
+
+    public void apply(String vehicleId, String routeId, Map<StopId, ETAResult> etas) {
+        long minChange = config.getMinEtaChange().toMillis();
+        int changed = 0;
+
+        Set<StopId> previous = etas.isEmpty()
+                ? vehicleStops.remove(vehicleId)
+                : vehicleStops.put(vehicleId, Set.copyOf(etas.keySet()));
+        if (previous != null) {
+            for (StopId stopId : previous) {
+                // No longer downstream: the vehicle passed the stop or left the route
+                if (!etas.containsKey(stopId) && removeFrom(stopId, vehicleId)) {
+                    changed++;
+                }
+            }
+        }
+
+        for (Map.Entry<StopId, ETAResult> eta : etas.entrySet()) {
+            Arrival arrival = new Arrival(vehicleId, routeId, eta.getValue().arrivalTime().getEpochMillis(),
+                    eta.getValue().confidenceLevel(), eta.getValue().quality().name());
+            StopArrivalBoard board = boards.computeIfAbsent(eta.getKey(),
+                    stopId -> new StopArrivalBoard(stopId.getValue(), config.getMaxArrivalsPerBoard()));
+            if (board.upsert(arrival, minChange)) {
+                unpublished.add(eta.getKey());
+                changed++;
+            }
+        }
+
+        if (changed > 0) {
+            performanceMonitor.incrementCounter("stop.arrivals.board.changes", changed);
+        }
+    }
+
+    public void removeVehicle(String vehicleId) {
+        Set<StopId> stops = vehicleStops.remove(vehicleId);
+        if (stops != null) {
+            stops.forEach(stopId -> removeFrom(stopId, vehicleId));
+        }
+    }
+
+    private boolean removeFrom(StopId stopId, String vehicleId) {
+        StopArrivalBoard board = boards.get(stopId);
+        if (board != null && board.remove(vehicleId)) {
+            unpublished.add(stopId);
+            return true;
+        }
+        return false;
+    }
+
+    // Drops arrivals whose predicted time passed long ago without the vehicle reporting, e.g. lost GPS
+    @Scheduled(fixedDelayString = "${ugur.stop-arrivals.maintenance-interval:10s}")
+    public void evictOverdue() {
+        long cutoff = System.currentTimeMillis() - config.getOverdueGrace().toMillis();
+        int evicted = 0;
+
+        for (Map.Entry<StopId, StopArrivalBoard> entry : boards.entrySet()) {
+            for (String vehicleId : entry.getValue().overdue(cutoff)) {
+                if (removeFrom(entry.getKey(), vehicleId)) {
+                    evicted++;
+                }
+            }
+        }
+
+        performanceMonitor.incrementCounter("stop.arrivals.evicted", evicted);
+        performanceMonitor.recordGauge("stop.arrivals.boards", boards.size());
+        performanceMonitor.recordGauge("stop.arrivals.vehicles", vehicleStops.size());
+    }
+
+    // ============= READS =============
+
+    public List<Arrival> topArrivals(StopId stopId, int limit) {
+        StopArrivalBoard board = boards.get(stopId);
+        return board != null ? board.top(limit) : List.of();
+    }
+
+    public BoardSnapshot snapshot(StopId stopId, int limit) {
+        StopArrivalBoard board = boards.get(stopId);
+        if (board == null) {
+            return new BoardSnapshot(stopId.getValue(), 0, System.currentTimeMillis(), List.of());
+        }
+        // Version first: a change racing the read only makes the snapshot look older than it is
+        long version = board.version();
+        return new BoardSnapshot(stopId.getValue(), version, System.currentTimeMillis(), board.top(limit));
+    }
+
+    // Served from memory when this node maintains the board, otherwise from the last published snapshot
+    public Mono<BoardSnapshot> readBoard(StopId stopId, int limit) {
+        int effectiveLimit = Math.max(1, Math.min(limit, config.getMaxArrivalsPerBoard()));
+        ReactiveRedisTemplate<String, String> redis = redisTemplate.getIfAvailable();
+
+        if (boards.containsKey(stopId) || !config.isRedisEnabled() || redis == null) {
+            return Mono.just(snapshot(stopId, effectiveLimit));
+        }
+
+        return redis.opsForValue().get(REDIS_KEY_PREFIX + stopId.getValue())
+                .map(json -> decode(json, effectiveLimit))
+                .doOnNext(board -> performanceMonitor.incrementCounter("stop.arrivals.redis.reads"))
+                .onErrorResume(error -> {
+                    log.warn("Failed to read arrival board {} from Redis: {}", stopId, error.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(new BoardSnapshot(stopId.getValue(), 0, System.currentTimeMillis(), List.of()));
+    }
+
+    // ============= REDIS =============
+
+    @Scheduled(fixedDelayString = "${ugur.stop-arrivals.redis-publish-interval:2s}")
+    public void publishSnapshots() {
+        ReactiveRedisTemplate<String, String> redis = redisTemplate.getIfAvailable();
+        if (!config.isRedisEnabled() || redis == null || unpublished.isEmpty()
+                || !publishing.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<StopId> stops = new ArrayList<>(unpublished);
+        unpublished.removeAll(stops);
+        Duration ttl = config.getRedisTtl();
+
+        Flux.fromIterable(stops)
+                .flatMap(stopId -> redis.opsForValue()
+                        .set(REDIS_KEY_PREFIX + stopId.getValue(),
+                                encode(snapshot(stopId, config.getMaxArrivalsPerBoard())), ttl)
+                        .onErrorResume(error -> {
+                            // Retried with the next publish, by then with the newer board
+                            unpublished.add(stopId);
+                            return Mono.just(false);
+                        }), 64)
+                .filter(Boolean::booleanValue)
+                .count()
+                .doOnNext(published -> performanceMonitor.incrementCounter("stop.arrivals.redis.published", published))
+                .doOnError(error -> log.error("Arrival board publish failed", error))
+                .onErrorComplete()
+                .doFinally(signal -> publishing.set(false))
+                .subscribe();
+    }
+
+    private String encode(BoardSnapshot snapshot) {
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode arrival board " + snapshot.stopId(), e);
+        }
+    }
+
+    private BoardSnapshot decode(String json, int limit) {
+        try {
+            BoardSnapshot snapshot = objectMapper.readValue(json, BoardSnapshot.class);
+            return snapshot.arrivals().size() <= limit ? snapshot
+                    : new BoardSnapshot(snapshot.stopId(), snapshot.version(), snapshot.generatedAtEpochMillis(),
+                    snapshot.arrivals().subList(0, limit));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot decode arrival board snapshot", e);
+        }
+    }
+
+    public record Arrival(
+            String vehicleId,
+            String routeId,
+            long arrivalEpochMillis,
+            double confidence,
+            String quality
+    ) {}
+
+    public record BoardSnapshot(
+            String stopId,
+            long version,
+            long generatedAtEpochMillis,
+            List<Arrival> arrivals
+    ) {}
+}
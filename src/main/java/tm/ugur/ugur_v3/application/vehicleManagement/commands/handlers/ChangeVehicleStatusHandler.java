@@ -3,12 +3,15 @@ package tm.ugur.ugur_v3.application.vehicleManagement.commands.handlers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.VehicleManagementConfig;
 import tm.ugur.ugur_v3.application.shared.executor.UseCaseExecutor;
 import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
 import tm.ugur.ugur_v3.application.shared.validation.ValidatorService;
 import tm.ugur.ugur_v3.application.vehicleManagement.commands.ChangeVehicleStatusCommand;
 import tm.ugur.ugur_v3.application.vehicleManagement.commands.results.ChangeVehicleStatusResult;
+import tm.ugur.ugur_v3.domain.shared.exceptions.ConcurrencyException;
 import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
 import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
 import tm.ugur.ugur_v3.domain.vehicleManagement.exceptions.VehicleNotFoundException;
@@ -17,6 +20,7 @@ import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.VehicleId;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
 @Slf4j
 @Component
@@ -26,6 +30,7 @@ public class ChangeVehicleStatusHandler implements UseCaseExecutor.CommandHandle
     private final VehicleRepository vehicleRepository;
     private final PerformanceMonitor performanceMonitor;
     private final ValidatorService validatorService;
+    private final VehicleManagementConfig config;
 
     @Override
     public Mono<ChangeVehicleStatusResult> handle(ChangeVehicleStatusCommand command) {
@@ -34,6 +39,25 @@ public class ChangeVehicleStatusHandler implements UseCaseExecutor.CommandHandle
         );
     }
 
+    public Flux<ChangeVehicleStatusResult> handleBatch(List<ChangeVehicleStatusCommand> commands) {
+        Instant startTime = Instant.now();
+        VehicleManagementConfig.PerformanceConfig performance = config.getPerformance();
+
+        VersionedVehicleBatch<ChangeVehicleStatusCommand, StatusChangeResult, ChangeVehicleStatusResult> batch =
+                new VersionedVehicleBatch<>(
+                        vehicleRepository, performanceMonitor, "vehicle.status.batch",
+                        performance.getRetryAttempts(), performance.getMaxConcurrentStatusChanges(),
+                        command -> validateCommand(command)
+                                .then(findVehicle(command.vehicleId()))
+                                .flatMap(vehicle -> validateAndChangeStatus(vehicle, command)),
+                        StatusChangeResult::vehicle,
+                        (command, change) -> createSuccessResult(change.vehicle, change.previousStatus, command, startTime),
+                        (command, error) -> handleError(command, error, startTime));
+
+        return performanceMonitor.timeReactive("vehicle.status.change.batch", () -> batch.execute(commands))
+                .flatMapIterable(results -> results);
+    }
+
     private Mono<ChangeVehicleStatusResult> processStatusChange(ChangeVehicleStatusCommand command) {
         Instant startTime = Instant.now();
 
@@ -238,6 +262,9 @@ public class ChangeVehicleStatusHandler implements UseCaseExecutor.CommandHandle
 
         if (throwable instanceof VehicleNotFoundException) {
             return ChangeVehicleStatusResult.vehicleNotFound(command.vehicleId());
+        } else if (throwable instanceof ConcurrencyException) {
+            return ChangeVehicleStatusResult.failure(command.vehicleId(),
+                    "Vehicle was modified concurrently, status change not applied");
         } else if (throwable instanceof IllegalArgumentException) {
 
             if (errorMessage.contains("transition")) {
@@ -16,6 +16,7 @@ import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
 import tm.ugur.ugur_v3.application.vehicleManagement.commands.ProcessGpsDataCommand;
 import tm.ugur.ugur_v3.application.vehicleManagement.commands.UpdateVehicleLocationCommand;
 import tm.ugur.ugur_v3.application.vehicleManagement.commands.results.ProcessGpsDataResult;
+import tm.ugur.ugur_v3.application.vehicleManagement.commands.results.UpdateVehicleLocationResult;
 import tm.ugur.ugur_v3.application.vehicleManagement.commands.handlers.UpdateVehicleLocationHandler;
 import tm.ugur.ugur_v3.domain.vehicleManagement.services.GpsDataProvider;
 import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleRepository;
@@ -26,6 +27,7 @@ import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -107,43 +109,53 @@ public class ProcessGpsDataHandler implements UseCaseExecutor.CommandHandler<Pro
 
         int maxConcurrent = config.getPerformance().getMaxConcurrentLocationUpdates();
 
+        // Vehicles are resolved individually, the location changes are then saved in one versioned batch.
         return Flux.fromIterable(locations)
                 .filter(this::isValidGpsData)
                 .filter(this::isSignificantUpdate)
-                .flatMap(gpsData -> updateVehicleLocation(gpsData, command), maxConcurrent)
+                .flatMapSequential(gpsData -> toLocationCommand(gpsData)
+                        .map(locationCommand -> new PendingLocation(gpsData, locationCommand, null))
+                        .onErrorResume(error -> {
+                            log.error("Failed to create location update command for vehicle: {}",
+                                    gpsData.vehicleIdentifier(), error);
+                            return Mono.just(new PendingLocation(gpsData, null, error));
+                        }), maxConcurrent)
                 .collectList()
+                .flatMap(pending -> {
+                    List<PendingLocation> resolved = pending.stream().filter(p -> p.command() != null).toList();
+
+                    return updateLocationHandler.handleBatch(resolved.stream().map(PendingLocation::command).toList())
+                            .map(results -> {
+                                List<LocationUpdateResult> updates = new ArrayList<>(pending.size());
+                                pending.stream()
+                                        .filter(p -> p.command() == null)
+                                        .forEach(p -> updates.add(
+                                                LocationUpdateResult.failed(p.gpsData().vehicleIdentifier(), p.error())));
+
+                                for (int i = 0; i < resolved.size(); i++) {
+                                    GpsDataProvider.GpsLocationData gpsData = resolved.get(i).gpsData();
+                                    UpdateVehicleLocationResult result = results.get(i);
+                                    updates.add(result.isSuccessful()
+                                            ? LocationUpdateResult.successful(gpsData.vehicleIdentifier(), gpsData.timestamp())
+                                            : LocationUpdateResult.failed(gpsData.vehicleIdentifier(),
+                                                    new IllegalStateException(result.getErrorMessage())));
+                                }
+                                return updates;
+                            });
+                })
                 .map(results -> ProviderProcessingResult.fromUpdates(results, providerName));
     }
 
-    private Mono<LocationUpdateResult> updateVehicleLocation(GpsDataProvider.GpsLocationData gpsData,
-                                                             ProcessGpsDataCommand command) {
-        String vehicleIdentifier = gpsData.vehicleIdentifier();
-
-        return findOrCreateVehicle(vehicleIdentifier)
-                .flatMap(vehicle -> {
-                    try {
-                        UpdateVehicleLocationCommand locationCommand = UpdateVehicleLocationCommand.fromGpsApi(
-                                vehicle.getId(),
-                                gpsData.latitude(),
-                                gpsData.longitude(),
-                                gpsData.accuracy(),
-                                gpsData.speed(),
-                                gpsData.bearing()
-                        );
-
-                        // Используем существующий handler
-                        return updateLocationHandler.handle(locationCommand)
-                                .map(result -> LocationUpdateResult.successful(vehicleIdentifier, gpsData.timestamp()))
-                                .onErrorResume(error -> {
-                                    log.error("Failed to update vehicle location: {}", vehicleIdentifier, error);
-                                    return Mono.just(LocationUpdateResult.failed(vehicleIdentifier, error));
-                                });
-
-                    } catch (Exception e) {
-                        log.error("Failed to create location update command for vehicle: {}", vehicleIdentifier, e);
-                        return Mono.just(LocationUpdateResult.failed(vehicleIdentifier, e));
-                    }
-                });
+    private Mono<UpdateVehicleLocationCommand> toLocationCommand(GpsDataProvider.GpsLocationData gpsData) {
+        return findOrCreateVehicle(gpsData.vehicleIdentifier())
+                .map(vehicle -> UpdateVehicleLocationCommand.fromGpsApi(
+                        vehicle.getId(),
+                        gpsData.latitude(),
+                        gpsData.longitude(),
+                        gpsData.accuracy(),
+                        gpsData.speed(),
+                        gpsData.bearing()
+                ));
     }
 
     private Mono<Vehicle> findOrCreateVehicle(String vehicleIdentifier) {
@@ -244,6 +256,12 @@ public class ProcessGpsDataHandler implements UseCaseExecutor.CommandHandler<Pro
         }
     }
 
+    private record PendingLocation(
+            GpsDataProvider.GpsLocationData gpsData,
+            UpdateVehicleLocationCommand command,
+            Throwable error
+    ) {}
+
     public record LocationUpdateResult(
             String vehicleIdentifier,
             java.time.Instant timestamp,
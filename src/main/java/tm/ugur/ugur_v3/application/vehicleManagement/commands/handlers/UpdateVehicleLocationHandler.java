@@ -3,21 +3,32 @@ package tm.ugur.ugur_v3.application.vehicleManagement.commands.handlers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.VehicleManagementConfig;
 import tm.ugur.ugur_v3.application.shared.executor.UseCaseExecutor;
 import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
 import tm.ugur.ugur_v3.application.shared.validation.ValidatorService;
 import tm.ugur.ugur_v3.application.vehicleManagement.commands.UpdateVehicleLocationCommand;
 import tm.ugur.ugur_v3.application.vehicleManagement.commands.results.UpdateVehicleLocationResult;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventPublisher;
+import tm.ugur.ugur_v3.domain.shared.exceptions.ConcurrencyException;
 import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
 import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
 import tm.ugur.ugur_v3.domain.vehicleManagement.exceptions.VehicleNotFoundException;
 import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleRepository;
+import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleTrackingRepository;
+import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleTrackingRepository.GPSDataPoint;
+import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleTrackingRepository.SessionGpsDataPoint;
 import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Bearing;
 import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Speed;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.TrackingSessionId;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 @Component
@@ -27,6 +38,10 @@ public class UpdateVehicleLocationHandler implements UseCaseExecutor.CommandHand
     private final VehicleRepository vehicleRepository;
     private final PerformanceMonitor performanceMonitor;
     private final ValidatorService validatorService;
+    private final VehicleManagementConfig config;
+    private final VehicleTrackingRepository trackingRepository;
+
+    private final VehicleTrackingSessions trackingSessions = new VehicleTrackingSessions();
 
     @Override
     public Mono<UpdateVehicleLocationResult> handle(UpdateVehicleLocationCommand command) {
@@ -37,12 +52,37 @@ public class UpdateVehicleLocationHandler implements UseCaseExecutor.CommandHand
         );
     }
 
+    public Mono<List<UpdateVehicleLocationResult>> handleBatch(List<UpdateVehicleLocationCommand> commands) {
+        Instant startTime = Instant.now();
+        VehicleManagementConfig.PerformanceConfig performance = config.getPerformance();
+        List<SessionGpsDataPoint> track = new ArrayList<>(commands.size());
+
+        VersionedVehicleBatch<UpdateVehicleLocationCommand, Vehicle, UpdateVehicleLocationResult> batch =
+                new VersionedVehicleBatch<>(
+                        vehicleRepository, performanceMonitor, "vehicle.location.batch",
+                        performance.getRetryAttempts(), performance.getMaxConcurrentLocationUpdates(),
+                        command -> validateCommand(command)
+                                .then(findVehicle(command))
+                                .flatMap(vehicle -> updateVehicleLocation(vehicle, command)),
+                        vehicle -> vehicle,
+                        (command, vehicle) -> {
+                            publishDomainEvents(vehicle);
+                            track.add(toTrackPoint(vehicle, command));
+                            return createSuccessResult(vehicle, command, startTime);
+                        },
+                        (command, error) -> toErrorResult(command, startTime, error));
+
+        return performanceMonitor.timeReactive("vehicle.location.update.batch", () -> batch.execute(commands)
+                .flatMap(results -> recordHistory(track).thenReturn(results)));
+    }
+
     private Mono<UpdateVehicleLocationResult> processLocationUpdate(UpdateVehicleLocationCommand command,
                                                                     Instant startTime) {
         return validateCommand(command)
                 .then(findVehicle(command))
                 .flatMap(vehicle -> updateVehicleLocation(vehicle, command))
                 .flatMap(vehicle -> saveVehicle(vehicle, command))
+                .flatMap(vehicle -> recordHistory(List.of(toTrackPoint(vehicle, command))).thenReturn(vehicle))
                 .map(vehicle -> createSuccessResult(vehicle, command, startTime))
                 .onErrorResume(throwable -> handleError(command, startTime, throwable));
     }
@@ -101,6 +141,7 @@ public class UpdateVehicleLocationHandler implements UseCaseExecutor.CommandHand
                 .doOnSuccess(savedVehicle -> {
                     performanceMonitor.incrementCounter("vehicle.location.updated.success");
                     log.info("Successfully updated location for vehicle {}", command.vehicleId());
+                    publishDomainEvents(savedVehicle);
                 })
                 .doOnError(error -> {
                     performanceMonitor.incrementCounter("vehicle.location.updated.error");
@@ -109,6 +150,44 @@ public class UpdateVehicleLocationHandler implements UseCaseExecutor.CommandHand
                 });
     }
 
+    // Saved fixes go to the GPS history; a failed write there is counted but does not undo the location update
+    private Mono<Void> recordHistory(List<SessionGpsDataPoint> points) {
+        if (points.isEmpty() || !config.getBusinessRules().getLocation().isEnableLocationHistoryTracking()) {
+            return Mono.empty();
+        }
+
+        return trackingRepository.storeGpsDataPoints(Flux.fromIterable(points))
+                .doOnNext(written -> performanceMonitor.incrementCounter("vehicle.location.history.written", written))
+                .onErrorResume(error -> {
+                    performanceMonitor.incrementCounter("vehicle.location.history.error");
+                    log.warn("Failed to record {} GPS points in the location history: {}",
+                            points.size(), error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private SessionGpsDataPoint toTrackPoint(Vehicle vehicle, UpdateVehicleLocationCommand command) {
+        GeoCoordinate location = vehicle.getCurrentLocation();
+        TrackingSessionId sessionId = trackingSessions.sessionFor(vehicle.getId(), command.timestamp(),
+                config.getBusinessRules().getLocation().getTrackingSessionGap());
+
+        return new SessionGpsDataPoint(sessionId, vehicle.getId(), GPSDataPoint.of(
+                location,
+                vehicle.getCurrentSpeed(),
+                vehicle.getCurrentBearing(),
+                Timestamp.of(command.timestamp()),
+                location.getAccuracy()));
+    }
+
+    // Raised only after the save succeeded, so listeners such as the live position feed never see a rolled back location
+    private void publishDomainEvents(Vehicle vehicle) {
+        DomainEventPublisher publisher = DomainEventPublisher.instance();
+        vehicle.getDomainEvents().forEach(publisher::raise);
+        vehicle.clearDomainEvents();
+        publisher.publishAll();
+    }
+
     private UpdateVehicleLocationResult createSuccessResult(Vehicle vehicle,
                                                             UpdateVehicleLocationCommand command,
                                                             Instant startTime) {
@@ -140,6 +219,12 @@ public class UpdateVehicleLocationHandler implements UseCaseExecutor.CommandHand
     private Mono<UpdateVehicleLocationResult> handleError(UpdateVehicleLocationCommand command,
                                                           Instant startTime,
                                                           Throwable throwable) {
+        return Mono.just(toErrorResult(command, startTime, throwable));
+    }
+
+    private UpdateVehicleLocationResult toErrorResult(UpdateVehicleLocationCommand command,
+                                                      Instant startTime,
+                                                      Throwable throwable) {
         Duration processingTime = Duration.between(startTime, Instant.now());
         performanceMonitor.incrementCounter("vehicle.location.update.error");
 
@@ -157,6 +242,11 @@ public class UpdateVehicleLocationHandler implements UseCaseExecutor.CommandHand
                     command.vehicleId(),
                     "Vehicle not found: " + command.vehicleId().getValue()
             );
+        } else if (throwable instanceof ConcurrencyException) {
+            errorResult = UpdateVehicleLocationResult.failure(
+                    command.vehicleId(),
+                    "Vehicle was modified concurrently, location update not applied"
+            );
         } else if (throwable instanceof IllegalArgumentException) {
             if (command.location() != null) {
                 errorResult = UpdateVehicleLocationResult.invalidCoordinates(
@@ -172,6 +262,6 @@ public class UpdateVehicleLocationHandler implements UseCaseExecutor.CommandHand
             errorResult = UpdateVehicleLocationResult.failure(command.vehicleId(), errorMessage);
         }
 
-        return Mono.just(errorResult);
+        return errorResult;
     }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.commands.handlers;
+
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.TrackingSessionId;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.VehicleId;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Groups each vehicle's fixes into tracking sessions: a session stays open while fixes keep arriving
+// and a gap longer than the configured one starts the next, with an id derived from the vehicle and
+// that first fix.
+final class VehicleTrackingSessions {
+
+    private final Map<VehicleId, OpenSession> openSessions = new ConcurrentHashMap<>();
+
+    TrackingSessionId sessionFor(VehicleId vehicleId, Instant recordedAt, Duration gap) {
+        return openSessions.compute(vehicleId, (id, open) -> {
+            if (open != null && !recordedAt.isAfter(open.lastRecordedAt().plus(gap))) {
+                return recordedAt.isAfter(open.lastRecordedAt()) ? new OpenSession(open.sessionId(), recordedAt) : open;
+            }
+            return new OpenSession(TrackingSessionId.forVehicleAt(id, recordedAt.toEpochMilli()), recordedAt);
+        }).sessionId();
+    }
+
+    private record OpenSession(TrackingSessionId sessionId, Instant lastRecordedAt) {
+    }
+}
@@ -0,0 +1,141 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.commands.handlers;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.shared.exceptions.ConcurrencyException;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Applies commands to freshly loaded vehicles, writes them with one versioned save per round and
+// re-runs only the commands whose vehicle was changed concurrently.
+@Slf4j
+final class VersionedVehicleBatch<C, A, R> {
+
+    private final VehicleRepository vehicleRepository;
+    private final PerformanceMonitor performanceMonitor;
+    private final String metricPrefix;
+    private final int maxAttempts;
+    private final int concurrency;
+
+    private final Function<C, Mono<A>> apply;
+    private final Function<A, Vehicle> vehicleOf;
+    private final BiFunction<C, A, R> onSaved;
+    private final BiFunction<C, Throwable, R> onFailed;
+
+    VersionedVehicleBatch(VehicleRepository vehicleRepository, PerformanceMonitor performanceMonitor,
+                          String metricPrefix, int maxAttempts, int concurrency,
+                          Function<C, Mono<A>> apply,
+                          Function<A, Vehicle> vehicleOf,
+                          BiFunction<C, A, R> onSaved,
+                          BiFunction<C, Throwable, R> onFailed) {
+        this.vehicleRepository = vehicleRepository;
+        this.performanceMonitor = performanceMonitor;
+        this.metricPrefix = metricPrefix;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.concurrency = Math.max(1, concurrency);
+        this.apply = apply;
+        this.vehicleOf = vehicleOf;
+        this.onSaved = onSaved;
+        this.onFailed = onFailed;
+    }
+
+    Mono<List<R>> execute(List<C> commands) {
+        List<R> results = new ArrayList<>(Collections.nCopies(commands.size(), null));
+        List<Integer> all = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            all.add(i);
+        }
+
+        return round(commands, all, results, 1).thenReturn(results);
+    }
+
+    private Mono<Void> round(List<C> commands, List<Integer> pending, List<R> results, int attempt) {
+        return Flux.fromIterable(pending)
+                .flatMapSequential(index -> apply.apply(commands.get(index))
+                        .map(change -> new Applied<A>(index, change, null))
+                        .onErrorResume(error -> Mono.just(new Applied<A>(index, null, error))), concurrency)
+                .collectList()
+                .flatMap(applied -> {
+                    List<Vehicle> changed = new ArrayList<>();
+                    for (Applied<A> item : applied) {
+                        if (item.error() != null) {
+                            results.set(item.index(), onFailed.apply(commands.get(item.index()), item.error()));
+                        } else {
+                            changed.add(vehicleOf.apply(item.change()));
+                        }
+                    }
+
+                    return vehicleRepository.saveVersioned(changed)
+                            .onErrorResume(error -> {
+                                for (Applied<A> item : applied) {
+                                    if (item.error() == null) {
+                                        results.set(item.index(), onFailed.apply(commands.get(item.index()), error));
+                                    }
+                                }
+                                return Mono.empty();
+                            })
+                            .flatMap(saveResult -> {
+                                // Identity, not id equality: two commands for one vehicle are separate instances.
+                                Set<Vehicle> saved = Collections.newSetFromMap(new IdentityHashMap<>());
+                                saved.addAll(saveResult.saved());
+                                saved.addAll(saveResult.unchanged());
+                                List<Integer> retry = new ArrayList<>();
+                                List<Applied<A>> exhausted = new ArrayList<>();
+
+                                for (Applied<A> item : applied) {
+                                    if (item.error() != null) {
+                                        continue;
+                                    }
+                                    C command = commands.get(item.index());
+                                    Vehicle vehicle = vehicleOf.apply(item.change());
+                                    if (saved.contains(vehicle)) {
+                                        results.set(item.index(), onSaved.apply(command, item.change()));
+                                    } else if (attempt < maxAttempts) {
+                                        retry.add(item.index());
+                                    } else {
+                                        exhausted.add(item);
+                                    }
+                                }
+
+                                Mono<Void> reported = Flux.fromIterable(exhausted)
+                                        .concatMap(item -> reportConflict(commands.get(item.index()), item, results))
+                                        .then();
+                                if (retry.isEmpty()) {
+                                    return reported;
+                                }
+                                performanceMonitor.incrementCounter(metricPrefix + ".conflict.retried", retry.size());
+                                log.debug("Retrying {} vehicle commands after optimistic lock conflicts (attempt {})",
+                                        retry.size(), attempt + 1);
+                                return reported.then(Mono.defer(() -> round(commands, retry, results, attempt + 1)));
+                            });
+                });
+    }
+
+    // Out of retries: the failure carries the version the row holds now, null when it is gone
+    private Mono<Void> reportConflict(C command, Applied<A> item, List<R> results) {
+        Vehicle vehicle = vehicleOf.apply(item.change());
+        performanceMonitor.incrementCounter(metricPrefix + ".conflict.exhausted");
+
+        return vehicleRepository.findById(vehicle.getId())
+                .map(current -> Optional.ofNullable(current.getVersion()))
+                .defaultIfEmpty(Optional.empty())
+                .onErrorReturn(Optional.empty())
+                .doOnNext(actual -> results.set(item.index(), onFailed.apply(command, new ConcurrencyException(
+                        vehicle.getId().getValue(), vehicle.getPersistedVersion(), actual.orElse(null)))))
+                .then();
+    }
+
+    private record Applied<T>(int index, T change, Throwable error) {
+    }
+}
@@ -0,0 +1,174 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.eta;
+
+import tm.ugur.ugur_v3.application.vehicleManagement.eta.SegmentProfileStore.Estimate;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.Route;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.RouteSegment;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable prefix sums over one route's segment estimates for one time bucket. Travel time between any
+// two stops, with its spread, is a constant-time difference, so all downstream ETAs of a vehicle cost
+// one pass over its remaining stops. Spreads are summed as squares, treating segments as independent.
+final class RouteTimeline {
+
+    // Ratios used for segments that only have a distance, timed at the default speed
+    private static final double FALLBACK_P10 = 0.7;
+    private static final double FALLBACK_P90 = 1.5;
+
+    private final String routeId;
+    private final long networkVersion;
+    private final int bucket;
+    private final long builtAtNanos;
+
+    private final StopId[] stops;
+    private final Map<StopId, Integer> positions;
+    private final double[] segmentMeters;
+    private final double[] segmentMedian;
+
+    private final double[] cumulativeMedian;
+    private final double[] cumulativeLowSquares;
+    private final double[] cumulativeHighSquares;
+    private final double[] cumulativeTrustedSeconds;
+    private final int[] cumulativeUnknown;
+
+    private RouteTimeline(String routeId, long networkVersion, int bucket, int stopCount) {
+        this.routeId = routeId;
+        this.networkVersion = networkVersion;
+        this.bucket = bucket;
+        this.builtAtNanos = System.nanoTime();
+        this.stops = new StopId[stopCount];
+        this.positions = new HashMap<>(stopCount * 2);
+        this.segmentMeters = new double[Math.max(0, stopCount - 1)];
+        this.segmentMedian = new double[Math.max(0, stopCount - 1)];
+        this.cumulativeMedian = new double[stopCount];
+        this.cumulativeLowSquares = new double[stopCount];
+        this.cumulativeHighSquares = new double[stopCount];
+        this.cumulativeTrustedSeconds = new double[stopCount];
+        this.cumulativeUnknown = new int[stopCount];
+    }
+
+    static RouteTimeline build(Route route, long networkVersion, int bucket, SegmentProfileStore store,
+                               double defaultSpeedMps) {
+        List<StopId> sequence = route.getStopSequence();
+        RouteTimeline timeline = new RouteTimeline(route.getId().getValue(), networkVersion, bucket, sequence.size());
+
+        Map<StopId, RouteSegment> segmentsByStart = new HashMap<>();
+        for (RouteSegment segment : route.getSegments()) {
+            segmentsByStart.putIfAbsent(segment.getFromStopId(), segment);
+        }
+
+        for (int i = 0; i < sequence.size(); i++) {
+            timeline.stops[i] = sequence.get(i);
+            // Loop routes visit a stop twice; the first visit is the one a vehicle is matched against
+            timeline.positions.putIfAbsent(sequence.get(i), i);
+            if (i == 0) {
+                continue;
+            }
+
+            StopId from = sequence.get(i - 1);
+            StopId to = sequence.get(i);
+            RouteSegment segment = segmentsByStart.get(from);
+            if (segment != null && !segment.getToStopId().equals(to)) {
+                segment = null;
+            }
+
+            double meters = segment != null ? segment.getDistance().toMeters() : Double.NaN;
+            Estimate estimate = store.estimate(from, to, segment, bucket);
+            if (estimate == null && !Double.isNaN(meters)) {
+                double seconds = meters / defaultSpeedMps;
+                estimate = new Estimate(seconds * FALLBACK_P10, seconds, seconds * FALLBACK_P90, 0.0);
+            }
+
+            timeline.segmentMeters[i - 1] = meters;
+            timeline.accumulate(i, estimate);
+        }
+        return timeline;
+    }
+
+    private void accumulate(int position, Estimate estimate) {
+        int previous = position - 1;
+        double median = estimate != null ? estimate.p50() : 0.0;
+        double low = estimate != null ? estimate.p50() - estimate.p10() : 0.0;
+        double high = estimate != null ? estimate.p90() - estimate.p50() : 0.0;
+
+        segmentMedian[previous] = median;
+        cumulativeMedian[position] = cumulativeMedian[previous] + median;
+        cumulativeLowSquares[position] = cumulativeLowSquares[previous] + low * low;
+        cumulativeHighSquares[position] = cumulativeHighSquares[previous] + high * high;
+        cumulativeTrustedSeconds[position] = cumulativeTrustedSeconds[previous]
+                + (estimate != null ? estimate.trust() * median : 0.0);
+        cumulativeUnknown[position] = cumulativeUnknown[previous] + (estimate != null ? 0 : 1);
+    }
+
+    // ============= QUERIES =============
+
+    // Travel from stop position 'from' to 'to', including the dwell at every intermediate stop
+    Leg between(int from, int to, double dwellSeconds) {
+        double median = cumulativeMedian[to] - cumulativeMedian[from] + dwellSeconds * Math.max(0, to - from - 1);
+        double travel = cumulativeMedian[to] - cumulativeMedian[from];
+        double trust = travel > 0.0 ? (cumulativeTrustedSeconds[to] - cumulativeTrustedSeconds[from]) / travel : 0.0;
+        return new Leg(
+                median,
+                Math.sqrt(Math.max(0.0, cumulativeLowSquares[to] - cumulativeLowSquares[from])),
+                Math.sqrt(Math.max(0.0, cumulativeHighSquares[to] - cumulativeHighSquares[from])),
+                trust,
+                cumulativeUnknown[to] - cumulativeUnknown[from] > 0);
+    }
+
+    // Share of the segment ending at 'position' that is still ahead, scaled to its median time
+    Leg partialSegment(int position, double remainingMeters) {
+        Leg segment = between(position - 1, position, 0.0);
+        double meters = segmentMeters[position - 1];
+        if (segment.unknown() || Double.isNaN(meters) || meters <= 0.0) {
+            return null;
+        }
+
+        double share = Math.min(1.0, remainingMeters / meters);
+        return new Leg(segmentMedian[position - 1] * share, segment.lowSpread() * share,
+                segment.highSpread() * share, segment.trust(), false);
+    }
+
+    int positionOf(StopId stopId) {
+        Integer position = positions.get(stopId);
+        return position != null ? position : -1;
+    }
+
+    StopId stopAt(int position) {
+        return stops[position];
+    }
+
+    int stopCount() {
+        return stops.length;
+    }
+
+    double averageTrust() {
+        int last = stops.length - 1;
+        return last > 0 ? between(0, last, 0.0).trust() : 0.0;
+    }
+
+    String routeId() {
+        return routeId;
+    }
+
+    boolean isCurrent(long networkVersion, int bucket, long maxAgeNanos) {
+        return this.networkVersion == networkVersion && this.bucket == bucket
+                && System.nanoTime() - builtAtNanos < maxAgeNanos;
+    }
+
+    // Seconds; spreads are the distance from the median to the 10th and 90th percentile
+    record Leg(double median, double lowSpread, double highSpread, double trust, boolean unknown) {
+
+        Leg plus(Leg other) {
+            return new Leg(median + other.median,
+                    Math.sqrt(lowSpread * lowSpread + other.lowSpread * other.lowSpread),
+                    Math.sqrt(highSpread * highSpread + other.highSpread * other.highSpread),
+                    median + other.median > 0.0
+                            ? (trust * median + other.trust * other.median) / (median + other.median)
+                            : 0.0,
+                    unknown || other.unknown);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.eta;
+
+import tm.ugur.ugur_v3.application.configuration.EtaEngineConfig;
+import tm.ugur.ugur_v3.application.vehicleManagement.eta.TravelTimeDistribution.Quantiles;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.RouteSegment;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.RouteSegment.TimePeriod;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Learned travel-time distributions per stop pair and hour-of-week bucket (weekday or weekend x 24 hours).
+// Stop pairs rather than RouteSegment ids, so routes sharing a stretch of road learn from each other.
+final class SegmentProfileStore {
+
+    static final int BUCKETS = 48;
+
+    // Spread of the timetable prior around its point estimate, until observations replace it
+    private static final double PRIOR_P10 = 0.85;
+    private static final double PRIOR_P90 = 1.3;
+
+    private final EtaEngineConfig config;
+    private final ZoneId timeZone;
+    private final Map<SegmentKey, AtomicReferenceArray<TravelTimeDistribution>> profiles = new ConcurrentHashMap<>();
+
+    SegmentProfileStore(EtaEngineConfig config, ZoneId timeZone) {
+        this.config = config;
+        this.timeZone = timeZone;
+    }
+
+    void record(StopId fromStopId, StopId toStopId, double seconds, Instant traversedAt) {
+        AtomicReferenceArray<TravelTimeDistribution> buckets = profiles.computeIfAbsent(
+                new SegmentKey(fromStopId, toStopId), key -> new AtomicReferenceArray<>(BUCKETS));
+
+        int bucket = bucketOf(traversedAt);
+        TravelTimeDistribution distribution = buckets.get(bucket);
+        if (distribution == null) {
+            buckets.compareAndSet(bucket, null, new TravelTimeDistribution(config.getDecayHalfLife()));
+            distribution = buckets.get(bucket);
+        }
+        distribution.record(seconds);
+    }
+
+    // Learned quantiles shrunk towards the segment's timetable time for the bucket's period.
+    // Returns null when there is neither an observation nor a prior.
+    Estimate estimate(StopId fromStopId, StopId toStopId, RouteSegment segment, int bucket) {
+        Quantiles learned = learned(fromStopId, toStopId, bucket);
+        double prior = segment != null ? segment.getTimeForPeriod(periodOf(bucket)).getSeconds() : 0.0;
+
+        if (learned == null) {
+            return prior > 0.0 ? new Estimate(prior * PRIOR_P10, prior, prior * PRIOR_P90, 0.0) : null;
+        }
+        if (prior <= 0.0) {
+            return new Estimate(learned.p10(), learned.p50(), learned.p90(), 1.0);
+        }
+
+        double trust = learned.weight() / (learned.weight() + config.getPriorWeight());
+        return new Estimate(
+                blend(learned.p10(), prior * PRIOR_P10, trust),
+                blend(learned.p50(), prior, trust),
+                blend(learned.p90(), prior * PRIOR_P90, trust),
+                trust);
+    }
+
+    private Quantiles learned(StopId fromStopId, StopId toStopId, int bucket) {
+        AtomicReferenceArray<TravelTimeDistribution> buckets = profiles.get(new SegmentKey(fromStopId, toStopId));
+        TravelTimeDistribution distribution = buckets != null ? buckets.get(bucket) : null;
+        return distribution != null ? distribution.quantiles() : null;
+    }
+
+    int segmentCount() {
+        return profiles.size();
+    }
+
+    int bucketOf(Instant instant) {
+        ZonedDateTime local = instant.atZone(timeZone);
+        DayOfWeek day = local.getDayOfWeek();
+        boolean weekend = day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+        return (weekend ? 24 : 0) + local.getHour();
+    }
+
+    static TimePeriod periodOf(int bucket) {
+        if (bucket >= 24) {
+            return TimePeriod.WEEKEND;
+        }
+        if ((bucket >= 7 && bucket < 9) || (bucket >= 17 && bucket < 19)) {
+            return TimePeriod.RUSH_HOUR;
+        }
+        if (bucket >= 22 || bucket < 6) {
+            return TimePeriod.NIGHT;
+        }
+        return TimePeriod.OFF_PEAK;
+    }
+
+    private static double blend(double learned, double prior, double trust) {
+        return trust * learned + (1.0 - trust) * prior;
+    }
+
+    private record SegmentKey(StopId fromStopId, StopId toStopId) {}
+
+    // trust is the share of the estimate that comes from observations rather than the timetable
+    record Estimate(double p10, double p50, double p90, double trust) {}
+}
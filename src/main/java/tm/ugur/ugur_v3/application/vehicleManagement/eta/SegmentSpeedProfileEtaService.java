@@ -0,0 +1,565 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.eta;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.EtaEngineConfig;
+import tm.ugur.ugur_v3.application.configuration.ServiceDayConfig;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteNetworkService;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteNetworkSnapshot;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.vehicleManagement.eta.RouteTimeline.Leg;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.Route;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteId;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventListener;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventPublisher;
+import tm.ugur.ugur_v3.domain.shared.exceptions.BusinessRuleViolationException;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleType;
+import tm.ugur.ugur_v3.domain.vehicleManagement.events.VehicleLocationUpdatedEvent;
+import tm.ugur.ugur_v3.domain.vehicleManagement.services.ETACalculationService;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.VehicleId;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// ETAs from learned per-segment travel-time distributions. Segment traversals are observed from vehicle
+// location updates passing stops; the timetable times on RouteSegment act as the prior until enough
+// traversals exist. The domain has no stop coordinates, so stop locations are learned from the
+// coordinates callers pass in and from registerStopLocation.
+@Slf4j
+@Component
+public class SegmentSpeedProfileEtaService implements ETACalculationService, DomainEventListener {
+
+    // z-score spanned by the 10th..90th percentile of a normal distribution
+    private static final double P10_P90_SIGMA = 2.563;
+
+    private static final double BASIC_CONFIDENCE = 0.5;
+
+    private final RouteNetworkService routeNetworkService;
+    private final EtaEngineConfig config;
+    private final PerformanceMonitor performanceMonitor;
+    private final SegmentProfileStore store;
+
+    private final Map<String, RouteTimeline> timelines = new ConcurrentHashMap<>();
+    private final Map<StopId, GeoCoordinate> stopLocations = new ConcurrentHashMap<>();
+    private final Map<String, VehicleProgress> progress = new ConcurrentHashMap<>();
+    private final List<StopDepartureListener> departureListeners = new CopyOnWriteArrayList<>();
+
+    public SegmentSpeedProfileEtaService(RouteNetworkService routeNetworkService,
+                                         EtaEngineConfig config,
+                                         ServiceDayConfig serviceDay,
+                                         PerformanceMonitor performanceMonitor) {
+        this.routeNetworkService = routeNetworkService;
+        this.config = config;
+        this.performanceMonitor = performanceMonitor;
+        this.store = new SegmentProfileStore(config, serviceDay.getTimeZone());
+    }
+
+    @PostConstruct
+    public void start() {
+        DomainEventPublisher.instance().subscribe(this);
+    }
+
+    @PreDestroy
+    public void stop() {
+        DomainEventPublisher.instance().unsubscribe(this);
+    }
+
+    // ============= LEARNING =============
+
+    @Override
+    public boolean canHandle(DomainEvent event) {
+        return event instanceof VehicleLocationUpdatedEvent;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        VehicleLocationUpdatedEvent update = (VehicleLocationUpdatedEvent) event;
+        String vehicleId = update.getVehicleId().getValue();
+
+        if (update.getLocation() == null || update.getAssignedRouteId() == null
+                || !update.getVehicleStatus().isTrackable()) {
+            progress.remove(vehicleId);
+            return;
+        }
+        observe(vehicleId, update.getAssignedRouteId(), update.getLocation(), update.getOccurredAt().toInstant());
+    }
+
+    // A traversal runs from the last fix inside the origin stop's radius to the first fix inside the next
+    // stop's radius, so dwell time stays out of the segment distributions.
+    void observe(String vehicleId, String routeId, GeoCoordinate location, Instant observedAt) {
+        RouteTimeline timeline = timeline(routeId, observedAt);
+        if (timeline == null) {
+            return;
+        }
+
+        long now = observedAt.toEpochMilli();
+        VehicleProgress last = progress.get(vehicleId);
+        if (last != null && (!last.routeId().equals(timeline.routeId())
+                || now - last.departedAtMillis() > config.getMaxTraversal().toMillis())) {
+            last = null;
+        }
+
+        int reached = last != null
+                ? stopWithinRadius(timeline, location, last.position(), Math.min(last.position() + 2, timeline.stopCount() - 1))
+                : stopWithinRadius(timeline, location, 0, timeline.stopCount() - 1);
+        if (reached < 0) {
+            return;
+        }
+
+        if (last != null && reached == last.position()) {
+            progress.put(vehicleId, new VehicleProgress(last.routeId(), reached, now));
+            return;
+        }
+        if (last != null) {
+            notifyDeparture(vehicleId, timeline.routeId(), timeline.stopAt(last.position()), last.departedAtMillis());
+        }
+        if (last != null && reached == last.position() + 1) {
+            Duration traversal = Duration.ofMillis(now - last.departedAtMillis());
+            if (traversal.compareTo(config.getMinTraversal()) >= 0) {
+                recordTraversal(timeline.stopAt(last.position()), timeline.stopAt(reached), traversal, observedAt);
+            }
+        }
+        progress.put(vehicleId, new VehicleProgress(timeline.routeId(), reached, now));
+    }
+
+    // Notified when a vehicle reaches a later stop, with the time of its last fix inside the stop it left.
+    // Runs on the location event thread, so listeners must not block.
+    public void addStopDepartureListener(StopDepartureListener listener) {
+        departureListeners.add(listener);
+    }
+
+    public void removeStopDepartureListener(StopDepartureListener listener) {
+        departureListeners.remove(listener);
+    }
+
+    private void notifyDeparture(String vehicleId, String routeId, StopId stopId, long departedAtMillis) {
+        for (StopDepartureListener listener : departureListeners) {
+            try {
+                listener.departed(vehicleId, routeId, stopId, departedAtMillis);
+            } catch (RuntimeException e) {
+                log.warn("Stop departure listener failed for vehicle {}: {}", vehicleId, e.getMessage());
+            }
+        }
+    }
+
+    public void recordTraversal(StopId fromStopId, StopId toStopId, Duration traversal, Instant traversedAt) {
+        if (traversal.compareTo(config.getMaxTraversal()) > 0 || traversal.isNegative()) {
+            performanceMonitor.incrementCounter("eta.traversals.rejected");
+            return;
+        }
+        store.record(fromStopId, toStopId, traversal.toMillis() / 1000.0, traversedAt);
+        performanceMonitor.incrementCounter("eta.traversals.recorded");
+    }
+
+    public void registerStopLocation(StopId stopId, GeoCoordinate location) {
+        stopLocations.put(stopId, location);
+    }
+
+    // Stops whose location has been registered or learned so far; a live read-only view
+    public Map<StopId, GeoCoordinate> stopLocations() {
+        return Collections.unmodifiableMap(stopLocations);
+    }
+
+    // ============= ETA =============
+
+    @Override
+    public Mono<ETAResult> calculateETAToNextStop(Vehicle vehicle, GeoCoordinate nextStopLocation, String routeId) {
+        return calculateETA(vehicle, routeId, List.of(), nextStopLocation);
+    }
+
+    @Override
+    public Mono<ETAResult> calculateETAToFinalStop(Vehicle vehicle, GeoCoordinate finalStopLocation,
+                                                   String routeId, List<GeoCoordinate> remainingStops) {
+        return calculateETA(vehicle, routeId, remainingStops, finalStopLocation);
+    }
+
+    private Mono<ETAResult> calculateETA(Vehicle vehicle, String routeId, List<GeoCoordinate> via,
+                                         GeoCoordinate target) {
+        return performanceMonitor.timeReactive("eta.calculate", () -> Mono.fromSupplier(() -> {
+            Timestamp now = Timestamp.now();
+            return toResult(estimate(vehicle, routeId, via, target, now.toInstant()), now);
+        }));
+    }
+
+    @Override
+    public Mono<Map<String, ETAResult>> calculateETAForAllStops(Vehicle vehicle, String routeId,
+                                                                Map<String, GeoCoordinate> remainingStops) {
+        return performanceMonitor.timeReactive("eta.calculate.all", () -> Mono.fromSupplier(() -> {
+            Timestamp now = Timestamp.now();
+            remainingStops.forEach((stopId, location) -> stopLocations.put(StopId.of(stopId), location));
+
+            RouteTimeline timeline = timeline(routeId, now.toInstant());
+            int next = Integer.MAX_VALUE;
+            if (timeline != null) {
+                for (String stopId : remainingStops.keySet()) {
+                    int position = timeline.positionOf(StopId.of(stopId));
+                    if (position >= 0) {
+                        next = Math.min(next, position);
+                    }
+                }
+            }
+
+            Leg first = next != Integer.MAX_VALUE ? firstLeg(Fix.of(vehicle), timeline, next) : null;
+            Map<String, ETAResult> results = new LinkedHashMap<>();
+            for (Map.Entry<String, GeoCoordinate> stop : remainingStops.entrySet()) {
+                int position = timeline != null ? timeline.positionOf(StopId.of(stop.getKey())) : -1;
+                Leg leg = first != null && position >= next ? legTo(timeline, first, next, position) : null;
+                results.put(stop.getKey(), leg != null
+                        ? toResult(new Estimate(leg, false, timeline.routeId()), now)
+                        : toResult(straightLine(vehicle, List.of(), stop.getValue()), now));
+            }
+            return results;
+        }));
+    }
+
+    @Override
+    public Mono<ETAResult> recalculateWithTrafficUpdate(Vehicle vehicle, ETAResult previousETA,
+                                                        double trafficDelayMinutes) {
+        return Mono.fromSupplier(() -> {
+            Duration delay = Duration.ofMillis(Math.round(trafficDelayMinutes * 60_000));
+            Duration estimated = previousETA.estimatedTime().plus(delay);
+            if (estimated.isNegative()) {
+                estimated = Duration.ZERO;
+            }
+
+            Map<String, Object> factors = new HashMap<>(previousETA.factors());
+            factors.put("trafficDelay", trafficDelayMinutes);
+            double confidence = previousETA.confidenceLevel();
+
+            return new ETAResult(estimated, Timestamp.now().plusMillis(estimated.toMillis()), confidence,
+                    CalculationMethod.REAL_TIME_TRAFFIC.name(), Map.copyOf(factors),
+                    ETAQuality.fromConfidenceLevel(confidence));
+        });
+    }
+
+    // Expected confidence of whole-route ETAs in the time bucket; weather is not modelled
+    @Override
+    public Mono<Double> calculateETAAccuracy(VehicleType vehicleType, String routeId, Timestamp timeOfDay,
+                                             String weatherConditions) {
+        return Mono.fromSupplier(() -> {
+            RouteTimeline timeline = timeline(routeId, timeOfDay.toInstant());
+            if (timeline == null || timeline.stopCount() < 2) {
+                return BASIC_CONFIDENCE;
+            }
+            return confidence(timeline.between(0, timeline.stopCount() - 1, dwellSeconds()));
+        });
+    }
+
+    @Override
+    public Mono<ETATimeRange> predictArrivalTimeRange(Vehicle vehicle, GeoCoordinate targetLocation, String routeId) {
+        return Mono.fromSupplier(() -> {
+            Leg leg = estimate(vehicle, routeId, List.of(), targetLocation, Instant.now()).leg();
+            double spread = (leg.lowSpread() + leg.highSpread()) / P10_P90_SIGMA;
+
+            return new ETATimeRange(
+                    seconds(Math.max(0.0, leg.median() - leg.lowSpread())),
+                    seconds(leg.median() + leg.highSpread()),
+                    seconds(leg.median()),
+                    spread * spread);
+        });
+    }
+
+    @Override
+    public Mono<Map<VehicleId, List<ETAResult>>> optimizeRouteTimings(List<Vehicle> vehicles, String routeId,
+                                                                      List<GeoCoordinate> targetStops) {
+        return performanceMonitor.timeReactive("eta.route.timings", () -> Mono.fromSupplier(() -> {
+            Timestamp now = Timestamp.now();
+            Map<VehicleId, List<ETAResult>> results = new LinkedHashMap<>();
+            for (Vehicle vehicle : vehicles) {
+                List<ETAResult> etas = new ArrayList<>(targetStops.size());
+                for (GeoCoordinate target : targetStops) {
+                    etas.add(toResult(estimate(vehicle, routeId, List.of(), target, now.toInstant()), now));
+                }
+                results.put(vehicle.getId(), etas);
+            }
+            return results;
+        }));
+    }
+
+    // ============= FLEET =============
+
+    // Every downstream stop of every vehicle on a route, one prefix-sum pass per vehicle
+    public Map<VehicleId, Map<StopId, ETAResult>> recomputeFleet(Collection<Vehicle> vehicles) {
+        return performanceMonitor.time("eta.fleet.recompute", () -> {
+            Timestamp now = Timestamp.now();
+            Map<VehicleId, Map<StopId, ETAResult>> results = new HashMap<>(vehicles.size() * 2);
+            int stops = 0;
+
+            for (Vehicle vehicle : vehicles) {
+                if (vehicle.getAssignedRouteId() == null || vehicle.getCurrentLocation() == null) {
+                    continue;
+                }
+                Map<StopId, ETAResult> etas = downstream(Fix.of(vehicle), vehicle.getAssignedRouteId(), now);
+                if (!etas.isEmpty()) {
+                    stops += etas.size();
+                    results.put(vehicle.getId(), etas);
+                }
+            }
+
+            performanceMonitor.recordGauge("eta.fleet.vehicles", results.size());
+            performanceMonitor.recordGauge("eta.fleet.stops", stops);
+            performanceMonitor.recordGauge("eta.segments.learned", store.segmentCount());
+            return results;
+        });
+    }
+
+    // Downstream ETAs of one vehicle from its latest fix, for callers that only hold the location update
+    public Map<StopId, ETAResult> downstreamEtas(String vehicleId, String routeId, GeoCoordinate location,
+                                                 double speedKmh) {
+        return downstream(new Fix(vehicleId, location, speedKmh), routeId, Timestamp.now());
+    }
+
+    private Map<StopId, ETAResult> downstream(Fix fix, String routeId, Timestamp now) {
+        RouteTimeline timeline = timeline(routeId, now.toInstant());
+        int next = timeline != null ? locate(fix, timeline) : -1;
+        Leg first = next >= 0 ? firstLeg(fix, timeline, next) : null;
+        if (first == null) {
+            return Map.of();
+        }
+
+        Map<StopId, ETAResult> etas = new LinkedHashMap<>();
+        for (int position = next; position < timeline.stopCount(); position++) {
+            Leg leg = legTo(timeline, first, next, position);
+            if (leg == null) {
+                break;
+            }
+            etas.putIfAbsent(timeline.stopAt(position), toResult(new Estimate(leg, false, timeline.routeId()), now));
+        }
+        return etas;
+    }
+
+    // ============= ESTIMATION =============
+
+    private Estimate estimate(Vehicle vehicle, String routeId, List<GeoCoordinate> via, GeoCoordinate target,
+                              Instant at) {
+        RouteTimeline timeline = timeline(routeId, at);
+        int targetPosition = timeline != null ? matchStop(timeline, target) : -1;
+        if (targetPosition >= 0) {
+            int next = via.isEmpty() ? targetPosition : matchStop(timeline, via.getFirst());
+            if (next < 0 || next > targetPosition) {
+                int located = locate(Fix.of(vehicle), timeline);
+                next = located >= 0 && located <= targetPosition ? located : targetPosition;
+            }
+
+            Leg first = firstLeg(Fix.of(vehicle), timeline, next);
+            Leg leg = first != null ? legTo(timeline, first, next, targetPosition) : null;
+            if (leg != null) {
+                return new Estimate(leg, false, timeline.routeId());
+            }
+        }
+        return straightLine(vehicle, via, target);
+    }
+
+    private Leg legTo(RouteTimeline timeline, Leg first, int next, int position) {
+        if (position == next) {
+            return first;
+        }
+        Leg downstream = timeline.between(next, position, dwellSeconds());
+        if (downstream.unknown()) {
+            return null;
+        }
+        // The vehicle also dwells at its next stop before continuing
+        return first.plus(new Leg(downstream.median() + dwellSeconds(), downstream.lowSpread(),
+                downstream.highSpread(), downstream.trust(), false));
+    }
+
+    // Time from the vehicle's position to the stop at 'next'
+    private Leg firstLeg(Fix fix, RouteTimeline timeline, int next) {
+        GeoCoordinate stopLocation = stopLocations.get(timeline.stopAt(next));
+        GeoCoordinate location = fix.location();
+
+        if (stopLocation != null && location != null) {
+            double remaining = location.distanceTo(stopLocation);
+            Leg partial = next > 0 ? timeline.partialSegment(next, remaining) : null;
+            return partial != null ? partial : straightLineLeg(fix, remaining);
+        }
+        if (next > 0) {
+            // Without a stop location the vehicle is assumed to have just left the previous stop
+            Leg full = timeline.between(next - 1, next, 0.0);
+            return full.unknown() ? null : full;
+        }
+        return null;
+    }
+
+    private int locate(Fix fix, RouteTimeline timeline) {
+        VehicleProgress last = progress.get(fix.vehicleId());
+        if (last != null && last.routeId().equals(timeline.routeId()) && last.position() + 1 < timeline.stopCount()) {
+            return last.position() + 1;
+        }
+
+        GeoCoordinate location = fix.location();
+        int nearest = -1;
+        double nearestMeters = Double.MAX_VALUE;
+        for (int position = 0; position < timeline.stopCount(); position++) {
+            GeoCoordinate stop = stopLocations.get(timeline.stopAt(position));
+            double meters = stop != null ? location.distanceTo(stop) : Double.MAX_VALUE;
+            if (meters < nearestMeters) {
+                nearest = position;
+                nearestMeters = meters;
+            }
+        }
+        if (nearest < 0 || nearest + 1 >= timeline.stopCount()) {
+            return nearest;
+        }
+
+        // Past the nearest stop when already inside its radius, or closer to the following stop than it is
+        GeoCoordinate following = stopLocations.get(timeline.stopAt(nearest + 1));
+        GeoCoordinate nearestStop = stopLocations.get(timeline.stopAt(nearest));
+        boolean passed = nearestMeters <= config.getStopMatchRadiusMeters()
+                || (following != null && location.distanceTo(following) < nearestStop.distanceTo(following));
+        return passed ? nearest + 1 : nearest;
+    }
+
+    private int matchStop(RouteTimeline timeline, GeoCoordinate location) {
+        return stopWithinRadius(timeline, location, 0, timeline.stopCount() - 1);
+    }
+
+    private int stopWithinRadius(RouteTimeline timeline, GeoCoordinate location, int from, int to) {
+        int match = -1;
+        double matchMeters = config.getStopMatchRadiusMeters();
+        for (int position = from; position <= to; position++) {
+            GeoCoordinate stop = stopLocations.get(timeline.stopAt(position));
+            if (stop != null) {
+                double meters = location.distanceTo(stop);
+                if (meters <= matchMeters) {
+                    match = position;
+                    matchMeters = meters;
+                }
+            }
+        }
+        return match;
+    }
+
+    private Estimate straightLine(Vehicle vehicle, List<GeoCoordinate> via, GeoCoordinate target) {
+        GeoCoordinate from = vehicle.getCurrentLocation();
+        double meters = 0.0;
+        if (from != null) {
+            for (GeoCoordinate stop : via) {
+                meters += from.distanceTo(stop);
+                from = stop;
+            }
+            meters += from.distanceTo(target);
+        }
+
+        Leg leg = straightLineLeg(Fix.of(vehicle), meters);
+        Leg dwell = new Leg(dwellSeconds() * via.size(), 0.0, 0.0, 0.0, false);
+        return new Estimate(via.isEmpty() ? leg : leg.plus(dwell), true, vehicle.getAssignedRouteId());
+    }
+
+    private Leg straightLineLeg(Fix fix, double meters) {
+        double speedKmh = fix.speedKmh() >= config.getMinUsableSpeedKmh()
+                ? fix.speedKmh()
+                : config.getDefaultSpeedKmh();
+        double seconds = meters / (speedKmh / 3.6);
+        return new Leg(seconds, seconds * 0.3, seconds * 0.5, 0.0, false);
+    }
+
+    // ============= TIMELINES =============
+
+    private RouteTimeline timeline(String routeId, Instant at) {
+        if (routeId == null) {
+            return null;
+        }
+
+        RouteId id;
+        try {
+            id = RouteId.of(routeId);
+        } catch (BusinessRuleViolationException e) {
+            return null;
+        }
+
+        RouteNetworkSnapshot network = routeNetworkService.current();
+        Route route = network.route(id).orElse(null);
+        if (route == null) {
+            return null;
+        }
+
+        int bucket = store.bucketOf(at);
+        RouteTimeline cached = timelines.get(id.getValue());
+        long maxAge = config.getTimelineRefreshInterval().toNanos();
+        if (cached != null && cached.isCurrent(network.getVersion(), bucket, maxAge)) {
+            return cached;
+        }
+
+        RouteTimeline built = RouteTimeline.build(route, network.getVersion(), bucket, store,
+                config.getDefaultSpeedKmh() / 3.6);
+        performanceMonitor.incrementCounter("eta.timeline.built");
+        log.debug("Built ETA timeline for route {} ({} stops, bucket {}, network version {})",
+                id.getValue(), built.stopCount(), bucket, network.getVersion());
+        // Only the current bucket is cached; accuracy queries for other hours build throwaway timelines
+        if (bucket == store.bucketOf(Instant.now())) {
+            timelines.put(id.getValue(), built);
+        }
+        return built;
+    }
+
+    // ============= RESULTS =============
+
+    private ETAResult toResult(Estimate estimate, Timestamp now) {
+        Leg leg = estimate.leg();
+        double confidence = estimate.basic() ? BASIC_CONFIDENCE : confidence(leg);
+        CalculationMethod method = estimate.basic() ? CalculationMethod.BASIC_DISTANCE
+                : leg.trust() >= 0.5 ? CalculationMethod.HISTORICAL_AVERAGE
+                : CalculationMethod.HYBRID;
+
+        Map<String, Object> factors = new HashMap<>();
+        factors.put("p10Seconds", Math.max(0.0, leg.median() - leg.lowSpread()));
+        factors.put("p90Seconds", leg.median() + leg.highSpread());
+        factors.put("observedShare", leg.trust());
+        if (estimate.routeId() != null) {
+            factors.put("routeId", estimate.routeId());
+        }
+
+        Duration estimated = seconds(leg.median());
+        return new ETAResult(estimated, now.plusMillis(estimated.toMillis()), confidence, method.name(),
+                Map.copyOf(factors), ETAQuality.fromConfidenceLevel(confidence));
+    }
+
+    // Rises with the share of learned rather than timetable time, falls with the relative p10..p90 spread
+    private static double confidence(Leg leg) {
+        double relativeSpread = (leg.lowSpread() + leg.highSpread()) / Math.max(leg.median(), 1.0);
+        double confidence = 0.55 + 0.4 * leg.trust() - 0.15 * Math.min(1.0, relativeSpread);
+        return Math.max(0.3, Math.min(0.97, confidence));
+    }
+
+    private double dwellSeconds() {
+        return config.getDwellTime().toMillis() / 1000.0;
+    }
+
+    private static Duration seconds(double seconds) {
+        return Duration.ofMillis(Math.round(seconds * 1000.0));
+    }
+
+    private record Estimate(Leg leg, boolean basic, String routeId) {}
+
+    private record Fix(String vehicleId, GeoCoordinate location, double speedKmh) {
+
+        static Fix of(Vehicle vehicle) {
+            return new Fix(vehicle.getId().getValue(), vehicle.getCurrentLocation(), vehicle.getCurrentSpeedKmh());
+        }
+    }
+
+    @FunctionalInterface
+    public interface StopDepartureListener {
+        void departed(String vehicleId, String routeId, StopId stopId, long departedAtMillis);
+    }
+
+    private record VehicleProgress(String routeId, int position, long departedAtMillis) {}
+}
@@ -0,0 +1,61 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.eta;
+
+// Decaying histogram of segment travel times over log-spaced bins, so relative resolution is the same
+// for a 30 second hop and a 20 minute one. Quantiles are recomputed on write because reads dominate.
+final class TravelTimeDistribution {
+
+    static final double MIN_SECONDS = 5.0;
+    static final double MAX_SECONDS = 3 * 3600.0;
+    static final int BINS = 64;
+
+    private static final double LOG_MIN = Math.log(MIN_SECONDS);
+    private static final double LOG_WIDTH = (Math.log(MAX_SECONDS) - LOG_MIN) / BINS;
+
+    private final double decay;
+    private final double[] weights = new double[BINS];
+    private double totalWeight;
+    private volatile Quantiles quantiles;
+
+    TravelTimeDistribution(int halfLife) {
+        this.decay = Math.pow(0.5, 1.0 / halfLife);
+    }
+
+    synchronized void record(double seconds) {
+        for (int i = 0; i < BINS; i++) {
+            weights[i] *= decay;
+        }
+        totalWeight = totalWeight * decay + 1.0;
+        weights[bin(seconds)] += 1.0;
+
+        quantiles = new Quantiles(quantile(0.1), quantile(0.5), quantile(0.9), totalWeight);
+    }
+
+    // Null until the first observation
+    Quantiles quantiles() {
+        return quantiles;
+    }
+
+    private double quantile(double q) {
+        double target = q * totalWeight;
+        double cumulative = 0.0;
+        for (int i = 0; i < BINS; i++) {
+            if (weights[i] <= 0.0) {
+                continue;
+            }
+            if (cumulative + weights[i] >= target) {
+                // Geometric interpolation inside the bin, matching the log spacing
+                double within = (target - cumulative) / weights[i];
+                return Math.exp(LOG_MIN + (i + within) * LOG_WIDTH);
+            }
+            cumulative += weights[i];
+        }
+        return MAX_SECONDS;
+    }
+
+    private static int bin(double seconds) {
+        double clamped = Math.max(MIN_SECONDS, Math.min(MAX_SECONDS, seconds));
+        return Math.min(BINS - 1, (int) ((Math.log(clamped) - LOG_MIN) / LOG_WIDTH));
+    }
+
+    record Quantiles(double p10, double p50, double p90, double weight) {}
+}
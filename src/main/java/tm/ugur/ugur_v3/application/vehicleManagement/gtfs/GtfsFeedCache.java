@@ -0,0 +1,160 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.gtfs;
+
+import tm.ugur.ugur_v3.application.vehicleManagement.gtfs.GtfsRealtimeFeed.FeedBody;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// One GTFS-Realtime feed held as encoded FeedMessage.entity fields. The builder thread stages changes and
+// commits them as one version; the full dataset and the delta against the previous version are assembled
+// by copying cached entity bytes, and readers only ever touch the immutable Published view.
+final class GtfsFeedCache {
+
+    static final int FULL_DATASET = 0;
+    static final int DIFFERENTIAL = 1;
+
+    private static final String GTFS_REALTIME_VERSION = "2.0";
+
+    private final String etagPrefix;
+    private final int retention;
+
+    private final Map<String, Entity> entities = new HashMap<>();
+    private final Map<String, Long> tombstones = new HashMap<>();
+    // A null value stages a delete
+    private final Map<String, byte[]> pending = new HashMap<>();
+    private long version;
+    private volatile Published published;
+
+    GtfsFeedCache(String etagPrefix, int retention, long timestampSeconds) {
+        this.etagPrefix = etagPrefix;
+        this.retention = retention;
+        this.published = new Published(0, timestampSeconds,
+                header(FULL_DATASET, timestampSeconds, 64).toByteArray(),
+                header(DIFFERENTIAL, timestampSeconds, 64).toByteArray(),
+                Map.of(), Map.of());
+    }
+
+    // ============= BUILD =============
+
+    void put(String id, byte[] entity) {
+        pending.put(id, entity);
+    }
+
+    void delete(String id) {
+        pending.put(id, null);
+    }
+
+    int size() {
+        return entities.size();
+    }
+
+    // Returns false when the staged changes left the feed as it was
+    boolean commit(long timestampSeconds) {
+        if (pending.isEmpty()) {
+            return false;
+        }
+
+        long next = version + 1;
+        boolean changed = false;
+        for (Map.Entry<String, byte[]> change : pending.entrySet()) {
+            if (change.getValue() != null) {
+                entities.put(change.getKey(), new Entity(next, change.getValue()));
+                tombstones.remove(change.getKey());
+                changed = true;
+            } else if (entities.remove(change.getKey()) != null) {
+                tombstones.put(change.getKey(), next);
+                changed = true;
+            }
+        }
+        pending.clear();
+        if (!changed) {
+            return false;
+        }
+
+        version = next;
+        // Feed timestamps double as Last-Modified, so two builds within one second must still differ
+        timestampSeconds = Math.max(timestampSeconds, published.timestampSeconds() + 1);
+        long oldest = version - retention;
+        tombstones.values().removeIf(deletedAt -> deletedAt <= oldest);
+
+        int total = 0;
+        for (Entity entity : entities.values()) {
+            total += entity.bytes().length;
+        }
+        ProtoWriter full = header(FULL_DATASET, timestampSeconds, total + 64);
+        ProtoWriter delta = header(DIFFERENTIAL, timestampSeconds, 1024);
+        for (Entity entity : entities.values()) {
+            full.raw(entity.bytes());
+            if (entity.version() == version) {
+                delta.raw(entity.bytes());
+            }
+        }
+        for (Map.Entry<String, Long> tombstone : tombstones.entrySet()) {
+            if (tombstone.getValue() == version) {
+                delta.raw(deletedEntity(tombstone.getKey()));
+            }
+        }
+
+        published = new Published(version, timestampSeconds, full.toByteArray(), delta.toByteArray(),
+                Map.copyOf(entities), Map.copyOf(tombstones));
+        return true;
+    }
+
+    // ============= READ =============
+
+    // A differential is served only when every delete since the client's version is still retained;
+    // otherwise, or for a version this process never issued, the client gets the full dataset
+    FeedBody read(Long since) {
+        Published view = published;
+        if (since == null || since > view.version() || since < view.version() - retention) {
+            return new FeedBody(view.full(), view.version(), false, view.timestampSeconds(),
+                    "\"" + etagPrefix + "-f" + view.version() + "\"");
+        }
+
+        String etag = "\"" + etagPrefix + "-d" + since + "-" + view.version() + "\"";
+        if (since == view.version() - 1) {
+            return new FeedBody(view.latestDelta(), view.version(), true, view.timestampSeconds(), etag);
+        }
+
+        ProtoWriter delta = header(DIFFERENTIAL, view.timestampSeconds(), 1024);
+        for (Entity entity : view.entities().values()) {
+            if (entity.version() > since) {
+                delta.raw(entity.bytes());
+            }
+        }
+        for (Map.Entry<String, Long> tombstone : view.tombstones().entrySet()) {
+            if (tombstone.getValue() > since) {
+                delta.raw(deletedEntity(tombstone.getKey()));
+            }
+        }
+        return new FeedBody(delta.toByteArray(), view.version(), true, view.timestampSeconds(), etag);
+    }
+
+    // ============= ENCODING =============
+
+    // FeedMessage.header
+    private static ProtoWriter header(int incrementality, long timestampSeconds, int capacity) {
+        ProtoWriter header = new ProtoWriter()
+                .string(1, GTFS_REALTIME_VERSION)
+                .uint64(2, incrementality)
+                .uint64(3, timestampSeconds);
+        return new ProtoWriter(capacity).message(1, header);
+    }
+
+    // FeedMessage.entity with is_deleted set
+    private static byte[] deletedEntity(String id) {
+        ProtoWriter entity = new ProtoWriter().string(1, id).bool(2, true);
+        return new ProtoWriter().message(2, entity).toByteArray();
+    }
+
+    private record Entity(long version, byte[] bytes) {}
+
+    private record Published(
+            long version,
+            long timestampSeconds,
+            byte[] full,
+            byte[] latestDelta,
+            Map<String, Entity> entities,
+            Map<String, Long> tombstones
+    ) {}
+}
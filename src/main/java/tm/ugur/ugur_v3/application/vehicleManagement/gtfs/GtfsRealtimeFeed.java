@@ -0,0 +1,311 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.gtfs;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tm.ugur.ugur_v3.application.configuration.GtfsRealtimeConfig;
+import tm.ugur.ugur_v3.application.configuration.ServiceDayConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.vehicleManagement.eta.SegmentSpeedProfileEtaService;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventListener;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventPublisher;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+import tm.ugur.ugur_v3.domain.vehicleManagement.events.VehicleLocationUpdatedEvent;
+import tm.ugur.ugur_v3.domain.vehicleManagement.services.ETACalculationService.ETAResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// GTFS-Realtime VehiclePositions and TripUpdates built from the live fleet. Each vehicle is one entity per
+// feed, encoded when its fix or route assignment changes; a build commits the changed entities as a new
+// feed version and both the full dataset and the delta to the previous version are cached as bytes.
+// Differential clients pass the version they hold and receive changed and deleted entities only.
+@Slf4j
+@Component
+public class GtfsRealtimeFeed implements DomainEventListener {
+
+    public static final String CONTENT_TYPE = "application/x-protobuf";
+
+    private static final DateTimeFormatter START_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final SegmentSpeedProfileEtaService etaService;
+    private final GtfsRealtimeConfig config;
+    private final ZoneId timeZone;
+    private final PerformanceMonitor performanceMonitor;
+
+    private final Map<String, LiveVehicle> vehicles = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean building = new AtomicBoolean(false);
+    private volatile Map<String, String> routeAssignments = Map.of();
+
+    // Only the thread holding `building` stages into these
+    private final GtfsFeedCache vehiclePositions;
+    private final GtfsFeedCache tripUpdates;
+
+    public GtfsRealtimeFeed(SegmentSpeedProfileEtaService etaService,
+                            GtfsRealtimeConfig config,
+                            ServiceDayConfig serviceDay,
+                            PerformanceMonitor performanceMonitor) {
+        this.etaService = etaService;
+        this.config = config;
+        this.timeZone = serviceDay.getTimeZone();
+        this.performanceMonitor = performanceMonitor;
+
+        // The process epoch in every ETag keeps validators from a previous run from matching
+        String epoch = Long.toString(System.currentTimeMillis(), 36);
+        long now = System.currentTimeMillis() / 1000;
+        this.vehiclePositions = new GtfsFeedCache(epoch + "-vp", config.getDifferentialRetention(), now);
+        this.tripUpdates = new GtfsFeedCache(epoch + "-tu", config.getDifferentialRetention(), now);
+    }
+
+    @PostConstruct
+    public void start() {
+        DomainEventPublisher.instance().subscribe(this);
+    }
+
+    @PreDestroy
+    public void stop() {
+        DomainEventPublisher.instance().unsubscribe(this);
+    }
+
+    // ============= INGEST =============
+
+    @Override
+    public boolean canHandle(DomainEvent event) {
+        return event instanceof VehicleLocationUpdatedEvent;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        VehicleLocationUpdatedEvent update = (VehicleLocationUpdatedEvent) event;
+        String vehicleId = update.getVehicleId().getValue();
+
+        if (update.getLocation() == null || !update.getVehicleStatus().isTrackable()) {
+            if (vehicles.remove(vehicleId) != null) {
+                dirty.add(vehicleId);
+            }
+            return;
+        }
+
+        vehicles.put(vehicleId, new LiveVehicle(
+                vehicleId,
+                update.getLocation(),
+                update.getSpeed(),
+                update.getBearing(),
+                update.getAssignedRouteId(),
+                update.getOccurredAt().getEpochMillis()
+        ));
+        dirty.add(vehicleId);
+    }
+
+    // Route numbers from the dispatch system keyed by normalised car number; used for fixes that carry
+    // no route of their own
+    public void assignRoutes(Map<String, String> assignments) {
+        Map<String, String> previous = routeAssignments;
+        Map<String, String> next = Map.copyOf(assignments);
+        if (previous.equals(next)) {
+            return;
+        }
+        routeAssignments = next;
+
+        for (String vehicleId : vehicles.keySet()) {
+            String key = normalize(vehicleId);
+            if (!Objects.equals(previous.get(key), next.get(key))) {
+                dirty.add(vehicleId);
+            }
+        }
+    }
+
+    // ============= BUILD =============
+
+    // Called by the ingest scheduler when a poll cycle completes; the scheduled build covers the rest
+    public void publish() {
+        if (!building.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            build();
+        } finally {
+            building.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ugur.gtfs-realtime.build-interval:1s}")
+    public void scheduledPublish() {
+        publish();
+    }
+
+    private void build() {
+        evictStale();
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        Set<String> changed = new HashSet<>(dirty);
+        dirty.removeAll(changed);
+
+        long now = System.currentTimeMillis();
+        String startDate = startDate(now);
+        for (String vehicleId : changed) {
+            stage(vehicleId, vehicles.get(vehicleId), startDate, vehiclePositions, tripUpdates);
+        }
+        vehiclePositions.commit(now / 1000);
+        tripUpdates.commit(now / 1000);
+
+        performanceMonitor.recordTime("gtfs.realtime.build", Duration.ofNanos(System.nanoTime() - startTime));
+        performanceMonitor.incrementCounter("gtfs.realtime.entities.encoded", changed.size());
+        performanceMonitor.recordGauge("gtfs.realtime.vehicle_positions", vehiclePositions.size());
+        performanceMonitor.recordGauge("gtfs.realtime.trip_updates", tripUpdates.size());
+    }
+
+    // A vehicle without a route keeps its position entity; one without downstream ETAs has no trip update
+    private void stage(String vehicleId, LiveVehicle vehicle, String startDate,
+                       GtfsFeedCache positions, GtfsFeedCache updates) {
+        if (vehicle == null) {
+            positions.delete(vehicleId);
+            updates.delete(vehicleId);
+            return;
+        }
+
+        String routeId = routeOf(vehicle);
+        positions.put(vehicleId, encodeVehiclePosition(vehicle, routeId, startDate));
+
+        Map<StopId, ETAResult> etas = routeId != null
+                ? etaService.downstreamEtas(vehicleId, routeId, vehicle.location(), vehicle.speedKmh())
+                : Map.of();
+        if (etas.isEmpty()) {
+            updates.delete(vehicleId);
+        } else {
+            updates.put(vehicleId, encodeTripUpdate(vehicle, routeId, startDate, etas));
+        }
+    }
+
+    private void evictStale() {
+        long cutoff = System.currentTimeMillis() - config.getStaleAfter().toMillis();
+        for (LiveVehicle vehicle : vehicles.values()) {
+            if (vehicle.timestampMillis() < cutoff && vehicles.remove(vehicle.vehicleId(), vehicle)) {
+                dirty.add(vehicle.vehicleId());
+            }
+        }
+    }
+
+    private String routeOf(LiveVehicle vehicle) {
+        return vehicle.routeId() != null ? vehicle.routeId() : routeAssignments.get(normalize(vehicle.vehicleId()));
+    }
+
+    private static String normalize(String vehicleId) {
+        return vehicleId.trim().toUpperCase();
+    }
+
+    private String startDate(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(timeZone).toLocalDate().format(START_DATE);
+    }
+
+    // ============= READ =============
+
+    // since is the feed version the client already holds; null asks for the full dataset
+    public FeedBody vehiclePositions(Long since) {
+        return vehiclePositions.read(since);
+    }
+
+    public FeedBody tripUpdates(Long since) {
+        return tripUpdates.read(since);
+    }
+
+    // ============= ENCODING =============
+
+    // FeedEntity { id, vehicle: VehiclePosition { trip, position, timestamp, vehicle } }
+    private static byte[] encodeVehiclePosition(LiveVehicle vehicle, String routeId, String startDate) {
+        ProtoWriter position = new ProtoWriter()
+                .float32(1, (float) vehicle.location().getLatitude())
+                .float32(2, (float) vehicle.location().getLongitude());
+        if (vehicle.bearing() != null) {
+            position.float32(3, vehicle.bearing().floatValue());
+        }
+        if (vehicle.speedMps() != null) {
+            position.float32(5, vehicle.speedMps().floatValue());
+        }
+
+        ProtoWriter vehiclePosition = new ProtoWriter(128);
+        if (routeId != null) {
+            vehiclePosition.message(1, trip(routeId, startDate));
+        }
+        vehiclePosition.message(2, position)
+                .uint64(5, vehicle.timestampMillis() / 1000)
+                .message(8, new ProtoWriter().string(1, vehicle.vehicleId()));
+        return entity(vehicle.vehicleId(), 4, vehiclePosition);
+    }
+
+    // FeedEntity { id, trip_update: TripUpdate { trip, stop_time_update*, vehicle, timestamp } }; stop time
+    // updates follow the route order of the ETA map
+    private byte[] encodeTripUpdate(LiveVehicle vehicle, String routeId, String startDate,
+                                    Map<StopId, ETAResult> etas) {
+        ProtoWriter tripUpdate = new ProtoWriter(64 + etas.size() * 32).message(1, trip(routeId, startDate));
+
+        int written = 0;
+        for (Map.Entry<StopId, ETAResult> eta : etas.entrySet()) {
+            if (written++ == config.getMaxStopTimeUpdates()) {
+                break;
+            }
+            ETAResult result = eta.getValue();
+            // Uncertainty widens with the horizon and shrinks with the estimator's confidence
+            int uncertainty = (int) Math.round(result.estimatedTime().toSeconds()
+                    * (1.0 - Math.clamp(result.confidenceLevel(), 0.0, 1.0)));
+
+            ProtoWriter arrival = new ProtoWriter()
+                    .int64(2, result.arrivalTime().getEpochMillis() / 1000)
+                    .int32(3, uncertainty);
+            tripUpdate.message(2, new ProtoWriter()
+                    .message(2, arrival)
+                    .string(4, eta.getKey().getValue()));
+        }
+
+        tripUpdate.message(3, new ProtoWriter().string(1, vehicle.vehicleId()))
+                .uint64(4, vehicle.timestampMillis() / 1000);
+        return entity(vehicle.vehicleId(), 3, tripUpdate);
+    }
+
+    // TripDescriptor { start_date, route_id }; there are no GTFS trip ids to match, so trips are
+    // identified by route and service day only
+    private static ProtoWriter trip(String routeId, String startDate) {
+        return new ProtoWriter().string(3, startDate).string(5, routeId);
+    }
+
+    // FeedMessage.entity
+    private static byte[] entity(String id, int field, ProtoWriter payload) {
+        ProtoWriter entity = new ProtoWriter(payload.size() + id.length() + 16)
+                .string(1, id)
+                .message(field, payload);
+        return new ProtoWriter(entity.size() + 8).message(2, entity).toByteArray();
+    }
+
+    private record LiveVehicle(
+            String vehicleId,
+            GeoCoordinate location,
+            Double speedMps,
+            Double bearing,
+            String routeId,
+            long timestampMillis
+    ) {
+
+        double speedKmh() {
+            return speedMps != null ? speedMps * 3.6 : 0.0;
+        }
+    }
+
+    // version is what a differential client passes back as since on its next request
+    public record FeedBody(byte[] bytes, long version, boolean differential, long timestampSeconds, String etag) {}
+}
@@ -0,0 +1,119 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.gtfs;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Minimal protobuf wire-format writer for the handful of GTFS-Realtime messages the feed emits. Nested
+// messages are written into their own writer first and embedded with their length prefix.
+final class ProtoWriter {
+
+    private static final int VARINT = 0;
+    private static final int LENGTH_DELIMITED = 2;
+    private static final int FIXED32 = 5;
+
+    private byte[] buffer;
+    private int size;
+
+    ProtoWriter() {
+        this(64);
+    }
+
+    ProtoWriter(int capacity) {
+        this.buffer = new byte[Math.max(16, capacity)];
+    }
+
+    ProtoWriter string(int field, String value) {
+        if (value == null) {
+            return this;
+        }
+        return bytes(field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    ProtoWriter bytes(int field, byte[] value) {
+        tag(field, LENGTH_DELIMITED);
+        varint(value.length);
+        raw(value, 0, value.length);
+        return this;
+    }
+
+    ProtoWriter message(int field, ProtoWriter message) {
+        tag(field, LENGTH_DELIMITED);
+        varint(message.size);
+        raw(message.buffer, 0, message.size);
+        return this;
+    }
+
+    ProtoWriter uint64(int field, long value) {
+        tag(field, VARINT);
+        varint(value);
+        return this;
+    }
+
+    ProtoWriter int64(int field, long value) {
+        tag(field, VARINT);
+        varint(value);
+        return this;
+    }
+
+    // Negative int32 values are sign-extended to ten bytes, as the wire format requires
+    ProtoWriter int32(int field, int value) {
+        tag(field, VARINT);
+        varint(value);
+        return this;
+    }
+
+    ProtoWriter bool(int field, boolean value) {
+        tag(field, VARINT);
+        varint(value ? 1 : 0);
+        return this;
+    }
+
+    ProtoWriter float32(int field, float value) {
+        tag(field, FIXED32);
+        int bits = Float.floatToIntBits(value);
+        ensure(4);
+        for (int i = 0; i < 4; i++) {
+            buffer[size++] = (byte) (bits >>> (8 * i));
+        }
+        return this;
+    }
+
+    // Pre-encoded fields, e.g. cached entities appended to a feed message
+    ProtoWriter raw(byte[] encoded) {
+        raw(encoded, 0, encoded.length);
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void tag(int field, int wireType) {
+        varint(((long) field << 3) | wireType);
+    }
+
+    private void varint(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void raw(byte[] source, int offset, int length) {
+        ensure(length);
+        System.arraycopy(source, offset, buffer, size, length);
+        size += length;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.queries;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.pagination.PageRequest;
+import tm.ugur.ugur_v3.application.shared.pagination.PageResult;
+import tm.ugur.ugur_v3.domain.shared.specifications.Specification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleType;
+
+import java.util.Optional;
+
+public interface VehicleSearchRepository {
+
+    Mono<PageResult<Vehicle>> findBySpecification(Specification<Vehicle> specification, PageRequest pageRequest);
+
+    Flux<StatusTypeCount> countByStatusAndType(Optional<VehicleType> vehicleType);
+
+    record StatusTypeCount(VehicleStatus status, VehicleType vehicleType, long count) {
+    }
+}
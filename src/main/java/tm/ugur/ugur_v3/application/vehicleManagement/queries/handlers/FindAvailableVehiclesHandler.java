@@ -3,7 +3,6 @@ package tm.ugur.ugur_v3.application.vehicleManagement.queries.handlers;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tm.ugur.ugur_v3.application.shared.caching.CacheKey;
 import tm.ugur.ugur_v3.application.shared.caching.CacheManager;
@@ -12,15 +11,20 @@ import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
 import tm.ugur.ugur_v3.application.shared.pagination.PageResult;
 import tm.ugur.ugur_v3.application.shared.validation.ValidatorService;
 import tm.ugur.ugur_v3.application.vehicleManagement.queries.FindAvailableVehiclesQuery;
+import tm.ugur.ugur_v3.application.vehicleManagement.queries.VehicleSearchRepository;
 import tm.ugur.ugur_v3.application.vehicleManagement.queries.results.FindAvailableVehiclesResult;
+import tm.ugur.ugur_v3.domain.shared.specifications.Specification;
 import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
 import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
-import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
-import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleRepository;
+import tm.ugur.ugur_v3.domain.vehicleManagement.specifications.VehicleMinimumCapacitySpecification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.specifications.VehicleStatusSpecification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.specifications.VehicleTypeSpecification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.specifications.VehicleWithRecentGpsSpecification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.specifications.VehicleWithinRadiusSpecification;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -28,7 +32,9 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class FindAvailableVehiclesHandler implements UseCaseExecutor.QueryHandler<FindAvailableVehiclesQuery, Mono<FindAvailableVehiclesResult>> {
 
-    private final VehicleRepository vehicleRepository;
+    private static final Duration RECENT_GPS_WINDOW = Duration.ofMinutes(5);
+
+    private final VehicleSearchRepository vehicleSearchRepository;
     private final CacheManager cacheManager;
     private final PerformanceMonitor performanceMonitor;
     private final ValidatorService validatorService;
@@ -96,11 +102,10 @@ public class FindAvailableVehiclesHandler implements UseCaseExecutor.QueryHandle
 
     private Mono<FindAvailableVehiclesResult> searchFromRepository(FindAvailableVehiclesQuery query,
                                                                    Instant startTime) {
-        return findAvailableVehicles(query)
-                .collectList()
-                .map(vehicles -> {
+        return vehicleSearchRepository.findBySpecification(buildSpecification(query), query.pageRequest())
+                .map(pageResult -> {
                     Duration queryTime = Duration.between(startTime, Instant.now());
-                    return createSearchResult(vehicles, query, queryTime, false);
+                    return createSearchResult(pageResult, query, queryTime, false);
                 })
                 .doOnSuccess(result -> {
                     if (query.isCacheable() && !query.isLocationBasedSearch()) {
@@ -110,18 +115,20 @@ public class FindAvailableVehiclesHandler implements UseCaseExecutor.QueryHandle
                 });
     }
 
-    private FindAvailableVehiclesResult createSearchResult(List<Vehicle> vehicles,
+    private FindAvailableVehiclesResult createSearchResult(PageResult<Vehicle> pageResult,
                                                            FindAvailableVehiclesQuery query,
                                                            Duration queryTime,
                                                            boolean fromCache) {
 
-        PageResult<Vehicle> pageResult = applyPagination(vehicles, query.pageRequest());
-
+        // Cursor pages carry no total count, so report what this page returned.
+        int totalAvailable = pageResult.getTotalElements() >= 0
+                ? (int) pageResult.getTotalElements()
+                : pageResult.getContent().size();
 
         if (query.isLocationBasedSearch()) {
             return FindAvailableVehiclesResult.ofLocationBased(
                     pageResult,
-                    vehicles.size(),
+                    totalAvailable,
                     queryTime,
                     fromCache,
                     formatLocationSearch(query),
@@ -130,7 +137,7 @@ public class FindAvailableVehiclesHandler implements UseCaseExecutor.QueryHandle
         } else if (query.hasFiltersApplied()) {
             return FindAvailableVehiclesResult.ofWithFilters(
                     pageResult,
-                    vehicles.size(),
+                    totalAvailable,
                     queryTime,
                     fromCache,
                     query.vehicleType().orElse(null),
@@ -139,7 +146,7 @@ public class FindAvailableVehiclesHandler implements UseCaseExecutor.QueryHandle
         } else {
             return FindAvailableVehiclesResult.of(
                     pageResult,
-                    vehicles.size(),
+                    totalAvailable,
                     queryTime,
                     fromCache
             );
@@ -155,84 +162,28 @@ public class FindAvailableVehiclesHandler implements UseCaseExecutor.QueryHandle
         return "unknown";
     }
 
-    private Flux<Vehicle> findAvailableVehicles(FindAvailableVehiclesQuery query) {
-        return vehicleRepository.findAll()
-                .filter(this::isVehicleAvailable)
-                .filter(vehicle -> matchesVehicleTypeFilter(vehicle, query))
-                .filter(vehicle -> matchesCapacityFilter(vehicle, query))
-                .filter(vehicle -> matchesLocationFilter(vehicle, query))
-                .filter(vehicle -> matchesGpsFilter(vehicle, query));
-    }
+    private Specification<Vehicle> buildSpecification(FindAvailableVehiclesQuery query) {
+        Specification<Vehicle> specification = VehicleStatusSpecification.available();
 
-    private boolean isVehicleAvailable(Vehicle vehicle) {
-        VehicleStatus status = vehicle.getStatus();
-        return status == VehicleStatus.ACTIVE ||
-                status == VehicleStatus.IN_ROUTE ||
-                status == VehicleStatus.AT_DEPOT;
-    }
-
-    private boolean matchesVehicleTypeFilter(Vehicle vehicle, FindAvailableVehiclesQuery query) {
-        if (query.vehicleType().isEmpty()) {
-            return true;
+        if (query.vehicleType().isPresent()) {
+            specification = specification.and(new VehicleTypeSpecification(query.vehicleType().get()));
         }
-        return vehicle.getVehicleType() == query.vehicleType().get();
-    }
 
-    private boolean matchesCapacityFilter(Vehicle vehicle, FindAvailableVehiclesQuery query) {
-        if (query.minimumCapacity().isEmpty()) {
-            return true;
+        if (query.minimumCapacity().isPresent()) {
+            specification = specification.and(new VehicleMinimumCapacitySpecification(query.minimumCapacity().get()));
         }
 
-        return vehicle.getCapacity() != null &&
-                vehicle.getCapacity().getTotalCapacity() >= query.minimumCapacity().get();
-    }
-
-    private boolean matchesLocationFilter(Vehicle vehicle, FindAvailableVehiclesQuery query) {
-        if (query.nearLocation().isEmpty()) {
-            return true;
-        }
-
-        return isVehicleNearLocation(vehicle, query);
-    }
-
-    private boolean matchesGpsFilter(Vehicle vehicle, FindAvailableVehiclesQuery query) {
-        if (!query.requireRecentGps()) {
-            return true;
-        }
-
-        return vehicle.hasRecentGpsData();
-    }
-
-    private boolean isVehicleNearLocation(Vehicle vehicle, FindAvailableVehiclesQuery query) {
-        GeoCoordinate vehicleLocation = vehicle.getCurrentLocation();
-        Optional<GeoCoordinate> searchLocation = query.nearLocation();
-
-        if (vehicleLocation == null || searchLocation.isEmpty()) {
-            return false;
-        }
-
-        try {
-            double distanceKm = vehicleLocation.distanceTo(searchLocation.get()) / 1000.0;
-            return distanceKm <= query.maxDistanceKm();
-        } catch (Exception e) {
-            log.warn("Failed to calculate distance for vehicle {}: {}",
-                    vehicle.getId(), e.getMessage());
-            return false;
+        if (query.nearLocation().isPresent()) {
+            specification = specification.and(new VehicleWithinRadiusSpecification(
+                    query.nearLocation().get(), query.maxDistanceKm() * 1000.0));
         }
-    }
-
-    private PageResult<Vehicle> applyPagination(List<Vehicle> vehicles,
-                                                tm.ugur.ugur_v3.application.shared.pagination.PageRequest pageRequest) {
-        int totalElements = vehicles.size();
-        long startIndex = pageRequest.getOffset();
-        int endIndex = (int) Math.min(startIndex + pageRequest.getPageSize(), totalElements);
 
-        if (startIndex >= totalElements) {
-            return PageResult.of(List.of(), pageRequest, totalElements);
+        if (query.requireRecentGps()) {
+            specification = specification.and(new VehicleWithRecentGpsSpecification(
+                    Timestamp.now().minusMillis(RECENT_GPS_WINDOW.toMillis()), false, false));
         }
 
-        List<Vehicle> pageContent = vehicles.subList((int) startIndex, endIndex);
-        return PageResult.of(pageContent, pageRequest, totalElements);
+        return specification;
     }
 
     private void cacheSearchResult(FindAvailableVehiclesQuery query, FindAvailableVehiclesResult result) {
@@ -282,6 +233,7 @@ public class FindAvailableVehiclesHandler implements UseCaseExecutor.QueryHandle
         }
 
         key.append(":page=").append(query.pageRequest().getPageNumber());
+        query.pageRequest().getCursor().ifPresent(cursor -> key.append(":cursor=").append(cursor));
         key.append(":size=").append(query.pageRequest().getPageSize());
 
         return key.toString();
@@ -0,0 +1,111 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.queries.handlers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.caching.CacheKey;
+import tm.ugur.ugur_v3.application.shared.caching.CacheManager;
+import tm.ugur.ugur_v3.application.shared.executor.UseCaseExecutor;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.shared.routing.QueryRouting;
+import tm.ugur.ugur_v3.application.vehicleManagement.queries.GetVehicleStatisticsQuery;
+import tm.ugur.ugur_v3.application.vehicleManagement.queries.VehicleSearchRepository;
+import tm.ugur.ugur_v3.application.vehicleManagement.queries.VehicleSearchRepository.StatusTypeCount;
+import tm.ugur.ugur_v3.application.vehicleManagement.queries.results.VehicleStatisticsResult;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleType;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GetVehicleStatisticsHandler implements UseCaseExecutor.QueryHandler<GetVehicleStatisticsQuery, Mono<VehicleStatisticsResult>> {
+
+    private final VehicleSearchRepository vehicleSearchRepository;
+    private final CacheManager cacheManager;
+    private final PerformanceMonitor performanceMonitor;
+
+    @Override
+    public Mono<VehicleStatisticsResult> handle(GetVehicleStatisticsQuery query) {
+        Instant startTime = Instant.now();
+
+        return performanceMonitor.timeReactive("vehicle.statistics", () ->
+                tryFromCacheIfEnabled(query, startTime)
+                        .switchIfEmpty(computeStatistics(query, startTime))
+                        .onErrorResume(throwable -> {
+                            log.error("Vehicle statistics query failed: {}", throwable.getMessage(), throwable);
+                            performanceMonitor.incrementCounter("vehicle.statistics.error");
+                            return Mono.just(VehicleStatisticsResult.error(throwable.getMessage(),
+                                    Duration.between(startTime, Instant.now())));
+                        })
+        );
+    }
+
+    private Mono<VehicleStatisticsResult> tryFromCacheIfEnabled(GetVehicleStatisticsQuery query, Instant startTime) {
+        if (!query.isCacheable()) {
+            return Mono.empty();
+        }
+
+        return Mono.fromCallable(() -> cacheManager.get(cacheKey(query), () -> null, query.getCacheTtl()))
+                .cast(VehicleStatisticsResult.class)
+                .doOnNext(cached -> performanceMonitor.incrementCounter("vehicle.statistics.cache.hit"))
+                .onErrorResume(throwable -> {
+                    log.warn("Statistics cache lookup failed: {}", throwable.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    // Statistics are dashboard reads that tolerate replica lag, so they never touch the primary
+    // unless the replica is unavailable or too far behind.
+    private Mono<VehicleStatisticsResult> computeStatistics(GetVehicleStatisticsQuery query, Instant startTime) {
+        return QueryRouting.onReplica(vehicleSearchRepository.countByStatusAndType(query.vehicleType()).collectList())
+                .map(counts -> toResult(query, counts, Duration.between(startTime, Instant.now())))
+                .doOnNext(result -> {
+                    if (query.isCacheable()) {
+                        cacheManager.put(cacheKey(query), result, query.getCacheTtl());
+                    }
+                });
+    }
+
+    private VehicleStatisticsResult toResult(GetVehicleStatisticsQuery query, List<StatusTypeCount> counts,
+                                             Duration queryTime) {
+        Map<VehicleStatus, Long> statusBreakdown = new EnumMap<>(VehicleStatus.class);
+        Map<VehicleType, Long> typeBreakdown = new EnumMap<>(VehicleType.class);
+        long total = 0;
+
+        for (StatusTypeCount count : counts) {
+            statusBreakdown.merge(count.status(), count.count(), Long::sum);
+            typeBreakdown.merge(count.vehicleType(), count.count(), Long::sum);
+            total += count.count();
+        }
+
+        long active = statusBreakdown.getOrDefault(VehicleStatus.ACTIVE, 0L)
+                + statusBreakdown.getOrDefault(VehicleStatus.IN_ROUTE, 0L);
+        long maintenance = statusBreakdown.getOrDefault(VehicleStatus.MAINTENANCE, 0L);
+        double utilizationRate = total > 0 ? (double) active / total : 0.0;
+
+        return VehicleStatisticsResult.success(
+                (int) total,
+                (int) active,
+                (int) maintenance,
+                utilizationRate,
+                Map.copyOf(statusBreakdown),
+                Map.copyOf(typeBreakdown),
+                false,
+                queryTime,
+                false,
+                query.vehicleType()
+        );
+    }
+
+    private CacheKey cacheKey(GetVehicleStatisticsQuery query) {
+        return CacheKey.of("vehicle", "statistics",
+                query.vehicleType().map(Enum::name).orElse("all"));
+    }
+}
@@ -5,6 +5,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.VehicleManagementConfig;
+import tm.ugur.ugur_v3.application.shared.executor.BatchUseCaseExecutor;
+import tm.ugur.ugur_v3.application.shared.executor.StreamingBatchSettings;
 import tm.ugur.ugur_v3.application.shared.executor.UseCaseExecutor;
 import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
 import tm.ugur.ugur_v3.application.shared.pagination.PageRequest;
@@ -25,13 +28,18 @@ import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
 import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleType;
 import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.VehicleId;
 
+import java.util.List;
+import java.util.function.Function;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class VehicleApplicationService {
 
     private final UseCaseExecutor useCaseExecutor;
+    private final BatchUseCaseExecutor batchExecutor;
     private final PerformanceMonitor performanceMonitor;
+    private final VehicleManagementConfig config;
 
     private final UpdateVehicleLocationHandler updateLocationHandler;
     private final ChangeVehicleStatusHandler changeStatusHandler;
@@ -76,8 +84,24 @@ public class VehicleApplicationService {
     }
 
     public Flux<UpdateVehicleLocationResult> updateVehicleLocationsBatch(Flux<UpdateVehicleLocationCommand> commands) {
-        return commands
-                .flatMap(updateLocationHandler::handle, 20) // Controlled concurrency
+        VehicleManagementConfig.PerformanceConfig performance = config.getPerformance();
+        StreamingBatchSettings batchSettings = StreamingBatchSettings.builder()
+                .maxBatchSize(performance.getBatchSize())
+                .maxWaitTime(performance.getBatchProcessingInterval())
+                .backpressureStrategy(BatchUseCaseExecutor.BackpressureStrategy.BLOCK)
+                .build();
+
+        Function<List<UpdateVehicleLocationCommand>, Flux<UpdateVehicleLocationResult>> handler =
+                batch -> updateLocationHandler.handleBatch(batch)
+                        .flatMapIterable(Function.identity())
+                        .onErrorResume(error -> Flux.fromIterable(batch)
+                                .map(command -> UpdateVehicleLocationResult.failure(command.vehicleId(), error.getMessage())));
+
+        // Each batch is written with one versioned save and one history write; every command gets a result and
+        // failures reported by the handler count as failed items in the batch metrics
+        return batchExecutor.executeReactiveBatches(commands, handler, batchSettings,
+                        BatchUseCaseExecutor.ExecutionMode.ORDERED, UpdateVehicleLocationResult::isSuccessful)
+                .map(BatchUseCaseExecutor.BatchResult::getResult)
                 .doOnNext(result -> {
                     if (result.isSuccessful()) {
                         performanceMonitor.incrementCounter("vehicle.location.batch.success");
@@ -202,8 +226,22 @@ public class VehicleApplicationService {
     // ============= BATCH OPERATIONS =============
 
     public Flux<ChangeVehicleStatusResult> changeVehicleStatusBatch(Flux<ChangeVehicleStatusCommand> commands) {
-        return commands
-                .flatMap(changeStatusHandler::handle, 10) // Controlled concurrency for status changes
+        VehicleManagementConfig.PerformanceConfig performance = config.getPerformance();
+        StreamingBatchSettings batchSettings = StreamingBatchSettings.builder()
+                .maxBatchSize(performance.getBatchSize())
+                .maxWaitTime(performance.getBatchProcessingInterval())
+                .backpressureStrategy(BatchUseCaseExecutor.BackpressureStrategy.BLOCK)
+                .build();
+
+        Function<List<ChangeVehicleStatusCommand>, Flux<ChangeVehicleStatusResult>> handler =
+                batch -> changeStatusHandler.handleBatch(batch)
+                        .onErrorResume(error -> Flux.fromIterable(batch)
+                                .map(command -> ChangeVehicleStatusResult.failure(command.vehicleId(), error.getMessage())));
+
+        // Each batch is written with one versioned save; only commands that hit a concurrent change are retried.
+        return batchExecutor.executeReactiveBatches(commands, handler, batchSettings,
+                        BatchUseCaseExecutor.ExecutionMode.ORDERED, ChangeVehicleStatusResult::isSuccessful)
+                .map(BatchUseCaseExecutor.BatchResult::getResult)
                 .doOnNext(result -> {
                     if (result.isSuccessful()) {
                         performanceMonitor.incrementCounter("vehicle.status.batch.success");
@@ -0,0 +1,438 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.snapshot;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tm.ugur.ugur_v3.application.configuration.FleetSnapshotConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventListener;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventPublisher;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
+import tm.ugur.ugur_v3.domain.vehicleManagement.events.VehicleLocationUpdatedEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+// Encodes the whole fleet once per ingest cycle so the hot read endpoints only copy bytes. Vehicles are
+// grouped into tiles; a build re-encodes just the tiles touched since the previous one and stitches the
+// full-fleet body together from the cached per-tile fragments. Every body is kept as JSON and, when
+// enabled, in the compact binary layout below, each with a pre-gzipped copy and an ETag.
+//
+// Binary layout, big-endian:
+//   header  int magic "FLT1", long version, long generatedAtMillis, int vehicleCount
+//   vehicle UTF vehicleId, int latitudeE6, int longitudeE6, short speedKmh x10 (-1 unknown),
+//           short bearing x10 (-1 unknown), byte status ordinal, UTF routeId ("" none), long timestampMillis
+@Slf4j
+@Component
+public class FleetSnapshotPublisher implements DomainEventListener {
+
+    public static final String BINARY_CONTENT_TYPE = "application/x-fleet-snapshot";
+
+    private static final int BINARY_MAGIC = 0x464C5431;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final FleetSnapshotConfig config;
+    private final ObjectMapper objectMapper;
+    private final PerformanceMonitor performanceMonitor;
+
+    // Prefixes every ETag so validators issued by a previous process never match
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<String, FleetVehicle> vehicles = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyTiles = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean building = new AtomicBoolean(false);
+    private volatile FleetSnapshot current;
+
+    public FleetSnapshotPublisher(FleetSnapshotConfig config,
+                                  ObjectMapper objectMapper,
+                                  PerformanceMonitor performanceMonitor) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.performanceMonitor = performanceMonitor;
+        this.current = assemble(0, System.currentTimeMillis(), Map.of());
+    }
+
+    @PostConstruct
+    public void start() {
+        DomainEventPublisher.instance().subscribe(this);
+    }
+
+    @PreDestroy
+    public void stop() {
+        DomainEventPublisher.instance().unsubscribe(this);
+    }
+
+    // ============= INGEST =============
+
+    @Override
+    public boolean canHandle(DomainEvent event) {
+        return event instanceof VehicleLocationUpdatedEvent;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        VehicleLocationUpdatedEvent update = (VehicleLocationUpdatedEvent) event;
+        String vehicleId = update.getVehicleId().getValue();
+
+        if (update.getLocation() == null || !update.getVehicleStatus().isTrackable()) {
+            remove(vehicleId);
+            return;
+        }
+
+        double latitude = update.getLocation().getLatitude();
+        double longitude = update.getLocation().getLongitude();
+        FleetVehicle vehicle = new FleetVehicle(
+                vehicleId,
+                latitude,
+                longitude,
+                tileKey(latitude, longitude),
+                update.getSpeed() != null ? update.getSpeed() * 3.6 : null,
+                update.getBearing(),
+                update.getAssignedRouteId(),
+                update.getVehicleStatus(),
+                update.getOccurredAt().getEpochMillis()
+        );
+
+        // The vehicle is stored before its tile is marked, so a build that drains the mark always sees it
+        FleetVehicle previous = vehicles.put(vehicleId, vehicle);
+        if (previous != null && previous.tileKey() != vehicle.tileKey()) {
+            dirtyTiles.add(previous.tileKey());
+        }
+        dirtyTiles.add(vehicle.tileKey());
+    }
+
+    public void remove(String vehicleId) {
+        FleetVehicle previous = vehicles.remove(vehicleId);
+        if (previous != null) {
+            dirtyTiles.add(previous.tileKey());
+        }
+    }
+
+    // ============= BUILD =============
+
+    // Called by the ingest schedulers when a poll cycle completes; the scheduled build covers the rest
+    public FleetSnapshot publish() {
+        if (!building.compareAndSet(false, true)) {
+            return current;
+        }
+        try {
+            return rebuild();
+        } finally {
+            building.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ugur.fleet-snapshot.rebuild-interval:1s}")
+    public void scheduledPublish() {
+        publish();
+    }
+
+    private FleetSnapshot rebuild() {
+        evictStale();
+        FleetSnapshot previous = current;
+        if (dirtyTiles.isEmpty()) {
+            return previous;
+        }
+
+        long startTime = System.nanoTime();
+        Set<Long> changed = new HashSet<>(dirtyTiles);
+        dirtyTiles.removeAll(changed);
+
+        Map<Long, List<FleetVehicle>> members = new HashMap<>();
+        for (FleetVehicle vehicle : vehicles.values()) {
+            if (changed.contains(vehicle.tileKey())) {
+                members.computeIfAbsent(vehicle.tileKey(), key -> new ArrayList<>()).add(vehicle);
+            }
+        }
+
+        long version = previous.version() + 1;
+        long generatedAt = System.currentTimeMillis();
+        Map<Long, EncodedTile> tiles = new HashMap<>(previous.tiles());
+        for (long key : changed) {
+            List<FleetVehicle> tileVehicles = members.get(key);
+            if (tileVehicles == null) {
+                tiles.remove(key);
+            } else {
+                tiles.put(key, encodeTile(key, version, generatedAt, tileVehicles));
+            }
+        }
+
+        FleetSnapshot snapshot = assemble(version, generatedAt, tiles);
+        current = snapshot;
+
+        performanceMonitor.recordTime("fleet.snapshot.build", Duration.ofNanos(System.nanoTime() - startTime));
+        performanceMonitor.incrementCounter("fleet.snapshot.tiles.encoded", changed.size());
+        performanceMonitor.recordGauge("fleet.snapshot.vehicles", snapshot.vehicleCount());
+        performanceMonitor.recordGauge("fleet.snapshot.tiles", tiles.size());
+        performanceMonitor.recordGauge("fleet.snapshot.json.bytes", snapshot.json().identity().length);
+        log.debug("Fleet snapshot v{}: {} vehicles, {} of {} tiles re-encoded", version,
+                snapshot.vehicleCount(), changed.size(), tiles.size());
+        return snapshot;
+    }
+
+    private void evictStale() {
+        long cutoff = System.currentTimeMillis() - config.getStaleAfter().toMillis();
+        for (FleetVehicle vehicle : vehicles.values()) {
+            if (vehicle.timestampMillis() < cutoff && vehicles.remove(vehicle.vehicleId(), vehicle)) {
+                dirtyTiles.add(vehicle.tileKey());
+            }
+        }
+    }
+
+    // Tiles are stitched in key order so the full body is stable between builds with the same content
+    private FleetSnapshot assemble(long version, long generatedAt, Map<Long, EncodedTile> tiles) {
+        List<EncodedTile> ordered = tiles.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(Map.Entry::getValue)
+                .toList();
+
+        int count = 0;
+        List<byte[]> jsonFragments = new ArrayList<>(ordered.size());
+        List<byte[]> binaryFragments = new ArrayList<>(ordered.size());
+        for (EncodedTile tile : ordered) {
+            count += tile.vehicleCount();
+            jsonFragments.add(tile.jsonFragment());
+            binaryFragments.add(tile.binaryFragment());
+        }
+
+        String header = "\"version\":" + version + ",\"generatedAt\":" + generatedAt + ",\"count\":" + count
+                + ",\"tileSizeDegrees\":" + config.getTileSizeDegrees();
+        Body json = body(jsonEnvelope(header, jsonFragments), etag("fj", version));
+        Body binary = config.isBinaryEnabled()
+                ? body(binaryEnvelope(version, generatedAt, count, binaryFragments), etag("fb", version))
+                : null;
+
+        return new FleetSnapshot(version, generatedAt, count, json, binary, Collections.unmodifiableMap(tiles));
+    }
+
+    private EncodedTile encodeTile(long key, long version, long generatedAt, List<FleetVehicle> tileVehicles) {
+        tileVehicles.sort(Comparator.comparing(FleetVehicle::vehicleId));
+        String tileId = tileId(key);
+
+        byte[] jsonFragment = jsonFragment(tileVehicles);
+        byte[] binaryFragment = config.isBinaryEnabled() ? binaryFragment(tileVehicles) : EMPTY;
+
+        String header = "\"tile\":\"" + tileId + "\",\"version\":" + version + ",\"generatedAt\":" + generatedAt
+                + ",\"count\":" + tileVehicles.size();
+        Body json = body(jsonEnvelope(header, List.of(jsonFragment)), etag("tj", version));
+        Body binary = config.isBinaryEnabled()
+                ? body(binaryEnvelope(version, generatedAt, tileVehicles.size(), List.of(binaryFragment)),
+                        etag("tb", version))
+                : null;
+
+        return new EncodedTile(tileId, version, tileVehicles.size(), jsonFragment, binaryFragment, json, binary);
+    }
+
+    // ============= READ =============
+
+    public FleetSnapshot snapshot() {
+        return current;
+    }
+
+    // Tiles without vehicles are not kept; they are answered with an empty body at version 0
+    public EncodedTile tile(int latIndex, int lngIndex) {
+        long key = key(latIndex, lngIndex);
+        EncodedTile tile = current.tiles().get(key);
+        return tile != null ? tile : encodeTile(key, 0, 0, new ArrayList<>());
+    }
+
+    public double tileSizeDegrees() {
+        return config.getTileSizeDegrees();
+    }
+
+    // ============= ENCODING =============
+
+    // Comma-separated vehicle objects without the enclosing array, ready to be concatenated
+    private byte[] jsonFragment(List<FleetVehicle> tileVehicles) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(tileVehicles.size() * 160);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(new SerializedString(","));
+            for (FleetVehicle vehicle : tileVehicles) {
+                generator.writeStartObject();
+                generator.writeStringField("id", vehicle.vehicleId());
+                generator.writeNumberField("lat", vehicle.latitude());
+                generator.writeNumberField("lng", vehicle.longitude());
+                writeNullable(generator, "speedKmh", vehicle.speedKmh());
+                writeNullable(generator, "bearing", vehicle.bearing());
+                generator.writeStringField("routeId", vehicle.routeId());
+                generator.writeStringField("status", vehicle.status().name());
+                generator.writeNumberField("updatedAt", vehicle.timestampMillis());
+                generator.writeEndObject();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode fleet snapshot fragment", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeNullable(JsonGenerator generator, String field, Double value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+
+    private static byte[] jsonEnvelope(String header, List<byte[]> fragments) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+                fragments.stream().mapToInt(fragment -> fragment.length + 1).sum() + header.length() + 32);
+        out.writeBytes(("{" + header + ",\"vehicles\":[").getBytes(StandardCharsets.UTF_8));
+        boolean first = true;
+        for (byte[] fragment : fragments) {
+            if (fragment.length == 0) {
+                continue;
+            }
+            if (!first) {
+                out.write(',');
+            }
+            out.writeBytes(fragment);
+            first = false;
+        }
+        out.writeBytes("]}".getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    private static byte[] binaryFragment(List<FleetVehicle> tileVehicles) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(tileVehicles.size() * 48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (FleetVehicle vehicle : tileVehicles) {
+                out.writeUTF(vehicle.vehicleId());
+                out.writeInt((int) Math.round(vehicle.latitude() * 1e6));
+                out.writeInt((int) Math.round(vehicle.longitude() * 1e6));
+                out.writeShort(tenths(vehicle.speedKmh()));
+                out.writeShort(tenths(vehicle.bearing()));
+                out.writeByte(vehicle.status().ordinal());
+                out.writeUTF(vehicle.routeId() != null ? vehicle.routeId() : "");
+                out.writeLong(vehicle.timestampMillis());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode fleet snapshot fragment", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int tenths(Double value) {
+        if (value == null || value < 0) {
+            return -1;
+        }
+        return (int) Math.min(Short.MAX_VALUE, Math.round(value * 10));
+    }
+
+    private static byte[] binaryEnvelope(long version, long generatedAt, int count, List<byte[]> fragments) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                fragments.stream().mapToInt(fragment -> fragment.length).sum() + 24);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(BINARY_MAGIC);
+            out.writeLong(version);
+            out.writeLong(generatedAt);
+            out.writeInt(count);
+            for (byte[] fragment : fragments) {
+                out.write(fragment);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode fleet snapshot", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // The gzip copy is dropped when the body is small or does not shrink
+    private Body body(byte[] identity, String etag) {
+        if (identity.length < config.getGzipMinBytes()) {
+            return new Body(identity, null, etag);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(identity);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot compress fleet snapshot", e);
+        }
+        byte[] compressed = out.toByteArray();
+        return new Body(identity, compressed.length < identity.length ? compressed : null, etag);
+    }
+
+    private String etag(String kind, long version) {
+        return "\"" + epoch + "-" + kind + Long.toString(version, 36) + "\"";
+    }
+
+    // ============= GRID =============
+
+    private long tileKey(double latitude, double longitude) {
+        return key(latIndex(latitude), lngIndex(longitude));
+    }
+
+    public int latIndex(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / config.getTileSizeDegrees());
+    }
+
+    public int lngIndex(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / config.getTileSizeDegrees());
+    }
+
+    private static long key(int latIndex, int lngIndex) {
+        return ((long) latIndex << 32) | (lngIndex & 0xffffffffL);
+    }
+
+    private static String tileId(long key) {
+        return (int) (key >> 32) + ":" + (int) key;
+    }
+
+    private record FleetVehicle(
+            String vehicleId,
+            double latitude,
+            double longitude,
+            long tileKey,
+            Double speedKmh,
+            Double bearing,
+            String routeId,
+            VehicleStatus status,
+            long timestampMillis
+    ) {}
+
+    // gzip is null when only the identity encoding is kept
+    public record Body(byte[] identity, byte[] gzip, String etag) {
+
+        public boolean hasGzip() {
+            return gzip != null;
+        }
+    }
+
+    // binary is null when the compact form is disabled
+    public record EncodedTile(
+            String tileId,
+            long version,
+            int vehicleCount,
+            byte[] jsonFragment,
+            byte[] binaryFragment,
+            Body json,
+            Body binary
+    ) {}
+
+    public record FleetSnapshot(
+            long version,
+            long generatedAtMillis,
+            int vehicleCount,
+            Body json,
+            Body binary,
+            Map<Long, EncodedTile> tiles
+    ) {}
+}
@@ -0,0 +1,113 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.streaming;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import tm.ugur.ugur_v3.application.vehicleManagement.streaming.VehiclePositionFeed.FrameEncoder;
+import tm.ugur.ugur_v3.application.vehicleManagement.streaming.VehiclePositionFeed.TileFrame;
+import tm.ugur.ugur_v3.application.vehicleManagement.streaming.VehiclePositionFeed.VehiclePosition;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// State of one grid cell. Updates between two frames are conflated per vehicle, so a frame carries
+// at most one position per vehicle no matter how often it reported.
+final class PositionTile {
+
+    private final String id;
+    private final Map<String, VehiclePosition> vehicles = new HashMap<>();
+    private final Map<String, VehiclePosition> pendingUpdates = new LinkedHashMap<>();
+    private final Set<String> pendingRemovals = new LinkedHashSet<>();
+    private final Sinks.Many<TileFrame> frames = Sinks.many().multicast().directBestEffort();
+    private final AtomicInteger viewers = new AtomicInteger();
+
+    private long sequence;
+    private TileFrame snapshot;
+
+    PositionTile(String id) {
+        this.id = id;
+    }
+
+    String id() {
+        return id;
+    }
+
+    synchronized void put(VehiclePosition position) {
+        vehicles.put(position.vehicleId(), position);
+        pendingRemovals.remove(position.vehicleId());
+        pendingUpdates.put(position.vehicleId(), position);
+    }
+
+    synchronized void remove(String vehicleId) {
+        if (vehicles.remove(vehicleId) != null) {
+            pendingUpdates.remove(vehicleId);
+            pendingRemovals.add(vehicleId);
+        }
+    }
+
+    synchronized List<String> staleVehicles(long cutoffMillis) {
+        List<String> stale = new ArrayList<>();
+        for (VehiclePosition position : vehicles.values()) {
+            if (position.timestampMillis() < cutoffMillis) {
+                stale.add(position.vehicleId());
+            }
+        }
+        return stale;
+    }
+
+    // Returns the delta frame that was emitted, or null when nothing changed or nobody was watching
+    TileFrame flush(FrameEncoder encoder) {
+        TileFrame frame;
+        synchronized (this) {
+            if (pendingUpdates.isEmpty() && pendingRemovals.isEmpty()) {
+                return null;
+            }
+
+            sequence++;
+            // Without viewers the delta is never encoded, a later subscriber starts from a snapshot
+            frame = viewers.get() > 0
+                    ? encoder.encode(id, sequence, false, List.copyOf(pendingUpdates.values()), List.copyOf(pendingRemovals))
+                    : null;
+            pendingUpdates.clear();
+            pendingRemovals.clear();
+        }
+
+        if (frame != null) {
+            frames.tryEmitNext(frame);
+        }
+        return frame;
+    }
+
+    // Encoded once per sequence and shared by every subscriber that needs to resynchronise
+    synchronized TileFrame snapshot(FrameEncoder encoder) {
+        if (snapshot == null || snapshot.sequence() != sequence) {
+            snapshot = encoder.encode(id, sequence, true, List.copyOf(vehicles.values()), List.of());
+        }
+        return snapshot;
+    }
+
+    Flux<TileFrame> frames() {
+        return frames.asFlux();
+    }
+
+    void addViewer() {
+        viewers.incrementAndGet();
+    }
+
+    void removeViewer() {
+        viewers.decrementAndGet();
+    }
+
+    synchronized boolean isIdle() {
+        return viewers.get() == 0 && vehicles.isEmpty() && pendingRemovals.isEmpty();
+    }
+
+    synchronized int vehicleCount() {
+        return vehicles.size();
+    }
+}
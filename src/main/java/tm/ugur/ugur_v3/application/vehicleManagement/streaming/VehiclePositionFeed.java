@@ -0,0 +1,292 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.streaming;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.VehicleStreamConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.geospatial.valueobjects.BoundingBox;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventListener;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventPublisher;
+import tm.ugur.ugur_v3.domain.shared.exceptions.BusinessRuleViolationException;
+import tm.ugur.ugur_v3.domain.vehicleManagement.events.VehicleLocationUpdatedEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class VehiclePositionFeed implements DomainEventListener {
+
+    private final VehicleStreamConfig config;
+    private final ObjectMapper objectMapper;
+    private final PerformanceMonitor performanceMonitor;
+    private final FrameEncoder encoder = this::encode;
+
+    private final Map<Long, PositionTile> tiles = new ConcurrentHashMap<>();
+    private final Map<String, Long> vehicleTiles = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder framesDelivered = new LongAdder();
+    private final LongAdder snapshotsDelivered = new LongAdder();
+
+    public VehiclePositionFeed(VehicleStreamConfig config,
+                               ObjectMapper objectMapper,
+                               PerformanceMonitor performanceMonitor) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.performanceMonitor = performanceMonitor;
+    }
+
+    @PostConstruct
+    public void start() {
+        DomainEventPublisher.instance().subscribe(this);
+    }
+
+    @PreDestroy
+    public void stop() {
+        DomainEventPublisher.instance().unsubscribe(this);
+    }
+
+    // ============= INGEST =============
+
+    @Override
+    public boolean canHandle(DomainEvent event) {
+        return event instanceof VehicleLocationUpdatedEvent;
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        VehicleLocationUpdatedEvent update = (VehicleLocationUpdatedEvent) event;
+        String vehicleId = update.getVehicleId().getValue();
+
+        if (update.getLocation() == null || !update.getVehicleStatus().isTrackable()) {
+            remove(vehicleId);
+            return;
+        }
+
+        publish(new VehiclePosition(
+                vehicleId,
+                update.getLocation().getLatitude(),
+                update.getLocation().getLongitude(),
+                update.getSpeed(),
+                update.getBearing(),
+                update.getAssignedRouteId(),
+                update.getVehicleStatus().name(),
+                update.getOccurredAt().getEpochMillis()
+        ));
+    }
+
+    public void publish(VehiclePosition position) {
+        long key = tileKey(position.latitude(), position.longitude());
+        Long previousKey = vehicleTiles.put(position.vehicleId(), key);
+
+        if (previousKey != null && previousKey != key) {
+            PositionTile previous = tiles.get(previousKey);
+            if (previous != null) {
+                previous.remove(position.vehicleId());
+            }
+        }
+        // Put inside compute: emitFrames drops idle tiles under the same bin lock, so the position
+        // cannot land in a tile that has just been removed from the map
+        tiles.compute(key, (k, existing) -> {
+            PositionTile target = existing != null ? existing : newTile(k);
+            target.put(position);
+            return target;
+        });
+    }
+
+    public void remove(String vehicleId) {
+        Long key = vehicleTiles.remove(vehicleId);
+        PositionTile tile = key != null ? tiles.get(key) : null;
+        if (tile != null) {
+            tile.remove(vehicleId);
+        }
+    }
+
+    // ============= SUBSCRIBE =============
+
+    public Flux<TileFrame> subscribe(BoundingBox viewport) {
+        return Flux.defer(() -> {
+            int minLat = latIndex(viewport.getSouthWest().getLatitude());
+            int maxLat = latIndex(viewport.getNorthEast().getLatitude());
+            int minLng = lngIndex(viewport.getSouthWest().getLongitude());
+            int maxLng = lngIndex(viewport.getNorthEast().getLongitude());
+
+            long tileCount = (long) (maxLat - minLat + 1) * (maxLng - minLng + 1);
+            if (tileCount > config.getMaxTilesPerViewport()) {
+                return Flux.error(new BusinessRuleViolationException("VIEWPORT_TOO_LARGE",
+                        "Viewport covers " + tileCount + " tiles, at most "
+                                + config.getMaxTilesPerViewport() + " are allowed"));
+            }
+
+            List<Flux<TileFrame>> streams = new ArrayList<>((int) tileCount);
+            for (int lat = minLat; lat <= maxLat; lat++) {
+                for (int lng = minLng; lng <= maxLng; lng++) {
+                    streams.add(tileStream(key(lat, lng)));
+                }
+            }
+
+            // prefetch 1: conflation happens per tile upstream, nothing queues behind a slow subscriber
+            subscribers.incrementAndGet();
+            return Flux.fromIterable(streams)
+                    .flatMap(stream -> stream, streams.size(), 1)
+                    .doFinally(signal -> subscribers.decrementAndGet());
+        });
+    }
+
+    // A slow subscriber only ever holds the newest frame per tile. When that skips a sequence number the
+    // subscriber is resynchronised with the shared snapshot instead of replaying the missed deltas.
+    private Flux<TileFrame> tileStream(long key) {
+        return Flux.defer(() -> {
+            PositionTile tile = tiles.compute(key, (k, existing) -> {
+                PositionTile target = existing != null ? existing : newTile(k);
+                target.addViewer();
+                return target;
+            });
+            long[] delivered = {-1};
+
+            return tile.frames()
+                    .onBackpressureLatest()
+                    .startWith(Mono.fromSupplier(() -> tile.snapshot(encoder)))
+                    .<TileFrame>handle((frame, sink) -> {
+                        TileFrame next = frame;
+                        if (!frame.snapshot() && frame.sequence() != delivered[0] + 1) {
+                            next = tile.snapshot(encoder);
+                        }
+                        if (next.sequence() <= delivered[0] && delivered[0] >= 0) {
+                            return;
+                        }
+
+                        boolean initialEmpty = delivered[0] < 0 && next.snapshot() && next.vehicleCount() == 0;
+                        delivered[0] = next.sequence();
+                        if (!initialEmpty) {
+                            (next.snapshot() ? snapshotsDelivered : framesDelivered).increment();
+                            sink.next(next);
+                        }
+                    })
+                    .doFinally(signal -> tile.removeViewer());
+        });
+    }
+
+    // ============= FRAMES =============
+
+    @Scheduled(fixedDelayString = "${ugur.vehicle-stream.frame-interval:500ms}")
+    public void emitFrames() {
+        long startTime = System.nanoTime();
+        long staleCutoff = System.currentTimeMillis() - config.getStaleAfter().toMillis();
+        int encoded = 0;
+
+        for (Map.Entry<Long, PositionTile> entry : tiles.entrySet()) {
+            PositionTile tile = entry.getValue();
+            for (String vehicleId : tile.staleVehicles(staleCutoff)) {
+                vehicleTiles.remove(vehicleId, entry.getKey());
+                tile.remove(vehicleId);
+            }
+
+            if (tile.flush(encoder) != null) {
+                encoded++;
+            }
+            tiles.computeIfPresent(entry.getKey(), (key, existing) -> existing.isIdle() ? null : existing);
+        }
+
+        performanceMonitor.recordTime("vehicle.stream.frame.cycle", Duration.ofNanos(System.nanoTime() - startTime));
+        performanceMonitor.incrementCounter("vehicle.stream.frames.encoded", encoded);
+        performanceMonitor.incrementCounter("vehicle.stream.frames.delivered", framesDelivered.sumThenReset());
+        performanceMonitor.incrementCounter("vehicle.stream.snapshots.delivered", snapshotsDelivered.sumThenReset());
+        performanceMonitor.recordGauge("vehicle.stream.subscribers", subscribers.get());
+        performanceMonitor.recordGauge("vehicle.stream.tiles", tiles.size());
+        performanceMonitor.recordGauge("vehicle.stream.vehicles", vehicleTiles.size());
+    }
+
+    private TileFrame encode(String tileId, long sequence, boolean snapshot,
+                             List<VehiclePosition> updates, List<String> removed) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("tile", tileId);
+        body.put("seq", sequence);
+        body.put("type", snapshot ? "snapshot" : "delta");
+        body.put("updates", updates);
+        if (!removed.isEmpty()) {
+            body.put("removed", removed);
+        }
+
+        try {
+            String json = objectMapper.writeValueAsString(body);
+            return new TileFrame(tileId, sequence, snapshot, updates.size(), json,
+                    json.getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode frame for tile " + tileId, e);
+        }
+    }
+
+    public FeedStats stats() {
+        int vehicles = 0;
+        for (PositionTile tile : tiles.values()) {
+            vehicles += tile.vehicleCount();
+        }
+        return new FeedStats(subscribers.get(), tiles.size(), vehicles);
+    }
+
+    // ============= GRID =============
+
+    private PositionTile newTile(long key) {
+        return new PositionTile((int) (key >> 32) + ":" + (int) key);
+    }
+
+    private long tileKey(double latitude, double longitude) {
+        return key(latIndex(latitude), lngIndex(longitude));
+    }
+
+    private int latIndex(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / config.getTileSizeDegrees());
+    }
+
+    private int lngIndex(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / config.getTileSizeDegrees());
+    }
+
+    private static long key(int latIndex, int lngIndex) {
+        return ((long) latIndex << 32) | (lngIndex & 0xffffffffL);
+    }
+
+    @FunctionalInterface
+    interface FrameEncoder {
+
+        TileFrame encode(String tileId, long sequence, boolean snapshot,
+                         List<VehiclePosition> updates, List<String> removed);
+    }
+
+    public record VehiclePosition(
+            String vehicleId,
+            double latitude,
+            double longitude,
+            Double speed,
+            Double bearing,
+            String routeId,
+            String status,
+            long timestampMillis
+    ) {}
+
+    // json and utf8 are produced once per frame and handed to every subscriber of the tile as is
+    public record TileFrame(
+            String tileId,
+            long sequence,
+            boolean snapshot,
+            int vehicleCount,
+            String json,
+            byte[] utf8
+    ) {}
+
+    public record FeedStats(int subscribers, int tiles, int vehicles) {}
+}
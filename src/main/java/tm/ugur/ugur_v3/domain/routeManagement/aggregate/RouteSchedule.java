@@ -13,7 +13,6 @@ import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Getter
 public class RouteSchedule extends AggregateRoot<RouteScheduleId> {
@@ -51,6 +50,9 @@ public class RouteSchedule extends AggregateRoot<RouteScheduleId> {
     private final int maxEarlyDepartureMinutes;
     private final Map<String, ScheduleAdjustment> activeAdjustments;
 
+    // Derived from the fields above, dropped whenever one of them changes
+    private transient volatile CompiledTimetable compiledTimetable;
+
 
     public RouteSchedule(RouteScheduleId scheduleId, RouteId routeId, String scheduleName,
                          ScheduleType scheduleType, Timestamp effectiveFrom, Timestamp effectiveTo,
@@ -91,6 +93,7 @@ public class RouteSchedule extends AggregateRoot<RouteScheduleId> {
         validateDailySchedule(dayOfWeek, dailySchedule);
 
         dailySchedules.put(dayOfWeek, dailySchedule);
+        timetableChanged();
         recalculateTotalTrips();
         recalculateServiceTime();
 
@@ -109,6 +112,7 @@ public class RouteSchedule extends AggregateRoot<RouteScheduleId> {
 
         schedulePeriods.add(period);
         sortSchedulePeriods();
+        timetableChanged();
 
         markAsModified();
        addDomainEvent( SchedulePeriodAddedEvent.of(routeId, period, "SYSTEM"));
@@ -118,6 +122,7 @@ public class RouteSchedule extends AggregateRoot<RouteScheduleId> {
         validateFrequencyPattern(patternName, pattern);
 
         frequencyPatterns.put(patternName, pattern);
+        timetableChanged();
 
         markAsModified();
         addDomainEvent(FrequencyPatternAddedEvent.standard(routeId, patternName, pattern, "SYSTEM"));
@@ -166,6 +171,7 @@ public class RouteSchedule extends AggregateRoot<RouteScheduleId> {
         );
 
         activeAdjustments.put(adjustmentKey, adjustment);
+        timetableChanged();
 
         markAsModified();
 
@@ -183,6 +189,7 @@ public class RouteSchedule extends AggregateRoot<RouteScheduleId> {
         ScheduleAdjustment removed = activeAdjustments.remove(adjustmentKey);
 
         if (removed != null) {
+            timetableChanged();
             markAsModified();
             addDomainEvent(ScheduleAdjustmentRemovedEvent.manual(
                     routeId, dayOfWeek, time, removed.getAdjustmentMinutes(),
@@ -196,6 +203,7 @@ public class RouteSchedule extends AggregateRoot<RouteScheduleId> {
             List<String> clearedAdjustmentIds = new ArrayList<>(activeAdjustments.keySet());
 
             activeAdjustments.clear();
+            timetableChanged();
             markAsModified();
 
             addDomainEvent(AllScheduleAdjustmentsClearedEvent.manual(
@@ -206,26 +214,39 @@ public class RouteSchedule extends AggregateRoot<RouteScheduleId> {
 
 
     public Optional<LocalTime> getNextDeparture(DayOfWeek dayOfWeek, LocalTime fromTime) {
-        DailySchedule dailySchedule = dailySchedules.get(dayOfWeek);
-        if (dailySchedule == null || !isActive) {
+        if (!dailySchedules.containsKey(dayOfWeek) || !isActive) {
             return Optional.empty();
         }
 
-        LocalTime adjustedTime = applyAdjustmentsToTime(dayOfWeek, fromTime);
-        return dailySchedule.getNextDeparture(adjustedTime);
+        return getCompiledTimetable().nextDeparture(dayOfWeek, fromTime);
     }
 
     public List<LocalTime> getDeparturesForDay(DayOfWeek dayOfWeek) {
-        DailySchedule dailySchedule = dailySchedules.get(dayOfWeek);
-        if (dailySchedule == null) {
+        if (!dailySchedules.containsKey(dayOfWeek)) {
             return Collections.emptyList();
         }
 
-        List<LocalTime> baseDepartures = dailySchedule.getAllDepartures();
-        return applyAdjustmentsToDepartures(dayOfWeek, baseDepartures);
+        return getCompiledTimetable().departures(dayOfWeek);
     }
 
     public int getHeadwayAt(DayOfWeek dayOfWeek, LocalTime time) {
+        return getCompiledTimetable().headwayAt(dayOfWeek, time);
+    }
+
+    public CompiledTimetable getCompiledTimetable() {
+        CompiledTimetable timetable = compiledTimetable;
+        if (timetable == null) {
+            timetable = CompiledTimetable.compile(dailySchedules, activeAdjustments.values(), this::resolveHeadway);
+            compiledTimetable = timetable;
+        }
+        return timetable;
+    }
+
+    private void timetableChanged() {
+        compiledTimetable = null;
+    }
+
+    private int resolveHeadway(DayOfWeek dayOfWeek, LocalTime time) {
         for (SchedulePeriod period : schedulePeriods) {
             if (period.getOperatingDays().contains(dayOfWeek) &&
                     period.isTimeInPeriod(time)) {
@@ -356,23 +377,6 @@ public class RouteSchedule extends AggregateRoot<RouteScheduleId> {
         schedulePeriods.sort(Comparator.comparing(SchedulePeriod::getStartTime));
     }
 
-    private LocalTime applyAdjustmentsToTime(DayOfWeek dayOfWeek, LocalTime time) {
-        String adjustmentKey = dayOfWeek + "_" + time.toString();
-        ScheduleAdjustment adjustment = activeAdjustments.get(adjustmentKey);
-
-        if (adjustment != null) {
-            return time.plusMinutes(adjustment.getAdjustmentMinutes());
-        }
-
-        return time;
-    }
-
-    private List<LocalTime> applyAdjustmentsToDepartures(DayOfWeek dayOfWeek, List<LocalTime> departures) {
-        return departures.stream()
-                .map(time -> applyAdjustmentsToTime(dayOfWeek, time))
-                .collect(Collectors.toList());
-    }
-
     private String getPatternNameForTime(DayOfWeek dayOfWeek, LocalTime time) {
         if (time.isAfter(LocalTime.of(7, 0)) && time.isBefore(LocalTime.of(9, 0))) {
             return "MORNING_RUSH";
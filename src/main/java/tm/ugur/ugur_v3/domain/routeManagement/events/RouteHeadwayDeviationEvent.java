@@ -0,0 +1,66 @@
+package tm.ugur.ugur_v3.domain.routeManagement.events;
+
+import lombok.Getter;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteId;
+
+import java.util.Map;
+
+@Getter
+public final class RouteHeadwayDeviationEvent extends BaseRouteEvent {
+
+    private final String vehicleId;
+    private final String leadingVehicleId;
+    private final DeviationType deviationType;
+    private final double actualHeadwaySeconds;
+    private final int plannedHeadwayMinutes;
+    private final double headwayRatio;
+    private final double routeMeasureMeters;
+
+    private RouteHeadwayDeviationEvent(RouteId routeId, String vehicleId, String leadingVehicleId,
+                                       DeviationType deviationType, double actualHeadwaySeconds,
+                                       int plannedHeadwayMinutes, double routeMeasureMeters,
+                                       String correlationId, Map<String, Object> metadata) {
+        super("RouteHeadwayDeviation", routeId, correlationId, metadata);
+        this.vehicleId = vehicleId;
+        this.leadingVehicleId = leadingVehicleId;
+        this.deviationType = deviationType;
+        this.actualHeadwaySeconds = actualHeadwaySeconds;
+        this.plannedHeadwayMinutes = plannedHeadwayMinutes;
+        this.headwayRatio = plannedHeadwayMinutes > 0 ? actualHeadwaySeconds / (plannedHeadwayMinutes * 60.0) : 0.0;
+        this.routeMeasureMeters = routeMeasureMeters;
+    }
+
+    public static RouteHeadwayDeviationEvent bunched(RouteId routeId, String vehicleId, String leadingVehicleId,
+                                                     double actualHeadwaySeconds, int plannedHeadwayMinutes,
+                                                     double routeMeasureMeters) {
+        return new RouteHeadwayDeviationEvent(routeId, vehicleId, leadingVehicleId, DeviationType.BUNCHED,
+                actualHeadwaySeconds, plannedHeadwayMinutes, routeMeasureMeters, null, null);
+    }
+
+    public static RouteHeadwayDeviationEvent gapped(RouteId routeId, String vehicleId, String leadingVehicleId,
+                                                    double actualHeadwaySeconds, int plannedHeadwayMinutes,
+                                                    double routeMeasureMeters) {
+        return new RouteHeadwayDeviationEvent(routeId, vehicleId, leadingVehicleId, DeviationType.GAPPED,
+                actualHeadwaySeconds, plannedHeadwayMinutes, routeMeasureMeters, null, null);
+    }
+
+    public static RouteHeadwayDeviationEvent restored(RouteId routeId, String vehicleId, String leadingVehicleId,
+                                                      double actualHeadwaySeconds, int plannedHeadwayMinutes,
+                                                      double routeMeasureMeters) {
+        return new RouteHeadwayDeviationEvent(routeId, vehicleId, leadingVehicleId, DeviationType.RESTORED,
+                actualHeadwaySeconds, plannedHeadwayMinutes, routeMeasureMeters, null, null);
+    }
+
+    public boolean isBunching() { return deviationType == DeviationType.BUNCHED; }
+    public boolean isGap() { return deviationType == DeviationType.GAPPED; }
+
+    public enum DeviationType {
+        BUNCHED, GAPPED, RESTORED
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RouteHeadwayDeviationEvent{routeId=%s, vehicle=%s, leader=%s, type=%s, headway=%.0fs, planned=%dmin}",
+                routeId, vehicleId, leadingVehicleId, deviationType, actualHeadwaySeconds, plannedHeadwayMinutes);
+    }
+}
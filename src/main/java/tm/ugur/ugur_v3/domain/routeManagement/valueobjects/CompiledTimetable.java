@@ -0,0 +1,137 @@
+package tm.ugur.ugur_v3.domain.routeManagement.valueobjects;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+// Read-optimised form of a RouteSchedule: per day a sorted minute-of-day array with the active
+// adjustments already applied, and a headway for every minute of the day. Immutable; the schedule
+// compiles a new one after its departures, periods, patterns or adjustments change.
+public final class CompiledTimetable {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int[] NO_DEPARTURES = new int[0];
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+
+    private final int[][] departures;
+    private final List<List<LocalTime>> departureTimes;
+    private final short[][] headways;
+
+    private CompiledTimetable(int[][] departures, List<List<LocalTime>> departureTimes, short[][] headways) {
+        this.departures = departures;
+        this.departureTimes = departureTimes;
+        this.headways = headways;
+    }
+
+    public static CompiledTimetable compile(Map<DayOfWeek, DailySchedule> dailySchedules,
+                                            Collection<ScheduleAdjustment> adjustments,
+                                            HeadwayResolver headwayResolver) {
+        Map<DayOfWeek, Map<LocalTime, Integer>> offsets = new EnumMap<>(DayOfWeek.class);
+        for (ScheduleAdjustment adjustment : adjustments) {
+            offsets.computeIfAbsent(adjustment.getDayOfWeek(), day -> new HashMap<>())
+                    .put(adjustment.getOriginalTime(), adjustment.getAdjustmentMinutes());
+        }
+
+        int[][] departures = new int[DAYS.length][];
+        List<List<LocalTime>> departureTimes = new ArrayList<>(DAYS.length);
+        short[][] headways = new short[DAYS.length][MINUTES_PER_DAY];
+
+        for (DayOfWeek day : DAYS) {
+            DailySchedule schedule = dailySchedules.get(day);
+            Map<LocalTime, Integer> dayOffsets = offsets.getOrDefault(day, Map.of());
+
+            int[] minutes = NO_DEPARTURES;
+            if (schedule != null) {
+                List<LocalTime> base = schedule.getAllDepartures();
+                minutes = new int[base.size()];
+                for (int i = 0; i < minutes.length; i++) {
+                    LocalTime departure = base.get(i);
+                    // LocalTime arithmetic, so adjustments wrap around midnight like the original times do
+                    LocalTime adjusted = departure.plusMinutes(dayOffsets.getOrDefault(departure, 0));
+                    minutes[i] = adjusted.toSecondOfDay() / 60;
+                }
+                Arrays.sort(minutes);
+            }
+            departures[day.ordinal()] = minutes;
+
+            List<LocalTime> times = new ArrayList<>(minutes.length);
+            for (int minute : minutes) {
+                times.add(LocalTime.of(minute / 60, minute % 60));
+            }
+            departureTimes.add(List.copyOf(times));
+
+            short[] dayHeadways = headways[day.ordinal()];
+            for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+                dayHeadways[minute] = (short) headwayResolver.headwayAt(day, LocalTime.of(minute / 60, minute % 60));
+            }
+        }
+
+        return new CompiledTimetable(departures, List.copyOf(departureTimes), headways);
+    }
+
+    // First departure strictly after fromTime on the same day
+    public Optional<LocalTime> nextDeparture(DayOfWeek dayOfWeek, LocalTime fromTime) {
+        OptionalInt minute = nextDepartureMinute(dayOfWeek, fromTime.toSecondOfDay() / 60);
+        return minute.isPresent()
+                ? Optional.of(LocalTime.of(minute.getAsInt() / 60, minute.getAsInt() % 60))
+                : Optional.empty();
+    }
+
+    // First departure minute strictly after the given minute of day
+    public OptionalInt nextDepartureMinute(DayOfWeek dayOfWeek, int afterMinute) {
+        int[] minutes = departures[dayOfWeek.ordinal()];
+        int index = upperBound(minutes, afterMinute);
+        return index < minutes.length ? OptionalInt.of(minutes[index]) : OptionalInt.empty();
+    }
+
+    public int departuresBetween(DayOfWeek dayOfWeek, int fromMinute, int toMinute) {
+        int[] minutes = departures[dayOfWeek.ordinal()];
+        return Math.max(0, upperBound(minutes, toMinute) - upperBound(minutes, fromMinute - 1));
+    }
+
+    public List<LocalTime> departures(DayOfWeek dayOfWeek) {
+        return departureTimes.get(dayOfWeek.ordinal());
+    }
+
+    public int[] departureMinutes(DayOfWeek dayOfWeek) {
+        return departures[dayOfWeek.ordinal()].clone();
+    }
+
+    public int headwayAt(DayOfWeek dayOfWeek, LocalTime time) {
+        return headwayAtMinute(dayOfWeek, time.toSecondOfDay() / 60);
+    }
+
+    public int headwayAtMinute(DayOfWeek dayOfWeek, int minuteOfDay) {
+        return headways[dayOfWeek.ordinal()][minuteOfDay];
+    }
+
+    // Index of the first element greater than key
+    private static int upperBound(int[] sorted, int key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @FunctionalInterface
+    public interface HeadwayResolver {
+
+        int headwayAt(DayOfWeek dayOfWeek, LocalTime time);
+    }
+}
@@ -0,0 +1,271 @@
+package tm.ugur.ugur_v3.domain.routeManagement.valueobjects;
+
+import tm.ugur.ugur_v3.domain.shared.exceptions.BusinessRuleViolationException;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+
+import java.util.List;
+
+// Packed polyline for linear referencing along a route. Vertices are stored flat, lengths are
+// cumulative haversine meters, and projection runs in a local planar frame, which is accurate to well
+// under a meter across a city. Segments are indexed by a bounding-box tree over consecutive runs.
+public final class RouteGeometry {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+    private static final int LEAF_SEGMENTS = 8;
+
+    private final double[] coordinates;
+    private final double[] planar;
+    private final double[] cumulative;
+    private final double metersPerDegreeLat;
+    private final double metersPerDegreeLng;
+
+    // Tree nodes in build order, node 0 is the root; leaves have no children (-1)
+    private final int[] nodeFirstSegment;
+    private final int[] nodeLastSegment;
+    private final int[] nodeLeft;
+    private final int[] nodeRight;
+    private final double[] nodeBounds;
+    private int nodeCount;
+
+    private RouteGeometry(double[] coordinates) {
+        int vertices = coordinates.length / 2;
+        this.coordinates = coordinates;
+        this.planar = new double[coordinates.length];
+        this.cumulative = new double[vertices];
+
+        double referenceLat = 0.0;
+        for (int i = 0; i < vertices; i++) {
+            referenceLat += coordinates[2 * i];
+        }
+        referenceLat /= vertices;
+        this.metersPerDegreeLat = Math.toRadians(1.0) * EARTH_RADIUS_METERS;
+        this.metersPerDegreeLng = metersPerDegreeLat * Math.cos(Math.toRadians(referenceLat));
+
+        for (int i = 0; i < vertices; i++) {
+            planar[2 * i] = coordinates[2 * i + 1] * metersPerDegreeLng;
+            planar[2 * i + 1] = coordinates[2 * i] * metersPerDegreeLat;
+            if (i > 0) {
+                cumulative[i] = cumulative[i - 1] + haversine(coordinates[2 * i - 2], coordinates[2 * i - 1],
+                        coordinates[2 * i], coordinates[2 * i + 1]);
+            }
+        }
+
+        // Halving a run of more than LEAF_SEGMENTS leaves at least half of it on each side, so every leaf
+        // but a lone root holds at least LEAF_SEGMENTS / 2 segments and a binary tree has under twice as many nodes
+        int segments = vertices - 1;
+        int maxLeaves = Math.max(1, segments / (LEAF_SEGMENTS / 2));
+        int maxNodes = 2 * maxLeaves - 1;
+        this.nodeFirstSegment = new int[maxNodes];
+        this.nodeLastSegment = new int[maxNodes];
+        this.nodeLeft = new int[maxNodes];
+        this.nodeRight = new int[maxNodes];
+        this.nodeBounds = new double[maxNodes * 4];
+        build(0, segments - 1);
+    }
+
+    public static RouteGeometry of(List<GeoCoordinate> points) {
+        if (points == null || points.size() < 2) {
+            throw new BusinessRuleViolationException("INVALID_ROUTE_GEOMETRY",
+                    "Route geometry needs at least two points");
+        }
+
+        double[] coordinates = new double[points.size() * 2];
+        for (int i = 0; i < points.size(); i++) {
+            coordinates[2 * i] = points.get(i).getLatitude();
+            coordinates[2 * i + 1] = points.get(i).getLongitude();
+        }
+        return new RouteGeometry(coordinates);
+    }
+
+    private int build(int firstSegment, int lastSegment) {
+        int node = nodeCount++;
+        nodeFirstSegment[node] = firstSegment;
+        nodeLastSegment[node] = lastSegment;
+
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int vertex = firstSegment; vertex <= lastSegment + 1; vertex++) {
+            minX = Math.min(minX, planar[2 * vertex]);
+            maxX = Math.max(maxX, planar[2 * vertex]);
+            minY = Math.min(minY, planar[2 * vertex + 1]);
+            maxY = Math.max(maxY, planar[2 * vertex + 1]);
+        }
+        nodeBounds[4 * node] = minX;
+        nodeBounds[4 * node + 1] = minY;
+        nodeBounds[4 * node + 2] = maxX;
+        nodeBounds[4 * node + 3] = maxY;
+
+        if (lastSegment - firstSegment + 1 <= LEAF_SEGMENTS) {
+            nodeLeft[node] = -1;
+            nodeRight[node] = -1;
+        } else {
+            int middle = (firstSegment + lastSegment) >>> 1;
+            nodeLeft[node] = build(firstSegment, middle);
+            nodeRight[node] = build(middle + 1, lastSegment);
+        }
+        return node;
+    }
+
+    // ============= PROJECTION =============
+
+    // Closest point on the whole route; the tree prunes every run whose box is farther than the best match
+    public Projection project(GeoCoordinate point) {
+        double x = point.getLongitude() * metersPerDegreeLng;
+        double y = point.getLatitude() * metersPerDegreeLat;
+
+        Candidate best = new Candidate();
+        int[] stack = new int[64];
+        int depth = 0;
+        stack[depth++] = 0;
+
+        while (depth > 0) {
+            int node = stack[--depth];
+            if (boxDistanceSquared(node, x, y) >= best.distanceSquared) {
+                continue;
+            }
+            if (nodeLeft[node] < 0) {
+                for (int segment = nodeFirstSegment[node]; segment <= nodeLastSegment[node]; segment++) {
+                    best.consider(segment, x, y);
+                }
+                continue;
+            }
+
+            // Nearer child is pushed last so it is searched first and tightens the bound sooner
+            int left = nodeLeft[node];
+            int right = nodeRight[node];
+            boolean leftNearer = boxDistanceSquared(left, x, y) <= boxDistanceSquared(right, x, y);
+            stack[depth++] = leftNearer ? right : left;
+            stack[depth++] = leftNearer ? left : right;
+        }
+        return best.toProjection();
+    }
+
+    // Searches only the stretch within windowMeters of the previous measure, falling back to the full search
+    // when nothing there is within windowMeters of the point. Keeps loops and overlapping legs on the
+    // branch the vehicle is actually travelling.
+    public Projection project(GeoCoordinate point, double hintMeasure, double windowMeters) {
+        double x = point.getLongitude() * metersPerDegreeLng;
+        double y = point.getLatitude() * metersPerDegreeLat;
+        int hinted = segmentAt(hintMeasure);
+
+        Candidate best = new Candidate();
+        for (int segment = hinted; segment >= 0 && cumulative[segment + 1] >= hintMeasure - windowMeters; segment--) {
+            best.consider(segment, x, y);
+        }
+        for (int segment = hinted + 1; segment < segmentCount() && cumulative[segment] <= hintMeasure + windowMeters;
+             segment++) {
+            best.consider(segment, x, y);
+        }
+
+        return best.distanceSquared <= windowMeters * windowMeters ? best.toProjection() : project(point);
+    }
+
+    // ============= MEASURES =============
+
+    public double length() {
+        return cumulative[cumulative.length - 1];
+    }
+
+    public double remaining(double measure) {
+        return Math.max(0.0, length() - clamp(measure));
+    }
+
+    public double completionPercentage(double measure) {
+        return length() > 0.0 ? clamp(measure) / length() * 100.0 : 100.0;
+    }
+
+    public GeoCoordinate pointAt(double measure) {
+        int segment = segmentAt(measure);
+        double fraction = fractionAlong(segment, clamp(measure));
+        return GeoCoordinate.of(
+                lerp(coordinates[2 * segment], coordinates[2 * segment + 2], fraction),
+                lerp(coordinates[2 * segment + 1], coordinates[2 * segment + 3], fraction));
+    }
+
+    // Index of the segment containing the measure, by binary search over the cumulative lengths
+    public int segmentAt(double measure) {
+        double target = clamp(measure);
+        int low = 0;
+        int high = segmentCount() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (cumulative[mid] <= target) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    public int segmentCount() {
+        return cumulative.length - 1;
+    }
+
+    public int vertexCount() {
+        return cumulative.length;
+    }
+
+    private double clamp(double measure) {
+        return Math.max(0.0, Math.min(length(), measure));
+    }
+
+    private double fractionAlong(int segment, double measure) {
+        double segmentLength = cumulative[segment + 1] - cumulative[segment];
+        return segmentLength > 0.0 ? (measure - cumulative[segment]) / segmentLength : 0.0;
+    }
+
+    private double boxDistanceSquared(int node, double x, double y) {
+        double dx = Math.max(0.0, Math.max(nodeBounds[4 * node] - x, x - nodeBounds[4 * node + 2]));
+        double dy = Math.max(0.0, Math.max(nodeBounds[4 * node + 1] - y, y - nodeBounds[4 * node + 3]));
+        return dx * dx + dy * dy;
+    }
+
+    private static double lerp(double from, double to, double fraction) {
+        return from + (to - from) * fraction;
+    }
+
+    private static double haversine(double lat1, double lng1, double lat2, double lng2) {
+        double deltaLat = Math.toRadians(lat2 - lat1);
+        double deltaLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(deltaLng / 2) * Math.sin(deltaLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    private final class Candidate {
+
+        private int segment = -1;
+        private double fraction;
+        private double distanceSquared = Double.MAX_VALUE;
+
+        void consider(int candidate, double x, double y) {
+            double ax = planar[2 * candidate];
+            double ay = planar[2 * candidate + 1];
+            double dx = planar[2 * candidate + 2] - ax;
+            double dy = planar[2 * candidate + 3] - ay;
+            double lengthSquared = dx * dx + dy * dy;
+
+            double t = lengthSquared > 0.0 ? ((x - ax) * dx + (y - ay) * dy) / lengthSquared : 0.0;
+            t = Math.max(0.0, Math.min(1.0, t));
+            double px = ax + t * dx - x;
+            double py = ay + t * dy - y;
+            double squared = px * px + py * py;
+
+            if (squared < distanceSquared) {
+                segment = candidate;
+                fraction = t;
+                distanceSquared = squared;
+            }
+        }
+
+        Projection toProjection() {
+            double measure = cumulative[segment] + fraction * (cumulative[segment + 1] - cumulative[segment]);
+            return new Projection(measure, Math.sqrt(distanceSquared), segment, fraction);
+        }
+    }
+
+    // measure: meters from the route start to the projected point; offset: meters from the point to the route
+    public record Projection(double measure, double offsetMeters, int segment, double fraction) {}
+}
@@ -12,6 +12,7 @@ public abstract class AggregateRoot<ID extends EntityId> {
 
     private final ID id;
     private Long version;
+    private Long persistedVersion;
     private final Timestamp createdAt;
     private Timestamp updatedAt;
 
@@ -27,6 +28,7 @@ public abstract class AggregateRoot<ID extends EntityId> {
     protected AggregateRoot(ID id, Long version, Timestamp createdAt, Timestamp updatedAt) {
         this.id = id;
         this.version = version;
+        this.persistedVersion = version;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
     }
@@ -75,6 +77,23 @@ public abstract class AggregateRoot<ID extends EntityId> {
         return version;
     }
 
+    // Version the stored copy had when this instance was loaded or last saved, null when never stored.
+    public final Long getPersistedVersion() {
+        return persistedVersion;
+    }
+
+    public final boolean isNew() {
+        return persistedVersion == null;
+    }
+
+    public final boolean hasUnsavedChanges() {
+        return persistedVersion == null || !persistedVersion.equals(version);
+    }
+
+    public final void markPersisted() {
+        this.persistedVersion = version;
+    }
+
     public final Timestamp getCreatedAt() {
         return createdAt;
     }
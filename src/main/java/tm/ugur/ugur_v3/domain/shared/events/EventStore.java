@@ -1,11 +1,15 @@
 package tm.ugur.ugur_v3.domain.shared.events;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 public interface EventStore {
 
     void saveEvents(String aggregateId, List<DomainEvent> events, Long expectedVersion);
 
+    // snapshotSupplier is only invoked when the append crosses a snapshot boundary
+    void saveEvents(String aggregateId, List<DomainEvent> events, Long expectedVersion, Supplier<?> snapshotSupplier);
+
     List<DomainEvent> getEventsForAggregate(String aggregateId);
 
     List<DomainEvent> getEventsForAggregateFromVersion(String aggregateId, Long fromVersion);
@@ -1,5 +1,8 @@
 package tm.ugur.ugur_v3.domain.shared.specifications;
 
+import lombok.Getter;
+
+@Getter
 public final class OrSpecification<T> implements Specification<T> {
 
     private final Specification<T> left;
@@ -1,5 +1,6 @@
 package tm.ugur.ugur_v3.domain.stopManagement.valueobjects;
 
+import java.util.Objects;
 import java.util.UUID;
 
 public class StopId {
@@ -25,6 +26,18 @@ public class StopId {
         return new StopId(UUID.randomUUID().toString());
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StopId other)) return false;
+        return value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(value);
+    }
+
     @Override
     public String toString() {
         return value;
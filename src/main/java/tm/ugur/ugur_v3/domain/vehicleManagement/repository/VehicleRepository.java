@@ -73,6 +73,8 @@ public interface VehicleRepository extends Repository<Vehicle, VehicleId> {
 
     Flux<Vehicle> saveAll(Flux<Vehicle> vehicles);
 
+    Mono<VersionedSaveResult> saveVersioned(List<Vehicle> vehicles);
+
     Mono<Long> updateLocations(Flux<VehicleLocationUpdate> locationUpdates);
 
     Mono<Long> updateStatuses(Flux<VehicleStatusUpdate> statusUpdates);
@@ -85,6 +87,17 @@ public interface VehicleRepository extends Repository<Vehicle, VehicleId> {
     Mono<MaintenanceStats> getMaintenanceStats(Timestamp startTime, Timestamp endTime);
 
 
+    // saved: rows written; unchanged: vehicles with nothing to write; conflicts: stale versions, not written
+    record VersionedSaveResult(
+            List<Vehicle> saved,
+            List<Vehicle> unchanged,
+            List<VehicleId> conflicts
+    ) {
+        public boolean hasConflicts() {
+            return !conflicts.isEmpty();
+        }
+    }
+
     record VehicleLocationUpdate(
             VehicleId vehicleId,
             GeoCoordinate location,
@@ -63,6 +63,8 @@ public interface VehicleTrackingRepository extends Repository<VehicleTrackingSes
 
     Mono<Long> storeGpsDataPoints(TrackingSessionId sessionId, Flux<GPSDataPoint> gpsDataPoints);
 
+    Mono<Long> storeGpsDataPoints(Flux<SessionGpsDataPoint> gpsDataPoints);
+
     Flux<GPSDataPoint> getGpsDataForSession(TrackingSessionId sessionId,
                                             Timestamp startTime, Timestamp endTime);
 
@@ -123,6 +125,12 @@ public interface VehicleTrackingRepository extends Repository<VehicleTrackingSes
         }
     }
 
+    record SessionGpsDataPoint(
+            TrackingSessionId sessionId,
+            VehicleId vehicleId,
+            GPSDataPoint gpsData
+    ) {}
+
     record SessionStatusUpdate(
             TrackingSessionId sessionId,
             VehicleTrackingSession.SessionStatus newStatus,
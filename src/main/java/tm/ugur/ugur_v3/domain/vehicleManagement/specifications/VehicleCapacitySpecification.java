@@ -1,11 +1,19 @@
 package tm.ugur.ugur_v3.domain.vehicleManagement.specifications;
 
+import lombok.Getter;
 import tm.ugur.ugur_v3.domain.shared.specifications.Specification;
 import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
 import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleType;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
 public class VehicleCapacitySpecification implements Specification<Vehicle> {
 
+    public static final Set<VehicleType> ACCESSIBLE_TYPES =
+            Set.copyOf(EnumSet.of(VehicleType.BUS, VehicleType.TROLLEY, VehicleType.TRAM));
+
     private final int minimumTotalCapacity;
     private final int minimumSeatedCapacity;
     private final boolean requiresAccessibility;
@@ -58,11 +66,7 @@ public class VehicleCapacitySpecification implements Specification<Vehicle> {
     }
 
     private boolean isAccessibilityCapable(Vehicle vehicle) {
-
-        VehicleType type = vehicle.getVehicleType();
-        return type == VehicleType.BUS ||
-                type == VehicleType.TROLLEY ||
-                type == VehicleType.TRAM;
+        return ACCESSIBLE_TYPES.contains(vehicle.getVehicleType());
     }
 
     @Override
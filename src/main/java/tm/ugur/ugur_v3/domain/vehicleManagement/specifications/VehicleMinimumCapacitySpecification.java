@@ -0,0 +1,29 @@
+package tm.ugur.ugur_v3.domain.vehicleManagement.specifications;
+
+import lombok.Getter;
+import tm.ugur.ugur_v3.domain.shared.specifications.Specification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+
+@Getter
+public class VehicleMinimumCapacitySpecification implements Specification<Vehicle> {
+
+    private final int minimumTotalCapacity;
+
+    public VehicleMinimumCapacitySpecification(int minimumTotalCapacity) {
+        if (minimumTotalCapacity < 0) {
+            throw new IllegalArgumentException("Minimum capacity cannot be negative");
+        }
+        this.minimumTotalCapacity = minimumTotalCapacity;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(Vehicle vehicle) {
+        return vehicle != null && vehicle.getCapacity() != null
+                && vehicle.getCapacity().getTotalCapacity() >= minimumTotalCapacity;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Vehicle capacity >= " + minimumTotalCapacity;
+    }
+}
@@ -0,0 +1,37 @@
+package tm.ugur.ugur_v3.domain.vehicleManagement.specifications;
+
+import lombok.Getter;
+import tm.ugur.ugur_v3.domain.shared.specifications.Specification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+public class VehicleStatusSpecification implements Specification<Vehicle> {
+
+    private final Set<VehicleStatus> allowedStatuses;
+
+    public VehicleStatusSpecification(Set<VehicleStatus> allowedStatuses) {
+        if (allowedStatuses == null || allowedStatuses.isEmpty()) {
+            throw new IllegalArgumentException("At least one vehicle status is required");
+        }
+        this.allowedStatuses = Set.copyOf(allowedStatuses);
+    }
+
+    @Override
+    public boolean isSatisfiedBy(Vehicle vehicle) {
+        return vehicle != null && allowedStatuses.contains(vehicle.getStatus());
+    }
+
+    @Override
+    public String getDescription() {
+        return "Vehicle status in " + allowedStatuses;
+    }
+
+    public static VehicleStatusSpecification available() {
+        return new VehicleStatusSpecification(
+                EnumSet.of(VehicleStatus.ACTIVE, VehicleStatus.IN_ROUTE, VehicleStatus.AT_DEPOT));
+    }
+}
@@ -0,0 +1,29 @@
+package tm.ugur.ugur_v3.domain.vehicleManagement.specifications;
+
+import lombok.Getter;
+import tm.ugur.ugur_v3.domain.shared.specifications.Specification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleType;
+
+@Getter
+public class VehicleTypeSpecification implements Specification<Vehicle> {
+
+    private final VehicleType vehicleType;
+
+    public VehicleTypeSpecification(VehicleType vehicleType) {
+        if (vehicleType == null) {
+            throw new IllegalArgumentException("Vehicle type cannot be null");
+        }
+        this.vehicleType = vehicleType;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(Vehicle vehicle) {
+        return vehicle != null && vehicle.getVehicleType() == vehicleType;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Vehicle type: " + vehicleType;
+    }
+}
@@ -1,9 +1,11 @@
 package tm.ugur.ugur_v3.domain.vehicleManagement.specifications;
 
+import lombok.Getter;
 import tm.ugur.ugur_v3.domain.shared.specifications.Specification;
 import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
 import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
 
+@Getter
 public class VehicleWithRecentGpsSpecification implements Specification<Vehicle> {
 
     private final Timestamp cutoffTime;
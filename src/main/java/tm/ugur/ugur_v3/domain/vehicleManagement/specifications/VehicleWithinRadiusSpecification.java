@@ -0,0 +1,38 @@
+package tm.ugur.ugur_v3.domain.vehicleManagement.specifications;
+
+import lombok.Getter;
+import tm.ugur.ugur_v3.domain.shared.specifications.Specification;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+
+@Getter
+public class VehicleWithinRadiusSpecification implements Specification<Vehicle> {
+
+    private final GeoCoordinate center;
+    private final double radiusMeters;
+
+    public VehicleWithinRadiusSpecification(GeoCoordinate center, double radiusMeters) {
+        if (center == null) {
+            throw new IllegalArgumentException("Search center cannot be null");
+        }
+        if (radiusMeters <= 0) {
+            throw new IllegalArgumentException("Search radius must be positive");
+        }
+        this.center = center;
+        this.radiusMeters = radiusMeters;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(Vehicle vehicle) {
+        if (vehicle == null || vehicle.getCurrentLocation() == null) {
+            return false;
+        }
+        return vehicle.getCurrentLocation().distanceTo(center) <= radiusMeters;
+    }
+
+    @Override
+    public String getDescription() {
+        return String.format("Vehicle within %.0fm of %.6f,%.6f",
+                radiusMeters, center.getLatitude(), center.getLongitude());
+    }
+}
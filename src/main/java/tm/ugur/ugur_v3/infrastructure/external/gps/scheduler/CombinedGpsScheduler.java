@@ -7,6 +7,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import tm.ugur.ugur_v3.application.vehicleManagement.gtfs.GtfsRealtimeFeed;
+import tm.ugur.ugur_v3.application.vehicleManagement.snapshot.FleetSnapshotPublisher;
 import tm.ugur.ugur_v3.domain.vehicleManagement.services.GpsDataProvider;
 import tm.ugur.ugur_v3.infrastructure.external.gps.adapters.AyaukGpsAdapter;
 import tm.ugur.ugur_v3.infrastructure.external.gps.adapters.TugdkGpsAdapter;
@@ -32,6 +34,8 @@ public class CombinedGpsScheduler {
     private final AyaukGpsAdapter ayaukGpsAdapter;
     private final TugdkGpsProperties tugdkProperties;
     private final AyaukGpsProperties ayaukProperties;
+    private final FleetSnapshotPublisher fleetSnapshotPublisher;
+    private final GtfsRealtimeFeed gtfsRealtimeFeed;
 
     
     private final AtomicBoolean tugdkRunning = new AtomicBoolean(false);
@@ -186,6 +190,10 @@ public class CombinedGpsScheduler {
         Duration pollDuration = Duration.between(pollStart, Instant.now());
         log.info("GPS polling cycle #{} completed in {}ms",
                 combinedPollCount.get(), pollDuration.toMillis());
+
+        // Encode the fleet once per cycle for the hot read endpoints and the GTFS-Realtime feed
+        fleetSnapshotPublisher.publish();
+        gtfsRealtimeFeed.publish();
     }
 
     private void handleGpsPollingError(Instant pollStart, Throwable error) {
@@ -197,6 +205,15 @@ public class CombinedGpsScheduler {
     private void handleRoutePollingSuccess(Instant pollStart) {
         Duration pollDuration = Duration.between(pollStart, Instant.now());
         log.info("Route assignment polling completed in {}ms", pollDuration.toMillis());
+
+        ayaukGpsAdapter.getTodaysAssignments()
+                .filter(AyaukGpsDataDto::isValid)
+                .collectMap(AyaukGpsDataDto::getNormalizedCarNumber, AyaukGpsDataDto::getRouteNumber)
+                .doOnNext(gtfsRealtimeFeed::assignRoutes)
+                .doOnError(error -> log.warn("Cannot hand route assignments to the GTFS-Realtime feed: {}",
+                        error.getMessage()))
+                .onErrorComplete()
+                .subscribe();
     }
 
     private void handleRoutePollingError(Instant pollStart, Throwable error) {
@@ -6,6 +6,8 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import reactor.core.scheduler.Schedulers;
+import tm.ugur.ugur_v3.application.vehicleManagement.gtfs.GtfsRealtimeFeed;
+import tm.ugur.ugur_v3.application.vehicleManagement.snapshot.FleetSnapshotPublisher;
 import tm.ugur.ugur_v3.domain.vehicleManagement.services.GpsDataProvider;
 import tm.ugur.ugur_v3.infrastructure.external.gps.adapters.TugdkGpsAdapter;
 import tm.ugur.ugur_v3.infrastructure.external.gps.config.TugdkGpsProperties;
@@ -24,6 +26,8 @@ public class TugdkGpsScheduler {
 
     private final TugdkGpsAdapter tugdkGpsAdapter;
     private final TugdkGpsProperties properties;
+    private final FleetSnapshotPublisher fleetSnapshotPublisher;
+    private final GtfsRealtimeFeed gtfsRealtimeFeed;
 
     private final AtomicBoolean isRunning = new AtomicBoolean(false);
     private final AtomicLong pollCount = new AtomicLong(0);
@@ -91,6 +95,10 @@ public class TugdkGpsScheduler {
         Duration pollDuration = Duration.between(pollStart, Instant.now());
         log.info("GPS polling cycle #{} completed successfully in {}ms",
                 pollCount.get(), pollDuration.toMillis());
+
+        // Encode the fleet once per cycle for the hot read endpoints and the GTFS-Realtime feed
+        fleetSnapshotPublisher.publish();
+        gtfsRealtimeFeed.publish();
     }
 
     private void handlePollingError(Instant pollStart, Throwable error) {
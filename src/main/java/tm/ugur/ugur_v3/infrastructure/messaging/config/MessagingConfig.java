@@ -0,0 +1,103 @@
+package tm.ugur.ugur_v3.infrastructure.messaging.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.validation.annotation.Validated;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.infrastructure.messaging.outbox.OutboxPublisher;
+import tm.ugur.ugur_v3.infrastructure.messaging.outbox.OutboxRelay;
+import tm.ugur.ugur_v3.infrastructure.messaging.outbox.OutboxWriter;
+import tm.ugur.ugur_v3.infrastructure.messaging.outbox.RabbitOutboxPublisher;
+import tm.ugur.ugur_v3.infrastructure.persistence.eventstore.DomainEventSerializer;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@Validated
+public class MessagingConfig {
+
+    @Bean
+    public TopicExchange domainEventsExchange(OutboxProperties props) {
+        log.info("Declaring domain events exchange: {}", props.getExchange());
+        return new TopicExchange(props.getExchange(), true, false);
+    }
+
+    @Bean
+    public OutboxWriter outboxWriter(DatabaseClient databaseClient,
+                                     ObjectMapper objectMapper,
+                                     OutboxProperties props) {
+        return new OutboxWriter(databaseClient, new DomainEventSerializer(objectMapper), props.getBatchSize());
+    }
+
+    @Bean
+    public OutboxPublisher outboxPublisher(RabbitTemplate rabbitTemplate, OutboxProperties props) {
+        return new RabbitOutboxPublisher(rabbitTemplate, props);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "ugur.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(DatabaseClient databaseClient,
+                                   OutboxPublisher outboxPublisher,
+                                   PerformanceMonitor performanceMonitor,
+                                   OutboxProperties props) {
+        log.info("Configuring outbox relay: batch size {}, poll interval {}ms, parking after {} attempts, broker {}",
+                props.getBatchSize(), props.getPollIntervalMillis(), props.getMaxPublishAttempts(),
+                outboxPublisher.getBrokerName());
+
+        return new OutboxRelay(
+                databaseClient,
+                outboxPublisher,
+                performanceMonitor,
+                props
+        );
+    }
+
+    @Setter
+    @Getter
+    @Validated
+    @Configuration
+    @ConfigurationProperties(prefix = "ugur.outbox")
+    public static class OutboxProperties {
+
+        @NotBlank
+        private String exchange = "ugur.domain-events";
+
+        private boolean relayEnabled = true;
+
+        @Min(1) @Max(5000)
+        private int batchSize = 200;
+
+        @Min(1) @Max(1000)
+        private int maxBatchesPerCycle = 50;
+
+        @Min(50) @Max(60000)
+        private long pollIntervalMillis = 500;
+
+        @NotNull
+        private Duration confirmTimeout = Duration.ofSeconds(5);
+
+        // Must exceed confirm-timeout, a claim that lapses mid-publish lets another relay send the row again
+        @NotNull
+        private Duration claimTimeout = Duration.ofSeconds(60);
+
+        @Min(1) @Max(100)
+        private int maxPublishAttempts = 10;
+
+        @NotNull
+        private Duration lagWarningThreshold = Duration.ofSeconds(30);
+
+    }
+}
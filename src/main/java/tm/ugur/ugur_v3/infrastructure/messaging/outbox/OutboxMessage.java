@@ -0,0 +1,14 @@
+package tm.ugur.ugur_v3.infrastructure.messaging.outbox;
+
+import java.time.LocalDateTime;
+
+public record OutboxMessage(
+        Long id,
+        String eventId,
+        String aggregateId,
+        String aggregateType,
+        String eventType,
+        String routingKey,
+        String payload,
+        LocalDateTime createdAt
+) {}
@@ -0,0 +1,10 @@
+package tm.ugur.ugur_v3.infrastructure.messaging.outbox;
+
+import java.util.List;
+
+public interface OutboxPublisher {
+
+    void publish(List<OutboxMessage> batch);
+
+    String getBrokerName();
+}
@@ -0,0 +1,324 @@
+package tm.ugur.ugur_v3.infrastructure.messaging.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.infrastructure.messaging.config.MessagingConfig.OutboxProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+public class OutboxRelay {
+
+    // Claiming is its own statement and commits before anything is published, so no row lock or
+    // connection is held across the broker round trip. A claim lapses after claim-timeout, which
+    // doubles as the retry delay for rows that failed to publish. An aggregate's events go out in
+    // id order: a row is not claimed while an earlier row of its aggregate is still claimed, whether
+    // in flight or waiting out a failed attempt; only parking the earlier row lets the later ones pass.
+    private static final String CLAIM_BATCH_SQL = """
+            UPDATE event_outbox
+            SET claimed_until = CURRENT_TIMESTAMP + make_interval(secs => :claimSeconds)
+            WHERE id IN (
+                SELECT o.id FROM event_outbox o
+                WHERE o.parked_at IS NULL
+                  AND (o.claimed_until IS NULL OR o.claimed_until < CURRENT_TIMESTAMP)
+                  AND NOT EXISTS (
+                      SELECT 1 FROM event_outbox earlier
+                      WHERE earlier.aggregate_type = o.aggregate_type
+                        AND earlier.aggregate_id = o.aggregate_id
+                        AND earlier.id < o.id
+                        AND earlier.parked_at IS NULL
+                        AND earlier.claimed_until >= CURRENT_TIMESTAMP
+                  )
+                ORDER BY o.id
+                LIMIT :batchSize
+                FOR UPDATE OF o SKIP LOCKED
+            )
+            RETURNING id, event_id, aggregate_id, aggregate_type, event_type, routing_key,
+                      payload::text AS payload, created_at
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final OutboxPublisher publisher;
+    private final PerformanceMonitor performanceMonitor;
+    private final OutboxProperties props;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong publishedMessages = new AtomicLong(0);
+    private final AtomicLong failedBatches = new AtomicLong(0);
+    private final AtomicLong parkedMessages = new AtomicLong(0);
+    private final AtomicReference<Duration> lastRelayLag = new AtomicReference<>(Duration.ZERO);
+    private final AtomicReference<Double> lastThroughput = new AtomicReference<>(0.0);
+    private final AtomicReference<Instant> lastSuccessfulCycle = new AtomicReference<>(Instant.now());
+
+    public OutboxRelay(DatabaseClient databaseClient,
+                       OutboxPublisher publisher,
+                       PerformanceMonitor performanceMonitor,
+                       OutboxProperties props) {
+        this.databaseClient = databaseClient;
+        this.publisher = publisher;
+        this.performanceMonitor = performanceMonitor;
+        this.props = props;
+    }
+
+    @Scheduled(fixedDelayString = "${ugur.outbox.poll-interval-millis:500}")
+    public void relayPendingEvents() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Outbox relay cycle already in progress, skipping");
+            return;
+        }
+
+        Instant cycleStart = Instant.now();
+
+        drainOutbox()
+                .doOnNext(published -> handleCycleCompleted(cycleStart, published))
+                .then(measureRelayLag())
+                .doOnError(error -> log.error("Outbox relay cycle failed", error))
+                .onErrorComplete()
+                .doFinally(signal -> running.set(false))
+                .subscribe();
+    }
+
+    public Mono<Integer> drainOutbox() {
+        return relayBatch()
+                .expand(published -> published == props.getBatchSize() ? relayBatch() : Mono.empty())
+                .take(props.getMaxBatchesPerCycle())
+                .reduce(0, Integer::sum);
+    }
+
+    public RelayStats getRelayStats() {
+        return new RelayStats(
+                publisher.getBrokerName(),
+                publishedMessages.get(),
+                failedBatches.get(),
+                parkedMessages.get(),
+                lastRelayLag.get(),
+                lastThroughput.get(),
+                lastSuccessfulCycle.get()
+        );
+    }
+
+    private Mono<Integer> relayBatch() {
+        return databaseClient.sql(CLAIM_BATCH_SQL)
+                .bind("claimSeconds", props.getClaimTimeout().toMillis() / 1000.0)
+                .bind("batchSize", props.getBatchSize())
+                .map((row, metadata) -> new OutboxMessage(
+                        row.get("id", Long.class),
+                        row.get("event_id", String.class),
+                        row.get("aggregate_id", String.class),
+                        row.get("aggregate_type", String.class),
+                        row.get("event_type", String.class),
+                        row.get("routing_key", String.class),
+                        row.get("payload", String.class),
+                        row.get("created_at", LocalDateTime.class)
+                ))
+                .all()
+                .sort(Comparator.comparing(OutboxMessage::id))
+                .collectList()
+                .flatMap(batch -> batch.isEmpty() ? Mono.just(0) : publishClaimed(batch));
+    }
+
+    private Mono<Integer> publishClaimed(List<OutboxMessage> batch) {
+        return Mono.fromCallable(() -> publish(batch))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(outcome -> deletePublished(outcome.published())
+                        .then(Flux.fromIterable(outcome.failures().entrySet())
+                                .concatMap(failure -> markFailed(failure.getKey(), failure.getValue()))
+                                .then())
+                        .then(releaseClaims(outcome.held()))
+                        .thenReturn(outcome.published().size()))
+                .onErrorResume(AmqpConnectException.class, error -> releaseUnreachable(batch, error).thenReturn(0));
+    }
+
+    // Runs on a blocking thread. A single bad message fails the whole confirm round, so the batch is
+    // retried one message at a time and only the messages that fail on their own count an attempt.
+    // Once a message fails, the later messages of its aggregate are held back rather than sent ahead of it.
+    private PublishOutcome publish(List<OutboxMessage> batch) {
+        try {
+            publisher.publish(batch);
+            return new PublishOutcome(batch, Map.of(), List.of());
+        } catch (AmqpConnectException e) {
+            throw e;
+        } catch (RuntimeException batchError) {
+            failedBatches.incrementAndGet();
+            performanceMonitor.incrementCounter("outbox.relay.batch.failed");
+            if (batch.size() == 1) {
+                return new PublishOutcome(List.of(), Map.of(batch.getFirst(), batchError), List.of());
+            }
+            log.debug("Outbox batch of {} failed ({}), publishing one at a time", batch.size(), batchError.getMessage());
+        }
+
+        List<OutboxMessage> published = new ArrayList<>(batch.size());
+        Map<OutboxMessage, RuntimeException> failures = new LinkedHashMap<>();
+        List<OutboxMessage> held = new ArrayList<>();
+        Set<String> blockedAggregates = new HashSet<>();
+        for (OutboxMessage message : batch) {
+            String aggregate = aggregateKey(message);
+            if (blockedAggregates.contains(aggregate)) {
+                held.add(message);
+                continue;
+            }
+            try {
+                publisher.publish(List.of(message));
+                published.add(message);
+            } catch (AmqpConnectException e) {
+                throw e;
+            } catch (RuntimeException error) {
+                failures.put(message, error);
+                blockedAggregates.add(aggregate);
+            }
+        }
+        return new PublishOutcome(published, failures, held);
+    }
+
+    private static String aggregateKey(OutboxMessage message) {
+        return message.aggregateType() + ":" + message.aggregateId();
+    }
+
+    private Mono<Void> deletePublished(List<OutboxMessage> published) {
+        if (published.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return databaseClient.sql("DELETE FROM event_outbox WHERE id = ANY(:ids)")
+                .bind("ids", ids(published))
+                .fetch()
+                .rowsUpdated()
+                .doOnSuccess(deleted -> recordPublishedBatch(published))
+                .then();
+    }
+
+    // The claim is left to lapse, so the row is retried after claim-timeout rather than in the same cycle
+    private Mono<Void> markFailed(OutboxMessage message, RuntimeException error) {
+        return databaseClient.sql("""
+                        UPDATE event_outbox
+                        SET publish_attempts = publish_attempts + 1,
+                            last_error = :error,
+                            parked_at = CASE WHEN publish_attempts + 1 >= :maxAttempts THEN CURRENT_TIMESTAMP END
+                        WHERE id = :id
+                        RETURNING publish_attempts
+                        """)
+                .bind("error", String.valueOf(error.getMessage()))
+                .bind("maxAttempts", props.getMaxPublishAttempts())
+                .bind("id", message.id())
+                .map((row, metadata) -> row.get("publish_attempts", Integer.class))
+                .one()
+                .doOnNext(attempts -> {
+                    if (attempts >= props.getMaxPublishAttempts()) {
+                        parkedMessages.incrementAndGet();
+                        performanceMonitor.incrementCounter("outbox.relay.parked");
+                        log.error("Parked outbox message {} ({}) after {} failed publish attempts: {}",
+                                message.id(), message.routingKey(), attempts, error.getMessage());
+                    } else {
+                        log.warn("Failed to publish outbox message {} via {} (attempt {} of {}): {}",
+                                message.id(), publisher.getBrokerName(), attempts,
+                                props.getMaxPublishAttempts(), error.getMessage());
+                    }
+                })
+                .then();
+    }
+
+    // An unreachable broker says nothing about the rows, so no attempt is counted and they are
+    // claimable again on the next poll
+    private Mono<Void> releaseUnreachable(List<OutboxMessage> batch, Throwable error) {
+        failedBatches.incrementAndGet();
+        performanceMonitor.incrementCounter("outbox.relay.batch.failed");
+        log.warn("{} unreachable, releasing {} outbox messages: {}",
+                publisher.getBrokerName(), batch.size(), error.getMessage());
+
+        return releaseClaims(batch);
+    }
+
+    // Held rows count no attempt; the claim query keeps them back until the failed row ahead of them
+    // is published or parked
+    private Mono<Void> releaseClaims(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return databaseClient.sql("UPDATE event_outbox SET claimed_until = NULL WHERE id = ANY(:ids)")
+                .bind("ids", ids(messages))
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    private static Long[] ids(List<OutboxMessage> messages) {
+        return messages.stream().map(OutboxMessage::id).toArray(Long[]::new);
+    }
+
+    private void recordPublishedBatch(List<OutboxMessage> batch) {
+        publishedMessages.addAndGet(batch.size());
+        performanceMonitor.incrementCounter("outbox.relay.published", batch.size());
+
+        LocalDateTime oldest = batch.getFirst().createdAt();
+        if (oldest != null) {
+            Duration lag = Duration.between(oldest.toInstant(ZoneOffset.UTC), Instant.now());
+            performanceMonitor.recordTime("outbox.relay.publish.lag", lag);
+        }
+    }
+
+    private void handleCycleCompleted(Instant cycleStart, int published) {
+        Duration cycleTime = Duration.between(cycleStart, Instant.now());
+        performanceMonitor.recordTime("outbox.relay.cycle", cycleTime);
+
+        if (published > 0) {
+            double throughput = published * 1000.0 / Math.max(1, cycleTime.toMillis());
+            lastThroughput.set(throughput);
+            performanceMonitor.recordGauge("outbox.relay.throughput.per.second", throughput);
+            log.debug("Outbox relay published {} messages in {}ms", published, cycleTime.toMillis());
+        }
+
+        lastSuccessfulCycle.set(Instant.now());
+    }
+
+    private Mono<Void> measureRelayLag() {
+        return databaseClient.sql("""
+                        SELECT COALESCE(EXTRACT(EPOCH FROM (CURRENT_TIMESTAMP - MIN(created_at))) * 1000, 0)::BIGINT
+                               AS lag_ms
+                        FROM event_outbox
+                        WHERE parked_at IS NULL
+                        """)
+                .map((row, metadata) -> row.get("lag_ms", Long.class))
+                .one()
+                .doOnNext(lagMillis -> {
+                    lastRelayLag.set(Duration.ofMillis(lagMillis));
+                    performanceMonitor.recordGauge("outbox.relay.lag.ms", lagMillis);
+                    if (lagMillis > props.getLagWarningThreshold().toMillis()) {
+                        log.warn("Outbox relay lag is {}ms, oldest unpublished event exceeds threshold", lagMillis);
+                    }
+                })
+                .then();
+    }
+
+    public record RelayStats(
+            String broker,
+            long publishedMessages,
+            long failedBatches,
+            long parkedMessages,
+            Duration currentLag,
+            double lastThroughputPerSecond,
+            Instant lastSuccessfulCycle
+    ) {}
+
+    private record PublishOutcome(List<OutboxMessage> published, Map<OutboxMessage, RuntimeException> failures,
+                                  List<OutboxMessage> held) {}
+}
@@ -0,0 +1,88 @@
+package tm.ugur.ugur_v3.infrastructure.messaging.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+import tm.ugur.ugur_v3.infrastructure.persistence.eventstore.DomainEventSerializer;
+
+import java.util.List;
+
+@Slf4j
+public class OutboxWriter {
+
+    private static final String INSERT_OUTBOX_SQL = "INSERT INTO event_outbox " +
+            "(event_id, aggregate_id, aggregate_type, event_type, routing_key, payload) VALUES ";
+    private static final int COLUMNS_PER_MESSAGE = 6;
+
+    private final DatabaseClient databaseClient;
+    private final DomainEventSerializer serializer;
+    private final int batchSize;
+
+    public OutboxWriter(DatabaseClient databaseClient, DomainEventSerializer serializer, int batchSize) {
+        this.databaseClient = databaseClient;
+        this.serializer = serializer;
+        this.batchSize = batchSize;
+    }
+
+    public Mono<Long> enqueue(List<DomainEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return enqueue(events, events.stream().map(serializer::serializePayload).toList());
+    }
+
+    public Mono<Long> enqueue(List<DomainEvent> events, List<String> payloads) {
+        if (events == null || events.isEmpty()) {
+            return Mono.just(0L);
+        }
+        if (events.size() != payloads.size()) {
+            return Mono.error(new IllegalArgumentException("Each outbox event requires exactly one payload"));
+        }
+
+        int chunkCount = (events.size() + batchSize - 1) / batchSize;
+
+        return Flux.range(0, chunkCount)
+                .concatMap(chunk -> {
+                    int from = chunk * batchSize;
+                    int to = Math.min(from + batchSize, events.size());
+                    return insertChunk(events.subList(from, to), payloads.subList(from, to));
+                })
+                .reduce(0L, Long::sum)
+                .doOnNext(inserted -> log.debug("Enqueued {} events into outbox", inserted));
+    }
+
+    public static String routingKey(DomainEvent event) {
+        return event.getAggregateType() + "." + event.getEventType() + "." + event.getAggregateId();
+    }
+
+    private Mono<Long> insertChunk(List<DomainEvent> events, List<String> payloads) {
+        StringBuilder sql = new StringBuilder(INSERT_OUTBOX_SQL);
+        for (int i = 0; i < events.size(); i++) {
+            int p = i * COLUMNS_PER_MESSAGE;
+            sql.append(i == 0 ? "" : ", ")
+                    .append("($").append(p + 1)
+                    .append(", $").append(p + 2)
+                    .append(", $").append(p + 3)
+                    .append(", $").append(p + 4)
+                    .append(", $").append(p + 5)
+                    .append(", CAST($").append(p + 6).append(" AS jsonb))");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < events.size(); i++) {
+            DomainEvent event = events.get(i);
+            int p = i * COLUMNS_PER_MESSAGE;
+
+            spec = spec.bind(p, event.getEventId())
+                    .bind(p + 1, event.getAggregateId())
+                    .bind(p + 2, event.getAggregateType())
+                    .bind(p + 3, event.getEventType())
+                    .bind(p + 4, routingKey(event))
+                    .bind(p + 5, payloads.get(i));
+        }
+
+        return spec.fetch().rowsUpdated();
+    }
+}
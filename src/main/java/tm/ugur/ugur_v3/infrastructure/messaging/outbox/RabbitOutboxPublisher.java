@@ -0,0 +1,59 @@
+package tm.ugur.ugur_v3.infrastructure.messaging.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import tm.ugur.ugur_v3.infrastructure.messaging.config.MessagingConfig.OutboxProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+@Slf4j
+@RequiredArgsConstructor
+public class RabbitOutboxPublisher implements OutboxPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final OutboxProperties props;
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // One channel for the whole batch, a single confirm round trip instead of one per message
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxMessage message : batch) {
+                operations.send(props.getExchange(), message.routingKey(), toAmqpMessage(message));
+            }
+            operations.waitForConfirmsOrDie(props.getConfirmTimeout().toMillis());
+            return batch.size();
+        });
+
+        log.debug("Published {} outbox messages to exchange {}", batch.size(), props.getExchange());
+    }
+
+    @Override
+    public String getBrokerName() {
+        return "RABBITMQ";
+    }
+
+    private Message toAmqpMessage(OutboxMessage message) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setMessageId(message.eventId());
+        properties.setType(message.eventType());
+        properties.setTimestamp(Date.from(message.createdAt().toInstant(ZoneOffset.UTC)));
+        properties.setHeader("aggregateId", message.aggregateId());
+        properties.setHeader("aggregateType", message.aggregateType());
+
+        return new Message(message.payload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -0,0 +1,326 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.audit;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.infrastructure.persistence.config.AuditConfig.AuditProperties;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class StaffActivityAuditWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO staff_activity_log (
+                staff_id, action_type, action_description, resource_type, resource_id, ip_address,
+                user_agent, request_method, request_url, response_status, execution_time_ms, created_at
+            ) VALUES\s""";
+
+    private static final int COLUMNS = 12;
+
+    // 12 bind parameters per row, must stay below the PostgreSQL limit of 65535 per statement
+    private static final int MAX_INSERT_ROWS = 5000;
+
+    private final DatabaseClient databaseClient;
+    private final PerformanceMonitor performanceMonitor;
+    private final AuditProperties props;
+
+    // Fixed capacity ring, guarded by its own monitor; producers never wait on the database
+    private final StaffActivityEntry[] ring;
+    private int head;
+    private int size;
+
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+    private final AtomicLong enqueued = new AtomicLong(0);
+    private final AtomicLong dropped = new AtomicLong(0);
+    private final AtomicLong written = new AtomicLong(0);
+    private final AtomicLong failed = new AtomicLong(0);
+    private final Set<LocalDate> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    public StaffActivityAuditWriter(DatabaseClient databaseClient,
+                                    PerformanceMonitor performanceMonitor,
+                                    AuditProperties props) {
+        this.databaseClient = databaseClient;
+        this.performanceMonitor = performanceMonitor;
+        this.props = props;
+        this.ring = new StaffActivityEntry[props.getBufferCapacity()];
+    }
+
+    // ============= ENQUEUE =============
+
+    public boolean record(StaffActivityEntry entry) {
+        if (!props.isEnabled()) {
+            return false;
+        }
+
+        boolean accepted = true;
+        boolean overflowed = false;
+        int buffered;
+        synchronized (ring) {
+            if (size < ring.length) {
+                ring[(head + size) % ring.length] = entry;
+                size++;
+            } else if (props.getOverflowPolicy() == OverflowPolicy.DROP_OLDEST) {
+                ring[head] = entry;
+                head = (head + 1) % ring.length;
+                overflowed = true;
+            } else {
+                accepted = false;
+                overflowed = true;
+            }
+            buffered = size;
+        }
+
+        if (overflowed) {
+            recordDropped();
+        }
+        if (accepted) {
+            enqueued.incrementAndGet();
+        }
+        if (buffered >= props.getFlushThreshold()) {
+            flush();
+        }
+        return accepted;
+    }
+
+    private void recordDropped() {
+        if (dropped.incrementAndGet() % props.getDropLogInterval() == 1) {
+            log.warn("Staff activity audit buffer full ({} entries), {} policy has dropped {} entries so far",
+                    ring.length, props.getOverflowPolicy(), dropped.get());
+        }
+        performanceMonitor.incrementCounter("audit.staff.dropped", Map.of("policy", props.getOverflowPolicy().name()));
+    }
+
+    private List<StaffActivityEntry> drain(int maxEntries) {
+        synchronized (ring) {
+            int count = Math.min(size, maxEntries);
+            List<StaffActivityEntry> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                batch.add(ring[head]);
+                ring[head] = null;
+                head = (head + 1) % ring.length;
+            }
+            size -= count;
+            return batch;
+        }
+    }
+
+    public int buffered() {
+        synchronized (ring) {
+            return size;
+        }
+    }
+
+    // ============= FLUSH =============
+
+    @Scheduled(fixedDelayString = "${ugur.audit.flush-interval-millis:1000}")
+    public void flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+
+        flushBuffered()
+                .doOnError(error -> log.error("Staff activity audit flush failed", error))
+                .onErrorComplete()
+                .doFinally(signal -> flushing.set(false))
+                .subscribe();
+    }
+
+    public Mono<Long> flushBuffered() {
+        return Mono.fromSupplier(() -> drain(props.getMaxBatchRows()))
+                .expand(batch -> batch.size() == props.getMaxBatchRows()
+                        ? Mono.fromSupplier(() -> drain(props.getMaxBatchRows()))
+                        : Mono.empty())
+                .filter(batch -> !batch.isEmpty())
+                .concatMap(this::write)
+                .reduce(0L, Long::sum)
+                .doFinally(signal -> performanceMonitor.recordGauge("audit.staff.buffer.size", buffered()));
+    }
+
+    private Mono<Long> write(List<StaffActivityEntry> batch) {
+        Mono<Long> insert = ensurePartitions(batch)
+                .thenMany(Flux.range(0, (batch.size() + MAX_INSERT_ROWS - 1) / MAX_INSERT_ROWS)
+                        .map(part -> batch.subList(part * MAX_INSERT_ROWS,
+                                Math.min(batch.size(), (part + 1) * MAX_INSERT_ROWS)))
+                        .concatMap(this::insertRows))
+                .reduce(0L, Long::sum)
+                .timeout(props.getWriteTimeout());
+
+        return performanceMonitor.timeReactive("audit.staff.flush", () -> insert)
+                .doOnNext(rows -> {
+                    written.addAndGet(rows);
+                    performanceMonitor.incrementCounter("audit.staff.written", rows);
+                })
+                .onErrorResume(error -> {
+                    // Audit rows are best effort once drained, a failed batch is counted rather than requeued
+                    failed.addAndGet(batch.size());
+                    performanceMonitor.incrementCounter("audit.staff.write.failed", batch.size());
+                    log.error("Failed to write {} staff activity audit entries: {}", batch.size(), error.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+
+    private Mono<Long> insertRows(List<StaffActivityEntry> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_SQL);
+        for (int i = 0; i < rows.size(); i++) {
+            int p = i * COLUMNS;
+            sql.append(i == 0 ? "" : ", ").append('(');
+            for (int column = 1; column <= COLUMNS; column++) {
+                sql.append(column == 1 ? "$" : ", $").append(p + column);
+            }
+            sql.append(')');
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < rows.size(); i++) {
+            StaffActivityEntry row = rows.get(i);
+            int p = i * COLUMNS;
+            spec = spec.bind(p, row.staffId()).bind(p + 1, row.actionType());
+            spec = bindNullable(spec, p + 2, row.actionDescription(), String.class);
+            spec = bindNullable(spec, p + 3, row.resourceType(), String.class);
+            spec = bindNullable(spec, p + 4, row.resourceId(), String.class);
+            spec = bindNullable(spec, p + 5, row.ipAddress(), String.class);
+            spec = bindNullable(spec, p + 6, row.userAgent(), String.class);
+            spec = bindNullable(spec, p + 7, row.requestMethod(), String.class);
+            spec = bindNullable(spec, p + 8, row.requestUrl(), String.class);
+            spec = bindNullable(spec, p + 9, row.responseStatus(), Integer.class);
+            spec = bindNullable(spec, p + 10, row.executionTimeMs(), Long.class);
+            spec = spec.bind(p + 11, toUtc(row.occurredAt()));
+        }
+
+        return spec.fetch().rowsUpdated();
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                      int index, T value, Class<T> type) {
+        return value != null ? spec.bind(index, value) : spec.bindNull(index, type);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int remaining = buffered();
+        if (remaining == 0) {
+            return;
+        }
+
+        log.info("Flushing {} buffered staff activity audit entries before shutdown", remaining);
+        try {
+            flushBuffered().block(props.getWriteTimeout());
+        } catch (RuntimeException e) {
+            log.warn("Staff activity audit shutdown flush failed: {}", e.getMessage());
+        }
+    }
+
+    // ============= PARTITIONS =============
+
+    private Mono<Void> ensurePartitions(List<StaffActivityEntry> batch) {
+        Set<LocalDate> missing = new TreeSet<>();
+        for (StaffActivityEntry entry : batch) {
+            LocalDate month = LocalDate.ofInstant(entry.occurredAt(), ZoneOffset.UTC).withDayOfMonth(1);
+            if (!knownPartitions.contains(month)) {
+                missing.add(month);
+            }
+        }
+
+        return Flux.fromIterable(missing)
+                .concatMap(month -> databaseClient.sql("SELECT create_staff_activity_log_partition(:month) AS created")
+                        .bind("month", month)
+                        .map((row, metadata) -> Boolean.TRUE.equals(row.get("created", Boolean.class)))
+                        .one()
+                        .doOnNext(created -> {
+                            knownPartitions.add(month);
+                            if (created) {
+                                log.info("Created staff activity log partition for {}", month);
+                            }
+                        }))
+                .then();
+    }
+
+    @Scheduled(cron = "${ugur.audit.partition-maintenance-cron:0 25 3 * * *}")
+    public void maintainPartitions() {
+        Mono<Integer> created = databaseClient.sql("SELECT create_staff_activity_log_partitions(0, :monthsAhead) AS created")
+                .bind("monthsAhead", props.getPartitionsAhead())
+                .map((row, metadata) -> row.get("created", Integer.class))
+                .one()
+                .doOnNext(count -> log.info("Staff activity log partition maintenance created {} partitions", count));
+
+        Mono<Integer> dropped = props.isEnableRetention()
+                ? releasePartitionsBefore(Instant.now().minus(props.getRetention()))
+                : Mono.just(0);
+
+        created.then(dropped)
+                .doOnNext(count -> log.info("Staff activity log retention dropped {} partitions", count))
+                .doOnError(error -> log.error("Staff activity log partition maintenance failed", error))
+                .onErrorComplete()
+                .subscribe();
+    }
+
+    public Mono<Integer> releasePartitionsBefore(Instant cutoff) {
+        LocalDate cutoffMonth = LocalDate.ofInstant(cutoff, ZoneOffset.UTC).withDayOfMonth(1);
+
+        return databaseClient.sql("SELECT release_staff_activity_log_partitions(:cutoffMonth) AS released")
+                .bind("cutoffMonth", cutoffMonth)
+                .map((row, metadata) -> row.get("released", Integer.class))
+                .one()
+                .doOnNext(released -> {
+                    knownPartitions.removeIf(month -> month.isBefore(cutoffMonth));
+                    performanceMonitor.incrementCounter("audit.staff.partitions.dropped", released);
+                });
+    }
+
+    public AuditStats stats() {
+        return new AuditStats(ring.length, buffered(), enqueued.get(), dropped.get(), written.get(), failed.get(),
+                props.getOverflowPolicy());
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    public enum OverflowPolicy {
+        // Keep what is buffered and reject the incoming entry
+        DROP_NEWEST,
+        // Overwrite the oldest buffered entry so the most recent activity is kept
+        DROP_OLDEST
+    }
+
+    public record StaffActivityEntry(
+            String staffId,
+            String actionType,
+            String actionDescription,
+            String resourceType,
+            String resourceId,
+            String ipAddress,
+            String userAgent,
+            String requestMethod,
+            String requestUrl,
+            Integer responseStatus,
+            Long executionTimeMs,
+            Instant occurredAt
+    ) {}
+
+    public record AuditStats(
+            int capacity,
+            int buffered,
+            long enqueued,
+            long dropped,
+            long written,
+            long failed,
+            OverflowPolicy overflowPolicy
+    ) {}
+}
@@ -0,0 +1,203 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleRepository.VersionedSaveResult;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.VehicleId;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+@Slf4j
+public class VersionedVehicleWriter {
+
+    private static final List<Column> UPDATE_COLUMNS = List.of(
+            new Column("id", "varchar", String.class, vehicle -> vehicle.getId().getValue()),
+            new Column("expected_version", "bigint", Long.class, Vehicle::getPersistedVersion),
+            new Column("version", "bigint", Long.class, Vehicle::getVersion),
+            new Column("status", "varchar", String.class, vehicle -> vehicle.getStatus().name()),
+            new Column("assigned_route_id", "varchar", String.class, Vehicle::getAssignedRouteId),
+            new Column("latitude", "double precision", Double.class, vehicle -> latitude(vehicle.getCurrentLocation())),
+            new Column("longitude", "double precision", Double.class, vehicle -> longitude(vehicle.getCurrentLocation())),
+            new Column("location_accuracy", "double precision", Double.class, vehicle -> accuracy(vehicle.getCurrentLocation())),
+            new Column("previous_latitude", "double precision", Double.class, vehicle -> latitude(vehicle.getPreviousLocation())),
+            new Column("previous_longitude", "double precision", Double.class, vehicle -> longitude(vehicle.getPreviousLocation())),
+            new Column("speed_kmh", "double precision", Double.class,
+                    vehicle -> vehicle.getCurrentSpeed() != null ? vehicle.getCurrentSpeed().getKmh() : null),
+            new Column("bearing_degrees", "double precision", Double.class,
+                    vehicle -> vehicle.getCurrentBearing() != null ? vehicle.getCurrentBearing().getDegrees() : null),
+            new Column("last_location_update", "timestamp", LocalDateTime.class, vehicle -> toUtc(vehicle.getLastLocationUpdate())),
+            new Column("odometer", "bigint", Long.class, Vehicle::getOdometer),
+            new Column("last_maintenance_date", "timestamp", LocalDateTime.class, vehicle -> toUtc(vehicle.getLastMaintenanceDate())),
+            new Column("next_maintenance_date", "timestamp", LocalDateTime.class, vehicle -> toUtc(vehicle.getNextMaintenanceDate())),
+            new Column("updated_at", "timestamp", LocalDateTime.class, vehicle -> toUtc(vehicle.getUpdatedAt()))
+    );
+
+    private static final List<Column> INSERT_COLUMNS = concat(
+            List.of(
+                    new Column("id", "varchar", String.class, vehicle -> vehicle.getId().getValue()),
+                    new Column("license_plate", "varchar", String.class, vehicle -> vehicle.getLicensePlate().getValue()),
+                    new Column("vehicle_type", "varchar", String.class, vehicle -> vehicle.getVehicleType().name()),
+                    new Column("model", "varchar", String.class, Vehicle::getModel),
+                    new Column("seated_capacity", "integer", Integer.class, vehicle -> vehicle.getCapacity().getSeatedCapacity()),
+                    new Column("standing_capacity", "integer", Integer.class, vehicle -> vehicle.getCapacity().getStandingCapacity()),
+                    new Column("created_at", "timestamp", LocalDateTime.class, vehicle -> toUtc(vehicle.getCreatedAt()))
+            ),
+            UPDATE_COLUMNS.subList(2, UPDATE_COLUMNS.size())
+    );
+
+    // Up to 24 bind parameters per row, must stay below the PostgreSQL limit of 65535 per statement
+    private static final int MAX_ROWS_PER_STATEMENT = 2000;
+
+    private final DatabaseClient databaseClient;
+    private final PerformanceMonitor performanceMonitor;
+
+    public VersionedVehicleWriter(DatabaseClient databaseClient, PerformanceMonitor performanceMonitor) {
+        this.databaseClient = databaseClient;
+        this.performanceMonitor = performanceMonitor;
+    }
+
+    // Vehicles are not marked persisted here: the caller does that once the surrounding transaction commits
+    public Mono<VersionedSaveResult> save(List<Vehicle> vehicles, int chunkSize) {
+        List<Vehicle> inserts = new ArrayList<>();
+        List<Vehicle> updates = new ArrayList<>();
+        List<Vehicle> unchanged = new ArrayList<>();
+        List<VehicleId> conflicts = new ArrayList<>();
+        Set<VehicleId> seen = new HashSet<>();
+
+        for (Vehicle vehicle : vehicles) {
+            // Two copies of one vehicle in a statement would both match the same row, so the later copy
+            // is reported as a conflict and retried against the row the first one wrote.
+            if (!seen.add(vehicle.getId())) {
+                conflicts.add(vehicle.getId());
+            } else if (vehicle.isNew()) {
+                inserts.add(vehicle);
+            } else if (vehicle.hasUnsavedChanges()) {
+                updates.add(vehicle);
+            } else {
+                unchanged.add(vehicle);
+            }
+        }
+
+        int rowsPerStatement = Math.max(1, Math.min(chunkSize, MAX_ROWS_PER_STATEMENT));
+
+        Mono<Set<String>> written = Flux.concat(
+                        chunks(inserts, rowsPerStatement).concatMap(this::insertChunk),
+                        chunks(updates, rowsPerStatement).concatMap(this::updateChunk))
+                .collect(HashSet::new, Set::add);
+
+        return performanceMonitor.timeReactive("vehicle.repository.save.batch", () -> written)
+                .map(writtenIds -> {
+                    List<Vehicle> saved = new ArrayList<>(inserts.size() + updates.size());
+                    for (Vehicle vehicle : concat(inserts, updates)) {
+                        if (writtenIds.contains(vehicle.getId().getValue())) {
+                            saved.add(vehicle);
+                        } else {
+                            conflicts.add(vehicle.getId());
+                        }
+                    }
+
+                    performanceMonitor.incrementCounter("vehicle.repository.save.rows", saved.size());
+                    if (!conflicts.isEmpty()) {
+                        performanceMonitor.incrementCounter("vehicle.repository.save.conflict", conflicts.size());
+                        log.debug("Optimistic lock conflicts for {} of {} vehicles", conflicts.size(), vehicles.size());
+                    }
+                    return new VersionedSaveResult(saved, unchanged, List.copyOf(conflicts));
+                });
+    }
+
+    private Flux<String> updateChunk(List<Vehicle> chunk) {
+        StringBuilder sql = new StringBuilder("UPDATE vehicles v SET ");
+        for (int i = 2; i < UPDATE_COLUMNS.size(); i++) {
+            String name = UPDATE_COLUMNS.get(i).name();
+            sql.append(i == 2 ? "" : ", ").append(name).append(" = u.").append(name);
+        }
+        sql.append(" FROM (VALUES ");
+        appendValues(sql, UPDATE_COLUMNS, chunk.size());
+        sql.append(") AS u(").append(columnList(UPDATE_COLUMNS)).append(") ")
+                .append("WHERE v.id = u.id AND v.version = u.expected_version RETURNING v.id");
+
+        return execute(sql.toString(), UPDATE_COLUMNS, chunk);
+    }
+
+    private Flux<String> insertChunk(List<Vehicle> chunk) {
+        StringBuilder sql = new StringBuilder("INSERT INTO vehicles (")
+                .append(columnList(INSERT_COLUMNS)).append(") VALUES ");
+        appendValues(sql, INSERT_COLUMNS, chunk.size());
+        sql.append(" ON CONFLICT (id) DO NOTHING RETURNING id");
+
+        return execute(sql.toString(), INSERT_COLUMNS, chunk);
+    }
+
+    private Flux<String> execute(String sql, List<Column> columns, List<Vehicle> chunk) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        for (int row = 0; row < chunk.size(); row++) {
+            Vehicle vehicle = chunk.get(row);
+            for (int column = 0; column < columns.size(); column++) {
+                Column definition = columns.get(column);
+                Object value = definition.extractor().apply(vehicle);
+                int index = row * columns.size() + column;
+                spec = value != null ? spec.bind(index, value) : spec.bindNull(index, definition.javaType());
+            }
+        }
+
+        return spec.map(row -> row.get("id", String.class)).all();
+    }
+
+    private static void appendValues(StringBuilder sql, List<Column> columns, int rows) {
+        for (int row = 0; row < rows; row++) {
+            sql.append(row == 0 ? "(" : ", (");
+            for (int column = 0; column < columns.size(); column++) {
+                sql.append(column == 0 ? "$" : ", $").append(row * columns.size() + column + 1)
+                        .append("::").append(columns.get(column).sqlType());
+            }
+            sql.append(')');
+        }
+    }
+
+    private static String columnList(List<Column> columns) {
+        return String.join(", ", columns.stream().map(Column::name).toList());
+    }
+
+    private static Flux<List<Vehicle>> chunks(List<Vehicle> vehicles, int size) {
+        return Flux.range(0, (vehicles.size() + size - 1) / size)
+                .map(chunk -> vehicles.subList(chunk * size, Math.min(vehicles.size(), (chunk + 1) * size)));
+    }
+
+    private static <T> List<T> concat(List<T> first, List<T> second) {
+        List<T> all = new ArrayList<>(first.size() + second.size());
+        all.addAll(first);
+        all.addAll(second);
+        return all;
+    }
+
+    private static Double latitude(GeoCoordinate location) {
+        return location != null ? location.getLatitude() : null;
+    }
+
+    private static Double longitude(GeoCoordinate location) {
+        return location != null ? location.getLongitude() : null;
+    }
+
+    private static Double accuracy(GeoCoordinate location) {
+        return location != null ? location.getAccuracy() : null;
+    }
+
+    private static LocalDateTime toUtc(Timestamp timestamp) {
+        return timestamp != null ? LocalDateTime.ofInstant(timestamp.toInstant(), ZoneOffset.UTC) : null;
+    }
+
+    private record Column(String name, String sqlType, Class<?> javaType, Function<Vehicle, Object> extractor) {
+    }
+}
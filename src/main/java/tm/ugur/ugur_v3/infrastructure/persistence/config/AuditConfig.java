@@ -0,0 +1,76 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.config;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.validation.annotation.Validated;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.infrastructure.persistence.audit.StaffActivityAuditWriter;
+import tm.ugur.ugur_v3.infrastructure.persistence.audit.StaffActivityAuditWriter.OverflowPolicy;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@Validated
+public class AuditConfig {
+
+    @Bean
+    public StaffActivityAuditWriter staffActivityAuditWriter(DatabaseClient databaseClient,
+                                                             PerformanceMonitor performanceMonitor,
+                                                             AuditProperties props) {
+        log.info("Configuring staff activity audit writer: buffer {} entries, flush every {}ms or {} entries, overflow {}",
+                props.getBufferCapacity(), props.getFlushIntervalMillis(), props.getFlushThreshold(),
+                props.getOverflowPolicy());
+
+        return new StaffActivityAuditWriter(databaseClient, performanceMonitor, props);
+    }
+
+    @Setter
+    @Getter
+    @Validated
+    @Configuration
+    @ConfigurationProperties(prefix = "ugur.audit")
+    public static class AuditProperties {
+
+        private boolean enabled = true;
+
+        @Min(100) @Max(1000000)
+        private int bufferCapacity = 20000;
+
+        @NotNull
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+        @Min(50) @Max(60000)
+        private long flushIntervalMillis = 1000;
+
+        // Buffered entries that trigger a flush before the interval elapses
+        @Min(1) @Max(100000)
+        private int flushThreshold = 500;
+
+        @Min(1) @Max(5000)
+        private int maxBatchRows = 1000;
+
+        @NotNull
+        private Duration writeTimeout = Duration.ofSeconds(10);
+
+        @Min(1) @Max(100000)
+        private int dropLogInterval = 1000;
+
+        @Min(1) @Max(24)
+        private int partitionsAhead = 2;
+
+        private boolean enableRetention = true;
+
+        @NotNull
+        private Duration retention = Duration.ofDays(365);
+
+    }
+}
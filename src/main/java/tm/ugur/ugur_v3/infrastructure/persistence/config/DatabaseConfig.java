@@ -1,21 +1,37 @@
 package tm.ugur.ugur_v3.infrastructure.persistence.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.r2dbc.pool.ConnectionPool;
 import io.r2dbc.pool.ConnectionPoolConfiguration;
 import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
 import io.r2dbc.postgresql.PostgresqlConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.ValidationDepth;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.validation.annotation.Validated;
 
 import jakarta.validation.constraints.*;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.infrastructure.persistence.pool.ConnectionPoolWarmer;
+import tm.ugur.ugur_v3.infrastructure.persistence.pool.MicrometerPoolMetricsRecorder;
+import tm.ugur.ugur_v3.infrastructure.persistence.repositories.jpa.R2dbcVehicleRepository;
+import tm.ugur.ugur_v3.infrastructure.persistence.routing.ReadReplicaRoutingConnectionFactory;
+import tm.ugur.ugur_v3.infrastructure.persistence.routing.ReplicaLagMonitor;
+
 import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Slf4j
@@ -24,9 +40,26 @@ import java.util.Map;
 @Validated
 public class DatabaseConfig {
 
+    // Session settings shared by the primary and the replica connections
+    private static final Map<String, String> SESSION_OPTIONS = Map.of(
+            "search_path", "public",
+            "timezone", "UTC",
+
+            "shared_preload_libraries", "postgis",
+
+            "work_mem", "256MB",
+            "effective_cache_size", "2GB",
+            "random_page_cost", "1.1",
+            "seq_page_cost", "1.0",
+
+            "enable_seqscan", "off",
+            "enable_sort", "on",
+            "constraint_exclusion", "partition"
+    );
+
     @Bean
     @Profile("!test")
-    public PostgresqlConnectionConfiguration postgresqlConfig(DatabaseProperties props) {
+    public PostgresqlConnectionConfiguration postgresqlConfig(DatabaseProperties props, PoolProperties poolProps) {
         log.info("Configuring PostgreSQL with PostGIS for GPS tracking system");
 
         return PostgresqlConnectionConfiguration.builder()
@@ -38,30 +71,37 @@ public class DatabaseConfig {
                 .applicationName("ugur-gps-tracker")
                 .connectTimeout(props.getConnectionTimeout())
                 .statementTimeout(props.getStatementTimeout())
+                .preparedStatementCacheQueries(poolProps.getPreparedStatementCacheSize())
 
-                .options(Map.of(
-                        "search_path", "public",
-                        "timezone", "UTC",
-
-                        "shared_preload_libraries", "postgis",
+                .options(SESSION_OPTIONS)
+                .build();
+    }
 
-                        "work_mem", "256MB",
-                        "effective_cache_size", "2GB",
-                        "random_page_cost", "1.1",
-                        "seq_page_cost", "1.0",
+    @Bean
+    @Profile("!test")
+    public MicrometerPoolMetricsRecorder primaryPoolMetricsRecorder(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                    PoolProperties poolProps) {
+        return new MicrometerPoolMetricsRecorder("primary", meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                poolProps.getMaxAcquireTime());
+    }
 
-                        "enable_seqscan", "off",
-                        "enable_sort", "on",
-                        "constraint_exclusion", "partition"
-                ))
-                .build();
+    @Bean
+    @Profile("!test")
+    @ConditionalOnProperty(prefix = "ugur.database.replica", name = "enabled", havingValue = "true")
+    public MicrometerPoolMetricsRecorder replicaPoolMetricsRecorder(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                    ReplicaProperties replicaProps) {
+        return new MicrometerPoolMetricsRecorder("replica", meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                replicaProps.getMaxAcquireTime());
     }
 
     @Bean
+    @Profile("!test")
     public ConnectionPoolConfiguration poolConfig(PostgresqlConnectionConfiguration pgConfig,
-                                                  PoolProperties poolProps) {
-        log.info("Configuring connection pool: initial={}, max={}",
-                poolProps.getInitialSize(), poolProps.getMaxSize());
+                                                  PoolProperties poolProps,
+                                                  @Qualifier("primaryPoolMetricsRecorder")
+                                                  MicrometerPoolMetricsRecorder metricsRecorder) {
+        log.info("Configuring connection pool: initial={}, max={}, prepared statement cache={}",
+                poolProps.getInitialSize(), poolProps.getMaxSize(), poolProps.getPreparedStatementCacheSize());
 
         return ConnectionPoolConfiguration.builder(new PostgresqlConnectionFactory(pgConfig))
                 .name("ugur-gps-pool")
@@ -74,7 +114,105 @@ public class DatabaseConfig {
                 .maxLifeTime(poolProps.getMaxLifeTime())
                 .validationQuery(poolProps.getValidationQuery())
                 .validationDepth(ValidationDepth.REMOTE)
+                .metricsRecorder(metricsRecorder)
+                .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @Profile("!test")
+    public ConnectionPool primaryConnectionPool(ConnectionPoolConfiguration poolConfig,
+                                                @Qualifier("primaryPoolMetricsRecorder")
+                                                MicrometerPoolMetricsRecorder metricsRecorder) {
+        ConnectionPool pool = new ConnectionPool(poolConfig);
+        metricsRecorder.bindTo(pool);
+        return pool;
+    }
+
+    @Bean
+    @Profile("!test")
+    public ConnectionPoolWarmer connectionPoolWarmer(@Qualifier("primaryConnectionPool") ConnectionPool primaryPool,
+                                                     @Qualifier("primaryPoolMetricsRecorder")
+                                                     MicrometerPoolMetricsRecorder metricsRecorder,
+                                                     PoolProperties poolProps,
+                                                     PerformanceMonitor performanceMonitor) {
+        return new ConnectionPoolWarmer(primaryPool, metricsRecorder, R2dbcVehicleRepository.warmupStatements(),
+                poolProps, performanceMonitor);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @Profile("!test")
+    @ConditionalOnProperty(prefix = "ugur.database.replica", name = "enabled", havingValue = "true")
+    public ConnectionPool replicaConnectionPool(DatabaseProperties props,
+                                                PoolProperties poolProps,
+                                                ReplicaProperties replicaProps,
+                                                @Qualifier("replicaPoolMetricsRecorder")
+                                                MicrometerPoolMetricsRecorder metricsRecorder) {
+        log.info("Configuring read replica pool {}:{} (max={}, max lag={})",
+                replicaProps.getHost(), replicaProps.getPort(), replicaProps.getMaxSize(), replicaProps.getMaxLag());
+
+        PostgresqlConnectionConfiguration replicaConfig = PostgresqlConnectionConfiguration.builder()
+                .host(replicaProps.getHost())
+                .port(replicaProps.getPort())
+                .database(props.getDatabase())
+                .username(props.getUsername())
+                .password(props.getPassword())
+                .applicationName("ugur-gps-tracker-replica")
+                .connectTimeout(props.getConnectionTimeout())
+                .statementTimeout(props.getStatementTimeout())
+                .preparedStatementCacheQueries(poolProps.getPreparedStatementCacheSize())
+                .options(SESSION_OPTIONS)
                 .build();
+
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(new PostgresqlConnectionFactory(replicaConfig))
+                .name("ugur-gps-replica-pool")
+                .initialSize(replicaProps.getInitialSize())
+                .maxSize(replicaProps.getMaxSize())
+                .maxAcquireTime(replicaProps.getMaxAcquireTime())
+                .validationQuery("SELECT 1")
+                .validationDepth(ValidationDepth.REMOTE)
+                .metricsRecorder(metricsRecorder)
+                .build());
+        metricsRecorder.bindTo(pool);
+        return pool;
+    }
+
+    @Bean
+    @Profile("!test")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryConnectionPool") ConnectionPool primaryPool,
+                                               @Qualifier("replicaConnectionPool") ObjectProvider<ConnectionPool> replica,
+                                               ReplicaProperties replicaProps,
+                                               PerformanceMonitor performanceMonitor) {
+        ConnectionPool replicaPool = replica.getIfAvailable();
+        if (replicaPool == null) {
+            log.info("Read replica disabled, all queries use the primary pool");
+        }
+
+        Map<String, ConnectionPool> pools = new LinkedHashMap<>();
+        pools.put("primary", primaryPool);
+        if (replicaPool != null) {
+            pools.put("replica", replicaPool);
+        }
+        return new ReplicaLagMonitor(pools, replicaPool, replicaProps, performanceMonitor);
+    }
+
+    @Bean
+    @Primary
+    @Profile("!test")
+    public ConnectionFactory connectionFactory(@Qualifier("primaryConnectionPool") ConnectionPool primaryPool,
+                                               @Qualifier("replicaConnectionPool") ObjectProvider<ConnectionPool> replica,
+                                               @Qualifier("primaryPoolMetricsRecorder")
+                                               MicrometerPoolMetricsRecorder primaryRecorder,
+                                               @Qualifier("replicaPoolMetricsRecorder")
+                                               ObjectProvider<MicrometerPoolMetricsRecorder> replicaRecorder,
+                                               ReplicaLagMonitor replicaLagMonitor,
+                                               PerformanceMonitor performanceMonitor) {
+        ConnectionPool replicaPool = replica.getIfAvailable();
+        ConnectionFactory timedReplica = replicaPool != null
+                ? replicaRecorder.getObject().timeAcquire(replicaPool)
+                : null;
+
+        return new ReadReplicaRoutingConnectionFactory(primaryRecorder.timeAcquire(primaryPool), timedReplica,
+                replicaLagMonitor, performanceMonitor);
     }
 
     @Setter
@@ -139,6 +277,51 @@ public class DatabaseConfig {
         @NotBlank
         private String validationQuery = "SELECT 1, PostGIS_Version()";
 
+        // Per-connection prepared statement cache: -1 unbounded, 0 disables server-side preparation
+        @Min(-1) @Max(10000)
+        private int preparedStatementCacheSize = 256;
+
+        private boolean warmupEnabled = true;
+
+        @Min(1) @Max(500)
+        private int warmupConnections = 10;
 
+        @NotNull
+        private Duration warmupTimeout = Duration.ofSeconds(30);
+
+    }
+
+    @Setter
+    @Getter
+    @Validated
+    @Configuration
+    @ConfigurationProperties(prefix = "ugur.database.replica")
+    public static class ReplicaProperties {
+
+        private boolean enabled = false;
+
+        @NotBlank
+        private String host = "localhost";
+
+        @Min(1) @Max(65535)
+        private int port = 5433;
+
+        @Min(1) @Max(100)
+        private int initialSize = 5;
+
+        @Min(1) @Max(1000)
+        private int maxSize = 50;
+
+        @NotNull
+        private Duration maxAcquireTime = Duration.ofSeconds(2);
+
+        @NotNull
+        private Duration maxLag = Duration.ofSeconds(5);
+
+        @NotNull
+        private Duration lagCheckInterval = Duration.ofSeconds(5);
+
+        @NotNull
+        private Duration lagCheckTimeout = Duration.ofSeconds(2);
     }
-}
\ No newline at end of file
+}
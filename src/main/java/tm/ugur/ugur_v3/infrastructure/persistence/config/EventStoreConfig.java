@@ -0,0 +1,69 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.validation.annotation.Validated;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.infrastructure.messaging.outbox.OutboxWriter;
+import tm.ugur.ugur_v3.infrastructure.persistence.eventstore.R2dbcEventStore;
+
+import jakarta.validation.constraints.*;
+import java.time.Duration;
+
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@Validated
+public class EventStoreConfig {
+
+    @Bean
+    public R2dbcEventStore eventStore(DatabaseClient databaseClient,
+                                      ReactiveTransactionManager transactionManager,
+                                      ObjectMapper objectMapper,
+                                      OutboxWriter outboxWriter,
+                                      PerformanceMonitor performanceMonitor,
+                                      EventStoreProperties props) {
+        log.info("Configuring R2DBC event store: snapshot every {} events, insert batch size {}",
+                props.getSnapshotFrequency(), props.getInsertBatchSize());
+
+        return new R2dbcEventStore(
+                databaseClient,
+                TransactionalOperator.create(transactionManager),
+                objectMapper,
+                outboxWriter,
+                performanceMonitor,
+                props
+        );
+    }
+
+    @Setter
+    @Getter
+    @Validated
+    @Configuration
+    @ConfigurationProperties(prefix = "ugur.event-store")
+    public static class EventStoreProperties {
+
+        @Min(10) @Max(10000)
+        private int snapshotFrequency = 500;
+
+        // 9 bind parameters per event, must stay below the PostgreSQL limit of 65535 per statement
+        @Min(1) @Max(5000)
+        private int insertBatchSize = 500;
+
+        @NotNull
+        private Duration operationTimeout = Duration.ofSeconds(10);
+
+        @Min(1) @Max(24)
+        private int partitionsAhead = 3;
+
+    }
+}
@@ -8,15 +8,21 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import org.springframework.validation.annotation.Validated;
 
 import jakarta.validation.constraints.*;
-import reactor.core.publisher.Mono;
-import tm.ugur.ugur_v3.domain.vehicleManagement.services.GpsDataProvider;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.infrastructure.persistence.eventstore.R2dbcEventStore;
+import tm.ugur.ugur_v3.infrastructure.persistence.gps.GpsHistoryStore;
+import tm.ugur.ugur_v3.infrastructure.persistence.gps.GpsTrackArchiver;
 import tm.ugur.ugur_v3.infrastructure.persistence.repositories.jpa.R2dbcVehicleRepository;
+import tm.ugur.ugur_v3.infrastructure.persistence.repositories.jpa.R2dbcVehicleTrackingRepository;
+import tm.ugur.ugur_v3.infrastructure.persistence.rollup.TrackingRollupStore;
 
 import java.time.Duration;
-import java.util.List;
 
 @Slf4j
 @Configuration
@@ -27,15 +33,55 @@ public class RepositoryConfig {
     private final R2dbcEntityTemplate entityTemplate;
 
     @Bean
-    public R2dbcVehicleRepository vehicleRepository() {
-        log.info("Configuring Vehicle Repository with PostGIS support");
-        return new R2dbcVehicleRepository(entityTemplate);
+    public R2dbcVehicleRepository vehicleRepository(PerformanceMonitor performanceMonitor,
+                                                    TrackingRollupStore trackingRollupStore,
+                                                    VehiclePersistenceConfig persistenceConfig,
+                                                    R2dbcEventStore eventStore,
+                                                    ReactiveTransactionManager transactionManager) {
+        int saveBatchSize = persistenceConfig.getQueryPerformance().getBatch().getVehicleBatchSize();
+        log.info("Configuring Vehicle Repository with specification pushdown, versioned saves of {} rows", saveBatchSize);
+        return new R2dbcVehicleRepository(entityTemplate, performanceMonitor, trackingRollupStore, saveBatchSize,
+                eventStore, TransactionalOperator.create(transactionManager));
     }
 
     @Bean
-    public VehicleLocationHistoryRepository locationHistoryRepository(RepositoryProperties props) {
-        log.info("Configuring Location History Repository with batch size: {}", props.getBatchSize());
-        return new VehicleLocationHistoryRepository(entityTemplate, props);
+    public GpsHistoryStore gpsHistoryStore(DatabaseClient databaseClient,
+                                           PerformanceMonitor performanceMonitor,
+                                           VehiclePersistenceConfig persistenceConfig) {
+        log.info("Configuring GPS history store: daily partitions {} days ahead, COPY ingest {}",
+                persistenceConfig.getHistory().getPartitioning().getGpsDaysAhead(),
+                persistenceConfig.getQueryPerformance().getBatch().isEnableCopyIngest() ? "enabled" : "disabled");
+        return new GpsHistoryStore(databaseClient, performanceMonitor, persistenceConfig);
+    }
+
+    @Bean
+    public TrackingRollupStore trackingRollupStore(DatabaseClient databaseClient,
+                                                   PerformanceMonitor performanceMonitor,
+                                                   VehiclePersistenceConfig persistenceConfig,
+                                                   GpsHistoryStore gpsHistoryStore) {
+        TrackingRollupStore rollupStore = new TrackingRollupStore(databaseClient, performanceMonitor, persistenceConfig);
+        if (persistenceConfig.getHistory().getRollup().isEnabled()) {
+            gpsHistoryStore.addIngestListener(rollupStore::markDirty);
+        }
+        return rollupStore;
+    }
+
+    @Bean
+    public GpsTrackArchiver gpsTrackArchiver(DatabaseClient databaseClient,
+                                             GpsHistoryStore gpsHistoryStore,
+                                             PerformanceMonitor performanceMonitor,
+                                             VehiclePersistenceConfig persistenceConfig) {
+        log.info("Configuring GPS track archiver with {} m tolerance",
+                persistenceConfig.getHistory().getArchive().getToleranceMeters());
+        return new GpsTrackArchiver(databaseClient, gpsHistoryStore, performanceMonitor, persistenceConfig);
+    }
+
+    @Bean
+    public R2dbcVehicleTrackingRepository vehicleTrackingRepository(GpsHistoryStore gpsHistoryStore,
+                                                                    TrackingRollupStore trackingRollupStore,
+                                                                    GpsTrackArchiver gpsTrackArchiver) {
+        log.info("Configuring Vehicle Tracking Repository over the partitioned GPS history");
+        return new R2dbcVehicleTrackingRepository(gpsHistoryStore, trackingRollupStore, gpsTrackArchiver);
     }
 
     @Setter
@@ -75,22 +121,4 @@ public class RepositoryConfig {
         private Duration spatialQueryTimeout = Duration.ofSeconds(10);
 
     }
-
-    public static class VehicleLocationHistoryRepository {
-
-        private final R2dbcEntityTemplate template;
-        private final RepositoryProperties props;
-
-        public VehicleLocationHistoryRepository(R2dbcEntityTemplate template, RepositoryProperties props) {
-            this.template = template;
-            this.props = props;
-        }
-
-        public Mono<Integer> saveBatch(
-               List<GpsDataProvider.GpsLocationData> locations) {
-
-
-            return Mono.just(locations.size());
-        }
-    }
 }
\ No newline at end of file
@@ -136,6 +136,9 @@ public class VehiclePersistenceConfig {
             private int maxConcurrentBatches = 10;
 
             private boolean enableBatchOptimization = true;
+
+            // COPY ... FROM STDIN for GPS history, falls back to multi-row INSERT when unavailable
+            private boolean enableCopyIngest = true;
         }
 
         @Data
@@ -203,6 +206,12 @@ public class VehiclePersistenceConfig {
         @NotNull
         private RetentionConfig retention = new RetentionConfig();
 
+        @NotNull
+        private RollupConfig rollup = new RollupConfig();
+
+        @NotNull
+        private ArchiveConfig archive = new ArchiveConfig();
+
         @Data
         public static class PartitioningConfig {
 
@@ -212,6 +221,12 @@ public class VehiclePersistenceConfig {
             @Min(1) @Max(12)
             private int partitionsToPreCreate = 3;
 
+            @Min(1) @Max(60)
+            private int gpsDaysAhead = 7;
+
+            @Min(0) @Max(30)
+            private int gpsDaysBehind = 2;
+
             private boolean enablePartitionPruning = true;
             private boolean enablePartitionWiseJoins = true;
         }
@@ -233,5 +248,46 @@ public class VehiclePersistenceConfig {
             @NotNull
             private Duration cleanupInterval = Duration.ofHours(24);
         }
+
+        @Data
+        public static class RollupConfig {
+
+            private boolean enabled = true;
+
+            @NotNull
+            private Duration flushInterval = Duration.ofSeconds(10);
+
+            @NotNull
+            private Duration catchUpWindow = Duration.ofHours(2);
+
+            private String catchUpCron = "0 */10 * * * *";
+
+            @NotNull
+            private Duration minuteRetention = Duration.ofDays(7);
+
+            @NotNull
+            private Duration minuteQueryMaxRange = Duration.ofHours(6);
+        }
+
+        @Data
+        public static class ArchiveConfig {
+
+            private boolean enabled = true;
+
+            @DecimalMin("0.5") @DecimalMax("100.0")
+            private double toleranceMeters = 5.0;
+
+            // A session with no new points for this long is treated as ended
+            @NotNull
+            private Duration sessionIdleThreshold = Duration.ofMinutes(30);
+
+            @NotNull
+            private Duration lookback = Duration.ofDays(2);
+
+            @Min(1) @Max(10000)
+            private int sessionsPerRun = 200;
+
+            private String archiveCron = "0 20 * * * *";
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.eventstore;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+
+import java.util.Map;
+
+public final class DomainEventSerializer {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    public DomainEventSerializer(ObjectMapper baseMapper) {
+        // Domain events and value objects expose computed getters, so only their state (fields) is persisted
+        this.objectMapper = baseMapper.copy()
+                .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    public String serializePayload(DomainEvent event) {
+        return write(event, "event " + event.getEventType());
+    }
+
+    public String serializeMetadata(DomainEvent event) {
+        Map<String, Object> metadata = event.getMetadata();
+        return metadata == null || metadata.isEmpty() ? null : write(metadata, "metadata of " + event.getEventType());
+    }
+
+    public String serializeSnapshot(Object snapshot) {
+        return write(snapshot, "snapshot " + snapshot.getClass().getSimpleName());
+    }
+
+    public Map<String, Object> readMap(String json) {
+        if (json == null || json.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, MAP_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new R2dbcEventStore.EventStoreException("Failed to deserialize stored JSON document", e);
+        }
+    }
+
+    public <T> T readSnapshot(String json, Class<T> snapshotType) {
+        try {
+            return objectMapper.readValue(json, snapshotType);
+        } catch (JsonProcessingException e) {
+            throw new R2dbcEventStore.EventStoreException(
+                    "Failed to deserialize snapshot as " + snapshotType.getSimpleName(), e);
+        }
+    }
+
+    private String write(Object value, String description) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new R2dbcEventStore.EventStoreException("Failed to serialize " + description, e);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.eventstore;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+import tm.ugur.ugur_v3.domain.shared.events.EventStore;
+import tm.ugur.ugur_v3.domain.shared.exceptions.ConcurrencyException;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
+import tm.ugur.ugur_v3.infrastructure.messaging.outbox.OutboxWriter;
+import tm.ugur.ugur_v3.infrastructure.persistence.config.EventStoreConfig.EventStoreProperties;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Slf4j
+public class R2dbcEventStore implements EventStore {
+
+    private static final String INSERT_EVENTS_SQL = "INSERT INTO domain_events (event_id, aggregate_id, aggregate_type, " +
+            "stream_version, event_type, correlation_id, payload, metadata, occurred_at, recorded_at) VALUES ";
+    private static final int COLUMNS_PER_EVENT = 9;
+
+    private static final String SELECT_EVENTS_SQL = """
+            SELECT event_id, aggregate_id, aggregate_type, stream_version, event_type, correlation_id,
+                   payload::text AS payload, metadata::text AS metadata, occurred_at, recorded_at
+            FROM domain_events
+            WHERE aggregate_id = :aggregateId
+              AND stream_version BETWEEN :fromVersion AND :toVersion
+              AND recorded_at >= :recordedSince
+            ORDER BY stream_version
+            """;
+
+    private static final LocalDateTime EARLIEST_RECORD = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final DomainEventSerializer serializer;
+    private final OutboxWriter outboxWriter;
+    private final PerformanceMonitor performanceMonitor;
+    private final EventStoreProperties props;
+
+    public R2dbcEventStore(DatabaseClient databaseClient,
+                           TransactionalOperator transactionalOperator,
+                           ObjectMapper objectMapper,
+                           OutboxWriter outboxWriter,
+                           PerformanceMonitor performanceMonitor,
+                           EventStoreProperties props) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.serializer = new DomainEventSerializer(objectMapper);
+        this.outboxWriter = outboxWriter;
+        this.performanceMonitor = performanceMonitor;
+        this.props = props;
+    }
+
+    // ============= EVENT STORE CONTRACT =============
+
+    @Override
+    public void saveEvents(String aggregateId, List<DomainEvent> events, Long expectedVersion) {
+        await(appendEvents(aggregateId, events, expectedVersion, null));
+    }
+
+    @Override
+    public void saveEvents(String aggregateId, List<DomainEvent> events, Long expectedVersion,
+                           Supplier<?> snapshotSupplier) {
+        await(appendEvents(aggregateId, events, expectedVersion, snapshotSupplier));
+    }
+
+    @Override
+    public List<DomainEvent> getEventsForAggregate(String aggregateId) {
+        return await(readEvents(aggregateId, 1L, Long.MAX_VALUE, null).collectList());
+    }
+
+    @Override
+    public List<DomainEvent> getEventsForAggregateFromVersion(String aggregateId, Long fromVersion) {
+        return await(readEvents(aggregateId, fromVersion, Long.MAX_VALUE, null).collectList());
+    }
+
+    @Override
+    public List<DomainEvent> getEventsForAggregateInRange(String aggregateId, Long fromVersion, Long toVersion) {
+        return await(readEvents(aggregateId, fromVersion, toVersion, null).collectList());
+    }
+
+    @Override
+    public Long getCurrentVersion(String aggregateId) {
+        return await(currentVersion(aggregateId).defaultIfEmpty(0L));
+    }
+
+    @Override
+    public boolean aggregateExists(String aggregateId) {
+        return Boolean.TRUE.equals(await(currentVersion(aggregateId).hasElement()));
+    }
+
+    @Override
+    public void saveSnapshot(String aggregateId, Object snapshot, Long version) {
+        await(writeSnapshot(aggregateId, snapshot, version));
+    }
+
+    @Override
+    public <T> T getSnapshot(String aggregateId, Class<T> snapshotType) {
+        return await(readSnapshot(aggregateId, snapshotType).mapNotNull(SnapshotRecord::state));
+    }
+
+    // ============= REACTIVE API =============
+
+    public Mono<Long> appendEvents(String aggregateId,
+                                   List<DomainEvent> events,
+                                   Long expectedVersion,
+                                   Supplier<?> snapshotSupplier) {
+        if (events == null || events.isEmpty()) {
+            return expectedVersion != null ? Mono.just(expectedVersion) : currentVersion(aggregateId).defaultIfEmpty(0L);
+        }
+
+        String aggregateType = events.getFirst().getAggregateType();
+        int eventCount = events.size();
+        List<String> payloads = events.stream().map(serializer::serializePayload).toList();
+
+        Mono<Long> append = advanceStreamVersion(aggregateId, aggregateType, eventCount, expectedVersion)
+                .flatMap(newVersion -> {
+                    long previousVersion = newVersion - eventCount;
+                    return insertEvents(aggregateId, aggregateType, events, payloads, previousVersion)
+                            .then(outboxWriter.enqueue(events, payloads))
+                            .then(snapshotIfDue(aggregateId, previousVersion, newVersion, snapshotSupplier))
+                            .thenReturn(newVersion);
+                })
+                .as(transactionalOperator::transactional);
+
+        return performanceMonitor.timeReactive("eventstore.append", () -> append)
+                .doOnSuccess(version -> {
+                    performanceMonitor.incrementCounter("eventstore.events.appended", eventCount);
+                    log.debug("Appended {} events to stream {} (version {})", eventCount, aggregateId, version);
+                });
+    }
+
+    public Flux<DomainEvent> readEvents(String aggregateId, Long fromVersion, Long toVersion,
+                                        LocalDateTime recordedSince) {
+        return databaseClient.sql(SELECT_EVENTS_SQL)
+                .bind("aggregateId", aggregateId)
+                .bind("fromVersion", fromVersion != null ? fromVersion : 1L)
+                .bind("toVersion", toVersion != null ? toVersion : Long.MAX_VALUE)
+                .bind("recordedSince", recordedSince != null ? recordedSince : EARLIEST_RECORD)
+                .map((row, metadata) -> (DomainEvent) new StoredDomainEvent(
+                        row.get("event_id", String.class),
+                        row.get("event_type", String.class),
+                        row.get("aggregate_id", String.class),
+                        row.get("aggregate_type", String.class),
+                        row.get("stream_version", Long.class),
+                        row.get("correlation_id", String.class),
+                        toTimestamp(row.get("occurred_at", LocalDateTime.class)),
+                        toTimestamp(row.get("recorded_at", LocalDateTime.class)),
+                        serializer.readMap(row.get("payload", String.class)),
+                        serializer.readMap(row.get("metadata", String.class))
+                ))
+                .all();
+    }
+
+    public <T> Mono<AggregateStream<T>> loadAggregate(String aggregateId, Class<T> snapshotType) {
+        Mono<AggregateStream<T>> load = readSnapshot(aggregateId, snapshotType)
+                .defaultIfEmpty(new SnapshotRecord<>(null, 0L, null))
+                .flatMap(snapshot -> readEvents(aggregateId, snapshot.version() + 1, Long.MAX_VALUE,
+                        snapshot.lastEventRecordedAt())
+                        .collectList()
+                        .map(tail -> new AggregateStream<>(aggregateId, snapshot.state(), snapshot.version(), tail)));
+
+        return performanceMonitor.timeReactive("eventstore.rehydrate", () -> load)
+                .doOnSuccess(stream -> {
+                    if (stream != null) {
+                        performanceMonitor.recordGauge("eventstore.rehydrate.tail.length", stream.tail().size());
+                    }
+                });
+    }
+
+    public Mono<Long> currentVersion(String aggregateId) {
+        return databaseClient.sql("SELECT current_version FROM event_streams WHERE aggregate_id = :aggregateId")
+                .bind("aggregateId", aggregateId)
+                .map((row, metadata) -> row.get("current_version", Long.class))
+                .one();
+    }
+
+    public Mono<Void> writeSnapshot(String aggregateId, Object snapshot, Long version) {
+        return databaseClient.sql("""
+                        INSERT INTO aggregate_snapshots
+                            (aggregate_id, snapshot_version, snapshot_type, payload, last_event_recorded_at, created_at)
+                        VALUES (:aggregateId, :version, :snapshotType, CAST(:payload AS jsonb),
+                                (SELECT MAX(recorded_at) FROM domain_events
+                                 WHERE aggregate_id = :aggregateId AND stream_version = :version),
+                                CURRENT_TIMESTAMP)
+                        ON CONFLICT (aggregate_id) DO UPDATE
+                        SET snapshot_version = EXCLUDED.snapshot_version,
+                            snapshot_type = EXCLUDED.snapshot_type,
+                            payload = EXCLUDED.payload,
+                            last_event_recorded_at = EXCLUDED.last_event_recorded_at,
+                            created_at = EXCLUDED.created_at
+                        WHERE aggregate_snapshots.snapshot_version < EXCLUDED.snapshot_version
+                        """)
+                .bind("aggregateId", aggregateId)
+                .bind("version", version)
+                .bind("snapshotType", snapshot.getClass().getName())
+                .bind("payload", serializer.serializeSnapshot(snapshot))
+                .fetch()
+                .rowsUpdated()
+                .doOnNext(updated -> {
+                    if (updated > 0) {
+                        performanceMonitor.incrementCounter("eventstore.snapshots.saved");
+                        log.debug("Saved snapshot for {} at version {}", aggregateId, version);
+                    }
+                })
+                .then();
+    }
+
+    @Scheduled(cron = "${ugur.event-store.partition-maintenance-cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        databaseClient.sql("SELECT create_domain_events_partitions(:monthsAhead) AS created")
+                .bind("monthsAhead", props.getPartitionsAhead())
+                .map((row, metadata) -> row.get("created", Integer.class))
+                .one()
+                .doOnNext(created -> log.info("Event store partition maintenance created {} partitions", created))
+                .doOnError(error -> log.error("Event store partition maintenance failed", error))
+                .onErrorComplete()
+                .subscribe();
+    }
+
+    // ============= APPEND INTERNALS =============
+
+    private Mono<Long> advanceStreamVersion(String aggregateId, String aggregateType,
+                                            int eventCount, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return databaseClient.sql("""
+                            INSERT INTO event_streams (aggregate_id, aggregate_type, current_version)
+                            VALUES (:aggregateId, :aggregateType, :eventCount)
+                            ON CONFLICT (aggregate_id) DO UPDATE
+                            SET current_version = event_streams.current_version + EXCLUDED.current_version,
+                                updated_at = CURRENT_TIMESTAMP
+                            RETURNING current_version
+                            """)
+                    .bind("aggregateId", aggregateId)
+                    .bind("aggregateType", aggregateType)
+                    .bind("eventCount", (long) eventCount)
+                    .map((row, metadata) -> row.get("current_version", Long.class))
+                    .one();
+        }
+
+        long newVersion = expectedVersion + eventCount;
+
+        DatabaseClient.GenericExecuteSpec compareAndSet = expectedVersion == 0
+                ? databaseClient.sql("""
+                        INSERT INTO event_streams (aggregate_id, aggregate_type, current_version)
+                        VALUES (:aggregateId, :aggregateType, :newVersion)
+                        ON CONFLICT (aggregate_id) DO NOTHING
+                        """)
+                .bind("aggregateId", aggregateId)
+                .bind("aggregateType", aggregateType)
+                .bind("newVersion", newVersion)
+                : databaseClient.sql("""
+                        UPDATE event_streams
+                        SET current_version = :newVersion, updated_at = CURRENT_TIMESTAMP
+                        WHERE aggregate_id = :aggregateId AND current_version = :expectedVersion
+                        """)
+                .bind("aggregateId", aggregateId)
+                .bind("newVersion", newVersion)
+                .bind("expectedVersion", expectedVersion);
+
+        return compareAndSet.fetch()
+                .rowsUpdated()
+                .flatMap(updated -> updated == 1
+                        ? Mono.just(newVersion)
+                        : rejectConcurrentAppend(aggregateId, expectedVersion));
+    }
+
+    private Mono<Long> rejectConcurrentAppend(String aggregateId, Long expectedVersion) {
+        return currentVersion(aggregateId)
+                .defaultIfEmpty(0L)
+                .flatMap(actualVersion -> {
+                    performanceMonitor.incrementCounter("eventstore.concurrency.conflict");
+                    log.warn("Rejected append to stream {}: expected version {}, actual {}",
+                            aggregateId, expectedVersion, actualVersion);
+                    return Mono.error(new ConcurrencyException(aggregateId, expectedVersion, actualVersion));
+                });
+    }
+
+    private Mono<Void> insertEvents(String aggregateId, String aggregateType, List<DomainEvent> events,
+                                    List<String> payloads, long previousVersion) {
+        int batchSize = props.getInsertBatchSize();
+        int chunkCount = (events.size() + batchSize - 1) / batchSize;
+
+        return Flux.range(0, chunkCount)
+                .concatMap(chunk -> {
+                    int from = chunk * batchSize;
+                    int to = Math.min(from + batchSize, events.size());
+                    return insertChunk(aggregateId, aggregateType, events.subList(from, to),
+                            payloads.subList(from, to), previousVersion + from);
+                })
+                .then();
+    }
+
+    private Mono<Long> insertChunk(String aggregateId, String aggregateType, List<DomainEvent> chunk,
+                                   List<String> payloads, long previousVersion) {
+        StringBuilder sql = new StringBuilder(INSERT_EVENTS_SQL);
+        for (int i = 0; i < chunk.size(); i++) {
+            int p = i * COLUMNS_PER_EVENT;
+            sql.append(i == 0 ? "" : ", ")
+                    .append("($").append(p + 1)
+                    .append(", $").append(p + 2)
+                    .append(", $").append(p + 3)
+                    .append(", $").append(p + 4)
+                    .append(", $").append(p + 5)
+                    .append(", $").append(p + 6)
+                    .append(", CAST($").append(p + 7).append(" AS jsonb)")
+                    .append(", CAST($").append(p + 8).append(" AS jsonb)")
+                    .append(", $").append(p + 9)
+                    .append(", clock_timestamp())");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < chunk.size(); i++) {
+            DomainEvent event = chunk.get(i);
+            int p = i * COLUMNS_PER_EVENT;
+
+            spec = spec.bind(p, event.getEventId())
+                    .bind(p + 1, aggregateId)
+                    .bind(p + 2, aggregateType)
+                    .bind(p + 3, previousVersion + i + 1)
+                    .bind(p + 4, event.getEventType())
+                    .bind(p + 6, payloads.get(i))
+                    .bind(p + 8, event.getOccurredAt().toUtcLocalDateTime());
+            spec = bindNullable(spec, p + 5, event.getCorrelationId());
+            spec = bindNullable(spec, p + 7, serializer.serializeMetadata(event));
+        }
+
+        return spec.fetch().rowsUpdated();
+    }
+
+    private Mono<Void> snapshotIfDue(String aggregateId, long previousVersion, long newVersion,
+                                     Supplier<?> snapshotSupplier) {
+        int frequency = props.getSnapshotFrequency();
+        if (snapshotSupplier == null || newVersion / frequency == previousVersion / frequency) {
+            return Mono.empty();
+        }
+
+        return Mono.fromSupplier(snapshotSupplier)
+                .flatMap(snapshot -> writeSnapshot(aggregateId, snapshot, newVersion));
+    }
+
+    // ============= READ INTERNALS =============
+
+    private <T> Mono<SnapshotRecord<T>> readSnapshot(String aggregateId, Class<T> snapshotType) {
+        return databaseClient.sql("""
+                        SELECT snapshot_version, payload::text AS payload, last_event_recorded_at
+                        FROM aggregate_snapshots
+                        WHERE aggregate_id = :aggregateId
+                        """)
+                .bind("aggregateId", aggregateId)
+                .map((row, metadata) -> new SnapshotRecord<>(
+                        serializer.readSnapshot(row.get("payload", String.class), snapshotType),
+                        row.get("snapshot_version", Long.class),
+                        row.get("last_event_recorded_at", LocalDateTime.class)
+                ))
+                .one();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  int index, String value) {
+        return value != null ? spec.bind(index, value) : spec.bindNull(index, String.class);
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime utcDateTime) {
+        return utcDateTime != null ? Timestamp.of(utcDateTime.toInstant(ZoneOffset.UTC)) : null;
+    }
+
+    private <T> T await(Mono<T> operation) {
+        return operation.block(props.getOperationTimeout());
+    }
+
+    public record AggregateStream<T>(
+            String aggregateId,
+            T snapshot,
+            long snapshotVersion,
+            List<DomainEvent> tail
+    ) {
+        public boolean hasSnapshot() {
+            return snapshot != null;
+        }
+
+        public long currentVersion() {
+            return tail.isEmpty() ? snapshotVersion : tail.getLast().getVersion();
+        }
+    }
+
+    private record SnapshotRecord<T>(T state, Long version, LocalDateTime lastEventRecordedAt) {}
+
+    public static class EventStoreException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public EventStoreException(String message) {
+            super(message);
+        }
+
+        public EventStoreException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
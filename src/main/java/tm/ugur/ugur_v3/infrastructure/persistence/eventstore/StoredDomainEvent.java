@@ -0,0 +1,62 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.eventstore;
+
+import lombok.Getter;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
+
+import java.util.Map;
+
+@Getter
+public final class StoredDomainEvent implements DomainEvent {
+
+    private final String eventId;
+    private final String eventType;
+    private final String aggregateId;
+    private final String aggregateType;
+    private final Long version;
+    private final String correlationId;
+    private final Timestamp occurredAt;
+    private final Timestamp recordedAt;
+
+    private final Map<String, Object> payload;
+    private final Map<String, Object> metadata;
+
+    public StoredDomainEvent(String eventId, String eventType, String aggregateId, String aggregateType,
+                             Long version, String correlationId, Timestamp occurredAt, Timestamp recordedAt,
+                             Map<String, Object> payload, Map<String, Object> metadata) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.aggregateType = aggregateType;
+        this.version = version;
+        this.correlationId = correlationId;
+        this.occurredAt = occurredAt;
+        this.recordedAt = recordedAt;
+        this.payload = payload != null ? payload : Map.of();
+        this.metadata = metadata != null ? metadata : Map.of();
+    }
+
+    public Object getPayloadValue(String key) {
+        return payload.get(key);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        StoredDomainEvent that = (StoredDomainEvent) obj;
+        return eventId.equals(that.eventId);
+    }
+
+    @Override
+    public int hashCode() {
+        return eventId.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StoredDomainEvent{type=%s, aggregate=%s:%s, version=%d, occurredAt=%s}",
+                eventType, aggregateType, aggregateId, version, occurredAt);
+    }
+}
@@ -0,0 +1,418 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.gps;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.infrastructure.persistence.config.VehiclePersistenceConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Slf4j
+public class GpsHistoryStore {
+
+    private static final String COLUMNS =
+            "vehicle_id, session_id, recorded_at, latitude, longitude, accuracy_meters, speed_kmh, bearing_degrees";
+
+    private static final String COPY_SQL = "COPY gps_points (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT_SQL = "INSERT INTO gps_points (" + COLUMNS + ") VALUES ";
+
+    private static final String SELECT_SQL = "SELECT " + COLUMNS + " FROM gps_points ";
+
+    // 8 bind parameters per row, must stay below the PostgreSQL limit of 65535 per statement
+    private static final int MAX_INSERT_ROWS = 8000;
+
+    private static final int COPY_BUFFER_ROWS = 1000;
+
+    private static final double METERS_PER_DEGREE_LATITUDE = 111_320.0;
+
+    private final DatabaseClient databaseClient;
+    private final PerformanceMonitor performanceMonitor;
+    private final VehiclePersistenceConfig config;
+
+    private final Set<LocalDate> knownPartitions = ConcurrentHashMap.newKeySet();
+    private final List<IngestListener> ingestListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean copySupported;
+
+    public GpsHistoryStore(DatabaseClient databaseClient,
+                           PerformanceMonitor performanceMonitor,
+                           VehiclePersistenceConfig config) {
+        this.databaseClient = databaseClient;
+        this.performanceMonitor = performanceMonitor;
+        this.config = config;
+        this.copySupported = config.getQueryPerformance().getBatch().isEnableCopyIngest();
+    }
+
+    // ============= INGEST =============
+
+    public Mono<Long> ingest(List<GpsPointRecord> received) {
+        List<GpsPointRecord> points = withinRetention(received);
+        if (points.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        int chunkSize = config.getQueryPerformance().getBatch().getLocationBatchSize();
+
+        Mono<Long> ingest = ensurePartitions(points)
+                .thenMany(Flux.range(0, (points.size() + chunkSize - 1) / chunkSize)
+                        .map(chunk -> points.subList(chunk * chunkSize, Math.min(points.size(), (chunk + 1) * chunkSize)))
+                        .concatMap(this::write))
+                .reduce(0L, Long::sum);
+
+        return performanceMonitor.timeReactive("gps.history.ingest", () -> ingest)
+                .doOnNext(written -> {
+                    performanceMonitor.incrementCounter("gps.history.points.written", written);
+                    notifyIngested(points);
+                })
+                .doOnError(error -> {
+                    log.error("GPS history ingest of {} points failed: {}", points.size(), error.getMessage());
+                    performanceMonitor.incrementCounter("gps.history.ingest.error");
+                });
+    }
+
+    public void addIngestListener(IngestListener listener) {
+        ingestListeners.add(listener);
+    }
+
+    private void notifyIngested(List<GpsPointRecord> points) {
+        if (ingestListeners.isEmpty()) {
+            return;
+        }
+
+        Instant from = points.getFirst().recordedAt();
+        Instant to = from;
+        for (GpsPointRecord point : points) {
+            from = point.recordedAt().isBefore(from) ? point.recordedAt() : from;
+            to = point.recordedAt().isAfter(to) ? point.recordedAt() : to;
+        }
+
+        for (IngestListener listener : ingestListeners) {
+            try {
+                listener.onIngested(from, to);
+            } catch (RuntimeException e) {
+                log.warn("GPS ingest listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Mono<Long> write(List<GpsPointRecord> chunk) {
+        if (!copySupported) {
+            return insert(chunk);
+        }
+
+        return databaseClient.<Long>inConnection(connection -> {
+                    PostgresqlConnection postgresConnection = unwrap(connection);
+                    if (postgresConnection == null) {
+                        copySupported = false;
+                        log.warn("Connection {} does not expose the PostgreSQL COPY API, using multi-row INSERT",
+                                connection.getClass().getName());
+                        return Mono.<Long>empty();
+                    }
+                    return postgresConnection.copyIn(COPY_SQL, encodeCsv(chunk));
+                })
+                .switchIfEmpty(Mono.defer(() -> insert(chunk)));
+    }
+
+    private Mono<Long> insert(List<GpsPointRecord> chunk) {
+        return Flux.range(0, (chunk.size() + MAX_INSERT_ROWS - 1) / MAX_INSERT_ROWS)
+                .map(part -> chunk.subList(part * MAX_INSERT_ROWS, Math.min(chunk.size(), (part + 1) * MAX_INSERT_ROWS)))
+                .concatMap(this::insertRows)
+                .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> insertRows(List<GpsPointRecord> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_SQL);
+        for (int i = 0; i < rows.size(); i++) {
+            int p = i * 8;
+            sql.append(i == 0 ? "" : ", ").append('(');
+            for (int column = 1; column <= 8; column++) {
+                sql.append(column == 1 ? "$" : ", $").append(p + column);
+            }
+            sql.append(')');
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < rows.size(); i++) {
+            GpsPointRecord row = rows.get(i);
+            int p = i * 8;
+            spec = row.vehicleId() != null ? spec.bind(p, row.vehicleId()) : spec.bindNull(p, String.class);
+            spec = row.sessionId() != null ? spec.bind(p + 1, row.sessionId()) : spec.bindNull(p + 1, String.class);
+            spec = spec.bind(p + 2, toUtc(row.recordedAt()))
+                    .bind(p + 3, row.latitude())
+                    .bind(p + 4, row.longitude())
+                    .bind(p + 5, (float) row.accuracyMeters());
+            spec = row.speedKmh() != null
+                    ? spec.bind(p + 6, row.speedKmh().floatValue()) : spec.bindNull(p + 6, Float.class);
+            spec = row.bearingDegrees() != null
+                    ? spec.bind(p + 7, row.bearingDegrees().floatValue()) : spec.bindNull(p + 7, Float.class);
+        }
+
+        return spec.fetch().rowsUpdated();
+    }
+
+    private static Flux<ByteBuf> encodeCsv(List<GpsPointRecord> rows) {
+        return Flux.range(0, (rows.size() + COPY_BUFFER_ROWS - 1) / COPY_BUFFER_ROWS)
+                .map(part -> {
+                    StringBuilder csv = new StringBuilder(COPY_BUFFER_ROWS * 96);
+                    int end = Math.min(rows.size(), (part + 1) * COPY_BUFFER_ROWS);
+                    for (int i = part * COPY_BUFFER_ROWS; i < end; i++) {
+                        GpsPointRecord row = rows.get(i);
+                        if (row.vehicleId() != null) {
+                            appendQuoted(csv, row.vehicleId());
+                        }
+                        csv.append(',');
+                        if (row.sessionId() != null) {
+                            appendQuoted(csv, row.sessionId());
+                        }
+                        csv.append(',').append(toUtc(row.recordedAt()))
+                                .append(',').append(row.latitude())
+                                .append(',').append(row.longitude())
+                                .append(',').append(row.accuracyMeters())
+                                .append(',');
+                        if (row.speedKmh() != null) {
+                            csv.append(row.speedKmh());
+                        }
+                        csv.append(',');
+                        if (row.bearingDegrees() != null) {
+                            csv.append(row.bearingDegrees());
+                        }
+                        csv.append('\n');
+                    }
+                    return Unpooled.wrappedBuffer(csv.toString().getBytes(StandardCharsets.UTF_8));
+                });
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder csv, String value) {
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object current = connection;
+        while (true) {
+            if (current instanceof PostgresqlConnection postgresConnection) {
+                return postgresConnection;
+            }
+            if (!(current instanceof Wrapped<?> wrapped) || wrapped.unwrap() == current) {
+                return null;
+            }
+            current = wrapped.unwrap();
+        }
+    }
+
+    // ============= PARTITIONS =============
+
+    // Points from days retention has already dropped would only recreate partitions for the next run to drop
+    private List<GpsPointRecord> withinRetention(List<GpsPointRecord> points) {
+        LocalDate oldestDay = oldestRetainedDay();
+        if (oldestDay == null) {
+            return points;
+        }
+
+        List<GpsPointRecord> retained = points.stream()
+                .filter(point -> !LocalDate.ofInstant(point.recordedAt(), ZoneOffset.UTC).isBefore(oldestDay))
+                .toList();
+        if (retained.size() < points.size()) {
+            performanceMonitor.incrementCounter("gps.history.points.expired", points.size() - retained.size());
+        }
+        return retained;
+    }
+
+    // Null when retention never drops partitions
+    private LocalDate oldestRetainedDay() {
+        VehiclePersistenceConfig.HistoryConfig.RetentionConfig retention = config.getHistory().getRetention();
+        return retention.isEnableAutomaticCleanup()
+                ? LocalDate.ofInstant(Instant.now().minus(retention.getRawLocationRetention()), ZoneOffset.UTC)
+                : null;
+    }
+
+    private Mono<Void> ensurePartitions(List<GpsPointRecord> points) {
+        LocalDate oldestDay = oldestRetainedDay();
+        Set<LocalDate> missing = new TreeSet<>();
+        for (GpsPointRecord point : points) {
+            LocalDate day = LocalDate.ofInstant(point.recordedAt(), ZoneOffset.UTC);
+            if (!knownPartitions.contains(day) && (oldestDay == null || !day.isBefore(oldestDay))) {
+                missing.add(day);
+            }
+        }
+
+        return Flux.fromIterable(missing)
+                .concatMap(day -> databaseClient.sql("SELECT create_gps_points_partition(:day) AS created")
+                        .bind("day", day)
+                        .map((row, metadata) -> Boolean.TRUE.equals(row.get("created", Boolean.class)))
+                        .one()
+                        .doOnNext(created -> {
+                            knownPartitions.add(day);
+                            if (created) {
+                                log.info("Created GPS history partition for {}", day);
+                                performanceMonitor.incrementCounter("gps.history.partitions.created");
+                            }
+                        }))
+                .then();
+    }
+
+    @Scheduled(cron = "${ugur.persistence.vehicle.history.partition-maintenance-cron:0 5 0 * * *}")
+    public void maintainPartitions() {
+        VehiclePersistenceConfig.HistoryConfig history = config.getHistory();
+
+        Mono<Integer> created = databaseClient.sql("SELECT create_gps_points_partitions(:behind, :ahead) AS created")
+                .bind("behind", history.getPartitioning().getGpsDaysBehind())
+                .bind("ahead", history.getPartitioning().getGpsDaysAhead())
+                .map((row, metadata) -> row.get("created", Integer.class))
+                .one()
+                .doOnNext(count -> log.info("GPS history partition maintenance created {} partitions", count));
+
+        Mono<Long> dropped = history.getRetention().isEnableAutomaticCleanup()
+                ? releasePartitionsBefore(Instant.now().minus(history.getRetention().getRawLocationRetention()), false)
+                : Mono.just(0L);
+
+        created.then(dropped)
+                .doOnNext(count -> log.info("GPS history retention dropped {} partitions", count))
+                .doOnError(error -> log.error("GPS history partition maintenance failed", error))
+                .onErrorComplete()
+                .subscribe();
+    }
+
+    public Mono<Long> releasePartitionsBefore(Instant cutoff, boolean detachOnly) {
+        LocalDate cutoffDay = LocalDate.ofInstant(cutoff, ZoneOffset.UTC);
+
+        return databaseClient.sql("SELECT release_gps_points_partitions(:cutoffDay, :detachOnly) AS released")
+                .bind("cutoffDay", cutoffDay)
+                .bind("detachOnly", detachOnly)
+                .map((row, metadata) -> row.get("released", Integer.class))
+                .one()
+                .map(Integer::longValue)
+                .doOnNext(released -> {
+                    knownPartitions.removeIf(day -> day.isBefore(cutoffDay));
+                    performanceMonitor.incrementCounter(
+                            detachOnly ? "gps.history.partitions.detached" : "gps.history.partitions.dropped", released);
+                });
+    }
+
+    // Points of vehicles that have since been deleted; rows without a vehicle belong to a session and are kept
+    public Mono<Long> deleteOrphaned() {
+        return databaseClient.sql("""
+                        DELETE FROM gps_points p
+                        WHERE p.vehicle_id IS NOT NULL
+                          AND NOT EXISTS (SELECT 1 FROM vehicles v WHERE v.id = p.vehicle_id)
+                        """)
+                .fetch()
+                .rowsUpdated()
+                .doOnNext(deleted -> performanceMonitor.incrementCounter("gps.history.points.orphaned", deleted));
+    }
+
+    public Mono<Void> analyze() {
+        return databaseClient.sql("ANALYZE gps_points").then();
+    }
+
+    // ============= READS =============
+
+    public Flux<GpsPointRecord> findBySession(String sessionId, Instant from, Instant to) {
+        return databaseClient.sql(SELECT_SQL + """
+                        WHERE session_id = :sessionId
+                          AND recorded_at >= :from AND recorded_at < :to
+                        ORDER BY recorded_at
+                        """)
+                .bind("sessionId", sessionId)
+                .bind("from", toUtc(from))
+                .bind("to", toUtc(to))
+                .map(GpsHistoryStore::mapRow)
+                .all();
+    }
+
+    public Flux<GpsPointRecord> findRecentBySession(String sessionId, int count) {
+        return databaseClient.sql("SELECT * FROM (" + SELECT_SQL + """
+                        WHERE session_id = :sessionId
+                        ORDER BY recorded_at DESC
+                        LIMIT :count) recent
+                        ORDER BY recorded_at
+                        """)
+                .bind("sessionId", sessionId)
+                .bind("count", count)
+                .map(GpsHistoryStore::mapRow)
+                .all();
+    }
+
+    public Flux<GpsPointRecord> findBySessionWithin(String sessionId, double latitude, double longitude,
+                                                    double radiusMeters) {
+        double latitudeDelta = radiusMeters / METERS_PER_DEGREE_LATITUDE;
+        double longitudeDelta = radiusMeters
+                / (METERS_PER_DEGREE_LATITUDE * Math.max(0.01, Math.cos(Math.toRadians(latitude))));
+
+        return databaseClient.sql(SELECT_SQL + """
+                        WHERE session_id = :sessionId
+                          AND latitude BETWEEN :minLat AND :maxLat
+                          AND longitude BETWEEN :minLon AND :maxLon
+                          AND 2 * 6371000 * asin(sqrt(
+                                power(sin(radians(latitude - :lat) / 2), 2)
+                                + cos(radians(:lat)) * cos(radians(latitude))
+                                  * power(sin(radians(longitude - :lon) / 2), 2))) <= :radius
+                        ORDER BY recorded_at
+                        """)
+                .bind("sessionId", sessionId)
+                .bind("minLat", latitude - latitudeDelta)
+                .bind("maxLat", latitude + latitudeDelta)
+                .bind("minLon", longitude - longitudeDelta)
+                .bind("maxLon", longitude + longitudeDelta)
+                .bind("lat", latitude)
+                .bind("lon", longitude)
+                .bind("radius", radiusMeters)
+                .map(GpsHistoryStore::mapRow)
+                .all();
+    }
+
+    private static GpsPointRecord mapRow(Readable row) {
+        Float speed = row.get("speed_kmh", Float.class);
+        Float bearing = row.get("bearing_degrees", Float.class);
+        Float accuracy = row.get("accuracy_meters", Float.class);
+
+        return new GpsPointRecord(
+                row.get("vehicle_id", String.class),
+                row.get("session_id", String.class),
+                row.get("recorded_at", LocalDateTime.class).toInstant(ZoneOffset.UTC),
+                row.get("latitude", Double.class),
+                row.get("longitude", Double.class),
+                accuracy != null ? accuracy : 0.0,
+                speed != null ? speed.doubleValue() : null,
+                bearing != null ? bearing.doubleValue() : null
+        );
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    @FunctionalInterface
+    public interface IngestListener {
+
+        void onIngested(Instant earliestRecordedAt, Instant latestRecordedAt);
+    }
+
+    public record GpsPointRecord(
+            String vehicleId,
+            String sessionId,
+            Instant recordedAt,
+            double latitude,
+            double longitude,
+            double accuracyMeters,
+            Double speedKmh,
+            Double bearingDegrees
+    ) {}
+}
@@ -0,0 +1,262 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.gps;
+
+import io.r2dbc.spi.Readable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.infrastructure.persistence.config.VehiclePersistenceConfig;
+import tm.ugur.ugur_v3.infrastructure.persistence.config.VehiclePersistenceConfig.HistoryConfig.ArchiveConfig;
+import tm.ugur.ugur_v3.infrastructure.persistence.gps.GpsHistoryStore.GpsPointRecord;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+public class GpsTrackArchiver {
+
+    private static final Instant HISTORY_START = Instant.EPOCH;
+    private static final Instant HISTORY_END = Instant.parse("9999-01-01T00:00:00Z");
+
+    private static final String ENDED_SESSIONS_SQL = """
+            SELECT p.session_id
+            FROM gps_points p
+            WHERE p.session_id IS NOT NULL AND p.recorded_at >= :since
+            GROUP BY p.session_id
+            HAVING MAX(p.recorded_at) < :idleCutoff
+               AND NOT EXISTS (SELECT 1 FROM gps_session_tracks t WHERE t.session_id = p.session_id)
+            LIMIT :limit
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO gps_session_tracks (session_id, vehicle_id, started_at, ended_at, encoding_version,
+                                            encoded_track, original_points, stored_points, raw_bytes,
+                                            encoded_bytes, tolerance_meters, max_error_meters)
+            VALUES (:sessionId, :vehicleId, :startedAt, :endedAt, :version, :track, :originalPoints,
+                    :storedPoints, :rawBytes, :encodedBytes, :tolerance, :maxError)
+            ON CONFLICT (session_id) DO UPDATE SET
+                vehicle_id = EXCLUDED.vehicle_id,
+                started_at = EXCLUDED.started_at,
+                ended_at = EXCLUDED.ended_at,
+                encoding_version = EXCLUDED.encoding_version,
+                encoded_track = EXCLUDED.encoded_track,
+                original_points = EXCLUDED.original_points,
+                stored_points = EXCLUDED.stored_points,
+                raw_bytes = EXCLUDED.raw_bytes,
+                encoded_bytes = EXCLUDED.encoded_bytes,
+                tolerance_meters = EXCLUDED.tolerance_meters,
+                max_error_meters = EXCLUDED.max_error_meters,
+                archived_at = CURRENT_TIMESTAMP
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final GpsHistoryStore gpsHistoryStore;
+    private final PerformanceMonitor performanceMonitor;
+    private final VehiclePersistenceConfig config;
+
+    private final AtomicBoolean archiving = new AtomicBoolean();
+
+    public GpsTrackArchiver(DatabaseClient databaseClient,
+                            GpsHistoryStore gpsHistoryStore,
+                            PerformanceMonitor performanceMonitor,
+                            VehiclePersistenceConfig config) {
+        this.databaseClient = databaseClient;
+        this.gpsHistoryStore = gpsHistoryStore;
+        this.performanceMonitor = performanceMonitor;
+        this.config = config;
+    }
+
+    // ============= ARCHIVAL =============
+
+    @Scheduled(cron = "${ugur.persistence.vehicle.history.archive.archive-cron:0 20 * * * *}")
+    public void archiveOnSchedule() {
+        if (!archive().isEnabled()) {
+            return;
+        }
+
+        archiveEndedSessions()
+                .doOnNext(count -> log.info("Archived {} ended GPS tracking sessions", count))
+                .doOnError(error -> log.error("GPS track archival failed", error))
+                .onErrorComplete()
+                .subscribe();
+    }
+
+    public Mono<Long> archiveEndedSessions() {
+        if (!archiving.compareAndSet(false, true)) {
+            return Mono.just(0L);
+        }
+
+        Instant now = Instant.now();
+
+        return databaseClient.sql(ENDED_SESSIONS_SQL)
+                .bind("since", toUtc(now.minus(archive().getLookback())))
+                .bind("idleCutoff", toUtc(now.minus(archive().getSessionIdleThreshold())))
+                .bind("limit", archive().getSessionsPerRun())
+                .map((row, metadata) -> row.get("session_id", String.class))
+                .all()
+                .concatMap(sessionId -> archiveSession(sessionId)
+                        .onErrorResume(error -> {
+                            log.warn("Archiving GPS session {} failed: {}", sessionId, error.getMessage());
+                            performanceMonitor.incrementCounter("gps.archive.error");
+                            return Mono.empty();
+                        }))
+                .count()
+                .doFinally(signal -> archiving.set(false));
+    }
+
+    public Mono<ArchivedTrack> archiveSession(String sessionId) {
+        double tolerance = archive().getToleranceMeters();
+
+        Mono<ArchivedTrack> archived = gpsHistoryStore.findBySession(sessionId, HISTORY_START, HISTORY_END)
+                .collectList()
+                .filter(points -> !points.isEmpty())
+                .flatMap(points -> {
+                    List<GpsPointRecord> simplified = TrajectorySimplifier.simplify(points, tolerance);
+                    byte[] encoded = TrajectoryCodec.encode(simplified);
+
+                    String vehicleId = points.stream().map(GpsPointRecord::vehicleId)
+                            .filter(Objects::nonNull).findFirst().orElse(null);
+                    List<GpsPointRecord> decoded =
+                            TrajectoryCodec.decode(encoded, TrajectoryCodec.VERSION, vehicleId, sessionId);
+
+                    ArchivedTrack track = new ArchivedTrack(
+                            sessionId,
+                            vehicleId,
+                            points.getFirst().recordedAt(),
+                            points.getLast().recordedAt(),
+                            points.size(),
+                            simplified.size(),
+                            points.size() * TrajectoryCodec.RAW_POINT_BYTES,
+                            encoded.length,
+                            TrajectorySimplifier.maxSynchronizedError(points, decoded)
+                    );
+                    return save(track, encoded, tolerance).thenReturn(track);
+                });
+
+        return performanceMonitor.timeReactive("gps.archive.session", () -> archived)
+                .doOnNext(this::recordMetrics);
+    }
+
+    private Mono<Long> save(ArchivedTrack track, byte[] encoded, double tolerance) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(UPSERT_SQL)
+                .bind("sessionId", track.sessionId());
+        spec = track.vehicleId() != null ? spec.bind("vehicleId", track.vehicleId()) : spec.bindNull("vehicleId", String.class);
+
+        return spec.bind("startedAt", toUtc(track.startedAt()))
+                .bind("endedAt", toUtc(track.endedAt()))
+                .bind("version", (short) TrajectoryCodec.VERSION)
+                .bind("track", ByteBuffer.wrap(encoded))
+                .bind("originalPoints", track.originalPoints())
+                .bind("storedPoints", track.storedPoints())
+                .bind("rawBytes", track.rawBytes())
+                .bind("encodedBytes", track.encodedBytes())
+                .bind("tolerance", (float) tolerance)
+                .bind("maxError", (float) track.maxErrorMeters())
+                .fetch().rowsUpdated();
+    }
+
+    private void recordMetrics(ArchivedTrack track) {
+        performanceMonitor.incrementCounter("gps.archive.sessions");
+        performanceMonitor.incrementCounter("gps.archive.points.original", track.originalPoints());
+        performanceMonitor.incrementCounter("gps.archive.points.stored", track.storedPoints());
+        performanceMonitor.recordGauge("gps.archive.compression.ratio", track.compressionRatio());
+        performanceMonitor.recordGauge("gps.archive.max.error.meters", track.maxErrorMeters());
+
+        if (track.maxErrorMeters() > archive().getToleranceMeters() + 1.0) {
+            log.warn("GPS session {} archived with {} m error, above the {} m tolerance",
+                    track.sessionId(), track.maxErrorMeters(), archive().getToleranceMeters());
+        }
+    }
+
+    // ============= READS =============
+
+    public Flux<GpsPointRecord> findBySession(String sessionId, Instant from, Instant to) {
+        return databaseClient.sql("""
+                        SELECT vehicle_id, encoding_version, encoded_track
+                        FROM gps_session_tracks
+                        WHERE session_id = :sessionId AND ended_at >= :from AND started_at < :to
+                        """)
+                .bind("sessionId", sessionId)
+                .bind("from", toUtc(from))
+                .bind("to", toUtc(to))
+                .map(row -> decodeRow(row, sessionId))
+                .one()
+                .doOnNext(points -> performanceMonitor.incrementCounter("gps.archive.reads"))
+                .flatMapIterable(points -> points)
+                .filter(point -> !point.recordedAt().isBefore(from) && point.recordedAt().isBefore(to));
+    }
+
+    public Mono<ArchiveStats> stats() {
+        return databaseClient.sql("""
+                        SELECT COUNT(*) AS sessions,
+                               COALESCE(SUM(original_points), 0) AS original_points,
+                               COALESCE(SUM(stored_points), 0) AS stored_points,
+                               COALESCE(SUM(raw_bytes), 0) AS raw_bytes,
+                               COALESCE(SUM(encoded_bytes), 0) AS encoded_bytes,
+                               COALESCE(MAX(max_error_meters), 0) AS max_error_meters
+                        FROM gps_session_tracks
+                        """)
+                .map(row -> new ArchiveStats(
+                        row.get("sessions", Long.class),
+                        row.get("original_points", Number.class).longValue(),
+                        row.get("stored_points", Number.class).longValue(),
+                        row.get("raw_bytes", Number.class).longValue(),
+                        row.get("encoded_bytes", Number.class).longValue(),
+                        row.get("max_error_meters", Number.class).doubleValue()
+                ))
+                .one();
+    }
+
+    private static List<GpsPointRecord> decodeRow(Readable row, String sessionId) {
+        ByteBuffer buffer = row.get("encoded_track", ByteBuffer.class);
+        byte[] encoded = new byte[buffer.remaining()];
+        buffer.get(encoded);
+
+        return TrajectoryCodec.decode(encoded, row.get("encoding_version", Short.class),
+                row.get("vehicle_id", String.class), sessionId);
+    }
+
+    private ArchiveConfig archive() {
+        return config.getHistory().getArchive();
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    public record ArchivedTrack(
+            String sessionId,
+            String vehicleId,
+            Instant startedAt,
+            Instant endedAt,
+            int originalPoints,
+            int storedPoints,
+            int rawBytes,
+            int encodedBytes,
+            double maxErrorMeters
+    ) {
+        public double compressionRatio() {
+            return encodedBytes > 0 ? (double) rawBytes / encodedBytes : 0.0;
+        }
+    }
+
+    public record ArchiveStats(
+            long sessions,
+            long originalPoints,
+            long storedPoints,
+            long rawBytes,
+            long encodedBytes,
+            double maxErrorMeters
+    ) {
+        public double compressionRatio() {
+            return encodedBytes > 0 ? (double) rawBytes / encodedBytes : 0.0;
+        }
+    }
+}
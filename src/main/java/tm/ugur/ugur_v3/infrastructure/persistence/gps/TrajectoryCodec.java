@@ -0,0 +1,152 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.gps;
+
+import tm.ugur.ugur_v3.infrastructure.persistence.gps.GpsHistoryStore.GpsPointRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class TrajectoryCodec {
+
+    public static final int VERSION = 1;
+
+    // vehicle_id and session_id are stored once per track, so only the measured values count.
+    public static final int RAW_POINT_BYTES = 8 + 8 + 8 + 4 + 4 + 4;
+
+    private static final double COORDINATE_SCALE = 1e6;   // ~0.11 m at the equator
+    private static final double ACCURACY_SCALE = 10.0;    // 0.1 m
+    private static final double SPEED_SCALE = 10.0;       // 0.1 km/h
+    private static final double BEARING_SCALE = 10.0;     // 0.1 degree
+
+    private static final int HAS_SPEED = 1;
+    private static final int HAS_BEARING = 2;
+
+    private TrajectoryCodec() {
+    }
+
+    public static byte[] encode(List<GpsPointRecord> points) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(points.size() * 8 + 8);
+        writeUnsigned(out, points.size());
+
+        long previousTime = 0;
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        long previousAccuracy = 0;
+        long previousSpeed = 0;
+        long previousBearing = 0;
+
+        for (GpsPointRecord point : points) {
+            int flags = (point.speedKmh() != null ? HAS_SPEED : 0) | (point.bearingDegrees() != null ? HAS_BEARING : 0);
+            out.write(flags);
+
+            long time = point.recordedAt().toEpochMilli();
+            long latitude = Math.round(point.latitude() * COORDINATE_SCALE);
+            long longitude = Math.round(point.longitude() * COORDINATE_SCALE);
+            long accuracy = Math.round(point.accuracyMeters() * ACCURACY_SCALE);
+
+            writeSigned(out, time - previousTime);
+            writeSigned(out, latitude - previousLatitude);
+            writeSigned(out, longitude - previousLongitude);
+            writeSigned(out, accuracy - previousAccuracy);
+            previousTime = time;
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+            previousAccuracy = accuracy;
+
+            if (point.speedKmh() != null) {
+                long speed = Math.round(point.speedKmh() * SPEED_SCALE);
+                writeSigned(out, speed - previousSpeed);
+                previousSpeed = speed;
+            }
+            if (point.bearingDegrees() != null) {
+                long bearing = Math.round(point.bearingDegrees() * BEARING_SCALE);
+                writeSigned(out, bearing - previousBearing);
+                previousBearing = bearing;
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    public static List<GpsPointRecord> decode(byte[] encoded, int version, String vehicleId, String sessionId) {
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported GPS track encoding version " + version);
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(encoded);
+        int count = (int) readUnsigned(in);
+        List<GpsPointRecord> points = new ArrayList<>(count);
+
+        long time = 0;
+        long latitude = 0;
+        long longitude = 0;
+        long accuracy = 0;
+        long speed = 0;
+        long bearing = 0;
+
+        for (int i = 0; i < count; i++) {
+            int flags = in.get() & 0xFF;
+            time += readSigned(in);
+            latitude += readSigned(in);
+            longitude += readSigned(in);
+            accuracy += readSigned(in);
+
+            Double speedKmh = null;
+            if ((flags & HAS_SPEED) != 0) {
+                speed += readSigned(in);
+                speedKmh = speed / SPEED_SCALE;
+            }
+            Double bearingDegrees = null;
+            if ((flags & HAS_BEARING) != 0) {
+                bearing += readSigned(in);
+                bearingDegrees = bearing / BEARING_SCALE;
+            }
+
+            points.add(new GpsPointRecord(
+                    vehicleId,
+                    sessionId,
+                    Instant.ofEpochMilli(time),
+                    latitude / COORDINATE_SCALE,
+                    longitude / COORDINATE_SCALE,
+                    accuracy / ACCURACY_SCALE,
+                    speedKmh,
+                    bearingDegrees
+            ));
+        }
+
+        return points;
+    }
+
+    // ============= VARINT =============
+
+    private static void writeSigned(ByteArrayOutputStream out, long value) {
+        writeUnsigned(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void writeUnsigned(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readSigned(ByteBuffer in) {
+        long value = readUnsigned(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readUnsigned(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in GPS track");
+    }
+}
@@ -0,0 +1,103 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.gps;
+
+import tm.ugur.ugur_v3.infrastructure.persistence.gps.GpsHistoryStore.GpsPointRecord;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Time-aware Douglas-Peucker: a point is dropped only when its position at its own timestamp can be
+// interpolated from the kept neighbours within the tolerance, so stops survive even on a straight road.
+public final class TrajectorySimplifier {
+
+    private static final double METERS_PER_DEGREE_LATITUDE = 111_320.0;
+
+    private TrajectorySimplifier() {
+    }
+
+    public static List<GpsPointRecord> simplify(List<GpsPointRecord> points, double toleranceMeters) {
+        int n = points.size();
+        if (n <= 2) {
+            return List.copyOf(points);
+        }
+
+        boolean[] keep = new boolean[n];
+        keep[0] = true;
+        keep[n - 1] = true;
+
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[]{0, n - 1});
+
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int first = range[0];
+            int last = range[1];
+
+            int farthest = -1;
+            double farthestDistance = toleranceMeters;
+            for (int i = first + 1; i < last; i++) {
+                double distance = synchronizedDistance(points.get(first), points.get(last), points.get(i));
+                if (distance > farthestDistance) {
+                    farthest = i;
+                    farthestDistance = distance;
+                }
+            }
+
+            if (farthest >= 0) {
+                keep[farthest] = true;
+                ranges.push(new int[]{first, farthest});
+                ranges.push(new int[]{farthest, last});
+            }
+        }
+
+        List<GpsPointRecord> simplified = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) {
+                simplified.add(points.get(i));
+            }
+        }
+        return simplified;
+    }
+
+    // Measured against the decoded track, so it covers both simplification and fixed-point rounding.
+    public static double maxSynchronizedError(List<GpsPointRecord> original, List<GpsPointRecord> stored) {
+        if (stored.isEmpty()) {
+            return original.isEmpty() ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+
+        double maxError = 0.0;
+        int segment = 0;
+        for (GpsPointRecord point : original) {
+            while (segment < stored.size() - 2
+                    && stored.get(segment + 1).recordedAt().isBefore(point.recordedAt())) {
+                segment++;
+            }
+
+            double error = stored.size() == 1
+                    ? distanceMeters(stored.getFirst(), point.latitude(), point.longitude())
+                    : synchronizedDistance(stored.get(segment), stored.get(segment + 1), point);
+            maxError = Math.max(maxError, error);
+        }
+        return maxError;
+    }
+
+    private static double synchronizedDistance(GpsPointRecord start, GpsPointRecord end, GpsPointRecord point) {
+        long span = end.recordedAt().toEpochMilli() - start.recordedAt().toEpochMilli();
+        double ratio = span <= 0 ? 0.0
+                : (double) (point.recordedAt().toEpochMilli() - start.recordedAt().toEpochMilli()) / span;
+        ratio = Math.max(0.0, Math.min(1.0, ratio));
+
+        double latitude = start.latitude() + (end.latitude() - start.latitude()) * ratio;
+        double longitude = start.longitude() + (end.longitude() - start.longitude()) * ratio;
+        return distanceMeters(point, latitude, longitude);
+    }
+
+    // Equirectangular approximation, accurate to well under a metre over a single session's extent.
+    private static double distanceMeters(GpsPointRecord point, double latitude, double longitude) {
+        double dy = (point.latitude() - latitude) * METERS_PER_DEGREE_LATITUDE;
+        double dx = (point.longitude() - longitude) * METERS_PER_DEGREE_LATITUDE
+                * Math.cos(Math.toRadians((point.latitude() + latitude) / 2));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
@@ -0,0 +1,106 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.pagination;
+
+import io.r2dbc.spi.Readable;
+import tm.ugur.ugur_v3.application.shared.pagination.KeysetCursor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public final class KeysetQuery {
+
+    private static final String PARAM_PREFIX = "k";
+
+    private final List<KeyColumn> columns;
+    private final String signature;
+
+    private KeysetQuery(List<KeyColumn> columns) {
+        this.columns = List.copyOf(columns);
+        this.signature = columns.stream()
+                .map(column -> column.column() + (column.descending() ? ":D" : ":A"))
+                .collect(Collectors.joining(","));
+    }
+
+    public static KeysetQuery of(List<KeyColumn> columns) {
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("Keyset pagination requires at least one key column");
+        }
+        return new KeysetQuery(columns);
+    }
+
+    public String orderBy() {
+        return "ORDER BY " + columns.stream()
+                .map(column -> column.column() + (column.descending() ? " DESC" : " ASC"))
+                .collect(Collectors.joining(", "));
+    }
+
+    public SeekPredicate seek(Optional<String> cursor) {
+        if (cursor.isEmpty()) {
+            return new SeekPredicate("TRUE", Map.of());
+        }
+
+        List<Object> values = KeysetCursor.decode(cursor.get(), signature).getValues();
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException("Pagination cursor does not match requested sort order");
+        }
+
+        Map<String, Object> params = new LinkedHashMap<>();
+        List<String> names = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            String name = PARAM_PREFIX + i;
+            params.put(name, values.get(i));
+            names.add(":" + name);
+        }
+
+        return new SeekPredicate(isUniformDirection() ? rowComparison(names) : expandedComparison(names), params);
+    }
+
+    public List<Object> readKeys(Readable row) {
+        List<Object> keys = new ArrayList<>(columns.size());
+        for (KeyColumn column : columns) {
+            keys.add(row.get(column.column()));
+        }
+        return keys;
+    }
+
+    public String encodeCursor(List<Object> keys) {
+        return KeysetCursor.of(signature, keys).encode();
+    }
+
+    private boolean isUniformDirection() {
+        boolean descending = columns.getFirst().descending();
+        return columns.stream().allMatch(column -> column.descending() == descending);
+    }
+
+    // A single row-value comparison lets PostgreSQL seek straight into a matching composite index.
+    private String rowComparison(List<String> names) {
+        String operator = columns.getFirst().descending() ? " < " : " > ";
+        String keyColumns = columns.stream().map(KeyColumn::column).collect(Collectors.joining(", "));
+        return "(" + keyColumns + ")" + operator + "(" + String.join(", ", names) + ")";
+    }
+
+    private String expandedComparison(List<String> names) {
+        List<String> branches = new ArrayList<>(columns.size());
+
+        for (int i = 0; i < columns.size(); i++) {
+            List<String> terms = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                terms.add(columns.get(j).column() + " = " + names.get(j));
+            }
+            KeyColumn column = columns.get(i);
+            terms.add(column.column() + (column.descending() ? " < " : " > ") + names.get(i));
+            branches.add("(" + String.join(" AND ", terms) + ")");
+        }
+
+        return "(" + String.join(" OR ", branches) + ")";
+    }
+
+    public record KeyColumn(String column, boolean descending) {
+    }
+
+    public record SeekPredicate(String sql, Map<String, Object> params) {
+    }
+}
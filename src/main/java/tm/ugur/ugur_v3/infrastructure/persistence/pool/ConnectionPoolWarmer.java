@@ -0,0 +1,126 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.pool;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Statement;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.infrastructure.persistence.config.DatabaseConfig.PoolProperties;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Runs once all singletons exist and before the web server starts taking requests
+@Slf4j
+public class ConnectionPoolWarmer implements SmartInitializingSingleton {
+
+    private final ConnectionPool pool;
+    private final MicrometerPoolMetricsRecorder metricsRecorder;
+    private final List<WarmupStatement> statements;
+    private final PoolProperties props;
+    private final PerformanceMonitor performanceMonitor;
+
+    private final AtomicReference<Instant> firstQueryAt = new AtomicReference<>();
+
+    public ConnectionPoolWarmer(ConnectionPool pool,
+                                MicrometerPoolMetricsRecorder metricsRecorder,
+                                List<WarmupStatement> statements,
+                                PoolProperties props,
+                                PerformanceMonitor performanceMonitor) {
+        this.pool = pool;
+        this.metricsRecorder = metricsRecorder;
+        this.statements = List.copyOf(statements);
+        this.props = props;
+        this.performanceMonitor = performanceMonitor;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!props.isWarmupEnabled()) {
+            log.info("Connection pool warm-up disabled");
+            return;
+        }
+
+        Instant start = Instant.now();
+        try {
+            WarmupReport report = warmUp().block(props.getWarmupTimeout());
+            if (report != null) {
+                logReport(report, Duration.between(start, Instant.now()));
+            }
+        } catch (RuntimeException e) {
+            // Warm-up only shifts cost away from the first requests, startup continues without it
+            log.warn("Connection pool warm-up did not complete within {}: {}", props.getWarmupTimeout(), e.getMessage());
+            performanceMonitor.incrementCounter("database.pool.warmup.failed");
+        }
+    }
+
+    public Mono<WarmupReport> warmUp() {
+        int connections = Math.min(props.getWarmupConnections(), props.getMaxSize());
+        ConnectionFactory timedPool = metricsRecorder.timeAcquire(pool);
+        AtomicInteger prepared = new AtomicInteger();
+
+        // Connections are held together so every statement is prepared on distinct connections
+        return pool.warmup()
+                .then(Flux.range(0, connections)
+                        .flatMap(i -> timedPool.create(), connections)
+                        .collectList())
+                .flatMap(held -> Flux.fromIterable(held)
+                        .flatMap(connection -> prepare(connection).doOnNext(prepared::addAndGet))
+                        .then(Mono.fromSupplier(() -> new WarmupReport(held.size(), prepared.get())))
+                        .doFinally(signal -> Flux.fromIterable(held)
+                                .flatMap(Connection::close)
+                                .subscribe()));
+    }
+
+    private Mono<Integer> prepare(Connection connection) {
+        return Flux.fromIterable(statements)
+                .concatMap(statement -> {
+                    Statement bound = connection.createStatement(statement.sql());
+                    for (int i = 0; i < statement.binds().size(); i++) {
+                        bound.bind(i, statement.binds().get(i));
+                    }
+                    return Flux.from(bound.execute())
+                            .flatMap(result -> result.map((row, metadata) -> 1))
+                            .then(Mono.fromRunnable(() -> firstQueryAt.compareAndSet(null, Instant.now())))
+                            .thenReturn(1)
+                            .onErrorResume(error -> {
+                                log.warn("Warm-up statement failed, skipping: {}", error.getMessage());
+                                return Mono.just(0);
+                            });
+                })
+                .reduce(0, Integer::sum);
+    }
+
+    private void logReport(WarmupReport report, Duration warmupTime) {
+        Instant jvmStart = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+        Duration toFirstConnection = metricsRecorder.getFirstAcquiredAt()
+                .map(at -> Duration.between(jvmStart, at))
+                .orElse(null);
+        Duration toFirstQuery = firstQueryAt.get() != null ? Duration.between(jvmStart, firstQueryAt.get()) : null;
+
+        performanceMonitor.recordTime("database.pool.warmup", warmupTime);
+        if (toFirstQuery != null) {
+            performanceMonitor.recordGauge("database.startup.first.query.millis", toFirstQuery.toMillis());
+        }
+
+        log.info("Connection pool '{}' warmed in {}ms: {} connections, {} statements prepared "
+                        + "(cache size {}), first connection {}ms and first query {}ms after JVM start",
+                metricsRecorder.getPoolName(), warmupTime.toMillis(), report.connections(), report.preparedStatements(),
+                props.getPreparedStatementCacheSize(),
+                toFirstConnection != null ? toFirstConnection.toMillis() : -1,
+                toFirstQuery != null ? toFirstQuery.toMillis() : -1);
+    }
+
+    // SQL must match the text DatabaseClient sends, named parameters expanded to $n, to hit the statement cache
+    public record WarmupStatement(String sql, List<Object> binds) {}
+
+    public record WarmupReport(int connections, int preparedStatements) {}
+}
@@ -0,0 +1,181 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.pool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import reactor.core.publisher.Mono;
+import reactor.pool.PoolMetricsRecorder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+
+public class MicrometerPoolMetricsRecorder implements PoolMetricsRecorder {
+
+    private static final String PREFIX = "r2dbc.pool.";
+
+    private final String poolName;
+    private final MeterRegistry registry;
+
+    private final Timer acquireSuccess;
+    private final Timer acquireFailure;
+    private final Timer createSuccess;
+    private final Timer createFailure;
+    private final Timer reset;
+    private final Timer destroy;
+    private final Timer lifetime;
+    private final Timer idle;
+    private final Counter recycled;
+    private final Counter fastPath;
+    private final Counter slowPath;
+
+    private final AtomicReference<Instant> firstAcquiredAt = new AtomicReference<>();
+
+    public MicrometerPoolMetricsRecorder(String poolName, MeterRegistry registry, Duration maxAcquireTime) {
+        this.poolName = poolName;
+        this.registry = registry;
+
+        this.acquireSuccess = histogram("acquire", "success", maxAcquireTime);
+        this.acquireFailure = histogram("acquire", "failure", maxAcquireTime);
+        this.createSuccess = histogram("connection.create", "success", maxAcquireTime);
+        this.createFailure = histogram("connection.create", "failure", maxAcquireTime);
+        this.reset = timer("connection.reset");
+        this.destroy = timer("connection.destroy");
+        this.lifetime = timer("connection.lifetime");
+        this.idle = timer("connection.idle");
+        this.recycled = Counter.builder(PREFIX + "recycled").tag("pool", poolName).register(registry);
+        this.fastPath = Counter.builder(PREFIX + "acquire.path").tag("pool", poolName).tag("path", "fast").register(registry);
+        this.slowPath = Counter.builder(PREFIX + "acquire.path").tag("pool", poolName).tag("path", "slow").register(registry);
+    }
+
+    private Timer histogram(String name, String outcome, Duration maxAcquireTime) {
+        return Timer.builder(PREFIX + name)
+                .tag("pool", poolName)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(maxAcquireTime)
+                .register(registry);
+    }
+
+    private Timer timer(String name) {
+        return Timer.builder(PREFIX + name).tag("pool", poolName).register(registry);
+    }
+
+    // Gauges read the live pool counters on scrape, so they are bound once the pool exists
+    public void bindTo(ConnectionPool pool) {
+        gauge("acquired", pool, PoolMetrics::acquiredSize);
+        gauge("allocated", pool, PoolMetrics::allocatedSize);
+        gauge("idle", pool, PoolMetrics::idleSize);
+        gauge("pending", pool, PoolMetrics::pendingAcquireSize);
+        gauge("max.allocated", pool, PoolMetrics::getMaxAllocatedSize);
+        gauge("max.pending", pool, PoolMetrics::getMaxPendingAcquireSize);
+    }
+
+    private void gauge(String name, ConnectionPool pool, ToIntFunction<PoolMetrics> value) {
+        Gauge.builder(PREFIX + name, pool, p -> p.getMetrics().map(value::applyAsInt).orElse(0))
+                .tag("pool", poolName)
+                .register(registry);
+    }
+
+    // Pool allocation latency covers connection setup only, acquire wait is timed around pool.create()
+    public ConnectionFactory timeAcquire(ConnectionPool pool) {
+        return new AcquireTimingConnectionFactory(pool);
+    }
+
+    public Optional<Instant> getFirstAcquiredAt() {
+        return Optional.ofNullable(firstAcquiredAt.get());
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    // ============= RECORDER =============
+
+    @Override
+    public void recordAllocationSuccessAndLatency(long latencyMs) {
+        createSuccess.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordAllocationFailureAndLatency(long latencyMs) {
+        createFailure.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordResetLatency(long latencyMs) {
+        reset.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordDestroyLatency(long latencyMs) {
+        destroy.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordRecycled() {
+        recycled.increment();
+    }
+
+    @Override
+    public void recordLifetimeDuration(long millisecondsSinceAllocation) {
+        lifetime.record(millisecondsSinceAllocation, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordIdleTime(long millisecondsIdle) {
+        idle.record(millisecondsIdle, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordSlowPath() {
+        slowPath.increment();
+    }
+
+    @Override
+    public void recordFastPath() {
+        fastPath.increment();
+    }
+
+    private class AcquireTimingConnectionFactory implements ConnectionFactory, Wrapped<ConnectionPool> {
+
+        private final ConnectionPool pool;
+
+        private AcquireTimingConnectionFactory(ConnectionPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public Mono<? extends Connection> create() {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return pool.create()
+                        .doOnSuccess(connection -> {
+                            firstAcquiredAt.compareAndSet(null, Instant.now());
+                            acquireSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        })
+                        .doOnError(error -> acquireFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+            });
+        }
+
+        @Override
+        public ConnectionFactoryMetadata getMetadata() {
+            return pool.getMetadata();
+        }
+
+        @Override
+        public ConnectionPool unwrap() {
+            return pool;
+        }
+    }
+}
@@ -1,43 +1,158 @@
 package tm.ugur.ugur_v3.infrastructure.persistence.repositories.jpa;
 
+import io.r2dbc.spi.Readable;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
-import org.springframework.stereotype.Repository;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.shared.pagination.PageMetrics;
+import tm.ugur.ugur_v3.application.shared.pagination.PageRequest;
+import tm.ugur.ugur_v3.application.shared.pagination.PageResult;
+import tm.ugur.ugur_v3.application.shared.pagination.SortOrder;
+import tm.ugur.ugur_v3.application.shared.routing.QueryRouting;
+import tm.ugur.ugur_v3.application.vehicleManagement.queries.VehicleSearchRepository;
+import tm.ugur.ugur_v3.domain.shared.exceptions.ConcurrencyException;
+import tm.ugur.ugur_v3.domain.shared.exceptions.BusinessRuleViolationException;
+import tm.ugur.ugur_v3.domain.shared.specifications.Specification;
 import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
 import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
 import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
 import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
 import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleType;
 import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleRepository;
+import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleRepository.VersionedSaveResult;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Bearing;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Capacity;
 import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.LicensePlate;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Speed;
 import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.VehicleId;
-
+import tm.ugur.ugur_v3.infrastructure.persistence.batch.VersionedVehicleWriter;
+import tm.ugur.ugur_v3.infrastructure.persistence.eventstore.R2dbcEventStore;
+import tm.ugur.ugur_v3.infrastructure.persistence.pagination.KeysetQuery;
+import tm.ugur.ugur_v3.infrastructure.persistence.pool.ConnectionPoolWarmer.WarmupStatement;
+import tm.ugur.ugur_v3.infrastructure.persistence.rollup.TrackingRollupStore;
+import tm.ugur.ugur_v3.infrastructure.persistence.specification.VehicleSpecificationTranslator;
+import tm.ugur.ugur_v3.infrastructure.persistence.specification.VehicleSpecificationTranslator.SqlPredicate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
-
-@Repository
-public class R2dbcVehicleRepository implements VehicleRepository {
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+public class R2dbcVehicleRepository implements VehicleRepository, VehicleSearchRepository {
+
+    private static final String SELECT_SQL = """
+            SELECT id, license_plate, vehicle_type, model, status, assigned_route_id,
+                   seated_capacity, standing_capacity, total_capacity,
+                   latitude, longitude, location_accuracy, previous_latitude, previous_longitude,
+                   speed_kmh, bearing_degrees, last_location_update,
+                   odometer, last_maintenance_date, next_maintenance_date,
+                   created_at, updated_at, version
+            FROM vehicles
+            """;
+
+    private static final Map<String, String> SORT_COLUMNS = Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("vehicle.id", "id"),
+            Map.entry("vehicle.licensePlate", "license_plate"),
+            Map.entry("vehicle.type", "vehicle_type"),
+            Map.entry("vehicle.capacity", "total_capacity"),
+            Map.entry("vehicle.location.latitude", "latitude"),
+            Map.entry("vehicle.location.longitude", "longitude"),
+            Map.entry("vehicle.lastUpdateTime", "last_location_update"),
+            Map.entry("createdAt", "created_at"),
+            Map.entry("updatedAt", "updated_at"),
+            Map.entry("status", "status")
+    );
+
+    // Only NOT NULL columns can be keyset keys; a NULL key would make the seek predicate skip rows.
+    private static final Map<String, String> KEYSET_COLUMNS = Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("vehicle.id", "id"),
+            Map.entry("vehicle.licensePlate", "license_plate"),
+            Map.entry("vehicle.type", "vehicle_type"),
+            Map.entry("vehicle.capacity", "total_capacity"),
+            Map.entry("createdAt", "created_at"),
+            Map.entry("updatedAt", "updated_at"),
+            Map.entry("status", "status")
+    );
 
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
-
-
-    public R2dbcVehicleRepository(R2dbcEntityTemplate r2dbcEntityTemplate) {
+    private final DatabaseClient databaseClient;
+    private final PerformanceMonitor performanceMonitor;
+    private final TrackingRollupStore rollupStore;
+    private final VersionedVehicleWriter versionedWriter;
+    private final int saveBatchSize;
+    private final R2dbcEventStore eventStore;
+    private final TransactionalOperator transactionalOperator;
+    private final VehicleSpecificationTranslator specificationTranslator = new VehicleSpecificationTranslator();
+
+    public R2dbcVehicleRepository(R2dbcEntityTemplate r2dbcEntityTemplate, PerformanceMonitor performanceMonitor,
+                                  TrackingRollupStore rollupStore, int saveBatchSize,
+                                  R2dbcEventStore eventStore, TransactionalOperator transactionalOperator) {
         this.r2dbcEntityTemplate = r2dbcEntityTemplate;
+        this.databaseClient = r2dbcEntityTemplate.getDatabaseClient();
+        this.performanceMonitor = performanceMonitor;
+        this.rollupStore = rollupStore;
+        this.versionedWriter = new VersionedVehicleWriter(databaseClient, performanceMonitor);
+        this.saveBatchSize = saveBatchSize;
+        this.eventStore = eventStore;
+        this.transactionalOperator = transactionalOperator;
     }
 
     @Override
     public Mono<Vehicle> save(Vehicle vehicle) {
-        return null;
+        return saveVersioned(List.of(vehicle))
+                .flatMap(result -> result.hasConflicts()
+                        ? conflict(vehicle)
+                        : Mono.just(vehicle));
+    }
+
+    // The conflict reports the version now stored, or null when the row no longer exists
+    private Mono<Vehicle> conflict(Vehicle vehicle) {
+        return databaseClient.sql("SELECT version FROM vehicles WHERE id = :id")
+                .bind("id", vehicle.getId().getValue())
+                .map(row -> Optional.ofNullable(row.get("version", Long.class)))
+                .one()
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(actual -> Mono.error(new ConcurrencyException(
+                        vehicle.getId().getValue(), vehicle.getPersistedVersion(), actual.orElse(null))));
+    }
+
+    // Hot lookups above as DatabaseClient expands them, prepared on pooled connections at startup
+    public static List<WarmupStatement> warmupStatements() {
+        return List.of(
+                new WarmupStatement(SELECT_SQL + "WHERE id = $1", List.of("")),
+                new WarmupStatement("SELECT EXISTS (SELECT 1 FROM vehicles WHERE id = $1) AS present", List.of("")),
+                new WarmupStatement(SELECT_SQL + "WHERE license_plate = $1", List.of(""))
+        );
     }
 
     @Override
     public Mono<Vehicle> findById(VehicleId vehicleId) {
-        return null;
+        return databaseClient.sql(SELECT_SQL + "WHERE id = :id")
+                .bind("id", vehicleId.getValue())
+                .map(R2dbcVehicleRepository::mapRow)
+                .one();
     }
 
     @Override
     public Mono<Boolean> existsById(VehicleId vehicleId) {
-        return null;
+        return databaseClient.sql("SELECT EXISTS (SELECT 1 FROM vehicles WHERE id = :id) AS present")
+                .bind("id", vehicleId.getValue())
+                .map(row -> row.get("present", Boolean.class))
+                .one();
     }
 
     @Override
@@ -62,12 +177,17 @@ public class R2dbcVehicleRepository implements VehicleRepository {
 
     @Override
     public Flux<Vehicle> findAll() {
-        return null;
+        return databaseClient.sql(SELECT_SQL + "ORDER BY id")
+                .map(R2dbcVehicleRepository::mapRow)
+                .all();
     }
 
     @Override
     public Mono<Vehicle> findByLicensePlate(LicensePlate licensePlate) {
-        return null;
+        return databaseClient.sql(SELECT_SQL + "WHERE license_plate = :licensePlate")
+                .bind("licensePlate", licensePlate.getValue())
+                .map(R2dbcVehicleRepository::mapRow)
+                .one();
     }
 
     @Override
@@ -157,22 +277,139 @@ public class R2dbcVehicleRepository implements VehicleRepository {
 
     @Override
     public Flux<Vehicle> saveAll(Flux<Vehicle> vehicles) {
-        return null;
+        // Conflicting vehicles are left out of the result; callers that need them use saveVersioned.
+        return vehicles.buffer(saveBatchSize)
+                .concatMap(this::saveVersioned)
+                .flatMapIterable(result -> Stream.concat(result.saved().stream(), result.unchanged().stream()).toList());
+    }
+
+    @Override
+    public Mono<VersionedSaveResult> saveVersioned(List<Vehicle> vehicles) {
+        if (vehicles.isEmpty()) {
+            return Mono.just(new VersionedSaveResult(List.of(), List.of(), List.of()));
+        }
+        // Marked persisted only after the commit: a rolled back event append leaves the vehicles on the
+        // version the row still holds, so the retry is not taken for a conflict
+        return versionedWriter.save(vehicles, saveBatchSize)
+                .flatMap(result -> appendDomainEvents(result.saved()).thenReturn(result))
+                .as(transactionalOperator::transactional)
+                .doOnNext(result -> result.saved().forEach(Vehicle::markPersisted));
+    }
+
+    // Rows and their events commit together. The row version already guards concurrent saves,
+    // so the stream append does not repeat the expected version check.
+    private Mono<Void> appendDomainEvents(List<Vehicle> saved) {
+        return Flux.fromIterable(saved)
+                .filter(Vehicle::hasUncommittedEvents)
+                .concatMap(vehicle -> eventStore.appendEvents(vehicle.getId().getValue(),
+                        List.copyOf(vehicle.getDomainEvents()), null, () -> VehicleSnapshot.of(vehicle)))
+                .then();
     }
 
+    // The update records carry no expected version; bumping the row version still makes any
+    // concurrent versioned save of the same vehicle fail instead of overwriting these values.
     @Override
     public Mono<Long> updateLocations(Flux<VehicleLocationUpdate> locationUpdates) {
-        return null;
+        return locationUpdates.buffer(saveBatchSize)
+                .concatMap(chunk -> {
+                    StringBuilder sql = new StringBuilder("""
+                            UPDATE vehicles v SET
+                                previous_latitude = v.latitude,
+                                previous_longitude = v.longitude,
+                                latitude = u.latitude,
+                                longitude = u.longitude,
+                                location_accuracy = u.accuracy,
+                                speed_kmh = u.speed_kmh,
+                                bearing_degrees = u.bearing_degrees,
+                                last_location_update = u.recorded_at,
+                                updated_at = CURRENT_TIMESTAMP,
+                                version = v.version + 1
+                            FROM (VALUES\s""");
+                    for (int i = 0; i < chunk.size(); i++) {
+                        int p = i * 7;
+                        sql.append(i == 0 ? "" : ", ").append(String.format(
+                                "($%d::varchar, $%d::double precision, $%d::double precision, $%d::double precision, "
+                                        + "$%d::double precision, $%d::double precision, $%d::timestamp)",
+                                p + 1, p + 2, p + 3, p + 4, p + 5, p + 6, p + 7));
+                    }
+                    sql.append(") AS u(id, latitude, longitude, accuracy, speed_kmh, bearing_degrees, recorded_at) ")
+                            .append("WHERE v.id = u.id ")
+                            .append("AND (v.last_location_update IS NULL OR v.last_location_update < u.recorded_at)");
+
+                    DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        VehicleLocationUpdate update = chunk.get(i);
+                        int p = i * 7;
+                        spec = spec.bind(p, update.vehicleId().getValue())
+                                .bind(p + 1, update.location().getLatitude())
+                                .bind(p + 2, update.location().getLongitude())
+                                .bind(p + 3, update.location().getAccuracy());
+                        spec = update.speedKmh() != null
+                                ? spec.bind(p + 4, update.speedKmh()) : spec.bindNull(p + 4, Double.class);
+                        spec = update.bearingDegrees() != null
+                                ? spec.bind(p + 5, update.bearingDegrees()) : spec.bindNull(p + 5, Double.class);
+                        spec = spec.bind(p + 6, LocalDateTime.ofInstant(update.timestamp().toInstant(), ZoneOffset.UTC));
+                    }
+                    return spec.fetch().rowsUpdated();
+                })
+                .reduce(0L, Long::sum)
+                .doOnNext(updated -> performanceMonitor.incrementCounter("vehicle.repository.location.rows", updated));
     }
 
     @Override
     public Mono<Long> updateStatuses(Flux<VehicleStatusUpdate> statusUpdates) {
-        return null;
+        return statusUpdates.buffer(saveBatchSize)
+                .concatMap(chunk -> {
+                    StringBuilder sql = new StringBuilder("UPDATE vehicles v SET status = u.status, "
+                            + "updated_at = CURRENT_TIMESTAMP, version = v.version + 1 FROM (VALUES ");
+                    for (int i = 0; i < chunk.size(); i++) {
+                        sql.append(i == 0 ? "" : ", ")
+                                .append(String.format("($%d::varchar, $%d::varchar)", i * 2 + 1, i * 2 + 2));
+                    }
+                    sql.append(") AS u(id, status) WHERE v.id = u.id AND v.status <> u.status");
+
+                    DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        spec = spec.bind(i * 2, chunk.get(i).vehicleId().getValue())
+                                .bind(i * 2 + 1, chunk.get(i).newStatus().name());
+                    }
+                    return spec.fetch().rowsUpdated();
+                })
+                .reduce(0L, Long::sum)
+                .doOnNext(updated -> performanceMonitor.incrementCounter("vehicle.repository.status.rows", updated));
     }
 
     @Override
     public Mono<VehicleUtilizationStats> getUtilizationStats(Timestamp startTime, Timestamp endTime) {
-        return null;
+        long rangeMinutes = Math.max(1, Duration.between(startTime.toInstant(), endTime.toInstant()).toMinutes());
+
+        Mono<long[]> fleet = QueryRouting.onReplica(databaseClient.sql("""
+                        SELECT COUNT(*) AS total,
+                               COUNT(*) FILTER (WHERE status = 'IN_ROUTE') AS in_route
+                        FROM vehicles
+                        """)
+                .map(row -> new long[]{row.get("total", Long.class), row.get("in_route", Long.class)})
+                .one()
+                .defaultIfEmpty(new long[]{0, 0}));
+
+        return Mono.zip(fleet, rollupStore.summarize(startTime.toInstant(), endTime.toInstant()))
+                .map(tuple -> {
+                    long total = tuple.getT1()[0];
+                    TrackingRollupStore.RollupSummary summary = tuple.getT2();
+                    double utilization = total > 0
+                            ? Math.min(100.0, summary.activeMinutes() * 100.0 / (total * rangeMinutes))
+                            : 0.0;
+
+                    return new VehicleUtilizationStats(
+                            (int) total,
+                            (int) summary.vehiclesActive(),
+                            (int) tuple.getT1()[1],
+                            utilization,
+                            summary.distanceKm(),
+                            summary.averageSpeedKmh(),
+                            summary.activeMinutes() / 60
+                    );
+                });
     }
 
     @Override
@@ -182,7 +419,268 @@ public class R2dbcVehicleRepository implements VehicleRepository {
 
     @Override
     public Mono<MaintenanceStats> getMaintenanceStats(Timestamp startTime, Timestamp endTime) {
-        return null;
-    }
-    // ... implementation using R2DBC/JPA
-}
\ No newline at end of file
+        // The GPS rollups carry no maintenance data and maintenance events are not recorded anywhere yet
+        return Mono.error(new UnsupportedOperationException(
+                "getMaintenanceStats is not supported: maintenance events are not persisted yet"));
+    }
+
+    // ============= SPECIFICATION SEARCH =============
+
+    @Override
+    public Mono<PageResult<Vehicle>> findBySpecification(Specification<Vehicle> specification,
+                                                         PageRequest pageRequest) {
+        return QueryRouting.forHints(searchBySpecification(specification, pageRequest),
+                pageRequest.getOptimizationHints());
+    }
+
+    @Override
+    public Flux<StatusTypeCount> countByStatusAndType(Optional<VehicleType> vehicleType) {
+        String sql = "SELECT status, vehicle_type, COUNT(*) AS total FROM vehicles "
+                + (vehicleType.isPresent() ? "WHERE vehicle_type = :vehicleType " : "")
+                + "GROUP BY status, vehicle_type";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        if (vehicleType.isPresent()) {
+            spec = spec.bind("vehicleType", vehicleType.get().name());
+        }
+
+        return spec.map(row -> new StatusTypeCount(
+                        VehicleStatus.valueOf(row.get("status", String.class)),
+                        VehicleType.valueOf(row.get("vehicle_type", String.class)),
+                        row.get("total", Long.class)))
+                .all();
+    }
+
+    private Mono<PageResult<Vehicle>> searchBySpecification(Specification<Vehicle> specification,
+                                                            PageRequest pageRequest) {
+        SqlPredicate predicate = specificationTranslator.translate(specification);
+        if (pageRequest.isCursorBased()) {
+            return findPageByKeyset(predicate, pageRequest);
+        }
+
+        String whereClause = "WHERE " + predicate.sql() + " ";
+        String orderByClause = buildOrderBy(pageRequest);
+        Instant startTime = Instant.now();
+
+        if (predicate.isExact()) {
+            performanceMonitor.incrementCounter("vehicle.repository.specification.exact");
+
+            Mono<List<Vehicle>> content = bindAll(databaseClient.sql(SELECT_SQL + whereClause + orderByClause
+                            + " LIMIT :limit OFFSET :offset"), predicate.params())
+                    .bind("limit", pageRequest.getPageSize())
+                    .bind("offset", pageRequest.getOffset())
+                    .map(R2dbcVehicleRepository::mapRow)
+                    .all()
+                    .collectList();
+
+            Mono<Long> total = bindAll(databaseClient.sql("SELECT COUNT(*) AS total FROM vehicles " + whereClause),
+                    predicate.params())
+                    .map(row -> row.get("total", Long.class))
+                    .one()
+                    .defaultIfEmpty(0L);
+
+            return Mono.zip(content, total)
+                    .map(tuple -> PageResult.of(tuple.getT1(), pageRequest, tuple.getT2(),
+                            pageMetrics(startTime, pageRequest.getOffset() + tuple.getT1().size(),
+                                    tuple.getT1().size(), predicate)));
+        }
+
+        performanceMonitor.incrementCounter("vehicle.repository.specification.residual");
+        log.debug("Specification partially pushed down, re-checking in memory: {}",
+                predicate.residual().getDescription());
+
+        Specification<Vehicle> residual = predicate.residual();
+        AtomicLong rowsScanned = new AtomicLong();
+
+        return bindAll(databaseClient.sql(SELECT_SQL + whereClause + orderByClause), predicate.params())
+                .map(R2dbcVehicleRepository::mapRow)
+                .all()
+                .doOnNext(vehicle -> rowsScanned.incrementAndGet())
+                .filter(residual::isSatisfiedBy)
+                .collectList()
+                .map(matches -> {
+                    performanceMonitor.incrementCounter("vehicle.repository.specification.residual.rows",
+                            rowsScanned.get());
+
+                    int from = (int) Math.min(pageRequest.getOffset(), matches.size());
+                    int to = Math.min(from + pageRequest.getPageSize(), matches.size());
+                    List<Vehicle> page = List.copyOf(matches.subList(from, to));
+
+                    return PageResult.of(page, pageRequest, matches.size(),
+                            pageMetrics(startTime, rowsScanned.get(), page.size(), predicate));
+                });
+    }
+
+    private Mono<PageResult<Vehicle>> findPageByKeyset(SqlPredicate predicate, PageRequest pageRequest) {
+        KeysetQuery keyset = buildKeysetQuery(pageRequest);
+        KeysetQuery.SeekPredicate seek = keyset.seek(pageRequest.getCursor());
+        int fetchSize = pageRequest.getPageSize() + 1;
+        Instant startTime = Instant.now();
+        AtomicLong rowsScanned = new AtomicLong();
+
+        String sql = SELECT_SQL + "WHERE " + predicate.sql() + " AND " + seek.sql() + " " + keyset.orderBy();
+        if (predicate.isExact()) {
+            sql += " LIMIT :limit";
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = bindAll(bindAll(databaseClient.sql(sql), predicate.params()),
+                seek.params());
+        if (predicate.isExact()) {
+            spec = spec.bind("limit", fetchSize);
+        }
+
+        Specification<Vehicle> residual = predicate.residual();
+
+        // Without a residual the database stops after pageSize + 1 rows; with one, take() cancels the
+        // cursor as soon as enough rows have passed the in-memory check.
+        return spec.map(row -> new KeyedVehicle(mapRow(row), keyset.readKeys(row)))
+                .all()
+                .doOnNext(row -> rowsScanned.incrementAndGet())
+                .filter(row -> residual == null || residual.isSatisfiedBy(row.vehicle()))
+                .take(fetchSize)
+                .collectList()
+                .map(rows -> {
+                    boolean hasNext = rows.size() > pageRequest.getPageSize();
+                    List<KeyedVehicle> pageRows = hasNext ? rows.subList(0, pageRequest.getPageSize()) : rows;
+                    List<Vehicle> content = pageRows.stream().map(KeyedVehicle::vehicle).toList();
+                    Optional<String> nextCursor = hasNext
+                            ? Optional.of(keyset.encodeCursor(pageRows.getLast().keys()))
+                            : Optional.empty();
+
+                    performanceMonitor.incrementCounter("vehicle.repository.keyset.page");
+                    performanceMonitor.incrementCounter("vehicle.repository.keyset.rows.scanned", rowsScanned.get());
+
+                    return PageResult.ofCursor(content, pageRequest, hasNext, nextCursor,
+                            pageMetrics(startTime, rowsScanned.get(), content.size(), predicate));
+                });
+    }
+
+    private static KeysetQuery buildKeysetQuery(PageRequest pageRequest) {
+        List<KeysetQuery.KeyColumn> columns = new ArrayList<>();
+
+        for (SortOrder order : pageRequest.getSortOrders()) {
+            String column = KEYSET_COLUMNS.get(order.getFieldName());
+            if (column == null) {
+                throw new IllegalArgumentException(
+                        "Sort field not supported for cursor pagination: " + order.getFieldName());
+            }
+            if (columns.stream().noneMatch(existing -> existing.column().equals(column))) {
+                columns.add(new KeysetQuery.KeyColumn(column, order.getDirection().isDescending()));
+            }
+        }
+
+        if (columns.stream().noneMatch(column -> column.column().equals("id"))) {
+            columns.add(new KeysetQuery.KeyColumn("id", false));
+        }
+
+        return KeysetQuery.of(columns);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindAll(DatabaseClient.GenericExecuteSpec spec,
+                                                             Map<String, Object> params) {
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            spec = spec.bind(param.getKey(), param.getValue());
+        }
+        return spec;
+    }
+
+    private static String buildOrderBy(PageRequest pageRequest) {
+        String columns = pageRequest.getSortOrders().stream()
+                .filter(order -> SORT_COLUMNS.containsKey(order.getFieldName()))
+                .map(R2dbcVehicleRepository::toOrderByColumn)
+                .collect(Collectors.joining(", "));
+
+        // id is appended as a tiebreaker so pages stay stable between requests.
+        return columns.isEmpty() ? "ORDER BY id" : "ORDER BY " + columns + ", id";
+    }
+
+    private static String toOrderByColumn(SortOrder order) {
+        String column = SORT_COLUMNS.get(order.getFieldName());
+        String direction = order.getDirection().isDescending() ? " DESC" : " ASC";
+        String nulls = order.getNullHandling().requiresSqlKeyword()
+                ? " " + order.getNullHandling().getSqlKeyword()
+                : "";
+        return column + direction + nulls;
+    }
+
+    private static PageMetrics pageMetrics(Instant startTime, long rowsScanned, long rowsReturned,
+                                           SqlPredicate predicate) {
+        Duration queryTime = Duration.between(startTime, Instant.now());
+        return PageMetrics.builder()
+                .withQueryExecutionTime(queryTime)
+                .withTotalProcessingTime(queryTime)
+                .withRowsScanned(rowsScanned)
+                .withRowsReturned(rowsReturned)
+                .withOptimizationApplied(predicate.isExact() ? "specification-pushdown" : "specification-partial-pushdown")
+                .withTimestamp(Instant.now())
+                .build();
+    }
+
+    private record KeyedVehicle(Vehicle vehicle, List<Object> keys) {
+    }
+
+    // ============= MAPPING =============
+
+    private static Vehicle mapRow(Readable row) {
+        Double latitude = row.get("latitude", Double.class);
+        Double longitude = row.get("longitude", Double.class);
+        Double accuracy = row.get("location_accuracy", Double.class);
+        Double previousLatitude = row.get("previous_latitude", Double.class);
+        Double previousLongitude = row.get("previous_longitude", Double.class);
+        Integer standing = row.get("standing_capacity", Integer.class);
+
+        GeoCoordinate currentLocation = latitude != null && longitude != null
+                ? GeoCoordinate.of(latitude, longitude, accuracy != null ? accuracy : 0.0)
+                : null;
+        GeoCoordinate previousLocation = previousLatitude != null && previousLongitude != null
+                ? GeoCoordinate.of(previousLatitude, previousLongitude)
+                : null;
+
+        return new Vehicle(
+                VehicleId.of(row.get("id", String.class)),
+                row.get("version", Long.class),
+                toTimestamp(row.get("created_at", LocalDateTime.class)),
+                toTimestamp(row.get("updated_at", LocalDateTime.class)),
+                LicensePlate.of(row.get("license_plate", String.class)),
+                VehicleType.valueOf(row.get("vehicle_type", String.class)),
+                Capacity.of(row.get("seated_capacity", Integer.class), standing != null ? standing : 0),
+                row.get("model", String.class),
+                VehicleStatus.valueOf(row.get("status", String.class)),
+                row.get("assigned_route_id", String.class),
+                currentLocation,
+                previousLocation,
+                toSpeed(row.get("speed_kmh", Double.class)),
+                toBearing(row.get("bearing_degrees", Double.class)),
+                toTimestamp(row.get("last_location_update", LocalDateTime.class)),
+                row.get("odometer", Long.class),
+                toTimestamp(row.get("last_maintenance_date", LocalDateTime.class)),
+                toTimestamp(row.get("next_maintenance_date", LocalDateTime.class))
+        );
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.of(value.toInstant(ZoneOffset.UTC)) : null;
+    }
+
+    private static Speed toSpeed(Double kmh) {
+        if (kmh == null) {
+            return null;
+        }
+        try {
+            return Speed.ofKmh(kmh);
+        } catch (BusinessRuleViolationException e) {
+            return null;
+        }
+    }
+
+    private static Bearing toBearing(Double degrees) {
+        if (degrees == null) {
+            return null;
+        }
+        try {
+            return Bearing.ofDegrees(degrees);
+        } catch (BusinessRuleViolationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.repositories.jpa;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.domain.shared.exceptions.BusinessRuleViolationException;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.VehicleTrackingSession;
+import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleTrackingRepository;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Bearing;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Speed;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.TrackingSessionId;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.VehicleId;
+import tm.ugur.ugur_v3.infrastructure.persistence.gps.GpsHistoryStore;
+import tm.ugur.ugur_v3.infrastructure.persistence.gps.GpsHistoryStore.GpsPointRecord;
+import tm.ugur.ugur_v3.infrastructure.persistence.gps.GpsTrackArchiver;
+import tm.ugur.ugur_v3.infrastructure.persistence.rollup.TrackingRollupStore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// Backs the GPS history, rollup statistics and retention methods. Tracking sessions themselves are not
+// persisted yet, so the session methods fail with UnsupportedOperationException.
+public class R2dbcVehicleTrackingRepository implements VehicleTrackingRepository {
+
+    private static final String VEHICLE_ID_KEY = "vehicleId";
+    private static final Instant HISTORY_START = Instant.EPOCH;
+    private static final Instant HISTORY_END = Instant.parse("9999-01-01T00:00:00Z");
+
+    private static final Duration ACTIVE_VEHICLE_WINDOW = Duration.ofMinutes(5);
+
+    private final GpsHistoryStore gpsHistoryStore;
+    private final TrackingRollupStore rollupStore;
+    private final GpsTrackArchiver trackArchiver;
+
+    public R2dbcVehicleTrackingRepository(GpsHistoryStore gpsHistoryStore, TrackingRollupStore rollupStore,
+                                          GpsTrackArchiver trackArchiver) {
+        this.gpsHistoryStore = gpsHistoryStore;
+        this.rollupStore = rollupStore;
+        this.trackArchiver = trackArchiver;
+    }
+
+    @Override
+    public Mono<VehicleTrackingSession> save(VehicleTrackingSession session) {
+        return sessionsNotPersisted("save");
+    }
+
+    @Override
+    public Mono<VehicleTrackingSession> findById(TrackingSessionId sessionId) {
+        return sessionsNotPersisted("findById");
+    }
+
+    @Override
+    public Mono<Boolean> existsById(TrackingSessionId sessionId) {
+        return sessionsNotPersisted("existsById");
+    }
+
+    @Override
+    public Mono<VehicleTrackingSession> delete(VehicleTrackingSession aggregate) {
+        return sessionsNotPersisted("delete");
+    }
+
+    @Override
+    public Mono<Void> deleteById(TrackingSessionId sessionId) {
+        return sessionsNotPersisted("deleteById");
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return sessionsNotPersisted("count");
+    }
+
+    @Override
+    public Mono<TrackingSessionId> nextId() {
+        return Mono.fromSupplier(TrackingSessionId::generate);
+    }
+
+    @Override
+    public Flux<VehicleTrackingSession> findAll() {
+        return sessionsNotPersistedFlux("findAll");
+    }
+
+    @Override
+    public Mono<VehicleTrackingSession> findActiveSessionByVehicleId(VehicleId vehicleId) {
+        return sessionsNotPersisted("findActiveSessionByVehicleId");
+    }
+
+    @Override
+    public Flux<VehicleTrackingSession> findActiveSessions() {
+        return sessionsNotPersistedFlux("findActiveSessions");
+    }
+
+    @Override
+    public Flux<VehicleTrackingSession> findByVehicleId(VehicleId vehicleId) {
+        return sessionsNotPersistedFlux("findByVehicleId");
+    }
+
+    @Override
+    public Flux<VehicleTrackingSession> findByRouteId(String routeId) {
+        return sessionsNotPersistedFlux("findByRouteId");
+    }
+
+    @Override
+    public Flux<VehicleTrackingSession> findByStatus(VehicleTrackingSession.SessionStatus status) {
+        return sessionsNotPersistedFlux("findByStatus");
+    }
+
+    @Override
+    public Flux<VehicleTrackingSession> findSessionsInTimeRange(Timestamp startTime, Timestamp endTime) {
+        return sessionsNotPersistedFlux("findSessionsInTimeRange");
+    }
+
+    @Override
+    public Flux<VehicleTrackingSession> findLongRunningSessions(Duration minimumDuration) {
+        return sessionsNotPersistedFlux("findLongRunningSessions");
+    }
+
+    @Override
+    public Flux<VehicleTrackingSession> findSessionsWithPoorGpsQuality(double maxAccuracyPercentage) {
+        return sessionsNotPersistedFlux("findSessionsWithPoorGpsQuality");
+    }
+
+    // ============= GPS HISTORY =============
+
+    @Override
+    public Mono<Void> storeGpsDataPoint(TrackingSessionId sessionId, GPSDataPoint gpsData) {
+        return storeGpsDataPoints(sessionId, Flux.just(gpsData)).then();
+    }
+
+    @Override
+    public Mono<Long> storeGpsDataPoints(TrackingSessionId sessionId, Flux<GPSDataPoint> gpsDataPoints) {
+        return gpsDataPoints
+                .map(point -> toRecord(sessionId, vehicleIdOf(point), point))
+                .collectList()
+                .flatMap(gpsHistoryStore::ingest);
+    }
+
+    // Points of many sessions go out in one ingest, so a batch of fleet updates is a single COPY
+    @Override
+    public Mono<Long> storeGpsDataPoints(Flux<SessionGpsDataPoint> gpsDataPoints) {
+        return gpsDataPoints
+                .map(point -> toRecord(point.sessionId(),
+                        point.vehicleId() != null ? point.vehicleId().getValue() : vehicleIdOf(point.gpsData()),
+                        point.gpsData()))
+                .collectList()
+                .flatMap(gpsHistoryStore::ingest);
+    }
+
+    @Override
+    public Flux<GPSDataPoint> getGpsDataForSession(TrackingSessionId sessionId,
+                                                   Timestamp startTime, Timestamp endTime) {
+        Instant from = startTime.toInstant();
+        Instant to = endTime.toInstant();
+
+        // Raw partitions are dropped after retention, the archived track answers from then on.
+        return gpsHistoryStore.findBySession(sessionId.getValue(), from, to)
+                .switchIfEmpty(Flux.defer(() -> trackArchiver.findBySession(sessionId.getValue(), from, to)))
+                .map(R2dbcVehicleTrackingRepository::toDataPoint);
+    }
+
+    @Override
+    public Flux<GPSDataPoint> getRecentGpsData(TrackingSessionId sessionId, int count) {
+        return gpsHistoryStore.findRecentBySession(sessionId.getValue(), count)
+                .map(R2dbcVehicleTrackingRepository::toDataPoint);
+    }
+
+    @Override
+    public Flux<GPSDataPoint> getGpsDataWithinArea(TrackingSessionId sessionId,
+                                                   GeoCoordinate center, double radiusMeters) {
+        return gpsHistoryStore.findBySessionWithin(
+                        sessionId.getValue(), center.getLatitude(), center.getLongitude(), radiusMeters)
+                .map(R2dbcVehicleTrackingRepository::toDataPoint);
+    }
+
+    @Override
+    public Flux<GPSDataPoint> getStationaryGpsData(TrackingSessionId sessionId,
+                                                   double maxSpeedKmh, long minimumDurationSeconds) {
+        Duration minimumDuration = Duration.ofSeconds(minimumDurationSeconds);
+
+        return gpsHistoryStore.findBySession(sessionId.getValue(), HISTORY_START, HISTORY_END)
+                .bufferUntilChanged(point -> point.speedKmh() == null || point.speedKmh() <= maxSpeedKmh)
+                .filter(run -> {
+                    GpsPointRecord first = run.getFirst();
+                    boolean stationary = first.speedKmh() == null || first.speedKmh() <= maxSpeedKmh;
+                    return stationary && Duration.between(first.recordedAt(), run.getLast().recordedAt())
+                            .compareTo(minimumDuration) >= 0;
+                })
+                .flatMapIterable(run -> run)
+                .map(R2dbcVehicleTrackingRepository::toDataPoint);
+    }
+
+    @Override
+    public Mono<SessionStatistics> getSessionStatistics(TrackingSessionId sessionId) {
+        return sessionsNotPersisted("getSessionStatistics");
+    }
+
+    // ============= ROLLUP STATISTICS =============
+
+    @Override
+    public Mono<RoutePerformanceMetrics> getRoutePerformanceMetrics(String routeId,
+                                                                    Timestamp startTime, Timestamp endTime) {
+        return rollupStore.summarizeRoute(routeId, startTime.toInstant(), endTime.toInstant())
+                .map(summary -> {
+                    long vehicles = Math.max(1, summary.vehiclesActive());
+                    return new RoutePerformanceMetrics(
+                            routeId,
+                            0,
+                            0,
+                            Duration.ofMinutes(summary.activeMinutes() / vehicles),
+                            summary.distanceKm() / vehicles,
+                            toSpeed(summary.averageSpeedKmh()),
+                            summary.highAccuracyPercentage(),
+                            0,
+                            List.of()
+                    );
+                });
+    }
+
+    @Override
+    public Mono<VehiclePerformanceMetrics> getVehiclePerformanceMetrics(VehicleId vehicleId,
+                                                                        Timestamp startTime, Timestamp endTime) {
+        long rangeMinutes = Math.max(1, Duration.between(startTime.toInstant(), endTime.toInstant()).toMinutes());
+
+        return rollupStore.summarizeVehicle(vehicleId.getValue(), startTime.toInstant(), endTime.toInstant())
+                .map(summary -> new VehiclePerformanceMetrics(
+                        vehicleId,
+                        0,
+                        0,
+                        Duration.ofMinutes(summary.activeMinutes()),
+                        summary.distanceKm(),
+                        toSpeed(summary.averageSpeedKmh()),
+                        summary.highAccuracyPercentage(),
+                        0,
+                        Math.min(100.0, summary.activeMinutes() * 100.0 / rangeMinutes)
+                ));
+    }
+
+    @Override
+    public Mono<SystemTrackingStats> getSystemTrackingStats(Timestamp startTime, Timestamp endTime) {
+        double rangeHours = Math.max(1.0 / 60,
+                Duration.between(startTime.toInstant(), endTime.toInstant()).toMinutes() / 60.0);
+
+        return Mono.zip(
+                        rollupStore.summarize(startTime.toInstant(), endTime.toInstant()),
+                        rollupStore.countVehiclesSeenSince(Instant.now().minus(ACTIVE_VEHICLE_WINDOW)))
+                .map(tuple -> new SystemTrackingStats(
+                        tuple.getT2().intValue(),
+                        (int) tuple.getT1().vehiclesActive(),
+                        Math.round(tuple.getT1().pointCount() / rangeHours),
+                        tuple.getT1().highAccuracyPercentage(),
+                        0.0,
+                        0,
+                        tuple.getT1().highAccuracyPercentage()
+                ));
+    }
+
+    @Override
+    public Mono<Long> archiveOldSessions(Timestamp cutoffDate) {
+        return gpsHistoryStore.releasePartitionsBefore(cutoffDate.toInstant(), true);
+    }
+
+    @Override
+    public Mono<Long> deleteOldGpsData(Timestamp cutoffDate) {
+        return gpsHistoryStore.releasePartitionsBefore(cutoffDate.toInstant(), false);
+    }
+
+    @Override
+    public Mono<Long> cleanupOrphanedGpsData() {
+        return gpsHistoryStore.deleteOrphaned();
+    }
+
+    @Override
+    public Mono<Void> optimizeGpsDataStorage() {
+        return trackArchiver.archiveEndedSessions()
+                .then(gpsHistoryStore.analyze());
+    }
+
+    @Override
+    public Flux<VehicleTrackingSession> endSessions(List<TrackingSessionId> sessionIds, String reason) {
+        return sessionsNotPersistedFlux("endSessions");
+    }
+
+    @Override
+    public Mono<Long> updateSessionStatuses(Flux<SessionStatusUpdate> sessionStatusUpdates) {
+        return sessionsNotPersisted("updateSessionStatuses");
+    }
+
+    // ============= MAPPING =============
+
+    // There is no tracking sessions table yet, only the GPS point and statistics methods are backed by storage
+    private static <T> Mono<T> sessionsNotPersisted(String operation) {
+        return Mono.error(new UnsupportedOperationException(
+                operation + " is not supported: tracking sessions are not persisted yet"));
+    }
+
+    private static <T> Flux<T> sessionsNotPersistedFlux(String operation) {
+        return Flux.error(new UnsupportedOperationException(
+                operation + " is not supported: tracking sessions are not persisted yet"));
+    }
+
+    private static String vehicleIdOf(GPSDataPoint point) {
+        Object vehicleId = point.additionalData() != null ? point.additionalData().get(VEHICLE_ID_KEY) : null;
+        return vehicleId != null ? vehicleId.toString() : null;
+    }
+
+    private static GpsPointRecord toRecord(TrackingSessionId sessionId, String vehicleId, GPSDataPoint point) {
+        return new GpsPointRecord(
+                vehicleId,
+                sessionId.getValue(),
+                point.timestamp().toInstant(),
+                point.location().getLatitude(),
+                point.location().getLongitude(),
+                point.accuracy(),
+                point.speed() != null ? point.speed().getKmh() : null,
+                point.bearing() != null ? point.bearing().getDegrees() : null
+        );
+    }
+
+    private static GPSDataPoint toDataPoint(GpsPointRecord record) {
+        Map<String, Object> additionalData = record.vehicleId() != null
+                ? Map.of(VEHICLE_ID_KEY, record.vehicleId())
+                : Map.of();
+
+        return new GPSDataPoint(
+                GeoCoordinate.of(record.latitude(), record.longitude(), record.accuracyMeters()),
+                toSpeed(record.speedKmh()),
+                toBearing(record.bearingDegrees()),
+                Timestamp.of(record.recordedAt()),
+                record.accuracyMeters(),
+                additionalData
+        );
+    }
+
+    private static Speed toSpeed(Double kmh) {
+        if (kmh == null) {
+            return null;
+        }
+        try {
+            return Speed.ofKmh(kmh);
+        } catch (BusinessRuleViolationException e) {
+            return null;
+        }
+    }
+
+    private static Bearing toBearing(Double degrees) {
+        if (degrees == null) {
+            return null;
+        }
+        try {
+            return Bearing.ofDegrees(degrees);
+        } catch (BusinessRuleViolationException e) {
+            return null;
+        }
+    }
+}
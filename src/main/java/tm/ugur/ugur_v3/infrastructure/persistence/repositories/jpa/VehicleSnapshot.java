@@ -0,0 +1,50 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.repositories.jpa;
+
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+
+// Vehicle state written to aggregate_snapshots, timestamps are epoch millis so the payload needs no time module
+record VehicleSnapshot(
+        String vehicleId,
+        long version,
+        String licensePlate,
+        String vehicleType,
+        String model,
+        int seatedCapacity,
+        int standingCapacity,
+        String status,
+        String assignedRouteId,
+        Double latitude,
+        Double longitude,
+        Double speedKmh,
+        Double bearingDegrees,
+        Long lastLocationUpdate,
+        long odometer
+) {
+
+    static VehicleSnapshot of(Vehicle vehicle) {
+        GeoCoordinate location = vehicle.getCurrentLocation();
+        return new VehicleSnapshot(
+                vehicle.getId().getValue(),
+                vehicle.getVersion(),
+                vehicle.getLicensePlate().getValue(),
+                vehicle.getVehicleType().name(),
+                vehicle.getModel(),
+                vehicle.getCapacity().getSeatedCapacity(),
+                vehicle.getCapacity().getStandingCapacity(),
+                vehicle.getStatus().name(),
+                vehicle.getAssignedRouteId(),
+                location != null ? location.getLatitude() : null,
+                location != null ? location.getLongitude() : null,
+                vehicle.getCurrentSpeed() != null ? vehicle.getCurrentSpeed().getKmh() : null,
+                vehicle.getCurrentBearing() != null ? vehicle.getCurrentBearing().getDegrees() : null,
+                epochMillis(vehicle.getLastLocationUpdate()),
+                vehicle.getOdometer()
+        );
+    }
+
+    private static Long epochMillis(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant().toEpochMilli() : null;
+    }
+}
@@ -0,0 +1,238 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.rollup;
+
+import io.r2dbc.spi.Readable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.shared.routing.QueryRouting;
+import tm.ugur.ugur_v3.infrastructure.persistence.config.VehiclePersistenceConfig;
+import tm.ugur.ugur_v3.infrastructure.persistence.config.VehiclePersistenceConfig.HistoryConfig.RollupConfig;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+public class TrackingRollupStore {
+
+    private static final String SUMMARY_COLUMNS = """
+            SELECT COUNT(DISTINCT r.vehicle_id) AS vehicles,
+                   COALESCE(SUM(r.point_count), 0) AS points,
+                   COALESCE(SUM(r.active_minutes), 0) AS active_minutes,
+                   COALESCE(SUM(r.distance_meters), 0) AS distance_meters,
+                   COALESCE(SUM(r.speed_sum), 0) AS speed_sum,
+                   COALESCE(SUM(r.speed_samples), 0) AS speed_samples,
+                   MAX(r.max_speed_kmh) AS max_speed_kmh,
+                   COALESCE(SUM(r.accuracy_sum), 0) AS accuracy_sum,
+                   COALESCE(SUM(r.high_accuracy_points), 0) AS high_accuracy_points
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final PerformanceMonitor performanceMonitor;
+    private final VehiclePersistenceConfig config;
+
+    private final Object dirtyLock = new Object();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private Instant dirtyFrom;
+    private Instant dirtyTo;
+
+    public TrackingRollupStore(DatabaseClient databaseClient,
+                               PerformanceMonitor performanceMonitor,
+                               VehiclePersistenceConfig config) {
+        this.databaseClient = databaseClient;
+        this.performanceMonitor = performanceMonitor;
+        this.config = config;
+    }
+
+    // ============= MAINTENANCE =============
+
+    public void markDirty(Instant from, Instant to) {
+        // Minute rows older than their retention are gone, so an hour cannot be rebuilt from them.
+        Instant floor = Instant.now().minus(rollup().getMinuteRetention()).plus(Duration.ofHours(1));
+        Instant start = from.isBefore(floor) ? floor : from;
+        if (start.isAfter(to)) {
+            performanceMonitor.incrementCounter("gps.rollup.late.dropped");
+            return;
+        }
+
+        synchronized (dirtyLock) {
+            dirtyFrom = dirtyFrom == null || start.isBefore(dirtyFrom) ? start : dirtyFrom;
+            dirtyTo = dirtyTo == null || to.isAfter(dirtyTo) ? to : dirtyTo;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ugur.persistence.vehicle.history.rollup.flush-interval:10s}")
+    public void flushDirtyWindow() {
+        if (!rollup().isEnabled() || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        Instant from;
+        Instant to;
+        synchronized (dirtyLock) {
+            from = dirtyFrom;
+            to = dirtyTo;
+            dirtyFrom = null;
+            dirtyTo = null;
+        }
+
+        if (from == null) {
+            refreshing.set(false);
+            return;
+        }
+
+        refresh(from, to)
+                .doOnError(error -> {
+                    log.warn("GPS rollup refresh {} - {} failed, will retry: {}", from, to, error.getMessage());
+                    markDirty(from, to);
+                })
+                .onErrorComplete()
+                .doFinally(signal -> refreshing.set(false))
+                .subscribe();
+    }
+
+    @Scheduled(cron = "${ugur.persistence.vehicle.history.rollup.catch-up-cron:0 */10 * * * *}")
+    public void catchUp() {
+        if (!rollup().isEnabled()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        markDirty(now.minus(rollup().getCatchUpWindow()), now);
+
+        Instant minuteCutoff = now.minus(rollup().getMinuteRetention());
+        Instant hourCutoff = now.minus(config.getHistory().getRetention().getAggregatedDataRetention());
+
+        databaseClient.sql("DELETE FROM gps_rollup_minute WHERE bucket_start < :cutoff")
+                .bind("cutoff", toUtc(minuteCutoff))
+                .fetch().rowsUpdated()
+                .then(databaseClient.sql("DELETE FROM gps_rollup_hour WHERE bucket_start < :cutoff")
+                        .bind("cutoff", toUtc(hourCutoff))
+                        .fetch().rowsUpdated())
+                .doOnError(error -> log.error("GPS rollup retention cleanup failed", error))
+                .onErrorComplete()
+                .subscribe();
+    }
+
+    public Mono<Integer> refresh(Instant from, Instant to) {
+        Mono<Integer> refresh = databaseClient.sql("SELECT refresh_gps_rollups(:from, :to) AS refreshed")
+                .bind("from", toUtc(from))
+                .bind("to", toUtc(to))
+                .map((row, metadata) -> row.get("refreshed", Integer.class))
+                .one()
+                .defaultIfEmpty(0);
+
+        return performanceMonitor.timeReactive("gps.rollup.refresh", () -> refresh)
+                .doOnNext(rows -> {
+                    performanceMonitor.incrementCounter("gps.rollup.minutes.refreshed", rows);
+                    log.debug("Refreshed {} GPS minute rollups for {} - {}", rows, from, to);
+                });
+    }
+
+    // ============= QUERIES =============
+
+    public Mono<RollupSummary> summarize(Instant from, Instant to) {
+        return summarize(from, to, "", null);
+    }
+
+    public Mono<RollupSummary> summarizeVehicle(String vehicleId, Instant from, Instant to) {
+        return summarize(from, to, "AND r.vehicle_id = :key ", vehicleId);
+    }
+
+    public Mono<RollupSummary> summarizeRoute(String routeId, Instant from, Instant to) {
+        // Attributes history to the vehicle's current route assignment.
+        return summarize(from, to,
+                "AND r.vehicle_id IN (SELECT id FROM vehicles WHERE assigned_route_id = :key) ", routeId);
+    }
+
+    public Mono<Long> countVehiclesSeenSince(Instant since) {
+        return QueryRouting.onReplica(databaseClient
+                .sql("SELECT COUNT(DISTINCT vehicle_id) AS vehicles FROM gps_rollup_minute WHERE bucket_start >= :since")
+                .bind("since", toUtc(since.truncatedTo(ChronoUnit.MINUTES)))
+                .map((row, metadata) -> row.get("vehicles", Long.class))
+                .one()
+                .defaultIfEmpty(0L));
+    }
+
+    private Mono<RollupSummary> summarize(Instant from, Instant to, String filter, String key) {
+        boolean minuteGrain = Duration.between(from, to).compareTo(rollup().getMinuteQueryMaxRange()) <= 0;
+        ChronoUnit unit = minuteGrain ? ChronoUnit.MINUTES : ChronoUnit.HOURS;
+        String table = minuteGrain ? "gps_rollup_minute" : "gps_rollup_hour";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(SUMMARY_COLUMNS
+                        + "FROM " + table + " r WHERE r.bucket_start >= :from AND r.bucket_start < :to " + filter)
+                .bind("from", toUtc(from.truncatedTo(unit)))
+                .bind("to", toUtc(to));
+        if (key != null) {
+            spec = spec.bind("key", key);
+        }
+
+        performanceMonitor.incrementCounter(minuteGrain ? "gps.rollup.query.minute" : "gps.rollup.query.hour");
+
+        return QueryRouting.onReplica(spec.map(TrackingRollupStore::mapSummary).one()
+                .defaultIfEmpty(RollupSummary.EMPTY));
+    }
+
+    private static RollupSummary mapSummary(Readable row) {
+        Number maxSpeed = row.get("max_speed_kmh", Number.class);
+
+        return new RollupSummary(
+                number(row, "vehicles").longValue(),
+                number(row, "points").longValue(),
+                number(row, "active_minutes").longValue(),
+                number(row, "distance_meters").doubleValue(),
+                number(row, "speed_sum").doubleValue(),
+                number(row, "speed_samples").longValue(),
+                maxSpeed != null ? maxSpeed.doubleValue() : null,
+                number(row, "accuracy_sum").doubleValue(),
+                number(row, "high_accuracy_points").longValue()
+        );
+    }
+
+    private static Number number(Readable row, String column) {
+        Number value = row.get(column, Number.class);
+        return value != null ? value : 0;
+    }
+
+    private RollupConfig rollup() {
+        return config.getHistory().getRollup();
+    }
+
+    private static LocalDateTime toUtc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    public record RollupSummary(long vehiclesActive,
+                                long pointCount,
+                                long activeMinutes,
+                                double distanceMeters,
+                                double speedSum,
+                                long speedSamples,
+                                Double maxSpeedKmh,
+                                double accuracySum,
+                                long highAccuracyPoints) {
+
+        public static final RollupSummary EMPTY = new RollupSummary(0, 0, 0, 0, 0, 0, null, 0, 0);
+
+        public double distanceKm() {
+            return distanceMeters / 1000.0;
+        }
+
+        public double averageSpeedKmh() {
+            return speedSamples > 0 ? speedSum / speedSamples : 0.0;
+        }
+
+        public double averageAccuracyMeters() {
+            return pointCount > 0 ? accuracySum / pointCount : 0.0;
+        }
+
+        public double highAccuracyPercentage() {
+            return pointCount > 0 ? highAccuracyPoints * 100.0 / pointCount : 0.0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.routing;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.shared.routing.QueryRouting;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public final class ReadReplicaRoutingConnectionFactory extends AbstractRoutingConnectionFactory {
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final PerformanceMonitor performanceMonitor;
+
+    public ReadReplicaRoutingConnectionFactory(ConnectionFactory primary, ConnectionFactory replica,
+                                               ReplicaLagMonitor lagMonitor,
+                                               PerformanceMonitor performanceMonitor) {
+        this.lagMonitor = lagMonitor;
+        this.performanceMonitor = performanceMonitor;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(QueryRouting.Target.PRIMARY, primary);
+        if (replica != null) {
+            targets.put(QueryRouting.Target.REPLICA, replica);
+        }
+
+        setTargetConnectionFactories(targets);
+        setDefaultTargetConnectionFactory(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> {
+            if (QueryRouting.currentTarget(context) != QueryRouting.Target.REPLICA) {
+                return Mono.just(QueryRouting.Target.PRIMARY);
+            }
+
+            if (lagMonitor.isReplicaUsable()) {
+                performanceMonitor.incrementCounter("database.route.replica");
+                return Mono.just(QueryRouting.Target.REPLICA);
+            }
+
+            performanceMonitor.incrementCounter("database.route.replica.fallback");
+            return Mono.just(QueryRouting.Target.PRIMARY);
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.routing;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.infrastructure.persistence.config.DatabaseConfig.ReplicaProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // Zero when everything received has been replayed, so an idle primary does not look like lag.
+    private static final String LAG_SQL = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() THEN NULL
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 1e9)
+                   END AS lag_seconds
+            """;
+
+    private final Map<String, ConnectionPool> pools;
+    private final ConnectionPool replicaPool;
+    private final ReplicaProperties props;
+    private final PerformanceMonitor performanceMonitor;
+
+    private volatile Duration lastLag;
+    private volatile Instant lastCheckedAt;
+
+    public ReplicaLagMonitor(Map<String, ConnectionPool> pools, ConnectionPool replicaPool,
+                             ReplicaProperties props, PerformanceMonitor performanceMonitor) {
+        this.pools = Map.copyOf(pools);
+        this.replicaPool = replicaPool;
+        this.props = props;
+        this.performanceMonitor = performanceMonitor;
+    }
+
+    public boolean isReplicaUsable() {
+        Duration lag = lastLag;
+        Instant checkedAt = lastCheckedAt;
+
+        if (replicaPool == null || lag == null || checkedAt == null) {
+            return false;
+        }
+
+        boolean fresh = checkedAt.plus(props.getLagCheckInterval().multipliedBy(3)).isAfter(Instant.now());
+        return fresh && lag.compareTo(props.getMaxLag()) <= 0;
+    }
+
+    public Duration getLastLag() {
+        return lastLag;
+    }
+
+    @Scheduled(fixedDelayString = "${ugur.database.replica.lag-check-interval:5s}")
+    public void checkReplicaLag() {
+        recordPoolMetrics();
+
+        if (replicaPool == null) {
+            return;
+        }
+
+        Mono.usingWhen(replicaPool.create(), this::queryLag, Connection::close)
+                .timeout(props.getLagCheckTimeout())
+                .subscribe(this::onLagMeasured, this::onLagCheckFailed);
+    }
+
+    private Mono<Duration> queryLag(Connection connection) {
+        return Flux.from(connection.createStatement(LAG_SQL).execute())
+                .flatMap(result -> result.map((row, metadata) -> {
+                    Number seconds = row.get("lag_seconds", Number.class);
+                    // A replica promoted to primary has no lag by definition.
+                    return seconds != null ? Duration.ofMillis((long) (seconds.doubleValue() * 1000)) : Duration.ZERO;
+                }))
+                .next();
+    }
+
+    private void onLagMeasured(Duration lag) {
+        boolean wasUsable = isReplicaUsable();
+
+        lastLag = lag;
+        lastCheckedAt = Instant.now();
+        performanceMonitor.recordGauge("database.replica.lag.seconds", lag.toMillis() / 1000.0);
+
+        boolean usable = isReplicaUsable();
+        if (wasUsable && !usable) {
+            log.warn("Replica lag {}ms exceeds {}ms, routing read queries to primary",
+                    lag.toMillis(), props.getMaxLag().toMillis());
+        } else if (!wasUsable && usable) {
+            log.info("Replica lag back to {}ms, routing read queries to replica", lag.toMillis());
+        }
+    }
+
+    private void onLagCheckFailed(Throwable error) {
+        log.warn("Replica lag check failed, read queries stay on primary: {}", error.getMessage());
+        performanceMonitor.incrementCounter("database.replica.lag.check.failed");
+        lastLag = null;
+    }
+
+    private void recordPoolMetrics() {
+        pools.forEach((name, pool) -> pool.getMetrics().ifPresent(metrics -> {
+            String prefix = "database.pool." + name;
+            performanceMonitor.recordGauge(prefix + ".acquired", metrics.acquiredSize());
+            performanceMonitor.recordGauge(prefix + ".idle", metrics.idleSize());
+            performanceMonitor.recordGauge(prefix + ".pending", metrics.pendingAcquireSize());
+            performanceMonitor.recordGauge(prefix + ".allocated", metrics.allocatedSize());
+        }));
+    }
+}
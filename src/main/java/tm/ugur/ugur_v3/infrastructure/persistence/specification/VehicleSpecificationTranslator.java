@@ -0,0 +1,189 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.specification;
+
+import tm.ugur.ugur_v3.domain.shared.specifications.AndSpecification;
+import tm.ugur.ugur_v3.domain.shared.specifications.NotSpecification;
+import tm.ugur.ugur_v3.domain.shared.specifications.OrSpecification;
+import tm.ugur.ugur_v3.domain.shared.specifications.Specification;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
+import tm.ugur.ugur_v3.domain.vehicleManagement.specifications.VehicleCapacitySpecification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.specifications.VehicleMinimumCapacitySpecification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.specifications.VehicleStatusSpecification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.specifications.VehicleTypeSpecification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.specifications.VehicleWithRecentGpsSpecification;
+import tm.ugur.ugur_v3.domain.vehicleManagement.specifications.VehicleWithinRadiusSpecification;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class VehicleSpecificationTranslator {
+
+    private static final double METERS_PER_DEGREE_LATITUDE = 111_320.0;
+    private static final double HIGH_ACCURACY_METERS = 50.0;
+    private static final int PUBLIC_TRANSPORT_CAPACITY = 30;
+
+    private static final List<String> TRACKABLE_STATUSES = Arrays.stream(VehicleStatus.values())
+            .filter(VehicleStatus::isTrackable)
+            .map(Enum::name)
+            .toList();
+
+    public SqlPredicate translate(Specification<Vehicle> specification) {
+        Context context = new Context();
+        Fragment fragment = specification != null ? visit(specification, context) : Fragment.exact("TRUE");
+        return new SqlPredicate(fragment.sql(), Collections.unmodifiableMap(context.params), fragment.residual());
+    }
+
+    private Fragment visit(Specification<Vehicle> specification, Context context) {
+        return switch (specification) {
+            case AndSpecification<Vehicle> and -> visitAnd(and, context);
+            case OrSpecification<Vehicle> or -> visitOr(or, context);
+            case NotSpecification<Vehicle> not -> visitNot(not, context);
+            case VehicleStatusSpecification status -> Fragment.exact(
+                    "status IN (" + context.bind(status.getAllowedStatuses().stream().map(Enum::name).toList()) + ")");
+            case VehicleTypeSpecification type -> Fragment.exact(
+                    "vehicle_type = " + context.bind(type.getVehicleType().name()));
+            case VehicleMinimumCapacitySpecification capacity -> Fragment.exact(
+                    "total_capacity >= " + context.bind(capacity.getMinimumTotalCapacity()));
+            case VehicleCapacitySpecification capacity -> visitCapacity(capacity, context);
+            case VehicleWithRecentGpsSpecification gps -> visitRecentGps(gps, context);
+            case VehicleWithinRadiusSpecification radius -> visitRadius(radius, context);
+            default -> Fragment.inexact("TRUE", specification);
+        };
+    }
+
+    private Fragment visitAnd(AndSpecification<Vehicle> and, Context context) {
+        Fragment left = visit(and.getLeft(), context);
+        Fragment right = visit(and.getRight(), context);
+
+        Specification<Vehicle> residual;
+        if (left.residual() == null) {
+            residual = right.residual();
+        } else if (right.residual() == null) {
+            residual = left.residual();
+        } else {
+            residual = left.residual().and(right.residual());
+        }
+
+        return new Fragment("(" + left.sql() + " AND " + right.sql() + ")", residual);
+    }
+
+    private Fragment visitOr(OrSpecification<Vehicle> or, Context context) {
+        Fragment left = visit(or.getLeft(), context);
+        Fragment right = visit(or.getRight(), context);
+        String sql = "(" + left.sql() + " OR " + right.sql() + ")";
+
+        // Each side's SQL is a superset of its matches, so the disjunction still narrows; only the
+        // whole OR can be re-checked in memory.
+        return left.isExact() && right.isExact() ? Fragment.exact(sql) : Fragment.inexact(sql, or);
+    }
+
+    private Fragment visitNot(NotSpecification<Vehicle> not, Context context) {
+        Fragment inner = visit(not.getSpecification(), context);
+
+        // Negating a superset is not a superset, so an inexact child cannot be pushed down at all.
+        return inner.isExact() ? Fragment.exact("NOT " + inner.sql()) : Fragment.inexact("TRUE", not);
+    }
+
+    private Fragment visitCapacity(VehicleCapacitySpecification capacity, Context context) {
+        List<String> conditions = new ArrayList<>();
+
+        if (capacity.getAllowedVehicleType() != null) {
+            conditions.add("vehicle_type = " + context.bind(capacity.getAllowedVehicleType().name()));
+        }
+        conditions.add("total_capacity >= " + context.bind(capacity.getMinimumTotalCapacity()));
+        if (capacity.getMinimumSeatedCapacity() > 0) {
+            conditions.add("seated_capacity >= " + context.bind(capacity.getMinimumSeatedCapacity()));
+        }
+        if (capacity.isRequiresAccessibility()) {
+            conditions.add("vehicle_type IN (" + context.bind(
+                    VehicleCapacitySpecification.ACCESSIBLE_TYPES.stream().map(Enum::name).toList()) + ")");
+        }
+
+        String sql = "(" + String.join(" AND ", conditions) + ")";
+
+        // The public transport seating ratio lives in Capacity and is re-checked in memory.
+        return capacity.getMinimumTotalCapacity() >= PUBLIC_TRANSPORT_CAPACITY
+                ? Fragment.inexact(sql, capacity)
+                : Fragment.exact(sql);
+    }
+
+    private Fragment visitRecentGps(VehicleWithRecentGpsSpecification gps, Context context) {
+        List<String> conditions = new ArrayList<>();
+
+        if (gps.isRequireTrackableStatus()) {
+            conditions.add("status IN (" + context.bind(TRACKABLE_STATUSES) + ")");
+        }
+        conditions.add("last_location_update IS NOT NULL");
+        conditions.add("last_location_update >= " + context.bind(
+                LocalDateTime.ofInstant(gps.getCutoffTime().toInstant(), ZoneOffset.UTC)));
+        if (gps.isRequireHighAccuracy()) {
+            conditions.add("(latitude IS NULL OR (COALESCE(location_accuracy, 0) > 0 AND location_accuracy <= "
+                    + context.bind(HIGH_ACCURACY_METERS) + "))");
+        }
+
+        return Fragment.exact("(" + String.join(" AND ", conditions) + ")");
+    }
+
+    private Fragment visitRadius(VehicleWithinRadiusSpecification radius, Context context) {
+        GeoCoordinate center = radius.getCenter();
+        double latitudeDelta = radius.getRadiusMeters() / METERS_PER_DEGREE_LATITUDE;
+        double longitudeDelta = radius.getRadiusMeters()
+                / (METERS_PER_DEGREE_LATITUDE * Math.max(0.01, Math.cos(Math.toRadians(center.getLatitude()))));
+
+        String lat = context.bind(center.getLatitude());
+        String lon = context.bind(center.getLongitude());
+
+        String sql = "(latitude IS NOT NULL"
+                + " AND latitude BETWEEN " + context.bind(center.getLatitude() - latitudeDelta)
+                + " AND " + context.bind(center.getLatitude() + latitudeDelta)
+                + " AND longitude BETWEEN " + context.bind(center.getLongitude() - longitudeDelta)
+                + " AND " + context.bind(center.getLongitude() + longitudeDelta)
+                + " AND 2 * 6371000 * asin(sqrt("
+                + "power(sin(radians(latitude - " + lat + ") / 2), 2)"
+                + " + cos(radians(" + lat + ")) * cos(radians(latitude))"
+                + " * power(sin(radians(longitude - " + lon + ") / 2), 2))) <= "
+                + context.bind(radius.getRadiusMeters()) + ")";
+
+        return Fragment.exact(sql);
+    }
+
+    public record SqlPredicate(String sql, Map<String, Object> params, Specification<Vehicle> residual) {
+
+        public boolean isExact() {
+            return residual == null;
+        }
+    }
+
+    private record Fragment(String sql, Specification<Vehicle> residual) {
+
+        static Fragment exact(String sql) {
+            return new Fragment(sql, null);
+        }
+
+        static Fragment inexact(String sql, Specification<Vehicle> residual) {
+            return new Fragment(sql, residual);
+        }
+
+        boolean isExact() {
+            return residual == null;
+        }
+    }
+
+    private static final class Context {
+
+        private final Map<String, Object> params = new LinkedHashMap<>();
+
+        String bind(Object value) {
+            String name = "p" + params.size();
+            params.put(name, value);
+            return ":" + name;
+        }
+    }
+}
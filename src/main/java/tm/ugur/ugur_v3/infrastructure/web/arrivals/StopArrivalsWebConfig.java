@@ -0,0 +1,43 @@
+package tm.ugur.ugur_v3.infrastructure.web.arrivals;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.StopArrivalsConfig;
+import tm.ugur.ugur_v3.application.stopManagement.arrivals.StopArrivalBoards;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+
+import java.util.Map;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+@Slf4j
+@Configuration
+public class StopArrivalsWebConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> stopArrivalsRoutes(StopArrivalBoards boards, StopArrivalsConfig config) {
+        log.info("Configuring stop arrival boards: {} arrivals per stop, Redis snapshots {}",
+                config.getMaxArrivalsPerBoard(), config.isRedisEnabled() ? "enabled" : "disabled");
+
+        return RouterFunctions.route(GET("/api/stops/{stopId}/arrivals"), request -> arrivals(request, boards, config));
+    }
+
+    // Reads the materialised board only; no ETA is computed on this path
+    private Mono<ServerResponse> arrivals(ServerRequest request, StopArrivalBoards boards, StopArrivalsConfig config) {
+        int limit;
+        try {
+            limit = request.queryParam("limit").map(Integer::parseInt).orElse(config.getDefaultLimit());
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().bodyValue(Map.of("error", "limit must be a number"));
+        }
+
+        return boards.readBoard(StopId.of(request.pathVariable("stopId")), limit)
+                .flatMap(board -> ServerResponse.ok().bodyValue(board));
+    }
+}
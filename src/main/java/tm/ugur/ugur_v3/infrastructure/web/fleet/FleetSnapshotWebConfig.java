@@ -0,0 +1,117 @@
+package tm.ugur.ugur_v3.infrastructure.web.fleet;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.FleetSnapshotConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.vehicleManagement.snapshot.FleetSnapshotPublisher;
+import tm.ugur.ugur_v3.application.vehicleManagement.snapshot.FleetSnapshotPublisher.Body;
+import tm.ugur.ugur_v3.application.vehicleManagement.snapshot.FleetSnapshotPublisher.EncodedTile;
+import tm.ugur.ugur_v3.application.vehicleManagement.snapshot.FleetSnapshotPublisher.FleetSnapshot;
+
+import java.util.Map;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+@Slf4j
+@Configuration
+public class FleetSnapshotWebConfig {
+
+    private static final MediaType BINARY = MediaType.parseMediaType(FleetSnapshotPublisher.BINARY_CONTENT_TYPE);
+
+    @Bean
+    public RouterFunction<ServerResponse> fleetSnapshotRoutes(FleetSnapshotPublisher publisher,
+                                                              FleetSnapshotConfig config,
+                                                              PerformanceMonitor performanceMonitor) {
+        log.info("Configuring fleet snapshot endpoints: {}° tiles, binary form {}",
+                config.getTileSizeDegrees(), config.isBinaryEnabled() ? "enabled" : "disabled");
+
+        return RouterFunctions
+                .route(GET("/api/fleet/snapshot"), request -> snapshot(request, publisher, performanceMonitor))
+                .andRoute(GET("/api/fleet/tiles/{latIndex}/{lngIndex}"),
+                        request -> tile(request, publisher, performanceMonitor));
+    }
+
+    // Never serialises anything: the pre-encoded bytes are wrapped as the response body
+    private Mono<ServerResponse> snapshot(ServerRequest request, FleetSnapshotPublisher publisher,
+                                          PerformanceMonitor performanceMonitor) {
+        FleetSnapshot snapshot = publisher.snapshot();
+        boolean binary = wantsBinary(request) && snapshot.binary() != null;
+        return write(request, binary ? snapshot.binary() : snapshot.json(), binary, publisher, performanceMonitor);
+    }
+
+    private Mono<ServerResponse> tile(ServerRequest request, FleetSnapshotPublisher publisher,
+                                      PerformanceMonitor performanceMonitor) {
+        EncodedTile tile;
+        try {
+            tile = publisher.tile(Integer.parseInt(request.pathVariable("latIndex")),
+                    Integer.parseInt(request.pathVariable("lngIndex")));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().bodyValue(Map.of("error", "tile indices must be integers"));
+        }
+        boolean binary = wantsBinary(request) && tile.binary() != null;
+        return write(request, binary ? tile.binary() : tile.json(), binary, publisher, performanceMonitor);
+    }
+
+    private Mono<ServerResponse> write(ServerRequest request, Body body, boolean binary,
+                                       FleetSnapshotPublisher publisher, PerformanceMonitor performanceMonitor) {
+        if (notModified(request, body.etag())) {
+            performanceMonitor.incrementCounter("fleet.snapshot.not_modified");
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(body.etag())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        boolean gzip = body.hasGzip() && acceptsGzip(request);
+        byte[] bytes = gzip ? body.gzip() : body.identity();
+        performanceMonitor.incrementCounter("fleet.snapshot.served");
+        performanceMonitor.incrementCounter("fleet.snapshot.served.bytes", bytes.length);
+
+        ServerResponse.BodyBuilder response = ServerResponse.ok()
+                .contentType(binary ? BINARY : MediaType.APPLICATION_JSON)
+                .eTag(body.etag())
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .header("X-Fleet-Tile-Size-Degrees", String.valueOf(publisher.tileSizeDegrees()));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.bodyValue(bytes);
+    }
+
+    private static boolean wantsBinary(ServerRequest request) {
+        return request.queryParam("format").map("binary"::equals)
+                .orElseGet(() -> request.headers().accept().stream().anyMatch(BINARY::equalsTypeAndSubtype));
+    }
+
+    private static boolean acceptsGzip(ServerRequest request) {
+        return request.headers().header(HttpHeaders.ACCEPT_ENCODING).stream()
+                .anyMatch(value -> value.toLowerCase().contains("gzip"));
+    }
+
+    // Weak comparison, as proxies may add W/ to a strong validator
+    private static boolean notModified(ServerRequest request, String etag) {
+        for (String header : request.headers().header(HttpHeaders.IF_NONE_MATCH)) {
+            for (String candidate : header.split(",")) {
+                String value = candidate.trim();
+                if (value.startsWith("W/")) {
+                    value = value.substring(2);
+                }
+                if (value.equals("*") || value.equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
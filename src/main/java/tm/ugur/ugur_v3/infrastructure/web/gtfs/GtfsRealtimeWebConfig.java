@@ -0,0 +1,97 @@
+package tm.ugur.ugur_v3.infrastructure.web.gtfs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.GtfsRealtimeConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.vehicleManagement.gtfs.GtfsRealtimeFeed;
+import tm.ugur.ugur_v3.application.vehicleManagement.gtfs.GtfsRealtimeFeed.FeedBody;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+@Slf4j
+@Configuration
+public class GtfsRealtimeWebConfig {
+
+    private static final MediaType PROTOBUF = MediaType.parseMediaType(GtfsRealtimeFeed.CONTENT_TYPE);
+
+    @Bean
+    public RouterFunction<ServerResponse> gtfsRealtimeRoutes(GtfsRealtimeFeed feed, GtfsRealtimeConfig config,
+                                                             PerformanceMonitor performanceMonitor) {
+        log.info("Configuring GTFS-Realtime feeds: differentials reach back {} builds",
+                config.getDifferentialRetention());
+
+        return RouterFunctions
+                .route(GET("/gtfs-rt/vehicle-positions"),
+                        request -> serve(request, feed::vehiclePositions, performanceMonitor))
+                .andRoute(GET("/gtfs-rt/trip-updates"),
+                        request -> serve(request, feed::tripUpdates, performanceMonitor));
+    }
+
+    // ?since=<X-Feed-Version of the previous response> selects the differential feed
+    private Mono<ServerResponse> serve(ServerRequest request, Function<Long, FeedBody> source,
+                                       PerformanceMonitor performanceMonitor) {
+        Long since;
+        try {
+            since = request.queryParam("since").map(Long::parseLong).orElse(null);
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().bodyValue(Map.of("error", "since must be a feed version"));
+        }
+
+        FeedBody body = source.apply(since);
+        Instant lastModified = Instant.ofEpochSecond(body.timestampSeconds());
+        if (notModified(request, body.etag(), lastModified)) {
+            performanceMonitor.incrementCounter("gtfs.realtime.not_modified");
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(body.etag())
+                    .lastModified(lastModified)
+                    .build();
+        }
+
+        performanceMonitor.incrementCounter(body.differential()
+                ? "gtfs.realtime.served.differential" : "gtfs.realtime.served.full");
+        return ServerResponse.ok()
+                .contentType(PROTOBUF)
+                .eTag(body.etag())
+                .lastModified(lastModified)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Feed-Version", String.valueOf(body.version()))
+                .bodyValue(body.bytes());
+    }
+
+    // If-None-Match wins over If-Modified-Since, as RFC 9110 requires
+    private static boolean notModified(ServerRequest request, String etag, Instant lastModified) {
+        List<String> ifNoneMatch = request.headers().header(HttpHeaders.IF_NONE_MATCH);
+        if (!ifNoneMatch.isEmpty()) {
+            for (String header : ifNoneMatch) {
+                for (String candidate : header.split(",")) {
+                    String value = candidate.trim();
+                    if (value.startsWith("W/")) {
+                        value = value.substring(2);
+                    }
+                    if (value.equals("*") || value.equals(etag)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        long ifModifiedSince = request.headers().asHttpHeaders().getIfModifiedSince();
+        return ifModifiedSince >= 0 && lastModified.toEpochMilli() <= ifModifiedSince;
+    }
+}
@@ -0,0 +1,83 @@
+package tm.ugur.ugur_v3.infrastructure.web.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.VehicleStreamConfig;
+import tm.ugur.ugur_v3.application.vehicleManagement.streaming.VehiclePositionFeed;
+import tm.ugur.ugur_v3.domain.geospatial.valueobjects.BoundingBox;
+import tm.ugur.ugur_v3.domain.shared.exceptions.BusinessRuleViolationException;
+
+import java.util.Map;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+@Slf4j
+@Configuration
+public class VehicleStreamWebConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> vehicleStreamRoutes(VehiclePositionFeed feed, VehicleStreamConfig config) {
+        log.info("Configuring live vehicle stream: {}° tiles, frames every {}ms",
+                config.getTileSizeDegrees(), config.getFrameInterval().toMillis());
+
+        return RouterFunctions.route(GET("/api/vehicles/stream"), request -> streamEvents(request, feed, config));
+    }
+
+    @Bean
+    public VehicleStreamWebSocketHandler vehicleStreamWebSocketHandler(VehiclePositionFeed feed,
+                                                                       ObjectMapper objectMapper) {
+        return new VehicleStreamWebSocketHandler(feed, objectMapper);
+    }
+
+    @Bean
+    public HandlerMapping vehicleStreamWebSocketMapping(VehicleStreamWebSocketHandler handler) {
+        return new SimpleUrlHandlerMapping(Map.of("/ws/vehicles", handler), -1);
+    }
+
+    private Mono<ServerResponse> streamEvents(ServerRequest request, VehiclePositionFeed feed,
+                                              VehicleStreamConfig config) {
+        BoundingBox viewport;
+        try {
+            viewport = BoundingBox.ofCorners(
+                    doubleParam(request, "swLat"), doubleParam(request, "swLng"),
+                    doubleParam(request, "neLat"), doubleParam(request, "neLng"));
+        } catch (BusinessRuleViolationException | IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue(Map.of("error", String.valueOf(e.getMessage())));
+        }
+
+        Flux<ServerSentEvent<String>> frames = feed.subscribe(viewport)
+                .map(frame -> ServerSentEvent.builder(frame.json())
+                        .id(frame.tileId() + "@" + frame.sequence())
+                        .event(frame.snapshot() ? "snapshot" : "delta")
+                        .build())
+                .onErrorResume(BusinessRuleViolationException.class, error -> Mono.just(
+                        ServerSentEvent.builder(String.valueOf(error.getMessage())).event("error").build()));
+
+        Flux<ServerSentEvent<String>> heartbeat = Flux.interval(config.getHeartbeatInterval())
+                .map(tick -> ServerSentEvent.<String>builder().comment("keepalive").build());
+
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(BodyInserters.fromServerSentEvents(Flux.merge(frames, heartbeat)
+                        .takeUntil(event -> "error".equals(event.event()))));
+    }
+
+    private static double doubleParam(ServerRequest request, String name) {
+        return request.queryParam(name)
+                .map(Double::parseDouble)
+                .orElseThrow(() -> new IllegalArgumentException("Missing query parameter " + name));
+    }
+}
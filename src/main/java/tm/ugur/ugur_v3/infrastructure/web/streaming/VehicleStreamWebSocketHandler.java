@@ -0,0 +1,61 @@
+package tm.ugur.ugur_v3.infrastructure.web.streaming;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.vehicleManagement.streaming.VehiclePositionFeed;
+import tm.ugur.ugur_v3.domain.geospatial.valueobjects.BoundingBox;
+
+// Client sends {"swLat":..,"swLng":..,"neLat":..,"neLng":..}; every new viewport replaces the previous subscription
+@Slf4j
+public class VehicleStreamWebSocketHandler implements WebSocketHandler {
+
+    private final VehiclePositionFeed feed;
+    private final ObjectMapper objectMapper;
+
+    public VehicleStreamWebSocketHandler(VehiclePositionFeed feed, ObjectMapper objectMapper) {
+        this.feed = feed;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        Flux<WebSocketMessage> frames = session.receive()
+                .filter(message -> message.getType() == WebSocketMessage.Type.TEXT)
+                .concatMap(message -> parseViewport(message.getPayloadAsText()))
+                .switchMap(viewport -> feed.subscribe(viewport)
+                        // The shared UTF-8 bytes are wrapped, not copied, for each session
+                        .map(frame -> new WebSocketMessage(WebSocketMessage.Type.TEXT,
+                                session.bufferFactory().wrap(frame.utf8())))
+                        .onErrorResume(error -> Mono.just(session.textMessage(errorMessage(error)))));
+
+        return session.send(frames);
+    }
+
+    private Mono<BoundingBox> parseViewport(String payload) {
+        return Mono.fromCallable(() -> {
+                    JsonNode node = objectMapper.readTree(payload);
+                    return BoundingBox.ofCorners(
+                            node.required("swLat").asDouble(),
+                            node.required("swLng").asDouble(),
+                            node.required("neLat").asDouble(),
+                            node.required("neLng").asDouble());
+                })
+                .onErrorResume(error -> {
+                    log.debug("Ignoring invalid viewport message: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private String errorMessage(Throwable error) {
+        return objectMapper.createObjectNode()
+                .put("type", "error")
+                .put("message", String.valueOf(error.getMessage()))
+                .toString();
+    }
+}
@@ -0,0 +1,71 @@
+CREATE TABLE event_streams (
+                               aggregate_id VARCHAR(64) PRIMARY KEY,
+                               aggregate_type VARCHAR(50) NOT NULL,
+                               current_version BIGINT NOT NULL DEFAULT 0,
+                               created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                               updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+                               CONSTRAINT chk_event_streams_version CHECK (current_version >= 0)
+);
+
+CREATE TABLE domain_events (
+                               event_id VARCHAR(36) NOT NULL,
+                               aggregate_id VARCHAR(64) NOT NULL,
+                               aggregate_type VARCHAR(50) NOT NULL,
+                               stream_version BIGINT NOT NULL,
+                               event_type VARCHAR(100) NOT NULL,
+                               correlation_id VARCHAR(64),
+                               payload JSONB NOT NULL,
+                               metadata JSONB,
+                               occurred_at TIMESTAMP NOT NULL,
+                               recorded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+                               PRIMARY KEY (aggregate_id, stream_version, recorded_at)
+) PARTITION BY RANGE (recorded_at);
+
+CREATE INDEX idx_domain_events_type_recorded ON domain_events (event_type, recorded_at);
+
+CREATE TABLE aggregate_snapshots (
+                                     aggregate_id VARCHAR(64) PRIMARY KEY,
+                                     snapshot_version BIGINT NOT NULL,
+                                     snapshot_type VARCHAR(255) NOT NULL,
+                                     payload JSONB NOT NULL,
+                                     last_event_recorded_at TIMESTAMP,
+                                     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE OR REPLACE FUNCTION create_domain_events_partitions(months_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    partition_start DATE;
+    partition_end DATE;
+    partition_name TEXT;
+    created_count INTEGER := 0;
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        partition_start := (date_trunc('month', CURRENT_DATE) + make_interval(months => i))::DATE;
+        partition_end := (partition_start + INTERVAL '1 month')::DATE;
+        partition_name := 'domain_events_' || to_char(partition_start, 'YYYY_MM');
+
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format(
+                'CREATE TABLE %I PARTITION OF domain_events FOR VALUES FROM (%L) TO (%L)',
+                partition_name, partition_start, partition_end
+            );
+            EXECUTE format('ALTER TABLE %I SET (fillfactor = 100)', partition_name);
+            created_count := created_count + 1;
+        END IF;
+    END LOOP;
+
+    RETURN created_count;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_domain_events_partitions(3);
+
+COMMENT ON TABLE event_streams IS 'One row per event-sourced aggregate, holds the stream version used for optimistic concurrency';
+COMMENT ON TABLE domain_events IS 'Append-only domain event log, range partitioned by month on recorded_at';
+COMMENT ON COLUMN domain_events.stream_version IS 'Position of the event within its aggregate stream, assigned by the event store';
+COMMENT ON TABLE aggregate_snapshots IS 'Latest aggregate snapshot, rehydration reads the snapshot plus the event tail after snapshot_version';
+COMMENT ON COLUMN aggregate_snapshots.last_event_recorded_at IS 'recorded_at of the event at snapshot_version, used to prune partitions when reading the tail';
+COMMENT ON FUNCTION create_domain_events_partitions(INTEGER) IS 'Creates monthly domain_events partitions from the current month up to months_ahead, returns count of created partitions';
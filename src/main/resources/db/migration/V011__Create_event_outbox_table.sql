@@ -0,0 +1,24 @@
+CREATE TABLE event_outbox (
+                              id BIGSERIAL PRIMARY KEY,
+                              event_id VARCHAR(36) NOT NULL,
+                              aggregate_id VARCHAR(64) NOT NULL,
+                              aggregate_type VARCHAR(50) NOT NULL,
+                              event_type VARCHAR(100) NOT NULL,
+                              routing_key VARCHAR(255) NOT NULL,
+                              payload JSONB NOT NULL,
+                              publish_attempts INTEGER NOT NULL DEFAULT 0,
+                              last_error TEXT,
+                              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_event_outbox_created_at ON event_outbox (created_at);
+
+ALTER TABLE event_outbox SET (
+    fillfactor = 90,
+    autovacuum_vacuum_scale_factor = 0.01,
+    autovacuum_analyze_scale_factor = 0.01
+    );
+
+COMMENT ON TABLE event_outbox IS 'Transactional outbox: domain events written with the aggregate change, deleted once the broker confirms them';
+COMMENT ON COLUMN event_outbox.routing_key IS 'RabbitMQ routing key: <aggregate_type>.<event_type>.<aggregate_id>';
+COMMENT ON COLUMN event_outbox.publish_attempts IS 'Number of relay attempts that failed to get a publisher confirm';
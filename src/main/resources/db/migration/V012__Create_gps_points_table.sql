@@ -0,0 +1,94 @@
+CREATE TABLE gps_points (
+                            vehicle_id VARCHAR(64),
+                            session_id VARCHAR(64),
+                            recorded_at TIMESTAMP NOT NULL,
+                            latitude DOUBLE PRECISION NOT NULL,
+                            longitude DOUBLE PRECISION NOT NULL,
+                            accuracy_meters REAL NOT NULL,
+                            speed_kmh REAL,
+                            bearing_degrees REAL,
+                            received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+                            CONSTRAINT chk_gps_points_owner CHECK (vehicle_id IS NOT NULL OR session_id IS NOT NULL),
+                            CONSTRAINT chk_gps_points_latitude CHECK (latitude BETWEEN -90 AND 90),
+                            CONSTRAINT chk_gps_points_longitude CHECK (longitude BETWEEN -180 AND 180)
+) PARTITION BY RANGE (recorded_at);
+
+CREATE INDEX idx_gps_points_vehicle_time ON gps_points (vehicle_id, recorded_at) WHERE vehicle_id IS NOT NULL;
+CREATE INDEX idx_gps_points_session_time ON gps_points (session_id, recorded_at) WHERE session_id IS NOT NULL;
+CREATE INDEX idx_gps_points_recorded_brin ON gps_points USING BRIN (recorded_at) WITH (pages_per_range = 32);
+
+CREATE OR REPLACE FUNCTION create_gps_points_partition(partition_day DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    partition_name TEXT := 'gps_points_' || to_char(partition_day, 'YYYY_MM_DD');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF gps_points FOR VALUES FROM (%L) TO (%L)',
+        partition_name, partition_day, partition_day + 1
+    );
+    EXECUTE format(
+        'ALTER TABLE %I SET (fillfactor = 100, autovacuum_vacuum_scale_factor = 0.2, autovacuum_analyze_scale_factor = 0.05)',
+        partition_name
+    );
+
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION create_gps_points_partitions(days_behind INTEGER, days_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    created_count INTEGER := 0;
+BEGIN
+    FOR i IN -days_behind..days_ahead LOOP
+        IF create_gps_points_partition(CURRENT_DATE + i) THEN
+            created_count := created_count + 1;
+        END IF;
+    END LOOP;
+
+    RETURN created_count;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION release_gps_points_partitions(cutoff_day DATE, detach_only BOOLEAN)
+RETURNS INTEGER AS $$
+DECLARE
+    part RECORD;
+    released_count INTEGER := 0;
+BEGIN
+    FOR part IN
+        SELECT child.relname AS name
+        FROM pg_inherits
+        JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+        JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+        WHERE parent.relname = 'gps_points'
+          AND child.relname ~ '^gps_points_\d{4}_\d{2}_\d{2}$'
+          AND to_date(substring(child.relname FROM 12), 'YYYY_MM_DD') < cutoff_day
+        ORDER BY child.relname
+    LOOP
+        IF detach_only THEN
+            EXECUTE format('ALTER TABLE gps_points DETACH PARTITION %I', part.name);
+            EXECUTE format('ALTER TABLE %I RENAME TO %I', part.name, 'archived_' || part.name);
+        ELSE
+            EXECUTE format('DROP TABLE %I', part.name);
+        END IF;
+        released_count := released_count + 1;
+    END LOOP;
+
+    RETURN released_count;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_gps_points_partitions(1, 7);
+
+COMMENT ON TABLE gps_points IS 'Raw GPS history, range partitioned by day on recorded_at; retention is applied by dropping or detaching whole partitions';
+COMMENT ON COLUMN gps_points.vehicle_id IS 'Vehicle the point was reported for, NULL when a session point carries no vehicle reference';
+COMMENT ON COLUMN gps_points.session_id IS 'Tracking session the point belongs to, NULL for points ingested outside a session';
+COMMENT ON FUNCTION create_gps_points_partition(DATE) IS 'Creates the gps_points partition for one day, returns false when it already exists';
+COMMENT ON FUNCTION create_gps_points_partitions(INTEGER, INTEGER) IS 'Creates daily gps_points partitions from days_behind before to days_ahead after the current date, returns count of created partitions';
+COMMENT ON FUNCTION release_gps_points_partitions(DATE, BOOLEAN) IS 'Drops, or detaches and renames to archived_*, every daily gps_points partition older than cutoff_day, returns count of released partitions';
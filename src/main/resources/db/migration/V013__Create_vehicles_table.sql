@@ -0,0 +1,49 @@
+CREATE TABLE vehicles (
+                          id VARCHAR(20) PRIMARY KEY,
+
+                          license_plate VARCHAR(20) NOT NULL UNIQUE,
+                          vehicle_type VARCHAR(20) NOT NULL,
+                          model VARCHAR(100),
+                          status VARCHAR(20) NOT NULL,
+                          assigned_route_id VARCHAR(64),
+
+                          seated_capacity INTEGER NOT NULL,
+                          standing_capacity INTEGER NOT NULL DEFAULT 0,
+                          total_capacity INTEGER GENERATED ALWAYS AS (seated_capacity + standing_capacity) STORED,
+
+                          latitude DOUBLE PRECISION,
+                          longitude DOUBLE PRECISION,
+                          location_accuracy DOUBLE PRECISION,
+                          previous_latitude DOUBLE PRECISION,
+                          previous_longitude DOUBLE PRECISION,
+                          speed_kmh DOUBLE PRECISION,
+                          bearing_degrees DOUBLE PRECISION,
+                          last_location_update TIMESTAMP,
+
+                          odometer BIGINT NOT NULL DEFAULT 0,
+                          last_maintenance_date TIMESTAMP,
+                          next_maintenance_date TIMESTAMP,
+
+                          created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                          updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                          version BIGINT NOT NULL DEFAULT 0,
+
+                          CONSTRAINT chk_vehicles_type CHECK (vehicle_type IN ('BUS', 'TROLLEY', 'MINIBUS', 'TRAM')),
+                          CONSTRAINT chk_vehicles_status CHECK (status IN ('ACTIVE', 'IN_ROUTE', 'INACTIVE', 'AT_DEPOT', 'MAINTENANCE', 'BREAKDOWN', 'RETIRED')),
+                          CONSTRAINT chk_vehicles_capacity CHECK (seated_capacity >= 0 AND standing_capacity >= 0),
+                          CONSTRAINT chk_vehicles_location CHECK ((latitude IS NULL) = (longitude IS NULL))
+);
+
+CREATE INDEX idx_vehicles_status_type ON vehicles (status, vehicle_type);
+CREATE INDEX idx_vehicles_status_capacity ON vehicles (status, total_capacity);
+CREATE INDEX idx_vehicles_last_location_update ON vehicles (last_location_update)
+    WHERE status IN ('ACTIVE', 'IN_ROUTE');
+CREATE INDEX idx_vehicles_location ON vehicles (latitude, longitude)
+    WHERE latitude IS NOT NULL;
+CREATE INDEX idx_vehicles_assigned_route ON vehicles (assigned_route_id)
+    WHERE assigned_route_id IS NOT NULL;
+
+COMMENT ON TABLE vehicles IS 'Current state of every fleet vehicle, one row per Vehicle aggregate';
+COMMENT ON COLUMN vehicles.total_capacity IS 'Seated plus standing capacity, stored so capacity filters can use an index';
+COMMENT ON COLUMN vehicles.last_location_update IS 'Time of the last accepted GPS fix, used for GPS recency filters';
+COMMENT ON COLUMN vehicles.version IS 'Optimistic locking version number';
@@ -0,0 +1,8 @@
+CREATE INDEX idx_vehicles_keyset_type ON vehicles (vehicle_type, id);
+CREATE INDEX idx_vehicles_keyset_capacity ON vehicles (total_capacity, id);
+CREATE INDEX idx_vehicles_keyset_status ON vehicles (status, id);
+CREATE INDEX idx_vehicles_keyset_created ON vehicles (created_at, id);
+CREATE INDEX idx_vehicles_keyset_updated ON vehicles (updated_at, id);
+
+COMMENT ON INDEX idx_vehicles_keyset_capacity IS 'Supports (total_capacity, id) seek predicates for cursor pagination';
+COMMENT ON INDEX idx_vehicles_keyset_updated IS 'Supports (updated_at, id) seek predicates for cursor pagination';
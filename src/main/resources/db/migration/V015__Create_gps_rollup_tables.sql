@@ -0,0 +1,126 @@
+CREATE TABLE gps_rollup_minute (
+                                   bucket_start TIMESTAMP NOT NULL,
+                                   vehicle_id VARCHAR(64) NOT NULL,
+                                   point_count INTEGER NOT NULL,
+                                   active_minutes INTEGER NOT NULL DEFAULT 1,
+                                   distance_meters DOUBLE PRECISION NOT NULL,
+                                   speed_sum DOUBLE PRECISION NOT NULL,
+                                   speed_samples INTEGER NOT NULL,
+                                   max_speed_kmh REAL,
+                                   accuracy_sum DOUBLE PRECISION NOT NULL,
+                                   high_accuracy_points INTEGER NOT NULL,
+                                   first_recorded_at TIMESTAMP NOT NULL,
+                                   last_recorded_at TIMESTAMP NOT NULL,
+
+                                   PRIMARY KEY (bucket_start, vehicle_id)
+);
+
+CREATE TABLE gps_rollup_hour (
+                                 bucket_start TIMESTAMP NOT NULL,
+                                 vehicle_id VARCHAR(64) NOT NULL,
+                                 point_count INTEGER NOT NULL,
+                                 active_minutes INTEGER NOT NULL,
+                                 distance_meters DOUBLE PRECISION NOT NULL,
+                                 speed_sum DOUBLE PRECISION NOT NULL,
+                                 speed_samples INTEGER NOT NULL,
+                                 max_speed_kmh REAL,
+                                 accuracy_sum DOUBLE PRECISION NOT NULL,
+                                 high_accuracy_points INTEGER NOT NULL,
+                                 first_recorded_at TIMESTAMP NOT NULL,
+                                 last_recorded_at TIMESTAMP NOT NULL,
+
+                                 PRIMARY KEY (bucket_start, vehicle_id)
+);
+
+CREATE INDEX idx_gps_rollup_minute_vehicle ON gps_rollup_minute (vehicle_id, bucket_start);
+CREATE INDEX idx_gps_rollup_hour_vehicle ON gps_rollup_hour (vehicle_id, bucket_start);
+
+CREATE OR REPLACE FUNCTION refresh_gps_rollups(window_start TIMESTAMP, window_end TIMESTAMP)
+RETURNS INTEGER AS $$
+DECLARE
+    minute_start TIMESTAMP := date_trunc('minute', window_start);
+    minute_end TIMESTAMP := date_trunc('minute', window_end) + INTERVAL '1 minute';
+    hour_start TIMESTAMP := date_trunc('hour', window_start);
+    hour_end TIMESTAMP := date_trunc('hour', window_end) + INTERVAL '1 hour';
+    refreshed_minutes INTEGER;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('refresh_gps_rollups'));
+
+    DELETE FROM gps_rollup_minute WHERE bucket_start >= minute_start AND bucket_start < minute_end;
+
+    INSERT INTO gps_rollup_minute (bucket_start, vehicle_id, point_count, active_minutes, distance_meters,
+                                   speed_sum, speed_samples, max_speed_kmh, accuracy_sum, high_accuracy_points,
+                                   first_recorded_at, last_recorded_at)
+    SELECT date_trunc('minute', recorded_at),
+           vehicle_id,
+           COUNT(*),
+           1,
+           COALESCE(SUM(segment_meters), 0),
+           COALESCE(SUM(speed_kmh), 0),
+           COUNT(speed_kmh),
+           MAX(speed_kmh),
+           SUM(accuracy_meters),
+           COUNT(*) FILTER (WHERE accuracy_meters > 0 AND accuracy_meters <= 50),
+           MIN(recorded_at),
+           MAX(recorded_at)
+    FROM (
+        SELECT vehicle_id, recorded_at, speed_kmh, accuracy_meters,
+               CASE
+                   WHEN previous_latitude IS NULL THEN 0
+                   -- Segments implying more than 200 km/h are GPS jumps, not travel
+                   WHEN distance_meters / GREATEST(EXTRACT(EPOCH FROM recorded_at - previous_recorded_at), 1) > 55.5 THEN 0
+                   ELSE distance_meters
+               END AS segment_meters
+        FROM (
+            SELECT vehicle_id, recorded_at, speed_kmh, accuracy_meters, previous_latitude, previous_recorded_at,
+                   2 * 6371000 * asin(sqrt(
+                       power(sin(radians(latitude - previous_latitude) / 2), 2)
+                       + cos(radians(previous_latitude)) * cos(radians(latitude))
+                         * power(sin(radians(longitude - previous_longitude) / 2), 2))) AS distance_meters
+            FROM (
+                SELECT vehicle_id, recorded_at, latitude, longitude, speed_kmh, accuracy_meters,
+                       LAG(latitude) OVER points AS previous_latitude,
+                       LAG(longitude) OVER points AS previous_longitude,
+                       LAG(recorded_at) OVER points AS previous_recorded_at
+                FROM gps_points
+                WHERE vehicle_id IS NOT NULL
+                  AND recorded_at >= minute_start - INTERVAL '5 minutes'
+                  AND recorded_at < minute_end
+                WINDOW points AS (PARTITION BY vehicle_id ORDER BY recorded_at)
+            ) ordered
+        ) measured
+    ) segments
+    WHERE recorded_at >= minute_start
+    GROUP BY 1, 2;
+
+    GET DIAGNOSTICS refreshed_minutes = ROW_COUNT;
+
+    DELETE FROM gps_rollup_hour WHERE bucket_start >= hour_start AND bucket_start < hour_end;
+
+    INSERT INTO gps_rollup_hour (bucket_start, vehicle_id, point_count, active_minutes, distance_meters,
+                                 speed_sum, speed_samples, max_speed_kmh, accuracy_sum, high_accuracy_points,
+                                 first_recorded_at, last_recorded_at)
+    SELECT date_trunc('hour', bucket_start),
+           vehicle_id,
+           SUM(point_count),
+           SUM(active_minutes),
+           SUM(distance_meters),
+           SUM(speed_sum),
+           SUM(speed_samples),
+           MAX(max_speed_kmh),
+           SUM(accuracy_sum),
+           SUM(high_accuracy_points),
+           MIN(first_recorded_at),
+           MAX(last_recorded_at)
+    FROM gps_rollup_minute
+    WHERE bucket_start >= hour_start AND bucket_start < hour_end
+    GROUP BY 1, 2;
+
+    RETURN refreshed_minutes;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON TABLE gps_rollup_minute IS 'Per-vehicle GPS aggregates per minute, maintained incrementally from gps_points';
+COMMENT ON TABLE gps_rollup_hour IS 'Per-vehicle GPS aggregates per hour, rebuilt from gps_rollup_minute';
+COMMENT ON COLUMN gps_rollup_minute.high_accuracy_points IS 'Points with accuracy between 0 and 50 meters';
+COMMENT ON FUNCTION refresh_gps_rollups(TIMESTAMP, TIMESTAMP) IS 'Recomputes minute rollups covering the window from gps_points and the enclosing hour rollups from minute rows, returns count of minute rows written';
@@ -0,0 +1,31 @@
+CREATE TABLE gps_session_tracks (
+                                    session_id VARCHAR(64) PRIMARY KEY,
+                                    vehicle_id VARCHAR(64),
+                                    started_at TIMESTAMP NOT NULL,
+                                    ended_at TIMESTAMP NOT NULL,
+
+                                    encoding_version SMALLINT NOT NULL,
+                                    encoded_track BYTEA NOT NULL,
+
+                                    original_points INTEGER NOT NULL,
+                                    stored_points INTEGER NOT NULL,
+                                    raw_bytes INTEGER NOT NULL,
+                                    encoded_bytes INTEGER NOT NULL,
+                                    tolerance_meters REAL NOT NULL,
+                                    max_error_meters REAL NOT NULL,
+                                    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+                                    CONSTRAINT chk_gps_session_tracks_range CHECK (ended_at >= started_at),
+                                    CONSTRAINT chk_gps_session_tracks_points CHECK (stored_points <= original_points)
+);
+
+CREATE INDEX idx_gps_session_tracks_vehicle ON gps_session_tracks (vehicle_id, started_at)
+    WHERE vehicle_id IS NOT NULL;
+CREATE INDEX idx_gps_session_tracks_ended ON gps_session_tracks (ended_at);
+
+ALTER TABLE gps_session_tracks ALTER COLUMN encoded_track SET STORAGE EXTERNAL;
+
+COMMENT ON TABLE gps_session_tracks IS 'Simplified and delta/varint encoded GPS track per ended tracking session, outlives the raw gps_points partitions';
+COMMENT ON COLUMN gps_session_tracks.encoded_track IS 'Fixed-point coordinates and timestamps, delta and zigzag varint encoded; layout given by encoding_version';
+COMMENT ON COLUMN gps_session_tracks.raw_bytes IS 'Size of the original points as stored values, used for the compression ratio';
+COMMENT ON COLUMN gps_session_tracks.max_error_meters IS 'Largest time-synchronized distance between an original point and the decoded track';
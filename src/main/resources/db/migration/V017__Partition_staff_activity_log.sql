@@ -0,0 +1,147 @@
+CREATE TEMP TABLE staff_activity_log_dependent_views ON COMMIT DROP AS
+SELECT DISTINCT dependent.relname AS view_name, pg_get_viewdef(dependent.oid) AS definition
+FROM pg_depend
+JOIN pg_rewrite ON pg_rewrite.oid = pg_depend.objid
+JOIN pg_class dependent ON dependent.oid = pg_rewrite.ev_class
+WHERE pg_depend.refobjid = 'staff_activity_log'::regclass
+  AND dependent.relkind = 'v';
+
+CREATE TABLE staff_activity_log_partitioned (
+                                                id BIGINT NOT NULL DEFAULT nextval('staff_activity_log_id_seq'),
+                                                staff_id VARCHAR(36) NOT NULL,
+                                                action_type VARCHAR(50) NOT NULL,
+                                                action_description TEXT,
+                                                resource_type VARCHAR(50),
+                                                resource_id VARCHAR(36),
+                                                ip_address VARCHAR(45),
+                                                user_agent TEXT,
+                                                request_method VARCHAR(10),
+                                                request_url TEXT,
+                                                response_status INTEGER,
+                                                execution_time_ms BIGINT,
+                                                created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+                                                PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE OR REPLACE FUNCTION create_staff_activity_log_partition(partition_month DATE)
+RETURNS BOOLEAN AS $$
+DECLARE
+    partition_start DATE := date_trunc('month', partition_month)::DATE;
+    partition_name TEXT := 'staff_activity_log_' || to_char(partition_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF staff_activity_log FOR VALUES FROM (%L) TO (%L)',
+        partition_name, partition_start, (partition_start + INTERVAL '1 month')::DATE
+    );
+    EXECUTE format(
+        'ALTER TABLE %I SET (fillfactor = 100, autovacuum_vacuum_scale_factor = 0.02, autovacuum_analyze_scale_factor = 0.01)',
+        partition_name
+    );
+
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION create_staff_activity_log_partitions(months_behind INTEGER, months_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    created_count INTEGER := 0;
+BEGIN
+    FOR i IN -months_behind..months_ahead LOOP
+        IF create_staff_activity_log_partition((date_trunc('month', CURRENT_DATE) + make_interval(months => i))::DATE) THEN
+            created_count := created_count + 1;
+        END IF;
+    END LOOP;
+
+    RETURN created_count;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION release_staff_activity_log_partitions(cutoff_month DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    part RECORD;
+    released_count INTEGER := 0;
+BEGIN
+    FOR part IN
+        SELECT child.relname AS name
+        FROM pg_inherits
+        JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+        JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+        WHERE parent.relname = 'staff_activity_log'
+          AND child.relname ~ '^staff_activity_log_\d{4}_\d{2}$'
+          AND to_date(substring(child.relname FROM 20), 'YYYY_MM') < date_trunc('month', cutoff_month)::DATE
+        ORDER BY child.relname
+    LOOP
+        EXECUTE format('DROP TABLE %I', part.name);
+        released_count := released_count + 1;
+    END LOOP;
+
+    RETURN released_count;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE staff_activity_log RENAME TO staff_activity_log_legacy;
+ALTER TABLE staff_activity_log_partitioned RENAME TO staff_activity_log;
+
+DO $$
+DECLARE
+    first_month DATE;
+BEGIN
+    SELECT date_trunc('month', MIN(created_at))::DATE INTO first_month FROM staff_activity_log_legacy;
+
+    PERFORM create_staff_activity_log_partitions(
+        COALESCE((EXTRACT(YEAR FROM age(date_trunc('month', CURRENT_DATE), first_month)) * 12
+            + EXTRACT(MONTH FROM age(date_trunc('month', CURRENT_DATE), first_month)))::INTEGER, 0),
+        3
+    );
+END;
+$$;
+
+INSERT INTO staff_activity_log
+SELECT id, staff_id, action_type, action_description, resource_type, resource_id, ip_address, user_agent,
+       request_method, request_url, response_status, execution_time_ms, created_at
+FROM staff_activity_log_legacy;
+
+ALTER SEQUENCE staff_activity_log_id_seq OWNED BY staff_activity_log.id;
+
+DO $$
+DECLARE
+    dependent RECORD;
+BEGIN
+    FOR dependent IN SELECT view_name, definition FROM staff_activity_log_dependent_views LOOP
+        EXECUTE format('CREATE OR REPLACE VIEW %I AS %s', dependent.view_name, dependent.definition);
+    END LOOP;
+END;
+$$;
+
+DROP TABLE staff_activity_log_legacy;
+
+ALTER TABLE staff_activity_log
+    ADD CONSTRAINT fk_staff_activity_log_staff_id
+        FOREIGN KEY (staff_id) REFERENCES staff(id) ON DELETE CASCADE;
+
+-- staff_id alone is a prefix of the composite index, created_at is covered by partition pruning plus BRIN
+CREATE INDEX idx_staff_activity_staff_action_date ON staff_activity_log (staff_id, action_type, created_at);
+CREATE INDEX idx_staff_activity_action_type ON staff_activity_log (action_type, created_at);
+CREATE INDEX idx_staff_activity_created_brin ON staff_activity_log USING BRIN (created_at) WITH (pages_per_range = 32);
+
+CREATE OR REPLACE FUNCTION cleanup_old_activity_logs()
+RETURNS INTEGER AS $$
+BEGIN
+    RETURN release_staff_activity_log_partitions((CURRENT_TIMESTAMP - INTERVAL '1 year')::DATE);
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON TABLE staff_activity_log IS 'Audit trail for all staff actions in the system, range partitioned by month on created_at';
+COMMENT ON COLUMN staff_activity_log.action_type IS 'Type of action performed (LOGIN, CREATE_VEHICLE, etc.)';
+COMMENT ON COLUMN staff_activity_log.execution_time_ms IS 'Time taken to execute the action in milliseconds';
+COMMENT ON FUNCTION create_staff_activity_log_partition(DATE) IS 'Creates the staff_activity_log partition for the month containing partition_month, returns false when it already exists';
+COMMENT ON FUNCTION create_staff_activity_log_partitions(INTEGER, INTEGER) IS 'Creates monthly staff_activity_log partitions from months_behind before to months_ahead after the current month, returns count of created partitions';
+COMMENT ON FUNCTION release_staff_activity_log_partitions(DATE) IS 'Drops every monthly staff_activity_log partition that ends before the month of cutoff_month, returns count of dropped partitions';
+COMMENT ON FUNCTION cleanup_old_activity_logs() IS 'Drops monthly activity log partitions older than 1 year, returns count of dropped partitions';
@@ -0,0 +1,44 @@
+CREATE TABLE IF NOT EXISTS domain_events_default PARTITION OF domain_events DEFAULT;
+
+ALTER TABLE domain_events_default SET (fillfactor = 100);
+
+-- A month that lands in the default partition before its own partition exists is moved out on creation,
+-- attaching directly over rows still sitting in the default partition would fail.
+CREATE OR REPLACE FUNCTION create_domain_events_partitions(months_ahead INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    partition_start DATE;
+    partition_end DATE;
+    partition_name TEXT;
+    created_count INTEGER := 0;
+BEGIN
+    FOR i IN 0..months_ahead LOOP
+        partition_start := (date_trunc('month', CURRENT_DATE) + make_interval(months => i))::DATE;
+        partition_end := (partition_start + INTERVAL '1 month')::DATE;
+        partition_name := 'domain_events_' || to_char(partition_start, 'YYYY_MM');
+
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format(
+                'CREATE TABLE %I (LIKE domain_events INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                partition_name
+            );
+            EXECUTE format('ALTER TABLE %I SET (fillfactor = 100)', partition_name);
+            EXECUTE format(
+                'WITH moved AS (DELETE FROM domain_events_default WHERE recorded_at >= %L AND recorded_at < %L RETURNING *) '
+                    || 'INSERT INTO %I SELECT * FROM moved',
+                partition_start, partition_end, partition_name
+            );
+            EXECUTE format(
+                'ALTER TABLE domain_events ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                partition_name, partition_start, partition_end
+            );
+            created_count := created_count + 1;
+        END IF;
+    END LOOP;
+
+    RETURN created_count;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON TABLE domain_events_default IS 'Catches events recorded in a month whose partition does not exist yet, drained by create_domain_events_partitions';
+COMMENT ON FUNCTION create_domain_events_partitions(INTEGER) IS 'Creates monthly domain_events partitions from the current month up to months_ahead, moving matching rows out of the default partition, returns count of created partitions';
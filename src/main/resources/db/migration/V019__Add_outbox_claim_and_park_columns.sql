@@ -0,0 +1,11 @@
+ALTER TABLE event_outbox
+    ADD COLUMN claimed_until TIMESTAMP,
+    ADD COLUMN parked_at TIMESTAMP;
+
+DROP INDEX idx_event_outbox_created_at;
+
+CREATE INDEX idx_event_outbox_pending ON event_outbox (id) WHERE parked_at IS NULL;
+CREATE INDEX idx_event_outbox_pending_created_at ON event_outbox (created_at) WHERE parked_at IS NULL;
+
+COMMENT ON COLUMN event_outbox.claimed_until IS 'Relay claim on the row, other relays skip it until this time passes';
+COMMENT ON COLUMN event_outbox.parked_at IS 'Set once publish_attempts reaches the relay maximum, parked rows are no longer relayed and wait for manual replay';
@@ -0,0 +1 @@
+CREATE INDEX idx_event_outbox_pending_aggregate ON event_outbox (aggregate_type, aggregate_id, id) WHERE parked_at IS NULL;
@@ -0,0 +1,167 @@
+package tm.ugur.ugur_v3.application.routeManagement.adherence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tm.ugur.ugur_v3.application.configuration.ScheduleAdherenceConfig;
+import tm.ugur.ugur_v3.application.configuration.ServiceDayConfig;
+import tm.ugur.ugur_v3.application.routeManagement.adherence.ScheduleAdherenceEngine.AdherenceSummary;
+import tm.ugur.ugur_v3.application.routeManagement.adherence.ScheduleAdherenceEngine.Outcome;
+import tm.ugur.ugur_v3.application.routeManagement.journey.JourneyPlanner;
+import tm.ugur.ugur_v3.application.routeManagement.journey.JourneyPlanner.PlannedTrips;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteScheduleCatalog;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.vehicleManagement.eta.SegmentSpeedProfileEtaService;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class ScheduleAdherenceReplayTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Ashgabat");
+    private static final LocalDate SERVICE_DAY = LocalDate.of(2026, 10, 14);
+    private static final long DAY_START_MILLIS = SERVICE_DAY.atStartOfDay(ZONE).toInstant().toEpochMilli();
+    private static final int STOPS_PER_ROUTE = 20;
+    private static final int SECONDS_BETWEEN_STOPS = 120;
+    // Every 15 minutes from 06:00
+    private static final int FIRST_DEPARTURE_SECOND = 6 * 3600;
+    private static final int HEADWAY_SECONDS = 15 * 60;
+
+    private final Map<String, PlannedTrips> plans = new HashMap<>();
+    private ScheduleAdherenceEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        JourneyPlanner journeyPlanner = mock(JourneyPlanner.class, withSettings().stubOnly());
+        when(journeyPlanner.plannedTrips(anyString(), any()))
+                .thenAnswer(invocation -> Optional.ofNullable(plans.get(invocation.<String>getArgument(0))));
+        // No schedule of its own, so the configured one-minute early and five-minute late tolerances apply
+        RouteScheduleCatalog scheduleCatalog = mock(RouteScheduleCatalog.class, withSettings().stubOnly());
+        when(scheduleCatalog.scheduleFor(anyString())).thenReturn(Optional.empty());
+
+        ServiceDayConfig serviceDay = new ServiceDayConfig();
+        serviceDay.setTimeZone(ZONE);
+        engine = new ScheduleAdherenceEngine(mock(SegmentSpeedProfileEtaService.class), journeyPlanner,
+                scheduleCatalog, new ScheduleAdherenceConfig(), serviceDay,
+                mock(PerformanceMonitor.class, withSettings().stubOnly()));
+    }
+
+    @Test
+    void replayedDeparturesAreMatchedToTheirTripsAndClassified() {
+        plan("R1", 8);
+        // Trip 2 runs three minutes early, trip 5 six minutes late, the rest within half a minute
+        IntUnaryOperator deviation = trip -> switch (trip) {
+            case 2 -> -180;
+            case 5 -> 360;
+            default -> (trip % 3 - 1) * 30;
+        };
+
+        Map<Outcome, Integer> outcomes = new EnumMap<>(Outcome.class);
+        for (Departure departure : departures("R1", 8, deviation)) {
+            Outcome outcome = engine.departed(departure.vehicleId(), departure.routeId(),
+                    StopId.of(departure.stopId()), departure.epochMillis());
+            assertThat(outcome).as("outcome of %s", departure).isNotNull();
+            outcomes.merge(outcome, 1, Integer::sum);
+        }
+
+        assertThat(outcomes).containsEntry(Outcome.EARLY, STOPS_PER_ROUTE)
+                .containsEntry(Outcome.LATE, STOPS_PER_ROUTE)
+                .containsEntry(Outcome.ON_TIME, 6 * STOPS_PER_ROUTE);
+
+        AdherenceSummary summary = engine.adherence("R1").orElseThrow();
+        assertThat(summary.early()).isEqualTo(STOPS_PER_ROUTE);
+        assertThat(summary.late()).isEqualTo(STOPS_PER_ROUTE);
+        assertThat(summary.onTimePercentage()).isCloseTo(75.0, within(0.01));
+        // Trips 0, 3 and 6 are half a minute early, 1, 4 and 7 on the minute
+        assertThat(summary.averageDeviationSeconds()).isCloseTo((3 * -30 - 180 + 360) / 8.0, within(0.01));
+    }
+
+    @Test
+    void departureOnARouteWithoutPlanIsNotMatched() {
+        plan("R1", 4);
+
+        assertThat(engine.departed("bus-1", "R2", StopId.of("R2-S0"), DAY_START_MILLIS + 6 * 3_600_000L)).isNull();
+        assertThat(engine.departed("bus-1", "R1", StopId.of("R1-S0"), DAY_START_MILLIS + 3 * 3_600_000L)).isNull();
+        assertThat(engine.adherence("R2")).isEmpty();
+    }
+
+    @Test
+    void replaysADayOfTheCityNetwork() {
+        int routes = 50;
+        int tripsPerRoute = 64;
+        List<Departure> departures = new ArrayList<>();
+        for (int route = 0; route < routes; route++) {
+            plan("R" + route, tripsPerRoute);
+            departures.addAll(departures("R" + route, tripsPerRoute, trip -> (trip * 37 % 121) - 60));
+        }
+        departures.sort(Comparator.comparingLong(Departure::epochMillis));
+
+        long startTime = System.nanoTime();
+        int onTime = 0;
+        for (Departure departure : departures) {
+            if (engine.departed(departure.vehicleId(), departure.routeId(), StopId.of(departure.stopId()),
+                    departure.epochMillis()) == Outcome.ON_TIME) {
+                onTime++;
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        System.out.printf("Schedule adherence replay: %d departures on %d routes in %d ms (%d departures/s)%n",
+                departures.size(), routes, elapsedNanos / 1_000_000,
+                Math.round(departures.size() / (elapsedNanos / 1e9)));
+        assertThat(onTime).isEqualTo(departures.size());
+        assertThat(engine.adherence("R0").orElseThrow().onTimePercentage()).isEqualTo(100.0);
+    }
+
+    // Trips of the route leave every stop SECONDS_BETWEEN_STOPS after the previous one
+    private void plan(String routeId, int tripCount) {
+        List<StopId> stops = IntStream.range(0, STOPS_PER_ROUTE)
+                .mapToObj(stop -> StopId.of(routeId + "-S" + stop))
+                .toList();
+        int[] stopTimes = new int[tripCount * STOPS_PER_ROUTE];
+        for (int trip = 0; trip < tripCount; trip++) {
+            for (int stop = 0; stop < STOPS_PER_ROUTE; stop++) {
+                stopTimes[trip * STOPS_PER_ROUTE + stop] = plannedSecond(trip, stop);
+            }
+        }
+        plans.put(routeId, new PlannedTrips(routeId, DayOfWeek.WEDNESDAY, stops, tripCount, stopTimes));
+    }
+
+    // One vehicle per trip, departing every stop off its plan by the trip's deviation
+    private static List<Departure> departures(String routeId, int tripCount, IntUnaryOperator deviationSeconds) {
+        List<Departure> departures = new ArrayList<>(tripCount * STOPS_PER_ROUTE);
+        for (int trip = 0; trip < tripCount; trip++) {
+            for (int stop = 0; stop < STOPS_PER_ROUTE; stop++) {
+                int second = plannedSecond(trip, stop) + deviationSeconds.applyAsInt(trip);
+                departures.add(new Departure(routeId + "-bus-" + trip, routeId, routeId + "-S" + stop,
+                        DAY_START_MILLIS + second * 1000L));
+            }
+        }
+        departures.sort(Comparator.comparingLong(Departure::epochMillis));
+        return departures;
+    }
+
+    private static int plannedSecond(int trip, int stop) {
+        return FIRST_DEPARTURE_SECOND + trip * HEADWAY_SECONDS + stop * SECONDS_BETWEEN_STOPS;
+    }
+
+    private record Departure(String vehicleId, String routeId, String stopId, long epochMillis) {}
+}
@@ -0,0 +1,165 @@
+package tm.ugur.ugur_v3.application.routeManagement.headway;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tm.ugur.ugur_v3.application.configuration.HeadwayMonitorConfig;
+import tm.ugur.ugur_v3.application.configuration.ServiceDayConfig;
+import tm.ugur.ugur_v3.application.routeManagement.geometry.RouteGeometryService;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteScheduleCatalog;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.RouteSchedule;
+import tm.ugur.ugur_v3.domain.routeManagement.events.RouteHeadwayDeviationEvent;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventListener;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class HeadwayMonitorReplayTest {
+
+    private static final int PLANNED_HEADWAY_MINUTES = 10;
+    private static final long START_MILLIS = 1_790_000_000_000L;
+    private static final int FIX_INTERVAL_SECONDS = 20;
+    private static final double SPEED_MPS = 8.0;
+
+    private final List<RouteHeadwayDeviationEvent> alerts = new ArrayList<>();
+    private final DomainEventListener alertListener = new DomainEventListener() {
+        @Override
+        public boolean canHandle(DomainEvent event) {
+            return event instanceof RouteHeadwayDeviationEvent;
+        }
+
+        @Override
+        public void handle(DomainEvent event) {
+            alerts.add((RouteHeadwayDeviationEvent) event);
+        }
+    };
+
+    private HeadwayMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        // Stub-only mocks do not record invocations, which would dominate the replay timing
+        RouteSchedule schedule = mock(RouteSchedule.class, withSettings().stubOnly());
+        when(schedule.getHeadwayAt(any(), any())).thenReturn(PLANNED_HEADWAY_MINUTES);
+        RouteScheduleCatalog scheduleCatalog = mock(RouteScheduleCatalog.class);
+        when(scheduleCatalog.scheduleFor(anyString())).thenReturn(Optional.of(schedule));
+
+        monitor = new HeadwayMonitor(mock(RouteGeometryService.class), scheduleCatalog, new HeadwayMonitorConfig(),
+                new ServiceDayConfig(), mock(PerformanceMonitor.class, withSettings().stubOnly()));
+        DomainEventPublisher.instance().subscribe(alertListener);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DomainEventPublisher.instance().unsubscribe(alertListener);
+    }
+
+    @Test
+    void replayedDelayRaisesGapAheadAndBunchingBehind() {
+        // bus-2 dwells 15 minutes at 4.8 km, bus-3 catches up and is held 50 m behind it
+        List<RecordedFix> fixes = new ArrayList<>();
+        for (int bus = 0; bus < 5; bus++) {
+            fixes.addAll(trip("route-1", "bus-" + bus, bus * 600L, 3_600, bus == 2 ? 1_800 : -1, 900));
+        }
+        applyFollowDistance(fixes, "bus-3", "bus-2", 50.0);
+
+        replay(fixes);
+        monitor.publishAlerts();
+
+        assertThat(alerts).anySatisfy(alert -> {
+            assertThat(alert.isGap()).isTrue();
+            assertThat(alert.getVehicleId()).isEqualTo("bus-2");
+            assertThat(alert.getLeadingVehicleId()).isEqualTo("bus-1");
+        });
+        assertThat(alerts).anySatisfy(alert -> {
+            assertThat(alert.isBunching()).isTrue();
+            assertThat(alert.getVehicleId()).isEqualTo("bus-3");
+            assertThat(alert.getLeadingVehicleId()).isEqualTo("bus-2");
+        });
+        assertThat(alerts).noneMatch(alert -> alert.getVehicleId().equals("bus-1"));
+        assertThat(monitor.deviationState("bus-0")).contains(HeadwayMonitor.DeviationState.NORMAL);
+    }
+
+    @Test
+    void replaysACityOfFixesWithoutAlertsOnSchedule() {
+        List<RecordedFix> fixes = new ArrayList<>();
+        for (int route = 0; route < 50; route++) {
+            for (int bus = 0; bus < 20; bus++) {
+                fixes.addAll(trip("route-" + route, "route-" + route + "-bus-" + bus, bus * 600L, 3_600, -1, 0));
+            }
+        }
+
+        long startTime = System.nanoTime();
+        replay(fixes);
+        long elapsedNanos = System.nanoTime() - startTime;
+        monitor.publishAlerts();
+
+        System.out.printf("Headway replay: %d fixes in %d ms (%d fixes/s)%n", fixes.size(), elapsedNanos / 1_000_000,
+                Math.round(fixes.size() / (elapsedNanos / 1e9)));
+        assertThat(alerts).isEmpty();
+        // Seven buses have left the terminus by the end of the hour, the front one has no leader
+        List<HeadwayMonitor.VehicleHeadway> headways = monitor.routeHeadways("route-0");
+        assertThat(headways).hasSize(7);
+        assertThat(headways.getFirst().headwaySeconds()).isNaN();
+        assertThat(headways.subList(1, headways.size()))
+                .allSatisfy(headway -> assertThat(headway.headwaySeconds()).isCloseTo(600.0, within(1.0)));
+    }
+
+    private void replay(List<RecordedFix> fixes) {
+        fixes.sort(Comparator.comparingLong(RecordedFix::epochMillis));
+        for (RecordedFix fix : fixes) {
+            monitor.update(fix.vehicleId(), fix.routeId(), fix.measureMeters(), fix.epochMillis(), fix.speedMps());
+        }
+    }
+
+    // Fixes every 20 s from departure until the end of the window, standing still for dwellSeconds from dwellAt
+    private static List<RecordedFix> trip(String routeId, String vehicleId, long departSeconds, long endSeconds,
+                                          long dwellAt, long dwellSeconds) {
+        List<RecordedFix> fixes = new ArrayList<>();
+        for (long t = departSeconds; t <= endSeconds; t += FIX_INTERVAL_SECONDS) {
+            long moving = t - departSeconds;
+            boolean dwelling = dwellAt >= 0 && t >= dwellAt && t < dwellAt + dwellSeconds;
+            if (dwellAt >= 0 && t >= dwellAt) {
+                moving -= Math.min(t - dwellAt, dwellSeconds);
+            }
+            fixes.add(new RecordedFix(vehicleId, routeId, moving * SPEED_MPS, START_MILLIS + t * 1000,
+                    dwelling ? 0.0 : SPEED_MPS));
+        }
+        return fixes;
+    }
+
+    // A follower cannot pass the stopped leader, so it is held the given distance behind it
+    private static void applyFollowDistance(List<RecordedFix> fixes, String follower, String leader, double meters) {
+        for (int i = 0; i < fixes.size(); i++) {
+            RecordedFix fix = fixes.get(i);
+            if (!fix.vehicleId().equals(follower)) {
+                continue;
+            }
+            double leaderMeasure = fixes.stream()
+                    .filter(other -> other.vehicleId().equals(leader) && other.epochMillis() == fix.epochMillis())
+                    .mapToDouble(RecordedFix::measureMeters)
+                    .findFirst()
+                    .orElse(Double.MAX_VALUE);
+            if (fix.measureMeters() > leaderMeasure - meters) {
+                fixes.set(i, new RecordedFix(fix.vehicleId(), fix.routeId(), leaderMeasure - meters,
+                        fix.epochMillis(), 0.0));
+            }
+        }
+    }
+
+    private record RecordedFix(String vehicleId, String routeId, double measureMeters, long epochMillis,
+                               double speedMps) {}
+}
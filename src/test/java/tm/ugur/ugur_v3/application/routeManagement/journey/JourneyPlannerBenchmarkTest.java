@@ -0,0 +1,168 @@
+package tm.ugur.ugur_v3.application.routeManagement.journey;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tm.ugur.ugur_v3.application.configuration.JourneyPlannerConfig;
+import tm.ugur.ugur_v3.application.configuration.ServiceDayConfig;
+import tm.ugur.ugur_v3.application.routeManagement.journey.JourneyPlanner.Journey;
+import tm.ugur.ugur_v3.application.routeManagement.journey.JourneyPlanner.JourneyLeg;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteNetworkService;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteNetworkSnapshot;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteScheduleCatalog;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.vehicleManagement.eta.SegmentSpeedProfileEtaService;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.Route;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.RouteSchedule;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.CompiledTimetable;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteId;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class JourneyPlannerBenchmarkTest {
+
+    // A square grid of stops 400 m apart with one line along every row and column in each direction,
+    // so any two stops are connected with at most one transfer
+    private static final int GRID = 20;
+    private static final double SPACING_DEGREES = 400.0 / 111_320.0;
+    private static final double ORIGIN_LAT = 37.95;
+    private static final double ORIGIN_LNG = 58.38;
+    private static final int QUERIES = 2_000;
+    private static final ZoneId ZONE = ZoneId.of("Asia/Ashgabat");
+    private static final Instant MORNING_PEAK = LocalDateTime.of(2026, 10, 14, 8, 0).atZone(ZONE).toInstant();
+
+    private final List<StopId> stops = new ArrayList<>(GRID * GRID);
+    private final Map<StopId, GeoCoordinate> stopLocations = new HashMap<>();
+    private JourneyPlanner planner;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        for (int row = 0; row < GRID; row++) {
+            for (int column = 0; column < GRID; column++) {
+                StopId stopId = StopId.of("stop-" + row + "-" + column);
+                stops.add(stopId);
+                stopLocations.put(stopId, GeoCoordinate.of(ORIGIN_LAT + row * SPACING_DEGREES,
+                        ORIGIN_LNG + column * SPACING_DEGREES / Math.cos(Math.toRadians(ORIGIN_LAT))));
+            }
+        }
+
+        // Every ten minutes from 05:00 to 23:00
+        int[] departures = IntStream.iterate(5 * 60, minute -> minute <= 23 * 60, minute -> minute + 10).toArray();
+        CompiledTimetable timetable = mock(CompiledTimetable.class);
+        when(timetable.departureMinutes(any())).thenReturn(departures);
+        RouteSchedule schedule = mock(RouteSchedule.class);
+        when(schedule.getCompiledTimetable()).thenReturn(timetable);
+
+        List<Route> routes = new ArrayList<>();
+        for (int line = 0; line < GRID; line++) {
+            int fixed = line;
+            List<StopId> row = IntStream.range(0, GRID).mapToObj(column -> stop(fixed, column)).toList();
+            List<StopId> column = IntStream.range(0, GRID).mapToObj(r -> stop(r, fixed)).toList();
+            routes.add(route("row-" + line + "-east", row));
+            routes.add(route("row-" + line + "-west", reversed(row)));
+            routes.add(route("column-" + line + "-north", column));
+            routes.add(route("column-" + line + "-south", reversed(column)));
+        }
+
+        RouteNetworkSnapshot network = RouteNetworkSnapshot.build(1L, routes);
+        RouteNetworkService networkService = mock(RouteNetworkService.class);
+        when(networkService.current()).thenReturn(network);
+        RouteScheduleCatalog scheduleCatalog = mock(RouteScheduleCatalog.class);
+        when(scheduleCatalog.scheduleFor(anyString())).thenReturn(Optional.of(schedule));
+        SegmentSpeedProfileEtaService etaService = mock(SegmentSpeedProfileEtaService.class);
+        when(etaService.stopLocations()).thenReturn(stopLocations);
+
+        PerformanceMonitor performanceMonitor = mock(PerformanceMonitor.class, withSettings().stubOnly());
+        when(performanceMonitor.time(anyString(), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+
+        ServiceDayConfig serviceDay = new ServiceDayConfig();
+        serviceDay.setTimeZone(ZONE);
+        planner = new JourneyPlanner(networkService, scheduleCatalog, etaService, new JourneyPlannerConfig(),
+                serviceDay, performanceMonitor);
+    }
+
+    @Test
+    void answersRandomStopPairsWithinOneTransfer() {
+        Random random = new Random(42);
+        List<StopId[]> pairs = new ArrayList<>(QUERIES);
+        while (pairs.size() < QUERIES) {
+            StopId from = stops.get(random.nextInt(stops.size()));
+            StopId to = stops.get(random.nextInt(stops.size()));
+            if (!from.equals(to)) {
+                pairs.add(new StopId[]{from, to});
+            }
+        }
+
+        // The first query builds the timetable, which is reported apart from the query latencies
+        long buildStart = System.nanoTime();
+        planner.plan(pairs.getFirst()[0], pairs.getFirst()[1], MORNING_PEAK);
+        long buildMicros = (System.nanoTime() - buildStart) / 1_000;
+
+        long[] micros = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long startTime = System.nanoTime();
+            List<Journey> journeys = planner.plan(pairs.get(i)[0], pairs.get(i)[1], MORNING_PEAK);
+            micros[i] = (System.nanoTime() - startTime) / 1_000;
+
+            assertThat(journeys).as("journeys from %s to %s", pairs.get(i)[0], pairs.get(i)[1]).isNotEmpty();
+            // Fastest first, so the last journey of the front is the one with the fewest transfers
+            assertThat(journeys.getLast().transfers()).isLessThanOrEqualTo(1);
+            assertThat(journeys.getFirst().departure()).isAfterOrEqualTo(MORNING_PEAK);
+        }
+
+        Arrays.sort(micros);
+        System.out.printf("Journey planner over %d stops / %d routes: first query with timetable build %d us, "
+                        + "p50 %d us, p95 %d us, max %d us%n", stops.size(), GRID * 4, buildMicros,
+                micros[QUERIES / 2], micros[(int) (QUERIES * 0.95)], micros[QUERIES - 1]);
+    }
+
+    @Test
+    void stopsOnOneRowAreOneRideApart() {
+        List<Journey> journeys = planner.plan(stop(3, 4), stop(3, 9), MORNING_PEAK);
+
+        assertThat(journeys).isNotEmpty();
+        Journey fastest = journeys.getFirst();
+        assertThat(fastest.transfers()).isZero();
+        assertThat(fastest.legs()).extracting(JourneyLeg::routeId).contains(RouteId.of("row-3-east").getValue());
+    }
+
+    private StopId stop(int row, int column) {
+        return stops.get(row * GRID + column);
+    }
+
+    private static Route route(String id, List<StopId> stopSequence) {
+        Route route = mock(Route.class);
+        when(route.getId()).thenReturn(RouteId.of(id));
+        when(route.getStopSequence()).thenReturn(stopSequence);
+        when(route.getSegments()).thenReturn(List.of());
+        return route;
+    }
+
+    private static List<StopId> reversed(List<StopId> stops) {
+        List<StopId> copy = new ArrayList<>(stops);
+        Collections.reverse(copy);
+        return copy;
+    }
+}
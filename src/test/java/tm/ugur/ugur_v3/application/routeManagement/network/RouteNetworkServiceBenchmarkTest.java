@@ -0,0 +1,137 @@
+package tm.ugur.ugur_v3.application.routeManagement.network;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import tm.ugur.ugur_v3.application.configuration.RouteNetworkConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.Route;
+import tm.ugur.ugur_v3.domain.routeManagement.repository.RouteRepository;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteId;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RouteNetworkServiceBenchmarkTest {
+
+    private static final int ROUTES = 300;
+    private static final int STOPS = 2_000;
+    private static final int STOPS_PER_ROUTE = 25;
+    private static final int SAMPLES = 2_000;
+    private static final int WARMUP_ROUNDS = 3;
+
+    private final Random random = new Random(42);
+    private final Map<Route, List<StopId>> stopSequences = new LinkedHashMap<>();
+    private final List<StopId> stops = new ArrayList<>(STOPS);
+
+    private RouteNetworkService service;
+    private RouteRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        for (int s = 0; s < STOPS; s++) {
+            stops.add(StopId.of("stop-" + s));
+        }
+        for (int r = 0; r < ROUTES; r++) {
+            List<StopId> sequence = new ArrayList<>(STOPS_PER_ROUTE);
+            int start = random.nextInt(STOPS);
+            for (int i = 0; i < STOPS_PER_ROUTE; i++) {
+                sequence.add(stops.get((start + i * 7) % STOPS));
+            }
+            Route route = mock(Route.class);
+            when(route.getId()).thenReturn(RouteId.of("route-" + r));
+            when(route.getStopSequence()).thenReturn(sequence);
+            when(route.getSegments()).thenReturn(List.of());
+            stopSequences.put(route, sequence);
+        }
+
+        // Linear scans over every route, the work the repository queries do without the snapshot's index
+        repository = mock(RouteRepository.class);
+        when(repository.findActiveRoutes()).thenReturn(Flux.fromIterable(stopSequences.keySet()));
+        when(repository.findByStopId(any())).thenAnswer(invocation -> scan(
+                sequence -> sequence.contains(invocation.<StopId>getArgument(0))));
+        when(repository.findRoutesBetweenStops(any(), any())).thenAnswer(invocation -> scan(sequence -> {
+            int from = sequence.indexOf(invocation.<StopId>getArgument(0));
+            int to = sequence.indexOf(invocation.<StopId>getArgument(1));
+            return from >= 0 && to > from;
+        }));
+
+        ObjectProvider<RouteRepository> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(repository);
+
+        service = new RouteNetworkService(provider, new RouteNetworkConfig(), mock(PerformanceMonitor.class));
+        service.refresh().block();
+    }
+
+    @Test
+    void snapshotAnswersMatchRepositoryAndAreFaster() {
+        List<StopId[]> samples = samples();
+
+        for (StopId[] pair : samples) {
+            assertThat(service.findByStopId(pair[0]).collectList().block())
+                    .containsExactlyInAnyOrderElementsOf(repository.findByStopId(pair[0]).collectList().block());
+            assertThat(service.findRoutesBetweenStops(pair[0], pair[1]).collectList().block())
+                    .containsExactlyInAnyOrderElementsOf(
+                            repository.findRoutesBetweenStops(pair[0], pair[1]).collectList().block());
+        }
+
+        long snapshotNanos = 0;
+        long repositoryNanos = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            snapshotNanos = measure(samples, pair -> service.findByStopId(pair[0]).thenMany(
+                    service.findRoutesBetweenStops(pair[0], pair[1])));
+            repositoryNanos = measure(samples, pair -> repository.findByStopId(pair[0]).thenMany(
+                    repository.findRoutesBetweenStops(pair[0], pair[1])));
+        }
+
+        System.out.printf("Route network lookups over %d routes: snapshot %d ns, repository scan %d ns per sample%n",
+                ROUTES, snapshotNanos / SAMPLES, repositoryNanos / SAMPLES);
+        assertThat(service.current().getRouteCount()).isEqualTo(ROUTES);
+        assertThat(snapshotNanos).isLessThan(repositoryNanos);
+    }
+
+    private List<StopId[]> samples() {
+        List<StopId[]> samples = new ArrayList<>(SAMPLES);
+        List<List<StopId>> sequences = List.copyOf(stopSequences.values());
+        for (int i = 0; i < SAMPLES; i++) {
+            // Half the pairs ride one route forwards, the rest are arbitrary stops
+            List<StopId> sequence = sequences.get(random.nextInt(sequences.size()));
+            int from = random.nextInt(STOPS_PER_ROUTE - 1);
+            samples.add(i % 2 == 0
+                    ? new StopId[]{sequence.get(from), sequence.get(from + 1 + random.nextInt(STOPS_PER_ROUTE - from - 1))}
+                    : new StopId[]{stops.get(random.nextInt(STOPS)), stops.get(random.nextInt(STOPS))});
+        }
+        return samples;
+    }
+
+    private Flux<Route> scan(Predicate<List<StopId>> matches) {
+        List<Route> result = new ArrayList<>();
+        stopSequences.forEach((route, sequence) -> {
+            if (matches.test(sequence)) {
+                result.add(route);
+            }
+        });
+        return Flux.fromIterable(result);
+    }
+
+    private static long measure(List<StopId[]> samples, Function<StopId[], Flux<Route>> lookup) {
+        long startTime = System.nanoTime();
+        for (StopId[] pair : samples) {
+            lookup.apply(pair).blockLast();
+        }
+        return System.nanoTime() - startTime;
+    }
+}
@@ -0,0 +1,94 @@
+package tm.ugur.ugur_v3.application.shared.executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.executor.BatchUseCaseExecutor.BatchResult;
+import tm.ugur.ugur_v3.application.shared.executor.BatchUseCaseExecutor.TransactionalBatchResult;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveBatchUseCaseExecutorTest {
+
+    private ReactiveTransactionManager transactionManager;
+    private ReactiveBatchUseCaseExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(ReactiveTransactionManager.class);
+        when(transactionManager.getReactiveTransaction(any())).thenReturn(Mono.just(mock(ReactiveTransaction.class)));
+        when(transactionManager.commit(any())).thenReturn(Mono.empty());
+        when(transactionManager.rollback(any())).thenReturn(Mono.empty());
+
+        executor = new ReactiveBatchUseCaseExecutor(mock(PerformanceMonitor.class), transactionManager);
+    }
+
+    @Test
+    void transactionalBatchCommitsWhenEveryCommandSucceeds() {
+        TransactionalBatchResult<Integer> result = executor.executeTransactionalBatch(List.of(1, 2, 3),
+                (Integer command) -> Mono.just(command * 10)).join();
+
+        assertThat(result.isTransactionSuccessful()).isTrue();
+        assertThat(result.getRollbackCause()).isNull();
+        assertThat(result.getResults()).extracting(BatchResult::getResult).containsExactly(10, 20, 30);
+        verify(transactionManager).commit(any());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void transactionalBatchRollsBackAtTheFirstFailureAndSkipsTheRest() {
+        List<Integer> handled = new ArrayList<>();
+
+        TransactionalBatchResult<Integer> result = executor.executeTransactionalBatch(List.of(1, 2, 3, 4),
+                (Integer command) -> {
+                    handled.add(command);
+                    return command == 2 ? Mono.error(new IllegalStateException("vehicle 2 rejected")) : Mono.just(command);
+                }).join();
+
+        assertThat(handled).containsExactly(1, 2);
+        assertThat(result.isTransactionSuccessful()).isFalse();
+        assertThat(result.getRollbackCause()).hasMessage("vehicle 2 rejected");
+        assertThat(result.getResults()).extracting(BatchResult::isSuccess).containsExactly(true, false);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void streamingBatchKeepsCommandOrderByDefault() {
+        StreamingBatchSettings config = StreamingBatchSettings.builder()
+                .maxBatchSize(8)
+                .batchTrigger(BatchUseCaseExecutor.BatchTrigger.SIZE_BASED)
+                .parallelism(4)
+                .build();
+
+        // The first command of each batch is the slowest, so completion order differs from command order
+        List<Integer> indexes = JdkFlowAdapter.flowPublisherToFlux(executor.executeStreamingBatch(
+                        JdkFlowAdapter.publisherToFlowPublisher(Flux.range(0, 32)),
+                        (Integer command) -> {
+                            LockSupport.parkNanos(Duration.ofMillis(command % 8 == 0 ? 50 : 1).toNanos());
+                            return command;
+                        },
+                        config))
+                .map(BatchResult::getIndex)
+                .collectList()
+                .block();
+
+        assertThat(indexes).containsExactlyElementsOf(IntStream.range(0, 32).boxed().toList());
+    }
+}
@@ -0,0 +1,126 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.commands.handlers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.configuration.VehicleManagementConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.shared.validation.ValidatorService;
+import tm.ugur.ugur_v3.application.vehicleManagement.commands.UpdateVehicleLocationCommand;
+import tm.ugur.ugur_v3.application.vehicleManagement.commands.results.UpdateVehicleLocationResult;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleType;
+import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleRepository;
+import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleRepository.VersionedSaveResult;
+import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleTrackingRepository;
+import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleTrackingRepository.SessionGpsDataPoint;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Bearing;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Capacity;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.LicensePlate;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Speed;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.TrackingSessionId;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.VehicleId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class UpdateVehicleLocationHandlerHistoryTest {
+
+    private final Map<VehicleId, Vehicle> vehicles = new HashMap<>();
+    private final List<List<SessionGpsDataPoint>> writes = new ArrayList<>();
+    private final VehicleManagementConfig config = new VehicleManagementConfig();
+
+    private UpdateVehicleLocationHandler handler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        for (int i = 1; i <= 3; i++) {
+            VehicleId vehicleId = VehicleId.of("V%08d".formatted(i));
+            vehicles.put(vehicleId, new Vehicle(vehicleId, 1L, Timestamp.now(), Timestamp.now(),
+                    LicensePlate.of("100%d AGH".formatted(i)), VehicleType.BUS, Capacity.fromTotal(50), "Bus",
+                    VehicleStatus.ACTIVE, null, null, null, Speed.zero(), Bearing.north(), Timestamp.now(), 0L,
+                    null, null));
+        }
+
+        VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+        when(vehicleRepository.findById(any(VehicleId.class)))
+                .thenAnswer(invocation -> Mono.justOrEmpty(vehicles.get(invocation.<VehicleId>getArgument(0))));
+        when(vehicleRepository.save(any(Vehicle.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.<Vehicle>getArgument(0)));
+        when(vehicleRepository.saveVersioned(anyList()))
+                .thenAnswer(invocation -> Mono.just(new VersionedSaveResult(invocation.getArgument(0), List.of(), List.of())));
+
+        VehicleTrackingRepository trackingRepository = mock(VehicleTrackingRepository.class);
+        when(trackingRepository.storeGpsDataPoints(any(Flux.class)))
+                .thenAnswer(invocation -> invocation.<Flux<SessionGpsDataPoint>>getArgument(0)
+                        .collectList()
+                        .doOnNext(writes::add)
+                        .map(points -> (long) points.size()));
+
+        PerformanceMonitor performanceMonitor = mock(PerformanceMonitor.class, withSettings().stubOnly());
+        when(performanceMonitor.timeReactive(anyString(), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+
+        handler = new UpdateVehicleLocationHandler(vehicleRepository, performanceMonitor,
+                mock(ValidatorService.class), config, trackingRepository);
+    }
+
+    @Test
+    void batchOfFixesIsRecordedInOneHistoryWrite() {
+        List<UpdateVehicleLocationCommand> commands = vehicles.keySet().stream()
+                .map(vehicleId -> UpdateVehicleLocationCommand.fromGpsApi(vehicleId, 37.95, 58.38, 5.0, 30.0, 90.0))
+                .toList();
+
+        List<UpdateVehicleLocationResult> results = handler.handleBatch(commands).block();
+
+        assertThat(results).allMatch(UpdateVehicleLocationResult::isSuccessful);
+        assertThat(writes).hasSize(1);
+        assertThat(writes.getFirst()).extracting(SessionGpsDataPoint::vehicleId)
+                .containsExactlyInAnyOrderElementsOf(vehicles.keySet());
+        assertThat(writes.getFirst()).allSatisfy(point -> {
+            assertThat(point.sessionId()).isNotNull();
+            assertThat(point.gpsData().location().getLatitude()).isEqualTo(37.95);
+        });
+    }
+
+    @Test
+    void fixesWithinTheGapStayInOneSession() {
+        VehicleId vehicleId = vehicles.keySet().iterator().next();
+
+        handler.handleBatch(List.of(UpdateVehicleLocationCommand.fromGpsApi(vehicleId, 37.95, 58.38, 5.0, 30.0, 90.0)))
+                .block();
+        handler.handleBatch(List.of(UpdateVehicleLocationCommand.fromGpsApi(vehicleId, 37.96, 58.38, 5.0, 30.0, 90.0)))
+                .block();
+
+        assertThat(writes).hasSize(2);
+        TrackingSessionId first = writes.get(0).getFirst().sessionId();
+        assertThat(writes.get(1).getFirst().sessionId()).isEqualTo(first);
+    }
+
+    @Test
+    void singleUpdateIsRecordedUnlessHistoryTrackingIsOff() {
+        VehicleId vehicleId = vehicles.keySet().iterator().next();
+
+        handler.handle(UpdateVehicleLocationCommand.fromGpsApi(vehicleId, 37.95, 58.38, 5.0, 30.0, 90.0)).block();
+        config.getBusinessRules().getLocation().setEnableLocationHistoryTracking(false);
+        handler.handle(UpdateVehicleLocationCommand.fromGpsApi(vehicleId, 37.96, 58.38, 5.0, 30.0, 90.0)).block();
+
+        assertThat(writes).hasSize(1);
+        assertThat(writes.getFirst()).extracting(SessionGpsDataPoint::vehicleId).containsExactly(vehicleId);
+    }
+}
@@ -0,0 +1,162 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.eta;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tm.ugur.ugur_v3.application.configuration.EtaEngineConfig;
+import tm.ugur.ugur_v3.application.configuration.ServiceDayConfig;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteNetworkService;
+import tm.ugur.ugur_v3.application.routeManagement.network.RouteNetworkSnapshot;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.routeManagement.aggregate.Route;
+import tm.ugur.ugur_v3.domain.routeManagement.valueobjects.RouteId;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleType;
+import tm.ugur.ugur_v3.domain.vehicleManagement.services.ETACalculationService.ETAResult;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Bearing;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Capacity;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.LicensePlate;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Speed;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.VehicleId;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class SegmentSpeedProfileEtaServiceLoadTest {
+
+    // A city-sized fleet: 100 routes of 40 stops 400 m apart, 20 buses on each
+    private static final int ROUTES = 100;
+    private static final int STOPS_PER_ROUTE = 40;
+    private static final int VEHICLES_PER_ROUTE = 20;
+    private static final double STOP_SPACING_METERS = 400.0;
+    private static final double PAST_STOP_METERS = 150.0;
+    private static final double ORIGIN_LAT = 37.95;
+    private static final double ORIGIN_LNG = 58.38;
+    private static final double METERS_PER_DEGREE_LAT = 111_195.0;
+    private static final int WARMUP_RUNS = 5;
+    private static final int RUNS = 10;
+    private static final Duration BUDGET = Duration.ofMillis(300);
+
+    private final List<Vehicle> fleet = new ArrayList<>(ROUTES * VEHICLES_PER_ROUTE);
+    private final List<Integer> nextStops = new ArrayList<>(ROUTES * VEHICLES_PER_ROUTE);
+    private SegmentSpeedProfileEtaService etaService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        PerformanceMonitor performanceMonitor = mock(PerformanceMonitor.class, withSettings().stubOnly());
+        when(performanceMonitor.time(anyString(), any(Supplier.class)))
+                .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+
+        List<Route> routes = new ArrayList<>(ROUTES);
+        for (int line = 0; line < ROUTES; line++) {
+            int fixed = line;
+            routes.add(route("route-" + line,
+                    IntStream.range(0, STOPS_PER_ROUTE).mapToObj(position -> stop(fixed, position)).toList()));
+        }
+        RouteNetworkSnapshot network = RouteNetworkSnapshot.build(1L, routes);
+        RouteNetworkService networkService = mock(RouteNetworkService.class, withSettings().stubOnly());
+        when(networkService.current()).thenReturn(network);
+
+        etaService = new SegmentSpeedProfileEtaService(networkService, new EtaEngineConfig(), new ServiceDayConfig(),
+                performanceMonitor);
+
+        // Every segment learned from a few traversals in the current hour
+        Instant now = Instant.now();
+        for (int line = 0; line < ROUTES; line++) {
+            for (int position = 0; position < STOPS_PER_ROUTE; position++) {
+                etaService.registerStopLocation(stop(line, position), location(line, position * STOP_SPACING_METERS));
+                if (position > 0) {
+                    for (int seconds = 50; seconds <= 70; seconds += 5) {
+                        etaService.recordTraversal(stop(line, position - 1), stop(line, position),
+                                Duration.ofSeconds(seconds), now);
+                    }
+                }
+            }
+        }
+
+        // Buses spread along each route, each a little past a stop and heading for the next one
+        for (int line = 0; line < ROUTES; line++) {
+            for (int bus = 0; bus < VEHICLES_PER_ROUTE; bus++) {
+                int passed = bus * (STOPS_PER_ROUTE - 1) / VEHICLES_PER_ROUTE;
+                fleet.add(vehicle(fleet.size(), "route-" + line,
+                        location(line, passed * STOP_SPACING_METERS + PAST_STOP_METERS)));
+                nextStops.add(passed + 1);
+            }
+        }
+    }
+
+    @Test
+    void recomputesTheWholeFleetWithinBudget() {
+        // The first pass builds the route timelines, which later passes reuse; the warm-up passes are not timed
+        Map<VehicleId, Map<StopId, ETAResult>> etas = null;
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            etas = etaService.recomputeFleet(fleet);
+        }
+
+        long[] micros = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            long startTime = System.nanoTime();
+            etas = etaService.recomputeFleet(fleet);
+            micros[run] = (System.nanoTime() - startTime) / 1_000;
+        }
+
+        assertThat(etas).hasSize(fleet.size());
+        int stops = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            Map<StopId, ETAResult> downstream = etas.get(fleet.get(i).getId());
+            assertThat(downstream).as("downstream stops of %s", fleet.get(i).getId())
+                    .hasSize(STOPS_PER_ROUTE - nextStops.get(i));
+            List<Duration> times = downstream.values().stream().map(ETAResult::estimatedTime).toList();
+            assertThat(times).isSorted().doesNotHaveDuplicates();
+            stops += downstream.size();
+        }
+
+        Arrays.sort(micros);
+        System.out.printf("ETA fleet recompute: %d vehicles / %d downstream stops, median %d us, max %d us%n",
+                fleet.size(), stops, micros[RUNS / 2], micros[RUNS - 1]);
+        assertThat(Duration.ofNanos(micros[RUNS / 2] * 1_000)).isLessThan(BUDGET);
+    }
+
+    private static StopId stop(int line, int position) {
+        return StopId.of("stop-" + line + "-" + position);
+    }
+
+    // Each route runs due east along its own parallel, 500 m north of the previous one
+    private static GeoCoordinate location(int line, double metersAlong) {
+        double lat = ORIGIN_LAT + line * 500.0 / METERS_PER_DEGREE_LAT;
+        double lng = ORIGIN_LNG + metersAlong / (METERS_PER_DEGREE_LAT * Math.cos(Math.toRadians(lat)));
+        return GeoCoordinate.of(lat, lng);
+    }
+
+    private static Route route(String id, List<StopId> stopSequence) {
+        Route route = mock(Route.class, withSettings().stubOnly());
+        when(route.getId()).thenReturn(RouteId.of(id));
+        when(route.getStopSequence()).thenReturn(stopSequence);
+        when(route.getSegments()).thenReturn(List.of());
+        return route;
+    }
+
+    private static Vehicle vehicle(int number, String routeId, GeoCoordinate location) {
+        return new Vehicle(VehicleId.of("V%08d".formatted(number)), 1L, Timestamp.now(), Timestamp.now(),
+                LicensePlate.of("%04d AGH".formatted(1000 + number)), VehicleType.BUS, Capacity.fromTotal(50), "Bus",
+                VehicleStatus.IN_ROUTE, routeId, location, null, Speed.ofKmh(25.0), Bearing.ofDegrees(90.0),
+                Timestamp.now(), 0L, null, null);
+    }
+}
@@ -0,0 +1,163 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.gtfs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tm.ugur.ugur_v3.application.configuration.GtfsRealtimeConfig;
+import tm.ugur.ugur_v3.application.configuration.ServiceDayConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.vehicleManagement.eta.SegmentSpeedProfileEtaService;
+import tm.ugur.ugur_v3.application.vehicleManagement.gtfs.GtfsRealtimeFeed.FeedBody;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
+import tm.ugur.ugur_v3.domain.stopManagement.valueobjects.StopId;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
+import tm.ugur.ugur_v3.domain.vehicleManagement.events.VehicleLocationUpdatedEvent;
+import tm.ugur.ugur_v3.domain.vehicleManagement.services.ETACalculationService.ETAQuality;
+import tm.ugur.ugur_v3.domain.vehicleManagement.services.ETACalculationService.ETAResult;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.VehicleId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class GtfsRealtimeFeedBenchmarkTest {
+
+    private static final int VEHICLES = 2_000;
+    private static final int STOPS_PER_VEHICLE = 20;
+    private static final int CHANGED = VEHICLES / 10;
+    private static final int ROUNDS = 10;
+
+    private final Random random = new Random(42);
+    private final List<String> vehicleIds = new ArrayList<>(VEHICLES);
+    private final Map<String, Map<StopId, ETAResult>> etas = new HashMap<>();
+    private SegmentSpeedProfileEtaService etaService;
+
+    @BeforeEach
+    void setUp() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < VEHICLES; i++) {
+            String vehicleId = "V%08d".formatted(100_000 + i);
+            vehicleIds.add(vehicleId);
+            etas.put(vehicleId, downstreamEtas(now));
+        }
+
+        // ETAs are precomputed so only the feed encoding is timed
+        etaService = mock(SegmentSpeedProfileEtaService.class, withSettings().stubOnly());
+        when(etaService.downstreamEtas(anyString(), anyString(), any(), anyDouble()))
+                .thenAnswer(invocation -> etas.get(invocation.<String>getArgument(0)));
+    }
+
+    @Test
+    void incrementalBuildEncodesOnlyMovedVehicles() {
+        long[] fullMicros = new long[ROUNDS];
+        long[] incrementalMicros = new long[ROUNDS];
+        int fullBytes = 0;
+        int deltaBytes = 0;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            GtfsRealtimeFeed feed = newFeed();
+
+            long fullStart = System.nanoTime();
+            vehicleIds.forEach(vehicleId -> feed.handle(fix(vehicleId)));
+            feed.publish();
+            fullMicros[round] = (System.nanoTime() - fullStart) / 1_000;
+            long fullVersion = feed.vehiclePositions(null).version();
+
+            List<String> moved = new ArrayList<>(vehicleIds.subList(0, CHANGED));
+            long incrementalStart = System.nanoTime();
+            moved.forEach(vehicleId -> feed.handle(fix(vehicleId)));
+            feed.publish();
+            incrementalMicros[round] = (System.nanoTime() - incrementalStart) / 1_000;
+
+            FeedBody full = feed.vehiclePositions(null);
+            FeedBody delta = feed.vehiclePositions(fullVersion);
+            assertThat(delta.differential()).isTrue();
+            assertThat(delta.version()).isEqualTo(fullVersion + 1);
+            assertThat(contains(delta.bytes(), moved.getFirst())).isTrue();
+            assertThat(contains(delta.bytes(), vehicleIds.getLast())).isFalse();
+            assertThat(contains(full.bytes(), vehicleIds.getLast())).isTrue();
+            assertThat(contains(feed.tripUpdates(fullVersion).bytes(), moved.getLast())).isTrue();
+
+            fullBytes = full.bytes().length;
+            deltaBytes = delta.bytes().length;
+        }
+
+        Arrays.sort(fullMicros);
+        Arrays.sort(incrementalMicros);
+        System.out.printf("GTFS-Realtime over %d vehicles x %d stops: full build p50 %d us, %d moved p50 %d us, "
+                        + "vehicle positions %d bytes, delta %d bytes%n", VEHICLES, STOPS_PER_VEHICLE,
+                fullMicros[ROUNDS / 2], CHANGED, incrementalMicros[ROUNDS / 2], fullBytes, deltaBytes);
+        assertThat(deltaBytes).isLessThan(fullBytes / 5);
+        assertThat(incrementalMicros[ROUNDS / 2]).isLessThan(fullMicros[ROUNDS / 2]);
+    }
+
+    @Test
+    void vehicleLeavingServiceIsDeletedInTheDelta() {
+        GtfsRealtimeFeed feed = newFeed();
+        vehicleIds.subList(0, 3).forEach(vehicleId -> feed.handle(fix(vehicleId)));
+        feed.publish();
+        long version = feed.vehiclePositions(null).version();
+
+        feed.handle(VehicleLocationUpdatedEvent.of(VehicleId.of(vehicleIds.get(1)), GeoCoordinate.of(37.95, 58.38),
+                0.0, 0.0, "R1", VehicleStatus.AT_DEPOT));
+        feed.publish();
+
+        FeedBody delta = feed.vehiclePositions(version);
+        assertThat(delta.differential()).isTrue();
+        assertThat(contains(delta.bytes(), vehicleIds.get(1))).isTrue();
+        assertThat(contains(feed.vehiclePositions(null).bytes(), vehicleIds.get(1))).isFalse();
+        assertThat(contains(feed.vehiclePositions(null).bytes(), vehicleIds.get(0))).isTrue();
+    }
+
+    private GtfsRealtimeFeed newFeed() {
+        return new GtfsRealtimeFeed(etaService, new GtfsRealtimeConfig(), new ServiceDayConfig(),
+                mock(PerformanceMonitor.class, withSettings().stubOnly()));
+    }
+
+    private VehicleLocationUpdatedEvent fix(String vehicleId) {
+        GeoCoordinate location = GeoCoordinate.of(37.90 + random.nextDouble() * 0.10,
+                58.30 + random.nextDouble() * 0.15);
+        return VehicleLocationUpdatedEvent.of(VehicleId.of(vehicleId), location, random.nextDouble() * 15.0,
+                random.nextDouble() * 360.0, "R" + random.nextInt(80), VehicleStatus.IN_ROUTE);
+    }
+
+    private Map<StopId, ETAResult> downstreamEtas(long now) {
+        Map<StopId, ETAResult> downstream = new LinkedHashMap<>();
+        long offset = 0;
+        for (int i = 0; i < STOPS_PER_VEHICLE; i++) {
+            offset += 60_000 + random.nextInt(120_000);
+            downstream.put(StopId.of("S" + random.nextInt(2_000)), new ETAResult(Duration.ofMillis(offset),
+                    Timestamp.of(now + offset), 0.8, "SEGMENT_PROFILE", Map.of(), ETAQuality.GOOD));
+        }
+        return downstream;
+    }
+
+    // Entity ids are written as plain UTF-8 strings, so an id in the body means its entity was encoded
+    private static boolean contains(byte[] body, String id) {
+        byte[] needle = id.getBytes(StandardCharsets.UTF_8);
+        outer:
+        for (int i = 0; i <= body.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (body[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,107 @@
+package tm.ugur.ugur_v3.application.vehicleManagement.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import tm.ugur.ugur_v3.application.configuration.VehicleStreamConfig;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.application.vehicleManagement.streaming.VehiclePositionFeed.TileFrame;
+import tm.ugur.ugur_v3.application.vehicleManagement.streaming.VehiclePositionFeed.VehiclePosition;
+import tm.ugur.ugur_v3.domain.geospatial.valueobjects.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class VehiclePositionFeedLoadTest {
+
+    private static final int SUBSCRIBERS = 10_000;
+    private static final int TILE_ROWS = 5;
+    private static final int TILE_COLUMNS = 5;
+    private static final int VEHICLES_PER_TILE = 40;
+    private static final double TILE_SIZE = 0.01;
+    private static final double ORIGIN_LATITUDE = 37.90;
+    private static final double ORIGIN_LONGITUDE = 58.30;
+
+    private PerformanceMonitor performanceMonitor;
+    private VehiclePositionFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        VehicleStreamConfig config = new VehicleStreamConfig();
+        config.setTileSizeDegrees(TILE_SIZE);
+
+        performanceMonitor = mock(PerformanceMonitor.class);
+        feed = new VehiclePositionFeed(config, new ObjectMapper(), performanceMonitor);
+    }
+
+    @Test
+    void tenThousandSubscribersShareOneEncodedFramePerTile() {
+        int tiles = TILE_ROWS * TILE_COLUMNS;
+        List<List<TileFrame>> received = new ArrayList<>(SUBSCRIBERS);
+        List<Disposable> subscriptions = new ArrayList<>(SUBSCRIBERS);
+
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            List<TileFrame> frames = new ArrayList<>();
+            received.add(frames);
+            subscriptions.add(feed.subscribe(tileViewport(i % tiles)).subscribe(frames::add));
+        }
+        assertThat(feed.stats().subscribers()).isEqualTo(SUBSCRIBERS);
+
+        for (int tile = 0; tile < tiles; tile++) {
+            for (int v = 0; v < VEHICLES_PER_TILE; v++) {
+                feed.publish(position("bus-" + tile + "-" + v, tile, v));
+            }
+        }
+        feed.emitFrames();
+
+        verify(performanceMonitor).incrementCounter("vehicle.stream.frames.encoded", tiles);
+        assertThat(feed.stats().vehicles()).isEqualTo(tiles * VEHICLES_PER_TILE);
+
+        Set<byte[]> distinctPayloads = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (List<TileFrame> frames : received) {
+            assertThat(frames).hasSize(1);
+            TileFrame frame = frames.getFirst();
+            assertThat(frame.snapshot()).isFalse();
+            assertThat(frame.sequence()).isEqualTo(1);
+            assertThat(frame.vehicleCount()).isEqualTo(VEHICLES_PER_TILE);
+            distinctPayloads.add(frame.utf8());
+        }
+        assertThat(distinctPayloads).hasSize(tiles);
+
+        // A second round only carries the vehicle that moved
+        for (int tile = 0; tile < tiles; tile++) {
+            feed.publish(position("bus-" + tile + "-0", tile, 1));
+        }
+        feed.emitFrames();
+
+        for (List<TileFrame> frames : received) {
+            assertThat(frames).hasSize(2);
+            assertThat(frames.get(1).sequence()).isEqualTo(2);
+            assertThat(frames.get(1).vehicleCount()).isEqualTo(1);
+        }
+
+        subscriptions.forEach(Disposable::dispose);
+        assertThat(feed.stats().subscribers()).isZero();
+    }
+
+    private static BoundingBox tileViewport(int tile) {
+        double south = ORIGIN_LATITUDE + (tile / TILE_COLUMNS) * TILE_SIZE + TILE_SIZE * 0.25;
+        double west = ORIGIN_LONGITUDE + (tile % TILE_COLUMNS) * TILE_SIZE + TILE_SIZE * 0.25;
+        return BoundingBox.ofCorners(south, west, south + TILE_SIZE * 0.5, west + TILE_SIZE * 0.5);
+    }
+
+    private static VehiclePosition position(String vehicleId, int tile, int offset) {
+        double latitude = ORIGIN_LATITUDE + (tile / TILE_COLUMNS) * TILE_SIZE + TILE_SIZE * 0.5;
+        double longitude = ORIGIN_LONGITUDE + (tile % TILE_COLUMNS) * TILE_SIZE + TILE_SIZE * 0.5;
+        return new VehiclePosition(vehicleId, latitude, longitude, 30.0 + offset % 10, 90.0,
+                "route-1", "IN_ROUTE", System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,158 @@
+package tm.ugur.ugur_v3.domain.routeManagement.valueobjects;
+
+import org.junit.jupiter.api.Test;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RouteGeometryTest {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+    private static final double ORIGIN_LAT = 37.95;
+    private static final double ORIGIN_LNG = 58.38;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void buildsForEveryPolylineSize() {
+        for (int segments = 1; segments <= 1_200; segments++) {
+            RouteGeometry geometry = RouteGeometry.of(wander(segments + 1));
+
+            assertThat(geometry.segmentCount()).isEqualTo(segments);
+            assertThat(geometry.project(GeoCoordinate.of(ORIGIN_LAT, ORIGIN_LNG)).segment()).isBetween(0, segments - 1);
+        }
+    }
+
+    @Test
+    void projectionMatchesABruteForceScan() {
+        List<GeoCoordinate> points = wander(800);
+        RouteGeometry geometry = RouteGeometry.of(points);
+        BruteForce bruteForce = new BruteForce(points);
+
+        for (int i = 0; i < 2_000; i++) {
+            GeoCoordinate point = GeoCoordinate.of(ORIGIN_LAT - 0.01 + random.nextDouble() * 0.08,
+                    ORIGIN_LNG - 0.01 + random.nextDouble() * 0.08);
+            RouteGeometry.Projection projection = geometry.project(point);
+            double[] expected = bruteForce.project(point);
+
+            assertThat(projection.offsetMeters()).as("offset of %s", point).isCloseTo(expected[1], within(1e-6));
+            // Equally close segments may tie, so the measure is checked through the point it names
+            assertThat(bruteForce.offset(point, geometry.pointAt(projection.measure())))
+                    .as("offset at the measure of %s", point).isCloseTo(expected[1], within(0.01));
+        }
+    }
+
+    @Test
+    void measuresFollowTheCumulativeLength() {
+        List<GeoCoordinate> points = wander(500);
+        RouteGeometry geometry = RouteGeometry.of(points);
+
+        double length = 0.0;
+        for (int vertex = 0; vertex < points.size(); vertex++) {
+            if (vertex > 0) {
+                length += haversine(points.get(vertex - 1), points.get(vertex));
+            }
+            // A vertex projects onto itself at its cumulative length
+            assertThat(geometry.project(points.get(vertex)).measure()).isCloseTo(length, within(1e-6));
+            assertThat(geometry.segmentAt(length)).isEqualTo(Math.min(vertex, geometry.segmentCount() - 1));
+        }
+        assertThat(geometry.length()).isCloseTo(length, within(1e-6));
+        assertThat(geometry.remaining(length / 4)).isCloseTo(length * 0.75, within(1e-6));
+        assertThat(geometry.completionPercentage(length / 2)).isCloseTo(50.0, within(1e-9));
+    }
+
+    @Test
+    void hintedProjectionStaysOnTheTravelledLeg() {
+        // Out along a street and back along the same street 10 m to the side
+        List<GeoCoordinate> points = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            points.add(GeoCoordinate.of(ORIGIN_LAT, ORIGIN_LNG + i * 0.0001));
+        }
+        for (int i = 100; i >= 0; i--) {
+            points.add(GeoCoordinate.of(ORIGIN_LAT + 10.0 / 111_195.0, ORIGIN_LNG + i * 0.0001));
+        }
+        RouteGeometry geometry = RouteGeometry.of(points);
+        GeoCoordinate nearOutbound = GeoCoordinate.of(ORIGIN_LAT + 4.0 / 111_195.0, ORIGIN_LNG + 0.005);
+
+        double outbound = geometry.project(nearOutbound).measure();
+        double inbound = geometry.length() - outbound;
+        assertThat(geometry.project(nearOutbound, inbound, 200.0).measure()).isCloseTo(inbound, within(2.0));
+        assertThat(geometry.project(nearOutbound, outbound, 200.0).measure()).isCloseTo(outbound, within(1e-6));
+    }
+
+    // A random walk with 20-80 m steps that keeps turning, so runs of segments overlap in the tree
+    private List<GeoCoordinate> wander(int vertices) {
+        List<GeoCoordinate> points = new ArrayList<>(vertices);
+        double lat = ORIGIN_LAT;
+        double lng = ORIGIN_LNG;
+        double heading = 0.0;
+        for (int i = 0; i < vertices; i++) {
+            points.add(GeoCoordinate.of(lat, lng));
+            heading += (random.nextDouble() - 0.5) * Math.PI / 2;
+            double step = 20.0 + random.nextDouble() * 60.0;
+            lat += step * Math.cos(heading) / 111_195.0;
+            lng += step * Math.sin(heading) / (111_195.0 * Math.cos(Math.toRadians(ORIGIN_LAT)));
+        }
+        return points;
+    }
+
+    private static double haversine(GeoCoordinate from, GeoCoordinate to) {
+        double deltaLat = Math.toRadians(to.getLatitude() - from.getLatitude());
+        double deltaLng = Math.toRadians(to.getLongitude() - from.getLongitude());
+        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2)
+                + Math.cos(Math.toRadians(from.getLatitude())) * Math.cos(Math.toRadians(to.getLatitude()))
+                * Math.sin(deltaLng / 2) * Math.sin(deltaLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    // Every segment checked in the same local planar frame as the geometry
+    private static final class BruteForce {
+
+        private final List<GeoCoordinate> points;
+        private final double metersPerDegreeLat;
+        private final double metersPerDegreeLng;
+
+        BruteForce(List<GeoCoordinate> points) {
+            this.points = points;
+            double referenceLat = points.stream().mapToDouble(GeoCoordinate::getLatitude).average().orElseThrow();
+            this.metersPerDegreeLat = Math.toRadians(1.0) * EARTH_RADIUS_METERS;
+            this.metersPerDegreeLng = metersPerDegreeLat * Math.cos(Math.toRadians(referenceLat));
+        }
+
+        // {measure, offset} of the closest point on any segment
+        double[] project(GeoCoordinate point) {
+            double bestOffset = Double.MAX_VALUE;
+            double bestMeasure = 0.0;
+            double start = 0.0;
+            for (int segment = 0; segment < points.size() - 1; segment++) {
+                GeoCoordinate a = points.get(segment);
+                GeoCoordinate b = points.get(segment + 1);
+                double ax = a.getLongitude() * metersPerDegreeLng;
+                double ay = a.getLatitude() * metersPerDegreeLat;
+                double dx = b.getLongitude() * metersPerDegreeLng - ax;
+                double dy = b.getLatitude() * metersPerDegreeLat - ay;
+                double x = point.getLongitude() * metersPerDegreeLng;
+                double y = point.getLatitude() * metersPerDegreeLat;
+                double t = Math.max(0.0, Math.min(1.0, ((x - ax) * dx + (y - ay) * dy) / (dx * dx + dy * dy)));
+                double offset = Math.hypot(ax + t * dx - x, ay + t * dy - y);
+                double segmentLength = haversine(a, b);
+                if (offset < bestOffset) {
+                    bestOffset = offset;
+                    bestMeasure = start + t * segmentLength;
+                }
+                start += segmentLength;
+            }
+            return new double[]{bestMeasure, bestOffset};
+        }
+
+        double offset(GeoCoordinate point, GeoCoordinate other) {
+            return Math.hypot((point.getLongitude() - other.getLongitude()) * metersPerDegreeLng,
+                    (point.getLatitude() - other.getLatitude()) * metersPerDegreeLat);
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package tm.ugur.ugur_v3.infrastructure.messaging.outbox;
+
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.test.TestRabbitTemplate;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.infrastructure.messaging.config.MessagingConfig.OutboxProperties;
+import tm.ugur.ugur_v3.infrastructure.persistence.StubDatabaseClient;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayBrokerTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration CLAIM_TIMEOUT = Duration.ofSeconds(30);
+    private static final String BUS_1_KEY = "Vehicle.VehicleStatusChanged.bus-1";
+    private static final String BUS_2_KEY = "Vehicle.VehicleStatusChanged.bus-2";
+    private static final String BUS_9_KEY = "Vehicle.VehicleStatusChanged.bus-9";
+    // No queue is bound for this key, the broker stand-in rejects it like an unroutable mandatory publish
+    private static final String UNROUTABLE_KEY = "Vehicle.VehicleDecommissioned.bus-9";
+
+    private AnnotationConfigApplicationContext broker;
+    private OutboxTable outbox;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        broker = new AnnotationConfigApplicationContext(BrokerStandIn.class);
+
+        OutboxProperties props = new OutboxProperties();
+        props.setBatchSize(10);
+        props.setMaxPublishAttempts(MAX_ATTEMPTS);
+        props.setClaimTimeout(CLAIM_TIMEOUT);
+
+        outbox = new OutboxTable();
+        relay = new OutboxRelay(StubDatabaseClient.over(outbox),
+                new RabbitOutboxPublisher(broker.getBean(TestRabbitTemplate.class), props),
+                mock(PerformanceMonitor.class), props);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.close();
+    }
+
+    @Test
+    void publishesClaimedBatchOverOneConfirmRoundAndDeletesIt() throws Exception {
+        outbox.insert("event-1", BUS_1_KEY);
+        outbox.insert("event-2", BUS_2_KEY);
+
+        assertThat(relay.drainOutbox().block()).isEqualTo(2);
+
+        assertThat(deliveredMessageIds()).containsExactly("event-1", "event-2");
+        verify(broker.getBean(Channel.class), times(1)).waitForConfirmsOrDie(anyLong());
+        assertThat(outbox.rows).isEmpty();
+    }
+
+    @Test
+    void failingMessageIsParkedWithoutBlockingTheRest() {
+        outbox.insert("event-1", BUS_1_KEY);
+        long poisonId = outbox.insert("event-2", UNROUTABLE_KEY);
+        outbox.insert("event-3", BUS_2_KEY);
+
+        assertThat(relay.drainOutbox().block()).isEqualTo(2);
+
+        // The failed batch round may already have delivered event-1, consumers dedupe on the message id
+        assertThat(Set.copyOf(deliveredMessageIds())).containsExactlyInAnyOrder("event-1", "event-3");
+        assertThat(outbox.rows).containsOnlyKeys(poisonId);
+        assertThat(outbox.attempts(poisonId)).isEqualTo(1);
+
+        // The failed row keeps its claim until it lapses, so it is not retried in a tight loop
+        assertThat(relay.drainOutbox().block()).isZero();
+        assertThat(outbox.attempts(poisonId)).isEqualTo(1);
+
+        for (int attempt = 2; attempt <= MAX_ATTEMPTS; attempt++) {
+            outbox.advance(CLAIM_TIMEOUT.plusSeconds(1));
+            relay.drainOutbox().block();
+            assertThat(outbox.attempts(poisonId)).isEqualTo(attempt);
+        }
+        assertThat(outbox.rows.get(poisonId).get("parked_at")).isNotNull();
+        assertThat(relay.getRelayStats().parkedMessages()).isEqualTo(1);
+
+        outbox.advance(CLAIM_TIMEOUT.plusSeconds(1));
+        outbox.insert("event-4", BUS_1_KEY);
+        assertThat(relay.drainOutbox().block()).isEqualTo(1);
+        assertThat(outbox.attempts(poisonId)).isEqualTo(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void laterEventsOfAnAggregateWaitForItsFailedOne() {
+        long poisonId = outbox.insert("event-1", UNROUTABLE_KEY);
+        long laterId = outbox.insert("event-2", BUS_9_KEY);
+        outbox.insert("event-3", BUS_1_KEY);
+
+        assertThat(relay.drainOutbox().block()).isEqualTo(1);
+
+        // bus-9's later event is handed back unpublished and without an attempt
+        assertThat(deliveredMessageIds()).containsExactly("event-3");
+        assertThat(outbox.rows).containsOnlyKeys(poisonId, laterId);
+        assertThat(outbox.attempts(laterId)).isZero();
+        assertThat(outbox.rows.get(laterId).get("claimed_until")).isNull();
+
+        // While the failed row holds its claim, the later one is not claimed ahead of it
+        assertThat(relay.drainOutbox().block()).isZero();
+        assertThat(outbox.rows.get(laterId).get("claimed_until")).isNull();
+
+        for (int attempt = 2; attempt <= MAX_ATTEMPTS; attempt++) {
+            outbox.advance(CLAIM_TIMEOUT.plusSeconds(1));
+            assertThat(relay.drainOutbox().block()).isZero();
+            assertThat(outbox.attempts(poisonId)).isEqualTo(attempt);
+            assertThat(deliveredMessageIds()).doesNotContain("event-2");
+        }
+
+        // Parking the failed row lets the aggregate move on
+        assertThat(outbox.rows.get(poisonId).get("parked_at")).isNotNull();
+        assertThat(relay.drainOutbox().block()).isEqualTo(1);
+        assertThat(deliveredMessageIds()).containsExactly("event-3", "event-2");
+        assertThat(outbox.rows).containsOnlyKeys(poisonId);
+    }
+
+    @Test
+    void unreachableBrokerReleasesClaimsWithoutCountingAttempts() {
+        long first = outbox.insert("event-1", BUS_1_KEY);
+        long second = outbox.insert("event-2", BUS_2_KEY);
+        broker.getBean(BrokerStandIn.class).down.set(true);
+
+        assertThat(relay.drainOutbox().block()).isZero();
+
+        assertThat(deliveredMessageIds()).isEmpty();
+        assertThat(outbox.attempts(first)).isZero();
+        assertThat(outbox.attempts(second)).isZero();
+        assertThat(outbox.rows.get(first).get("claimed_until")).isNull();
+
+        broker.getBean(BrokerStandIn.class).down.set(false);
+        clearInvocations(broker.getBean(Channel.class));
+
+        assertThat(relay.drainOutbox().block()).isEqualTo(2);
+        assertThat(deliveredMessageIds()).containsExactly("event-1", "event-2");
+        assertThat(outbox.rows).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> deliveredMessageIds() {
+        return ((List<Message>) broker.getBean("delivered")).stream()
+                .map(message -> message.getMessageProperties().getMessageId())
+                .toList();
+    }
+
+    @Configuration
+    @EnableRabbit
+    static class BrokerStandIn {
+
+        final AtomicBoolean down = new AtomicBoolean(false);
+
+        @Bean
+        Channel channel() {
+            Channel channel = mock(Channel.class);
+            when(channel.isOpen()).thenReturn(true);
+            return channel;
+        }
+
+        @Bean
+        ConnectionFactory connectionFactory(Channel channel) {
+            Connection connection = mock(Connection.class);
+            when(connection.createChannel(anyBoolean())).thenReturn(channel);
+            when(connection.isOpen()).thenReturn(true);
+
+            ConnectionFactory factory = mock(ConnectionFactory.class);
+            when(factory.createConnection()).thenAnswer(invocation -> {
+                if (down.get()) {
+                    throw new AmqpConnectException(new ConnectException("Connection refused"));
+                }
+                return connection;
+            });
+            return factory;
+        }
+
+        @Bean
+        TestRabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+            return new TestRabbitTemplate(connectionFactory);
+        }
+
+        @Bean
+        List<Message> delivered() {
+            return new CopyOnWriteArrayList<>();
+        }
+
+        @Bean
+        SimpleMessageListenerContainer vehicleEventQueues(ConnectionFactory connectionFactory) {
+            SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+            container.setQueueNames(BUS_1_KEY, BUS_2_KEY, BUS_9_KEY);
+            container.setMessageListener(delivered()::add);
+            container.setAutoStartup(false);
+            return container;
+        }
+    }
+
+    // In-memory event_outbox answering the statements OutboxRelay issues
+    private static final class OutboxTable implements StubDatabaseClient.Tables {
+
+        private final Map<Long, Map<String, Object>> rows = new TreeMap<>();
+        private LocalDateTime now = LocalDateTime.of(2026, 10, 1, 12, 0);
+        private long nextId = 1;
+
+        long insert(String eventId, String routingKey) {
+            long id = nextId++;
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", id);
+            row.put("event_id", eventId);
+            row.put("aggregate_id", routingKey.substring(routingKey.lastIndexOf('.') + 1));
+            row.put("aggregate_type", "Vehicle");
+            row.put("event_type", routingKey.split("\\.")[1]);
+            row.put("routing_key", routingKey);
+            row.put("payload", "{\"eventId\":\"" + eventId + "\"}");
+            row.put("publish_attempts", 0);
+            row.put("created_at", now);
+            rows.put(id, row);
+            return id;
+        }
+
+        int attempts(long id) {
+            return (Integer) rows.get(id).get("publish_attempts");
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public List<Map<String, Object>> query(String statement, Map<Object, Object> binds) {
+            if (statement.startsWith("UPDATE event_outbox") && statement.contains("SET claimed_until = CURRENT_TIMESTAMP")) {
+                long claimMillis = Math.round((Double) binds.get("claimSeconds") * 1000);
+                // Rows are picked against the table as it was before the statement, then claimed
+                List<Map<String, Object>> picked = rows.values().stream()
+                        .filter(row -> row.get("parked_at") == null && !isClaimed(row) && !behindClaimedRow(row))
+                        .limit((Integer) binds.get("batchSize"))
+                        .toList();
+                List<Map<String, Object>> claimed = new ArrayList<>();
+                for (Map<String, Object> row : picked) {
+                    row.put("claimed_until", now.plus(Duration.ofMillis(claimMillis)));
+                    claimed.add(new HashMap<>(row));
+                }
+                return claimed;
+            }
+            if (statement.startsWith("UPDATE event_outbox") && statement.contains("publish_attempts = publish_attempts + 1")) {
+                Map<String, Object> row = rows.get((Long) binds.get("id"));
+                int attempts = (Integer) row.get("publish_attempts") + 1;
+                row.put("publish_attempts", attempts);
+                row.put("last_error", binds.get("error"));
+                row.put("parked_at", attempts >= (Integer) binds.get("maxAttempts") ? now : null);
+                return List.of(Map.of("publish_attempts", attempts));
+            }
+            if (statement.startsWith("SELECT COALESCE")) {
+                return List.of(Map.of("lag_ms", 0L));
+            }
+            throw new IllegalStateException("Unexpected query: " + statement);
+        }
+
+        private boolean isClaimed(Map<String, Object> row) {
+            LocalDateTime claimedUntil = (LocalDateTime) row.get("claimed_until");
+            return claimedUntil != null && !claimedUntil.isBefore(now);
+        }
+
+        // An earlier unparked row of the same aggregate that is still claimed
+        private boolean behindClaimedRow(Map<String, Object> row) {
+            return rows.values().stream().anyMatch(earlier -> (Long) earlier.get("id") < (Long) row.get("id")
+                    && earlier.get("aggregate_type").equals(row.get("aggregate_type"))
+                    && earlier.get("aggregate_id").equals(row.get("aggregate_id"))
+                    && earlier.get("parked_at") == null
+                    && isClaimed(earlier));
+        }
+
+        @Override
+        public long update(String statement, Map<Object, Object> binds) {
+            Long[] ids = (Long[]) binds.get("ids");
+            if (statement.startsWith("DELETE FROM event_outbox")) {
+                return List.of(ids).stream().filter(id -> rows.remove(id) != null).count();
+            }
+            if (statement.startsWith("UPDATE event_outbox SET claimed_until = NULL")) {
+                List.of(ids).forEach(id -> rows.get(id).put("claimed_until", null));
+                return ids.length;
+            }
+            throw new IllegalStateException("Unexpected statement: " + statement);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package tm.ugur.ugur_v3.infrastructure.persistence;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// DatabaseClient stand-in for tests without PostgreSQL: every statement is answered by in-memory tables,
+// which see the SQL text and its bind values (keyed by name or by index) once the result is subscribed
+public final class StubDatabaseClient {
+
+    public interface Tables {
+
+        List<Map<String, Object>> query(String sql, Map<Object, Object> binds);
+
+        long update(String sql, Map<Object, Object> binds);
+    }
+
+    private StubDatabaseClient() {
+    }
+
+    public static DatabaseClient over(Tables tables) {
+        DatabaseClient client = mock(DatabaseClient.class);
+        when(client.sql(anyString())).thenAnswer(invocation -> statement(tables, invocation.getArgument(0)));
+        return client;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DatabaseClient.GenericExecuteSpec statement(Tables tables, String sql) {
+        String statement = sql.strip();
+        Map<Object, Object> binds = new HashMap<>();
+        DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+
+        when(spec.bind(anyString(), any())).thenAnswer(invocation -> {
+            binds.put(invocation.getArgument(0), invocation.getArgument(1));
+            return spec;
+        });
+        when(spec.bind(anyInt(), any())).thenAnswer(invocation -> {
+            binds.put(invocation.getArgument(0), invocation.getArgument(1));
+            return spec;
+        });
+        when(spec.bindNull(anyString(), any())).thenAnswer(invocation -> {
+            binds.put(invocation.getArgument(0), null);
+            return spec;
+        });
+        when(spec.bindNull(anyInt(), any())).thenAnswer(invocation -> {
+            binds.put(invocation.getArgument(0), null);
+            return spec;
+        });
+        when(spec.map(any(BiFunction.class))).thenAnswer(invocation -> {
+            BiFunction<Row, RowMetadata, Object> mapper = invocation.getArgument(0);
+            Flux<Object> rows = Flux.defer(() -> Flux.fromIterable(tables.query(statement, binds)))
+                    .map(row -> mapper.apply(row(row), null));
+            RowsFetchSpec<Object> fetch = mock(RowsFetchSpec.class);
+            when(fetch.all()).thenReturn(rows);
+            when(fetch.one()).thenReturn(rows.singleOrEmpty());
+            return fetch;
+        });
+        when(spec.map(any(Function.class))).thenAnswer(invocation -> {
+            Function<Row, Object> mapper = invocation.getArgument(0);
+            Flux<Object> rows = Flux.defer(() -> Flux.fromIterable(tables.query(statement, binds)))
+                    .map(row -> mapper.apply(row(row)));
+            RowsFetchSpec<Object> fetch = mock(RowsFetchSpec.class);
+            when(fetch.all()).thenReturn(rows);
+            when(fetch.one()).thenReturn(rows.singleOrEmpty());
+            return fetch;
+        });
+        when(spec.fetch()).thenAnswer(invocation -> {
+            FetchSpec<Map<String, Object>> fetch = mock(FetchSpec.class);
+            when(fetch.rowsUpdated()).thenReturn(Mono.fromSupplier(() -> tables.update(statement, binds)));
+            return fetch;
+        });
+        return spec;
+    }
+
+    private static Row row(Map<String, Object> values) {
+        Row row = mock(Row.class);
+        when(row.get(anyString(), any(Class.class)))
+                .thenAnswer(invocation -> values.get(invocation.<String>getArgument(0)));
+        return row;
+    }
+}
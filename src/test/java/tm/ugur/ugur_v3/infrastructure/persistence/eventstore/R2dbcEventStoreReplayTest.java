@@ -0,0 +1,243 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.eventstore;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.shared.events.DomainEvent;
+import tm.ugur.ugur_v3.domain.shared.exceptions.ConcurrencyException;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
+import tm.ugur.ugur_v3.infrastructure.messaging.outbox.OutboxWriter;
+import tm.ugur.ugur_v3.infrastructure.persistence.StubDatabaseClient;
+import tm.ugur.ugur_v3.infrastructure.persistence.config.EventStoreConfig.EventStoreProperties;
+import tm.ugur.ugur_v3.infrastructure.persistence.eventstore.R2dbcEventStore.AggregateStream;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class R2dbcEventStoreReplayTest {
+
+    private static final String AGGREGATE_ID = "vehicle-1";
+    private static final int SNAPSHOT_FREQUENCY = 10;
+
+    private EventTables tables;
+    private R2dbcEventStore eventStore;
+    private AtomicInteger snapshotsBuilt;
+    private int total;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        tables = new EventTables();
+        snapshotsBuilt = new AtomicInteger();
+        total = 0;
+
+        TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PerformanceMonitor performanceMonitor = mock(PerformanceMonitor.class);
+        when(performanceMonitor.timeReactive(anyString(), any()))
+                .thenAnswer(invocation -> ((Supplier<Mono<?>>) invocation.getArgument(1)).get());
+
+        OutboxWriter outboxWriter = mock(OutboxWriter.class);
+        when(outboxWriter.enqueue(anyList(), anyList()))
+                .thenAnswer(invocation -> Mono.just((long) ((List<?>) invocation.getArgument(0)).size()));
+
+        EventStoreProperties props = new EventStoreProperties();
+        props.setSnapshotFrequency(SNAPSHOT_FREQUENCY);
+        props.setInsertBatchSize(3);
+
+        eventStore = new R2dbcEventStore(StubDatabaseClient.over(tables), transactionalOperator, new ObjectMapper(),
+                outboxWriter, performanceMonitor, props);
+    }
+
+    @Test
+    void replaysSnapshotPlusTailAfterCrossingSnapshotBoundary() {
+        for (int round = 0; round < 4; round++) {
+            eventStore.saveEvents(AGGREGATE_ID, events(4), null, this::snapshot);
+        }
+
+        // Versions 4, 8, 12, 16: only the append to 12 crosses the boundary at 10
+        assertThat(snapshotsBuilt).hasValue(1);
+        assertThat(eventStore.getCurrentVersion(AGGREGATE_ID)).isEqualTo(16L);
+
+        AggregateStream<CounterSnapshot> stream = eventStore.loadAggregate(AGGREGATE_ID, CounterSnapshot.class).block();
+
+        assertThat(stream).isNotNull();
+        assertThat(stream.hasSnapshot()).isTrue();
+        assertThat(stream.snapshot()).isEqualTo(new CounterSnapshot(AGGREGATE_ID, 12, 12));
+        assertThat(stream.snapshotVersion()).isEqualTo(12L);
+        assertThat(stream.tail()).extracting(DomainEvent::getVersion).containsExactly(13L, 14L, 15L, 16L);
+        assertThat(stream.currentVersion()).isEqualTo(16L);
+
+        // The tail read is bounded by the recorded_at of the snapshot event so older partitions are pruned
+        assertThat(tables.lastEventQuery())
+                .containsEntry("fromVersion", 13L)
+                .containsEntry("recordedSince", tables.recordedAt(12L));
+    }
+
+    @Test
+    void replaysWholeStreamWithoutSnapshot() {
+        eventStore.saveEvents(AGGREGATE_ID, events(7), null, this::snapshot);
+
+        assertThat(snapshotsBuilt).hasValue(0);
+
+        AggregateStream<CounterSnapshot> stream = eventStore.loadAggregate(AGGREGATE_ID, CounterSnapshot.class).block();
+
+        assertThat(stream).isNotNull();
+        assertThat(stream.hasSnapshot()).isFalse();
+        assertThat(stream.tail()).extracting(DomainEvent::getVersion).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(stream.tail()).extracting(DomainEvent::getEventType).containsOnly("CounterIncremented");
+        assertThat(stream.currentVersion()).isEqualTo(7L);
+    }
+
+    @Test
+    void snapshotIsReadableThroughTheContract() {
+        eventStore.saveEvents(AGGREGATE_ID, events(SNAPSHOT_FREQUENCY), null, this::snapshot);
+
+        assertThat(eventStore.getSnapshot(AGGREGATE_ID, CounterSnapshot.class))
+                .isEqualTo(new CounterSnapshot(AGGREGATE_ID, SNAPSHOT_FREQUENCY, SNAPSHOT_FREQUENCY));
+        assertThat(eventStore.getEventsForAggregateFromVersion(AGGREGATE_ID, 9L))
+                .extracting(DomainEvent::getVersion).containsExactly(9L, 10L);
+    }
+
+    @Test
+    void rejectsAppendAtStaleExpectedVersion() {
+        eventStore.saveEvents(AGGREGATE_ID, events(2), 0L);
+
+        assertThatThrownBy(() -> eventStore.saveEvents(AGGREGATE_ID, events(1), 0L))
+                .isInstanceOf(ConcurrencyException.class);
+        assertThat(eventStore.getCurrentVersion(AGGREGATE_ID)).isEqualTo(2L);
+    }
+
+    private CounterSnapshot snapshot() {
+        snapshotsBuilt.incrementAndGet();
+        return new CounterSnapshot(AGGREGATE_ID, total, total);
+    }
+
+    private List<DomainEvent> events(int count) {
+        List<DomainEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            total++;
+            events.add(new StoredDomainEvent(UUID.randomUUID().toString(), "CounterIncremented", AGGREGATE_ID,
+                    "Counter", null, null, Timestamp.now(), null, Map.of("total", total), null));
+        }
+        return events;
+    }
+
+    record CounterSnapshot(String aggregateId, long version, int total) {}
+
+    // In-memory event_streams, domain_events and aggregate_snapshots answering the statements R2dbcEventStore issues
+    private static final class EventTables implements StubDatabaseClient.Tables {
+
+        private final Map<String, Long> streams = new HashMap<>();
+        private final List<Map<String, Object>> events = new ArrayList<>();
+        private final Map<String, Map<String, Object>> snapshots = new HashMap<>();
+        private final List<Map<Object, Object>> eventQueries = new ArrayList<>();
+        private LocalDateTime clock = LocalDateTime.of(2026, 10, 1, 0, 0);
+
+        Map<Object, Object> lastEventQuery() {
+            return eventQueries.getLast();
+        }
+
+        LocalDateTime recordedAt(long version) {
+            return events.stream()
+                    .filter(row -> row.get("stream_version").equals(version))
+                    .map(row -> (LocalDateTime) row.get("recorded_at"))
+                    .findFirst()
+                    .orElseThrow();
+        }
+
+        @Override
+        public List<Map<String, Object>> query(String statement, Map<Object, Object> binds) {
+            String aggregateId = (String) binds.get("aggregateId");
+
+            if (statement.startsWith("SELECT event_id")) {
+                eventQueries.add(Map.copyOf(binds));
+                long from = (Long) binds.get("fromVersion");
+                long to = (Long) binds.get("toVersion");
+                LocalDateTime since = (LocalDateTime) binds.get("recordedSince");
+                return events.stream()
+                        .filter(row -> row.get("aggregate_id").equals(aggregateId))
+                        .filter(row -> (Long) row.get("stream_version") >= from && (Long) row.get("stream_version") <= to)
+                        .filter(row -> !((LocalDateTime) row.get("recorded_at")).isBefore(since))
+                        .toList();
+            }
+            if (statement.startsWith("SELECT snapshot_version")) {
+                Map<String, Object> snapshot = snapshots.get(aggregateId);
+                return snapshot != null ? List.of(snapshot) : List.of();
+            }
+            if (statement.startsWith("SELECT current_version")) {
+                Long version = streams.get(aggregateId);
+                return version != null ? List.of(Map.of("current_version", version)) : List.of();
+            }
+            if (statement.startsWith("INSERT INTO event_streams") && statement.contains("RETURNING")) {
+                long version = streams.merge(aggregateId, (Long) binds.get("eventCount"), Long::sum);
+                return List.of(Map.of("current_version", version));
+            }
+            throw new IllegalStateException("Unexpected query: " + statement);
+        }
+
+        @Override
+        public long update(String statement, Map<Object, Object> binds) {
+            String aggregateId = (String) binds.get("aggregateId");
+
+            if (statement.startsWith("INSERT INTO domain_events")) {
+                int rows = 0;
+                for (int p = 0; binds.containsKey(p); p += 9, rows++) {
+                    clock = clock.plusSeconds(1);
+                    Map<String, Object> row = new HashMap<>();
+                    row.put("event_id", binds.get(p));
+                    row.put("aggregate_id", binds.get(p + 1));
+                    row.put("aggregate_type", binds.get(p + 2));
+                    row.put("stream_version", binds.get(p + 3));
+                    row.put("event_type", binds.get(p + 4));
+                    row.put("correlation_id", binds.get(p + 5));
+                    row.put("payload", binds.get(p + 6));
+                    row.put("metadata", binds.get(p + 7));
+                    row.put("occurred_at", binds.get(p + 8));
+                    row.put("recorded_at", clock);
+                    events.add(row);
+                }
+                return rows;
+            }
+            if (statement.startsWith("INSERT INTO aggregate_snapshots")) {
+                long version = (Long) binds.get("version");
+                Map<String, Object> existing = snapshots.get(aggregateId);
+                if (existing != null && (Long) existing.get("snapshot_version") >= version) {
+                    return 0;
+                }
+                Map<String, Object> snapshot = new HashMap<>();
+                snapshot.put("snapshot_version", version);
+                snapshot.put("payload", binds.get("payload"));
+                snapshot.put("last_event_recorded_at", recordedAt(version));
+                snapshots.put(aggregateId, snapshot);
+                return 1;
+            }
+            if (statement.startsWith("INSERT INTO event_streams")) {
+                return streams.putIfAbsent(aggregateId, (Long) binds.get("newVersion")) == null ? 1 : 0;
+            }
+            if (statement.startsWith("UPDATE event_streams")) {
+                return streams.replace(aggregateId, (Long) binds.get("expectedVersion"), (Long) binds.get("newVersion"))
+                        ? 1 : 0;
+            }
+            throw new IllegalStateException("Unexpected statement: " + statement);
+        }
+    }
+}
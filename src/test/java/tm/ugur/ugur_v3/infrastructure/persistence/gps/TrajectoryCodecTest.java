@@ -0,0 +1,84 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.gps;
+
+import org.junit.jupiter.api.Test;
+import tm.ugur.ugur_v3.infrastructure.persistence.gps.GpsHistoryStore.GpsPointRecord;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class TrajectoryCodecTest {
+
+    // Half of each fixed-point step: coordinates 1e-6 degree, accuracy, speed and bearing 0.1
+    private static final double COORDINATE_STEP = 0.5e-6;
+    private static final double TENTH_STEP = 0.05;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void roundTripsATrackWithinTheQuantisationStep() {
+        List<GpsPointRecord> track = randomTrack(2_000);
+
+        List<GpsPointRecord> decoded = TrajectoryCodec.decode(TrajectoryCodec.encode(track), TrajectoryCodec.VERSION,
+                "V00000001", "session-1");
+
+        assertThat(decoded).hasSameSizeAs(track);
+        for (int i = 0; i < track.size(); i++) {
+            GpsPointRecord original = track.get(i);
+            GpsPointRecord point = decoded.get(i);
+            assertThat(point.vehicleId()).isEqualTo("V00000001");
+            assertThat(point.sessionId()).isEqualTo("session-1");
+            assertThat(point.recordedAt()).isEqualTo(original.recordedAt());
+            assertThat(point.latitude()).isCloseTo(original.latitude(), within(COORDINATE_STEP));
+            assertThat(point.longitude()).isCloseTo(original.longitude(), within(COORDINATE_STEP));
+            assertThat(point.accuracyMeters()).isCloseTo(original.accuracyMeters(), within(TENTH_STEP));
+            if (original.speedKmh() == null) {
+                assertThat(point.speedKmh()).isNull();
+            } else {
+                assertThat(point.speedKmh()).isCloseTo(original.speedKmh(), within(TENTH_STEP));
+            }
+            if (original.bearingDegrees() == null) {
+                assertThat(point.bearingDegrees()).isNull();
+            } else {
+                assertThat(point.bearingDegrees()).isCloseTo(original.bearingDegrees(), within(TENTH_STEP));
+            }
+        }
+    }
+
+    @Test
+    void roundTripsAnEmptyTrack() {
+        assertThat(TrajectoryCodec.decode(TrajectoryCodec.encode(List.of()), TrajectoryCodec.VERSION, null, "s"))
+                .isEmpty();
+    }
+
+    @Test
+    void rejectsAnUnknownVersion() {
+        byte[] encoded = TrajectoryCodec.encode(randomTrack(3));
+
+        assertThatThrownBy(() -> TrajectoryCodec.decode(encoded, TrajectoryCodec.VERSION + 1, null, "s"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Fixes every 1-30 s wandering in every direction, with the odd missing speed or bearing and a long gap
+    private List<GpsPointRecord> randomTrack(int size) {
+        List<GpsPointRecord> track = new ArrayList<>(size);
+        long time = 1_790_000_000_000L;
+        double latitude = 37.95;
+        double longitude = 58.38;
+        for (int i = 0; i < size; i++) {
+            time += i == size / 2 ? 3_600_000L : 1_000L + random.nextInt(29_000);
+            latitude += (random.nextDouble() - 0.5) * 0.002;
+            longitude += (random.nextDouble() - 0.5) * 0.002;
+            track.add(new GpsPointRecord("V00000001", "session-1", Instant.ofEpochMilli(time), latitude, longitude,
+                    random.nextDouble() * 30.0,
+                    random.nextInt(10) == 0 ? null : random.nextDouble() * 90.0,
+                    random.nextInt(10) == 0 ? null : random.nextDouble() * 360.0));
+        }
+        return track;
+    }
+}
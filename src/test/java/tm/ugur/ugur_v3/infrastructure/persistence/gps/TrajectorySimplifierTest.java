@@ -0,0 +1,121 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.gps;
+
+import org.junit.jupiter.api.Test;
+import tm.ugur.ugur_v3.infrastructure.persistence.gps.GpsHistoryStore.GpsPointRecord;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrajectorySimplifierTest {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+    private static final double ORIGIN_LAT = 37.95;
+    private static final double ORIGIN_LNG = 58.38;
+    private static final long START_MILLIS = 1_790_000_000_000L;
+    private static final double TOLERANCE_METERS = 5.0;
+    // The codec keeps coordinates to 1e-6 degree, about 0.11 m
+    private static final double QUANTISATION_METERS = 0.15;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void everyDroppedPointIsWithinToleranceAtItsOwnTime() {
+        List<GpsPointRecord> track = cityDrive(3_000);
+
+        List<GpsPointRecord> simplified = TrajectorySimplifier.simplify(track, TOLERANCE_METERS);
+
+        assertThat(simplified.size()).isLessThan(track.size() / 2);
+        assertThat(simplified.getFirst()).isSameAs(track.getFirst());
+        assertThat(simplified.getLast()).isSameAs(track.getLast());
+
+        // Kept points are a subsequence of the track; each dropped point lies in time between two of them
+        int kept = 0;
+        for (int i = 0; i < track.size(); i++) {
+            GpsPointRecord point = track.get(i);
+            if (point == simplified.get(kept)) {
+                kept++;
+                continue;
+            }
+            GpsPointRecord before = simplified.get(kept - 1);
+            GpsPointRecord after = simplified.get(kept);
+            assertThat(point.recordedAt()).isAfter(before.recordedAt()).isBefore(after.recordedAt());
+            assertThat(offsetAtOwnTime(before, after, point)).as("offset of point %d", i)
+                    .isLessThanOrEqualTo(TOLERANCE_METERS);
+        }
+        assertThat(kept).isEqualTo(simplified.size());
+    }
+
+    @Test
+    void keepsAStopOnAStraightRoad() {
+        // 10 m/s due east, standing from 235 s to 355 s: every fix lies on one line, but not at the pace of it
+        List<GpsPointRecord> track = new ArrayList<>();
+        double meters = 0.0;
+        for (int second = 0; second <= 600; second += 5) {
+            boolean stopped = second >= 240 && second < 360;
+            meters += second == 0 || stopped ? 0.0 : 50.0;
+            track.add(point(START_MILLIS + second * 1_000L, 0.0, meters));
+        }
+
+        List<GpsPointRecord> simplified = TrajectorySimplifier.simplify(track, TOLERANCE_METERS);
+
+        assertThat(simplified).extracting(point -> point.recordedAt().toEpochMilli() - START_MILLIS)
+                .contains(235_000L, 355_000L);
+        assertThat(simplified.size()).isLessThan(10);
+    }
+
+    @Test
+    void storedTrackStaysWithinToleranceAfterEncoding() {
+        List<GpsPointRecord> track = cityDrive(3_000);
+
+        List<GpsPointRecord> decoded = TrajectoryCodec.decode(
+                TrajectoryCodec.encode(TrajectorySimplifier.simplify(track, TOLERANCE_METERS)),
+                TrajectoryCodec.VERSION, "V00000001", "session-1");
+
+        assertThat(TrajectorySimplifier.maxSynchronizedError(track, decoded))
+                .isLessThanOrEqualTo(TOLERANCE_METERS + QUANTISATION_METERS);
+    }
+
+    // Fixes every 5 s: straight runs at changing speeds, turns at junctions, stops at lights, and GPS noise
+    private List<GpsPointRecord> cityDrive(int size) {
+        List<GpsPointRecord> track = new ArrayList<>(size);
+        double north = 0.0;
+        double east = 0.0;
+        double heading = 0.0;
+        double speed = 10.0;
+        for (int i = 0; i < size; i++) {
+            if (random.nextInt(40) == 0) {
+                heading += (random.nextBoolean() ? 1 : -1) * Math.PI / 2;
+            }
+            if (random.nextInt(10) == 0) {
+                speed = random.nextInt(4) == 0 ? 0.0 : 5.0 + random.nextDouble() * 10.0;
+            }
+            north += speed * 5.0 * Math.cos(heading);
+            east += speed * 5.0 * Math.sin(heading);
+            track.add(point(START_MILLIS + i * 5_000L, north + random.nextGaussian() * 1.5,
+                    east + random.nextGaussian() * 1.5));
+        }
+        return track;
+    }
+
+    private static GpsPointRecord point(long epochMillis, double northMeters, double eastMeters) {
+        double latitude = ORIGIN_LAT + northMeters / METERS_PER_DEGREE;
+        double longitude = ORIGIN_LNG + eastMeters / (METERS_PER_DEGREE * Math.cos(Math.toRadians(ORIGIN_LAT)));
+        return new GpsPointRecord("V00000001", "session-1", Instant.ofEpochMilli(epochMillis), latitude, longitude,
+                5.0, null, null);
+    }
+
+    // Distance from the point to where the straight, constant-speed path between the kept fixes puts it at its time
+    private static double offsetAtOwnTime(GpsPointRecord start, GpsPointRecord end, GpsPointRecord point) {
+        double ratio = (double) (point.recordedAt().toEpochMilli() - start.recordedAt().toEpochMilli())
+                / (end.recordedAt().toEpochMilli() - start.recordedAt().toEpochMilli());
+        double latitude = start.latitude() + (end.latitude() - start.latitude()) * ratio;
+        double longitude = start.longitude() + (end.longitude() - start.longitude()) * ratio;
+        double north = (point.latitude() - latitude) * METERS_PER_DEGREE;
+        double east = (point.longitude() - longitude) * METERS_PER_DEGREE * Math.cos(Math.toRadians(latitude));
+        return Math.hypot(north, east);
+    }
+}
@@ -0,0 +1,112 @@
+package tm.ugur.ugur_v3.infrastructure.persistence.repositories.jpa;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import tm.ugur.ugur_v3.application.shared.monitoring.PerformanceMonitor;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.GeoCoordinate;
+import tm.ugur.ugur_v3.domain.shared.valueobjects.Timestamp;
+import tm.ugur.ugur_v3.domain.vehicleManagement.aggregate.Vehicle;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleStatus;
+import tm.ugur.ugur_v3.domain.vehicleManagement.enums.VehicleType;
+import tm.ugur.ugur_v3.domain.vehicleManagement.repository.VehicleRepository.VersionedSaveResult;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Bearing;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Capacity;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.LicensePlate;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.Speed;
+import tm.ugur.ugur_v3.domain.vehicleManagement.valueobjects.VehicleId;
+import tm.ugur.ugur_v3.infrastructure.persistence.StubDatabaseClient;
+import tm.ugur.ugur_v3.infrastructure.persistence.eventstore.R2dbcEventStore;
+import tm.ugur.ugur_v3.infrastructure.persistence.rollup.TrackingRollupStore;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class R2dbcVehicleRepositoryVersionedSaveTest {
+
+    private R2dbcEventStore eventStore;
+    private R2dbcVehicleRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Every versioned UPDATE matches: one vehicle per statement, its id is the first bind value
+        StubDatabaseClient.Tables tables = new StubDatabaseClient.Tables() {
+            @Override
+            public List<Map<String, Object>> query(String sql, Map<Object, Object> binds) {
+                return sql.startsWith("UPDATE vehicles") ? List.of(Map.of("id", binds.get(0))) : List.of();
+            }
+
+            @Override
+            public long update(String sql, Map<Object, Object> binds) {
+                return 0;
+            }
+        };
+        DatabaseClient databaseClient = StubDatabaseClient.over(tables);
+        R2dbcEntityTemplate entityTemplate = mock(R2dbcEntityTemplate.class);
+        when(entityTemplate.getDatabaseClient()).thenReturn(databaseClient);
+
+        TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        PerformanceMonitor performanceMonitor = mock(PerformanceMonitor.class);
+        when(performanceMonitor.timeReactive(anyString(), any()))
+                .thenAnswer(invocation -> ((Supplier<Mono<?>>) invocation.getArgument(1)).get());
+
+        eventStore = mock(R2dbcEventStore.class);
+        when(eventStore.appendEvents(anyString(), anyList(), any(), any())).thenReturn(Mono.just(1L));
+
+        repository = new R2dbcVehicleRepository(entityTemplate, performanceMonitor, mock(TrackingRollupStore.class),
+                100, eventStore, transactionalOperator);
+    }
+
+    @Test
+    void commitMarksOnlyWrittenVehiclesPersisted() {
+        Vehicle moved = loaded(1);
+        moved.updateLocation(GeoCoordinate.of(37.95, 58.38, 5.0), Speed.ofKmh(30.0), Bearing.ofDegrees(90.0));
+        Vehicle untouched = loaded(2);
+
+        VersionedSaveResult result = repository.saveVersioned(List.of(moved, untouched)).block();
+
+        assertThat(result).isNotNull();
+        assertThat(result.saved()).containsExactly(moved);
+        assertThat(result.unchanged()).containsExactly(untouched);
+        assertThat(result.conflicts()).isEmpty();
+        assertThat(moved.getPersistedVersion()).isEqualTo(moved.getVersion()).isEqualTo(2L);
+        assertThat(moved.hasUnsavedChanges()).isFalse();
+    }
+
+    @Test
+    void rolledBackEventAppendLeavesThePersistedVersion() {
+        when(eventStore.appendEvents(anyString(), anyList(), any(), any()))
+                .thenReturn(Mono.error(new IllegalStateException("outbox insert failed")));
+        Vehicle moved = loaded(1);
+        moved.updateLocation(GeoCoordinate.of(37.95, 58.38, 5.0), Speed.ofKmh(30.0), Bearing.ofDegrees(90.0));
+
+        assertThatThrownBy(() -> repository.saveVersioned(List.of(moved)).block())
+                .hasMessageContaining("outbox insert failed");
+
+        // The retry still expects the version the row holds
+        assertThat(moved.getPersistedVersion()).isEqualTo(1L);
+        assertThat(moved.hasUnsavedChanges()).isTrue();
+    }
+
+    private static Vehicle loaded(int number) {
+        return new Vehicle(VehicleId.of("V%08d".formatted(number)), 1L, Timestamp.now(), Timestamp.now(),
+                LicensePlate.of("100%d AGH".formatted(number)), VehicleType.BUS, Capacity.fromTotal(50), "Bus",
+                VehicleStatus.ACTIVE, null, null, null, Speed.zero(), Bearing.north(), Timestamp.now(), 0L,
+                null, null);
+    }
+}